@@ -29,6 +29,7 @@ import io.prestosql.spi.block.LazyBlockLoader;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorTableHandle;
+import io.prestosql.spi.predicate.TupleDomain;
 import org.apache.carbondata.common.CarbonIterator;
 import org.apache.carbondata.common.logging.LogServiceFactory;
 import org.apache.carbondata.core.constants.CarbonCommonConstants;
@@ -83,6 +84,7 @@ public class CarbondataPageSource
             LogServiceFactory.getLogService(CarbondataPageSource.class.getName());
     private final HdfsEnvironment hdfsEnvironment;
     private final String user;
+    private final TupleDomain<HiveColumnHandle> dynamicFilterPredicate;
     ConnectorTableHandle tableHandle;
     private HiveSplit split;
     private CarbonTable carbonTable;
@@ -114,7 +116,7 @@ public class CarbondataPageSource
     CarbondataPageSource(CarbonTable carbonTable, String queryId, HiveSplit split,
                          List<ColumnHandle> columnHandles, ConnectorTableHandle tableHandle, Configuration hadoopConf,
                          boolean isDirectVectorFill, boolean isFullAcidTable,
-                         String user, HdfsEnvironment hdfsEnvironment)
+                         String user, HdfsEnvironment hdfsEnvironment, TupleDomain<HiveColumnHandle> dynamicFilterPredicate)
     {
         this.carbonTable = carbonTable;
         this.queryId = queryId;
@@ -127,6 +129,7 @@ public class CarbondataPageSource
         hasAcidFields = false;
         this.user = user;
         this.hdfsEnvironment = hdfsEnvironment;
+        this.dynamicFilterPredicate = dynamicFilterPredicate;
         initialize();
     }
 
@@ -432,7 +435,7 @@ public class CarbondataPageSource
                     carbonTable,
                     new IndexFilter(
                             carbonTable,
-                            CarbondataHetuFilterUtil.parseFilterExpression(hiveTable.getCompactEffectivePredicate())),
+                            CarbondataHetuFilterUtil.parseFilterExpression(getFilterPredicate(hiveTable))),
                     carbonProjection);
             TaskAttemptContextImpl hadoopAttemptContext =
                     new TaskAttemptContextImpl(jobConf, new TaskAttemptID("", 1, TaskType.MAP, 0, 0));
@@ -455,6 +458,19 @@ public class CarbondataPageSource
         }
     }
 
+    /**
+     * Predicate of the table together with the dynamic filters, used by carbondata to prune blocklets by their min/max
+     */
+    private TupleDomain<HiveColumnHandle> getFilterPredicate(HiveTableHandle hiveTable)
+    {
+        TupleDomain<HiveColumnHandle> predicate = hiveTable.getCompactEffectivePredicate().intersect(dynamicFilterPredicate);
+        if (predicate.isNone()) {
+            // a none predicate is not converted to a carbondata filter, keep the filter of the table
+            return hiveTable.getCompactEffectivePredicate();
+        }
+        return predicate;
+    }
+
     /**
      * @param conf
      * @param carbonTable
@@ -18,6 +18,7 @@ import com.google.inject.Inject;
 import io.hetu.core.plugin.carbondata.impl.CarbondataTableCacheModel;
 import io.hetu.core.plugin.carbondata.impl.CarbondataTableReader;
 import io.prestosql.plugin.hive.HdfsEnvironment;
+import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HiveConfig;
 import io.prestosql.plugin.hive.HivePageSourceFactory;
 import io.prestosql.plugin.hive.HivePageSourceProvider;
@@ -32,7 +33,10 @@ import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.dynamicfilter.DynamicFilter;
 import io.prestosql.spi.dynamicfilter.DynamicFilterSupplier;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeManager;
 import org.apache.carbondata.core.constants.CarbonCommonConstants;
 import org.apache.carbondata.core.metadata.schema.table.CarbonTable;
@@ -42,6 +46,7 @@ import org.apache.hadoop.fs.Path;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -58,6 +63,7 @@ public class CarbondataPageSourceProvider
     private CarbondataTableReader carbonTableReader;
     private String queryId;
     private HdfsEnvironment hdfsEnvironment;
+    private final TypeManager typeManager;
 
     @Inject
     public CarbondataPageSourceProvider(
@@ -71,19 +77,28 @@ public class CarbondataPageSourceProvider
         super(hiveConfig, hdfsEnvironment, cursorProviders, pageSourceFactories, typeManager, null, null);
         this.carbonTableReader = requireNonNull(carbonTableReader, "carbonTableReader is null");
         this.hdfsEnvironment = hdfsEnvironment;
+        this.typeManager = requireNonNull(typeManager, "typeManager is null");
     }
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorTransactionHandle transactionHandle,
             ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table,
             List<ColumnHandle> columns)
+    {
+        return createPageSource(transactionHandle, session, split, table, columns, Optional.empty());
+    }
+
+    @Override
+    public ConnectorPageSource createPageSource(ConnectorTransactionHandle transactionHandle,
+            ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table,
+            List<ColumnHandle> columns, Optional<DynamicFilterSupplier> supplier)
     {
         HiveSplit carbonSplit =
                 Types.checkType(((HiveSplitWrapper) (split)).getSplits().get(0), HiveSplit.class, "split is not class HiveSplit");
         this.queryId = carbonSplit.getSchema().getProperty("queryId");
         if (this.queryId == null) {
             // Fall back to hive pagesource.
-            return super.createPageSource(transactionHandle, session, split, table, columns);
+            return super.createPageSource(transactionHandle, session, split, table, columns, supplier);
         }
 
         try {
@@ -109,17 +124,40 @@ public class CarbondataPageSourceProvider
             return new CarbondataPageSource(
                     carbonTable, queryId, carbonSplit, columns, table, configuration,
                     isDirectVectorFill, isFullACID,
-                    session.getUser(), hdfsEnvironment);
+                    session.getUser(), hdfsEnvironment, getDynamicFilterPredicate(supplier, columns));
         });
     }
 
-    @Override
-    public ConnectorPageSource createPageSource(ConnectorTransactionHandle transactionHandle,
-            ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table,
-            List<ColumnHandle> columns, Optional<DynamicFilterSupplier> supplier)
+    /**
+     * Dynamic filters already collected when the split is opened are added to the filter given to carbondata,
+     * so that blocklets whose min/max do not overlap the join keys are not read at all.
+     * The page source does not wait for dynamic filters which are not available yet.
+     */
+    private TupleDomain<HiveColumnHandle> getDynamicFilterPredicate(Optional<DynamicFilterSupplier> supplier, List<ColumnHandle> columns)
     {
-        // dynamicFilterSupplier is not supporting carbondata
-        return createPageSource(transactionHandle, session, split, table, columns);
+        if (!supplier.isPresent()) {
+            return TupleDomain.all();
+        }
+        List<Map<ColumnHandle, DynamicFilter>> dynamicFilters = supplier.get().getDynamicFilters();
+        // filters of different join branches are alternatives and cannot be intersected
+        if (dynamicFilters == null || dynamicFilters.size() != 1) {
+            return TupleDomain.all();
+        }
+
+        TupleDomain<HiveColumnHandle> predicate = TupleDomain.all();
+        for (ColumnHandle column : columns) {
+            DynamicFilter dynamicFilter = dynamicFilters.get(0).get(column);
+            if (dynamicFilter == null) {
+                continue;
+            }
+            HiveColumnHandle hiveColumnHandle = (HiveColumnHandle) column;
+            Type type = hiveColumnHandle.getColumnMetadata(typeManager).getType();
+            if (!type.isOrderable()) {
+                continue;
+            }
+            predicate = predicate.intersect(getPredicate(dynamicFilter, type, hiveColumnHandle));
+        }
+        return predicate.isNone() ? TupleDomain.all() : predicate;
     }
 
     /**
@@ -305,8 +305,12 @@ class ColumnarVectorWrapperDirect
     @Override
     public void putFloats(int rowId, int count, float[] src, int srcIndex)
     {
+        if (!hasNulls(rowId, count)) {
+            columnVector.putFloats(rowId, count, src, srcIndex);
+            return;
+        }
         int inputRowId = rowId;
-        for (int i = 0; i < count; i++) {
+        for (int i = srcIndex; i < srcIndex + count; i++) {
             if (nullBitSet.get(inputRowId)) {
                 columnVector.putNull(inputRowId);
             }
@@ -320,8 +324,12 @@ class ColumnarVectorWrapperDirect
     @Override
     public void putShorts(int rowId, int count, short[] src, int srcIndex)
     {
+        if (!hasNulls(rowId, count)) {
+            columnVector.putShorts(rowId, count, src, srcIndex);
+            return;
+        }
         int inputRowId = rowId;
-        for (int i = 0; i < count; i++) {
+        for (int i = srcIndex; i < srcIndex + count; i++) {
             if (nullBitSet.get(inputRowId)) {
                 columnVector.putNull(inputRowId);
             }
@@ -335,8 +343,12 @@ class ColumnarVectorWrapperDirect
     @Override
     public void putInts(int rowId, int count, int[] src, int srcIndex)
     {
+        if (!hasNulls(rowId, count)) {
+            columnVector.putInts(rowId, count, src, srcIndex);
+            return;
+        }
         int inputRowId = rowId;
-        for (int i = 0; i < count; i++) {
+        for (int i = srcIndex; i < srcIndex + count; i++) {
             if (nullBitSet.get(inputRowId)) {
                 columnVector.putNull(inputRowId);
             }
@@ -350,8 +362,12 @@ class ColumnarVectorWrapperDirect
     @Override
     public void putLongs(int rowId, int count, long[] src, int srcIndex)
     {
+        if (!hasNulls(rowId, count)) {
+            columnVector.putLongs(rowId, count, src, srcIndex);
+            return;
+        }
         int inputRowId = rowId;
-        for (int i = 0; i < count; i++) {
+        for (int i = srcIndex; i < srcIndex + count; i++) {
             if (nullBitSet.get(inputRowId)) {
                 columnVector.putNull(inputRowId);
             }
@@ -365,8 +381,12 @@ class ColumnarVectorWrapperDirect
     @Override
     public void putDoubles(int rowId, int count, double[] src, int srcIndex)
     {
+        if (!hasNulls(rowId, count)) {
+            columnVector.putDoubles(rowId, count, src, srcIndex);
+            return;
+        }
         int inputRowId = rowId;
-        for (int i = 0; i < count; i++) {
+        for (int i = srcIndex; i < srcIndex + count; i++) {
             if (nullBitSet.get(inputRowId)) {
                 columnVector.putNull(inputRowId);
             }
@@ -380,8 +400,12 @@ class ColumnarVectorWrapperDirect
     @Override
     public void putBytes(int rowId, int count, byte[] src, int srcIndex)
     {
+        if (!hasNulls(rowId, count)) {
+            columnVector.putBytes(rowId, count, src, srcIndex);
+            return;
+        }
         int inputRowId = rowId;
-        for (int i = 0; i < count; i++) {
+        for (int i = srcIndex; i < srcIndex + count; i++) {
             if (nullBitSet.get(inputRowId)) {
                 columnVector.putNull(inputRowId);
             }
@@ -409,4 +433,10 @@ class ColumnarVectorWrapperDirect
     {
         columnVector.putAllByteArray(data, offset, length);
     }
+
+    private boolean hasNulls(int rowId, int count)
+    {
+        int nextNull = nullBitSet.nextSetBit(rowId);
+        return nextNull >= 0 && nextNull < rowId + count;
+    }
 }
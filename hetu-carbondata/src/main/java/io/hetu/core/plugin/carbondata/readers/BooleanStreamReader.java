@@ -14,33 +14,36 @@
 package io.hetu.core.plugin.carbondata.readers;
 
 import io.prestosql.spi.block.Block;
-import io.prestosql.spi.block.BlockBuilder;
-import io.prestosql.spi.type.BooleanType;
-import io.prestosql.spi.type.Type;
+import io.prestosql.spi.block.ByteArrayBlock;
 import org.apache.carbondata.core.metadata.datatype.DataType;
 import org.apache.carbondata.core.scan.result.vector.impl.CarbonColumnVectorImpl;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 public class BooleanStreamReader
         extends CarbonColumnVectorImpl
         implements HetuCoreVectorBlockBuilder
 {
     protected int batchSize;
 
-    protected Type type = BooleanType.BOOLEAN;
-
-    protected BlockBuilder builder;
+    // values are written directly into the arrays backing the block
+    private byte[] values;
+    private boolean[] valueIsNull;
+    private boolean hasNulls;
+    private int positionCount;
 
     public BooleanStreamReader(int batchSize, DataType dataType)
     {
         super(batchSize, dataType);
         this.batchSize = batchSize;
-        this.builder = type.createBlockBuilder(null, batchSize);
+        allocate();
     }
 
     @Override
     public Block buildBlock()
     {
-        return builder.build();
+        return new ByteArrayBlock(positionCount, hasNulls ? Optional.of(valueIsNull) : Optional.empty(), values);
     }
 
     @Override
@@ -52,42 +55,48 @@ public class BooleanStreamReader
     @Override
     public void putByte(int rowId, byte value)
     {
-        type.writeBoolean(builder, value == 1);
+        ensureCapacity(positionCount + 1);
+        values[positionCount++] = (byte) (value == 1 ? 1 : 0);
     }
 
     @Override
     public void putBytes(int rowId, int count, byte[] src, int srcIndex)
     {
-        int srcIdx = srcIndex;
-        for (int i = 0; i < count; i++) {
-            type.writeBoolean(builder, src[srcIdx++] == 1);
+        ensureCapacity(positionCount + count);
+        for (int i = srcIndex; i < srcIndex + count; i++) {
+            values[positionCount++] = (byte) (src[i] == 1 ? 1 : 0);
         }
     }
 
     @Override
     public void putBoolean(int rowId, boolean value)
     {
-        type.writeBoolean(builder, value);
+        ensureCapacity(positionCount + 1);
+        values[positionCount++] = (byte) (value ? 1 : 0);
     }
 
     @Override
     public void putNull(int rowId)
     {
-        builder.appendNull();
+        ensureCapacity(positionCount + 1);
+        valueIsNull[positionCount++] = true;
+        hasNulls = true;
     }
 
     @Override
     public void putNulls(int rowId, int count)
     {
-        for (int i = 0; i < count; i++) {
-            builder.appendNull();
-        }
+        ensureCapacity(positionCount + count);
+        Arrays.fill(valueIsNull, positionCount, positionCount + count, true);
+        positionCount += count;
+        hasNulls |= count > 0;
     }
 
     @Override
     public void reset()
     {
-        builder = type.createBlockBuilder(null, batchSize);
+        // the arrays of the previous batch are owned by its block
+        allocate();
     }
 
     @Override
@@ -100,4 +109,21 @@ public class BooleanStreamReader
             putBoolean(rowId, (boolean) value);
         }
     }
+
+    private void allocate()
+    {
+        values = new byte[batchSize];
+        valueIsNull = new boolean[batchSize];
+        hasNulls = false;
+        positionCount = 0;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (values.length < capacity) {
+            int newSize = Math.max(capacity, values.length * 2);
+            values = Arrays.copyOf(values, newSize);
+            valueIsNull = Arrays.copyOf(valueIsNull, newSize);
+        }
+    }
 }
@@ -14,12 +14,13 @@
 package io.hetu.core.plugin.carbondata.readers;
 
 import io.prestosql.spi.block.Block;
-import io.prestosql.spi.block.BlockBuilder;
-import io.prestosql.spi.type.AbstractType;
-import io.prestosql.spi.type.TinyintType;
+import io.prestosql.spi.block.ByteArrayBlock;
 import org.apache.carbondata.core.metadata.datatype.DataType;
 import org.apache.carbondata.core.scan.result.vector.impl.CarbonColumnVectorImpl;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 /**
  * Class for Reading the Byte(tiny int) value and setting it in Block
  */
@@ -29,21 +30,23 @@ public class ByteStreamReader
 {
     protected int batchSize;
 
-    protected AbstractType type = TinyintType.TINYINT;
-
-    protected BlockBuilder builder;
+    // values are written directly into the arrays backing the block
+    private byte[] values;
+    private boolean[] valueIsNull;
+    private boolean hasNulls;
+    private int positionCount;
 
     public ByteStreamReader(int batchSize, DataType dataType)
     {
         super(batchSize, dataType);
         this.batchSize = batchSize;
-        this.builder = type.createBlockBuilder(null, batchSize);
+        allocate();
     }
 
     @Override
     public Block buildBlock()
     {
-        return builder.build();
+        return new ByteArrayBlock(positionCount, hasNulls ? Optional.of(valueIsNull) : Optional.empty(), values);
     }
 
     @Override
@@ -55,35 +58,40 @@ public class ByteStreamReader
     @Override
     public void putByte(int rowId, byte value)
     {
-        type.writeLong(builder, value);
+        ensureCapacity(positionCount + 1);
+        values[positionCount++] = value;
     }
 
     @Override
     public void putBytes(int rowId, int count, byte[] src, int srcIndex)
     {
-        for (int i = srcIndex; i < count; i++) {
-            type.writeLong(builder, src[i]);
-        }
+        ensureCapacity(positionCount + count);
+        System.arraycopy(src, srcIndex, values, positionCount, count);
+        positionCount += count;
     }
 
     @Override
     public void putNull(int rowId)
     {
-        builder.appendNull();
+        ensureCapacity(positionCount + 1);
+        valueIsNull[positionCount++] = true;
+        hasNulls = true;
     }
 
     @Override
     public void putNulls(int rowId, int count)
     {
-        for (int i = 0; i < count; i++) {
-            builder.appendNull();
-        }
+        ensureCapacity(positionCount + count);
+        Arrays.fill(valueIsNull, positionCount, positionCount + count, true);
+        positionCount += count;
+        hasNulls |= count > 0;
     }
 
     @Override
     public void reset()
     {
-        builder = type.createBlockBuilder(null, batchSize);
+        // the arrays of the previous batch are owned by its block
+        allocate();
     }
 
     @Override
@@ -96,4 +104,21 @@ public class ByteStreamReader
             putByte(rowId, (byte) value);
         }
     }
+
+    private void allocate()
+    {
+        values = new byte[batchSize];
+        valueIsNull = new boolean[batchSize];
+        hasNulls = false;
+        positionCount = 0;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (values.length < capacity) {
+            int newSize = Math.max(capacity, values.length * 2);
+            values = Arrays.copyOf(values, newSize);
+            valueIsNull = Arrays.copyOf(valueIsNull, newSize);
+        }
+    }
 }
@@ -14,12 +14,13 @@
 package io.hetu.core.plugin.carbondata.readers;
 
 import io.prestosql.spi.block.Block;
-import io.prestosql.spi.block.BlockBuilder;
-import io.prestosql.spi.type.DoubleType;
-import io.prestosql.spi.type.Type;
+import io.prestosql.spi.block.LongArrayBlock;
 import org.apache.carbondata.core.metadata.datatype.DataType;
 import org.apache.carbondata.core.scan.result.vector.impl.CarbonColumnVectorImpl;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 /**
  * Class for Reading the Double value and setting it in Block
  */
@@ -29,21 +30,23 @@ public class DoubleStreamReader
 {
     protected int batchSize;
 
-    protected Type type = DoubleType.DOUBLE;
-
-    protected BlockBuilder builder;
+    // values are written directly into the arrays backing the block
+    private long[] values;
+    private boolean[] valueIsNull;
+    private boolean hasNulls;
+    private int positionCount;
 
     public DoubleStreamReader(int batchSize, DataType dataType)
     {
         super(batchSize, dataType);
         this.batchSize = batchSize;
-        this.builder = type.createBlockBuilder(null, batchSize);
+        allocate();
     }
 
     @Override
     public Block buildBlock()
     {
-        return builder.build();
+        return new LongArrayBlock(positionCount, hasNulls ? Optional.of(valueIsNull) : Optional.empty(), values);
     }
 
     @Override
@@ -55,35 +58,49 @@ public class DoubleStreamReader
     @Override
     public void putDouble(int rowId, double value)
     {
-        type.writeDouble(builder, value);
+        ensureCapacity(positionCount + 1);
+        values[positionCount++] = Double.doubleToLongBits(value);
     }
 
     @Override
     public void putDoubles(int rowId, int count, double value)
     {
-        for (int i = 0; i < count; i++) {
-            type.writeDouble(builder, value);
+        ensureCapacity(positionCount + count);
+        Arrays.fill(values, positionCount, positionCount + count, Double.doubleToLongBits(value));
+        positionCount += count;
+    }
+
+    @Override
+    public void putDoubles(int rowId, int count, double[] src, int srcIndex)
+    {
+        ensureCapacity(positionCount + count);
+        for (int i = srcIndex; i < srcIndex + count; i++) {
+            values[positionCount++] = Double.doubleToLongBits(src[i]);
         }
     }
 
     @Override
     public void putNull(int rowId)
     {
-        builder.appendNull();
+        ensureCapacity(positionCount + 1);
+        valueIsNull[positionCount++] = true;
+        hasNulls = true;
     }
 
     @Override
     public void putNulls(int rowId, int count)
     {
-        for (int i = 0; i < count; i++) {
-            builder.appendNull();
-        }
+        ensureCapacity(positionCount + count);
+        Arrays.fill(valueIsNull, positionCount, positionCount + count, true);
+        positionCount += count;
+        hasNulls |= count > 0;
     }
 
     @Override
     public void reset()
     {
-        builder = type.createBlockBuilder(null, batchSize);
+        // the arrays of the previous batch are owned by its block
+        allocate();
     }
 
     @Override
@@ -96,4 +113,21 @@ public class DoubleStreamReader
             putDouble(rowId, (double) value);
         }
     }
+
+    private void allocate()
+    {
+        values = new long[batchSize];
+        valueIsNull = new boolean[batchSize];
+        hasNulls = false;
+        positionCount = 0;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (values.length < capacity) {
+            int newSize = Math.max(capacity, values.length * 2);
+            values = Arrays.copyOf(values, newSize);
+            valueIsNull = Arrays.copyOf(valueIsNull, newSize);
+        }
+    }
 }
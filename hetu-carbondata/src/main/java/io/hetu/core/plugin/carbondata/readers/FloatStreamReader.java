@@ -14,12 +14,13 @@
 package io.hetu.core.plugin.carbondata.readers;
 
 import io.prestosql.spi.block.Block;
-import io.prestosql.spi.block.BlockBuilder;
-import io.prestosql.spi.type.AbstractType;
-import io.prestosql.spi.type.RealType;
+import io.prestosql.spi.block.IntArrayBlock;
 import org.apache.carbondata.core.metadata.datatype.DataType;
 import org.apache.carbondata.core.scan.result.vector.impl.CarbonColumnVectorImpl;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 /**
  * Class for Reading the Float(real) value and setting it in Block
  */
@@ -29,21 +30,23 @@ public class FloatStreamReader
 {
     protected int batchSize;
 
-    protected AbstractType type = RealType.REAL;
-
-    protected BlockBuilder builder;
+    // values are written directly into the arrays backing the block
+    private int[] values;
+    private boolean[] valueIsNull;
+    private boolean hasNulls;
+    private int positionCount;
 
     public FloatStreamReader(int batchSize, DataType dataType)
     {
         super(batchSize, dataType);
         this.batchSize = batchSize;
-        this.builder = type.createBlockBuilder(null, batchSize);
+        allocate();
     }
 
     @Override
     public Block buildBlock()
     {
-        return builder.build();
+        return new IntArrayBlock(positionCount, hasNulls ? Optional.of(valueIsNull) : Optional.empty(), values);
     }
 
     @Override
@@ -55,35 +58,41 @@ public class FloatStreamReader
     @Override
     public void putFloat(int rowId, float value)
     {
-        type.writeLong(builder, (long) Float.floatToRawIntBits(value));
+        ensureCapacity(positionCount + 1);
+        values[positionCount++] = Float.floatToRawIntBits(value);
     }
 
     @Override
     public void putFloats(int rowId, int count, float[] src, int srcIndex)
     {
-        for (int i = srcIndex; i < count; i++) {
-            type.writeLong(builder, (long) Float.floatToRawIntBits(src[i]));
+        ensureCapacity(positionCount + count);
+        for (int i = srcIndex; i < srcIndex + count; i++) {
+            values[positionCount++] = Float.floatToRawIntBits(src[i]);
         }
     }
 
     @Override
     public void putNull(int rowId)
     {
-        builder.appendNull();
+        ensureCapacity(positionCount + 1);
+        valueIsNull[positionCount++] = true;
+        hasNulls = true;
     }
 
     @Override
     public void putNulls(int rowId, int count)
     {
-        for (int i = 0; i < count; i++) {
-            builder.appendNull();
-        }
+        ensureCapacity(positionCount + count);
+        Arrays.fill(valueIsNull, positionCount, positionCount + count, true);
+        positionCount += count;
+        hasNulls |= count > 0;
     }
 
     @Override
     public void reset()
     {
-        builder = type.createBlockBuilder(null, batchSize);
+        // the arrays of the previous batch are owned by its block
+        allocate();
     }
 
     @Override
@@ -96,4 +105,21 @@ public class FloatStreamReader
             putFloat(rowId, (float) value);
         }
     }
+
+    private void allocate()
+    {
+        values = new int[batchSize];
+        valueIsNull = new boolean[batchSize];
+        hasNulls = false;
+        positionCount = 0;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (values.length < capacity) {
+            int newSize = Math.max(capacity, values.length * 2);
+            values = Arrays.copyOf(values, newSize);
+            valueIsNull = Arrays.copyOf(valueIsNull, newSize);
+        }
+    }
 }
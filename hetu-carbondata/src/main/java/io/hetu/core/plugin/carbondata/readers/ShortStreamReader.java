@@ -14,33 +14,36 @@
 package io.hetu.core.plugin.carbondata.readers;
 
 import io.prestosql.spi.block.Block;
-import io.prestosql.spi.block.BlockBuilder;
-import io.prestosql.spi.type.SmallintType;
-import io.prestosql.spi.type.Type;
+import io.prestosql.spi.block.ShortArrayBlock;
 import org.apache.carbondata.core.metadata.datatype.DataType;
 import org.apache.carbondata.core.scan.result.vector.impl.CarbonColumnVectorImpl;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 public class ShortStreamReader
         extends CarbonColumnVectorImpl
         implements HetuCoreVectorBlockBuilder
 {
     protected int batchSize;
 
-    protected Type type = SmallintType.SMALLINT;
-
-    protected BlockBuilder builder;
+    // values are written directly into the arrays backing the block
+    private short[] values;
+    private boolean[] valueIsNull;
+    private boolean hasNulls;
+    private int positionCount;
 
     public ShortStreamReader(int batchSize, DataType dataType)
     {
         super(batchSize, dataType);
         this.batchSize = batchSize;
-        this.builder = type.createBlockBuilder(null, batchSize);
+        allocate();
     }
 
     @Override
     public Block buildBlock()
     {
-        return builder.build();
+        return new ShortArrayBlock(positionCount, hasNulls ? Optional.of(valueIsNull) : Optional.empty(), values);
     }
 
     @Override
@@ -52,35 +55,48 @@ public class ShortStreamReader
     @Override
     public void putShort(int rowId, short value)
     {
-        type.writeLong(builder, value);
+        ensureCapacity(positionCount + 1);
+        values[positionCount++] = value;
     }
 
     @Override
     public void putShorts(int rowId, int count, short value)
     {
-        for (int i = 0; i < count; i++) {
-            type.writeLong(builder, value);
-        }
+        ensureCapacity(positionCount + count);
+        Arrays.fill(values, positionCount, positionCount + count, value);
+        positionCount += count;
+    }
+
+    @Override
+    public void putShorts(int rowId, int count, short[] src, int srcIndex)
+    {
+        ensureCapacity(positionCount + count);
+        System.arraycopy(src, srcIndex, values, positionCount, count);
+        positionCount += count;
     }
 
     @Override
     public void putNull(int rowId)
     {
-        builder.appendNull();
+        ensureCapacity(positionCount + 1);
+        valueIsNull[positionCount++] = true;
+        hasNulls = true;
     }
 
     @Override
     public void putNulls(int rowId, int count)
     {
-        for (int i = 0; i < count; i++) {
-            builder.appendNull();
-        }
+        ensureCapacity(positionCount + count);
+        Arrays.fill(valueIsNull, positionCount, positionCount + count, true);
+        positionCount += count;
+        hasNulls |= count > 0;
     }
 
     @Override
     public void reset()
     {
-        builder = type.createBlockBuilder(null, batchSize);
+        // the arrays of the previous batch are owned by its block
+        allocate();
     }
 
     @Override
@@ -93,4 +109,21 @@ public class ShortStreamReader
             putShort(rowId, (short) value);
         }
     }
+
+    private void allocate()
+    {
+        values = new short[batchSize];
+        valueIsNull = new boolean[batchSize];
+        hasNulls = false;
+        positionCount = 0;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (values.length < capacity) {
+            int newSize = Math.max(capacity, values.length * 2);
+            values = Arrays.copyOf(values, newSize);
+            valueIsNull = Arrays.copyOf(valueIsNull, newSize);
+        }
+    }
 }
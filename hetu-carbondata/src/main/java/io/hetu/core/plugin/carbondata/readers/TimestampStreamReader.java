@@ -14,33 +14,36 @@
 package io.hetu.core.plugin.carbondata.readers;
 
 import io.prestosql.spi.block.Block;
-import io.prestosql.spi.block.BlockBuilder;
-import io.prestosql.spi.type.TimestampType;
-import io.prestosql.spi.type.Type;
+import io.prestosql.spi.block.LongArrayBlock;
 import org.apache.carbondata.core.metadata.datatype.DataType;
 import org.apache.carbondata.core.scan.result.vector.impl.CarbonColumnVectorImpl;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 public class TimestampStreamReader
         extends CarbonColumnVectorImpl
         implements HetuCoreVectorBlockBuilder
 {
     protected int batchSize;
 
-    protected Type type = TimestampType.TIMESTAMP;
-
-    protected BlockBuilder builder;
+    // values are written directly into the arrays backing the block
+    private long[] values;
+    private boolean[] valueIsNull;
+    private boolean hasNulls;
+    private int positionCount;
 
     public TimestampStreamReader(int batchSize, DataType dataType)
     {
         super(batchSize, dataType);
         this.batchSize = batchSize;
-        this.builder = type.createBlockBuilder(null, batchSize);
+        allocate();
     }
 
     @Override
     public Block buildBlock()
     {
-        return builder.build();
+        return new LongArrayBlock(positionCount, hasNulls ? Optional.of(valueIsNull) : Optional.empty(), values);
     }
 
     @Override
@@ -52,35 +55,49 @@ public class TimestampStreamReader
     @Override
     public void putLong(int rowId, long value)
     {
-        type.writeLong(builder, value / 1000);
+        ensureCapacity(positionCount + 1);
+        values[positionCount++] = value / 1000;
     }
 
     @Override
     public void putLongs(int rowId, int count, long value)
     {
-        for (int i = 0; i < count; i++) {
-            type.writeLong(builder, value / 1000);
+        ensureCapacity(positionCount + count);
+        Arrays.fill(values, positionCount, positionCount + count, value / 1000);
+        positionCount += count;
+    }
+
+    @Override
+    public void putLongs(int rowId, int count, long[] src, int srcIndex)
+    {
+        ensureCapacity(positionCount + count);
+        for (int i = srcIndex; i < srcIndex + count; i++) {
+            values[positionCount++] = src[i] / 1000;
         }
     }
 
     @Override
     public void putNull(int rowId)
     {
-        builder.appendNull();
+        ensureCapacity(positionCount + 1);
+        valueIsNull[positionCount++] = true;
+        hasNulls = true;
     }
 
     @Override
     public void putNulls(int rowId, int count)
     {
-        for (int i = 0; i < count; ++i) {
-            builder.appendNull();
-        }
+        ensureCapacity(positionCount + count);
+        Arrays.fill(valueIsNull, positionCount, positionCount + count, true);
+        positionCount += count;
+        hasNulls |= count > 0;
     }
 
     @Override
     public void reset()
     {
-        builder = type.createBlockBuilder(null, batchSize);
+        // the arrays of the previous batch are owned by its block
+        allocate();
     }
 
     @Override
@@ -93,4 +110,21 @@ public class TimestampStreamReader
             putLong(rowId, (Long) value);
         }
     }
+
+    private void allocate()
+    {
+        values = new long[batchSize];
+        valueIsNull = new boolean[batchSize];
+        hasNulls = false;
+        positionCount = 0;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (values.length < capacity) {
+            int newSize = Math.max(capacity, values.length * 2);
+            values = Arrays.copyOf(values, newSize);
+            valueIsNull = Arrays.copyOf(valueIsNull, newSize);
+        }
+    }
 }
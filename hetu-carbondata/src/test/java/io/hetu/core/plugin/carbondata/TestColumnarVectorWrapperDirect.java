@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.carbondata;
+
+import io.hetu.core.plugin.carbondata.readers.IntegerStreamReader;
+import io.hetu.core.plugin.carbondata.readers.LongStreamReader;
+import io.prestosql.spi.block.Block;
+import org.apache.carbondata.core.metadata.datatype.DataTypes;
+import org.testng.annotations.Test;
+
+import java.util.BitSet;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestColumnarVectorWrapperDirect
+{
+    @Test
+    public void testBulkPutWithoutNulls()
+    {
+        IntegerStreamReader reader = new IntegerStreamReader(8, DataTypes.INT);
+        ColumnarVectorWrapperDirect wrapper = new ColumnarVectorWrapperDirect(reader);
+        wrapper.putInts(0, 3, new int[] {-1, -1, 10, 11, 12}, 2);
+
+        Block block = reader.buildBlock();
+        assertEquals(block.getPositionCount(), 3);
+        assertFalse(block.mayHaveNull());
+        assertEquals(block.getInt(0, 0), 10);
+        assertEquals(block.getInt(1, 0), 11);
+        assertEquals(block.getInt(2, 0), 12);
+    }
+
+    @Test
+    public void testBulkPutWithNulls()
+    {
+        LongStreamReader reader = new LongStreamReader(8, DataTypes.LONG);
+        ColumnarVectorWrapperDirect wrapper = new ColumnarVectorWrapperDirect(reader);
+        BitSet nullBits = new BitSet();
+        nullBits.set(1);
+        nullBits.set(4);
+        wrapper.setNullBits(nullBits);
+        // the first range has no nulls and is put in bulk, the second one row by row
+        wrapper.putLongs(0, 1, new long[] {-1, 10}, 1);
+        wrapper.putLongs(1, 4, new long[] {-1, -1, 0, 12, 13, 0}, 2);
+
+        Block block = reader.buildBlock();
+        assertEquals(block.getPositionCount(), 5);
+        assertEquals(block.getLong(0, 0), 10L);
+        assertTrue(block.isNull(1));
+        assertEquals(block.getLong(2, 0), 12L);
+        assertEquals(block.getLong(3, 0), 13L);
+        assertTrue(block.isNull(4));
+    }
+}
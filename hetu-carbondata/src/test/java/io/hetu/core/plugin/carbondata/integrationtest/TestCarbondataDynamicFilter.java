@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.carbondata.integrationtest;
+
+import io.hetu.core.plugin.carbondata.server.HetuTestServer;
+import io.prestosql.Session;
+import io.prestosql.sql.analyzer.FeaturesConfig.JoinDistributionType;
+import io.prestosql.testing.MaterializedResult;
+import io.prestosql.tests.DistributedQueryRunner;
+import io.prestosql.tests.ResultWithQueryId;
+import org.apache.carbondata.common.logging.LogServiceFactory;
+import org.apache.carbondata.core.constants.CarbonCommonConstants;
+import org.apache.carbondata.core.datastore.impl.FileFactory;
+import org.apache.carbondata.core.util.CarbonProperties;
+import org.apache.carbondata.core.util.CarbonUtil;
+import org.apache.log4j.Logger;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.prestosql.SystemSessionProperties.DYNAMIC_FILTERING_WAIT_TIME;
+import static io.prestosql.SystemSessionProperties.ENABLE_DYNAMIC_FILTERING;
+import static io.prestosql.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestCarbondataDynamicFilter
+{
+    private static final int SEGMENT_COUNT = 4;
+    private static final int SEGMENT_ROWS = 100;
+    private static final String JOIN_QUERY = "SELECT f.a FROM carbondata.dftestdb.fact f JOIN carbondata.dftestdb.dim d ON f.a = d.a";
+
+    private final Logger logger = LogServiceFactory.getLogService(TestCarbondataDynamicFilter.class.getCanonicalName());
+
+    private final String rootPath = new File(this.getClass().getResource("/").getPath() + "../..").getCanonicalPath();
+
+    private final String storePath = rootPath + "/target/store_dynamic_filter";
+    private final HetuTestServer hetuServer = new HetuTestServer();
+
+    public TestCarbondataDynamicFilter()
+            throws Exception
+    {
+    }
+
+    @BeforeClass
+    public void setup()
+            throws Exception
+    {
+        logger.info("Setup begin: " + this.getClass().getSimpleName());
+
+        CarbonProperties.getInstance().addProperty(CarbonCommonConstants.CARBON_WRITTEN_BY_APPNAME, "HetuTest");
+
+        Map<String, String> map = new HashMap<>();
+        map.put("hive.metastore", "file");
+        map.put("hive.allow-drop-table", "true");
+        map.put("hive.metastore.catalog.dir", "file://" + storePath + "/hive.store");
+        map.put("carbondata.store-location", "file://" + storePath + "/carbon.store");
+
+        if (!FileFactory.isFileExist(storePath + "/carbon.store")) {
+            FileFactory.mkdirs(storePath + "/carbon.store");
+        }
+
+        hetuServer.startServer("dftestdb", map);
+        hetuServer.execute("drop schema if exists dftestdb");
+        hetuServer.execute("create schema dftestdb");
+
+        // every insert writes a segment of its own, whose min/max covers only the keys of that insert
+        hetuServer.execute("CREATE TABLE dftestdb.fact (a int)");
+        for (int segment = 0; segment < SEGMENT_COUNT; segment++) {
+            hetuServer.execute(String.format("INSERT INTO dftestdb.fact SELECT x FROM UNNEST(sequence(%s, %s)) t(x)",
+                    segment * SEGMENT_ROWS, (segment + 1) * SEGMENT_ROWS - 1));
+        }
+        hetuServer.execute("CREATE TABLE dftestdb.dim (a int)");
+        hetuServer.execute("INSERT INTO dftestdb.dim VALUES (150)");
+    }
+
+    @AfterClass
+    public void tearDown()
+            throws SQLException, IOException, InterruptedException
+    {
+        logger.info("TearDown begin: " + this.getClass().getSimpleName());
+        hetuServer.stopServer();
+        CarbonUtil.deleteFoldersAndFiles(FileFactory.getCarbonFile(storePath));
+    }
+
+    @Test
+    public void testDynamicFilterPrunesBlocklets()
+    {
+        long rowsWithoutDynamicFilter = getRawInputPositions(executeJoin(false));
+        assertEquals(rowsWithoutDynamicFilter, SEGMENT_COUNT * SEGMENT_ROWS + 1);
+
+        // only the blocklets of the segment holding the join key are read
+        long rowsWithDynamicFilter = getRawInputPositions(executeJoin(true));
+        assertTrue(rowsWithDynamicFilter <= SEGMENT_ROWS + 1, "rows read with dynamic filter: " + rowsWithDynamicFilter);
+    }
+
+    private ResultWithQueryId<MaterializedResult> executeJoin(boolean dynamicFilteringEnabled)
+    {
+        DistributedQueryRunner queryRunner = hetuServer.getQueryRunner();
+        Session session = Session.builder(queryRunner.getDefaultSession())
+                .setSystemProperty(ENABLE_DYNAMIC_FILTERING, String.valueOf(dynamicFilteringEnabled))
+                .setSystemProperty(DYNAMIC_FILTERING_WAIT_TIME, "2000ms")
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, JoinDistributionType.BROADCAST.name())
+                .build();
+        ResultWithQueryId<MaterializedResult> result = queryRunner.executeWithQueryId(session, JOIN_QUERY);
+        assertEquals(result.getResult().getMaterializedRows().size(), 1);
+        return result;
+    }
+
+    private long getRawInputPositions(ResultWithQueryId<MaterializedResult> result)
+    {
+        return hetuServer.getQueryRunner()
+                .getCoordinator()
+                .getQueryManager()
+                .getFullQueryInfo(result.getQueryId())
+                .getQueryStats()
+                .getRawInputPositions();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.hetu.core.plugin.carbondata.readers;
+
+import io.prestosql.spi.block.Block;
+import org.apache.carbondata.core.metadata.datatype.DataTypes;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.function.BiFunction;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestStreamReaders
+{
+    // smaller than the rows put in a batch, so the readers grow their arrays
+    private static final int BATCH_SIZE = 4;
+
+    @Test
+    public void testIntegerReader()
+    {
+        IntegerStreamReader reader = new IntegerStreamReader(BATCH_SIZE, DataTypes.INT);
+        reader.putInts(0, 3, new int[] {-1, 10, 11, 12, -1}, 1);
+        reader.putNulls(3, 2);
+        reader.putInts(5, 2, 7);
+        reader.putInt(7, 13);
+        reader.putNull(8);
+        Block block = reader.buildBlock();
+        assertBlock(block, (values, position) -> values.getInt(position, 0), 10, 11, 12, null, null, 7, 7, 13, null);
+
+        // the block of the previous batch keeps its values
+        reader.reset();
+        reader.putInts(0, 2, new int[] {20, 21}, 0);
+        Block nextBlock = reader.buildBlock();
+        assertBlock(nextBlock, (values, position) -> values.getInt(position, 0), 20, 21);
+        assertFalse(nextBlock.mayHaveNull());
+        assertBlock(block, (values, position) -> values.getInt(position, 0), 10, 11, 12, null, null, 7, 7, 13, null);
+    }
+
+    @Test
+    public void testLongReader()
+    {
+        LongStreamReader reader = new LongStreamReader(BATCH_SIZE, DataTypes.LONG);
+        reader.putLongs(0, 2, new long[] {-1, -1, 10, 11}, 2);
+        reader.putNulls(2, 3);
+        reader.putLongs(5, 3, 7);
+        Block block = reader.buildBlock();
+        assertBlock(block, (values, position) -> values.getLong(position, 0), 10L, 11L, null, null, null, 7L, 7L, 7L);
+
+        reader.reset();
+        reader.putNulls(0, 1);
+        reader.putLong(1, 20);
+        assertBlock(reader.buildBlock(), (values, position) -> values.getLong(position, 0), null, 20L);
+        assertBlock(block, (values, position) -> values.getLong(position, 0), 10L, 11L, null, null, null, 7L, 7L, 7L);
+    }
+
+    @Test
+    public void testTimestampReader()
+    {
+        // carbondata timestamps are in microseconds
+        TimestampStreamReader reader = new TimestampStreamReader(BATCH_SIZE, DataTypes.TIMESTAMP);
+        reader.putLongs(0, 2, new long[] {-1, 10_000, 11_000}, 1);
+        reader.putNulls(2, 2);
+        reader.putLongs(4, 3, 7_000);
+        Block block = reader.buildBlock();
+        assertBlock(block, (values, position) -> values.getLong(position, 0), 10L, 11L, null, null, 7L, 7L, 7L);
+    }
+
+    @Test
+    public void testShortReader()
+    {
+        ShortStreamReader reader = new ShortStreamReader(BATCH_SIZE, DataTypes.SHORT);
+        reader.putShorts(0, 3, new short[] {-1, 10, 11, 12}, 1);
+        reader.putNulls(3, 2);
+        reader.putShorts(5, 2, (short) 7);
+        Block block = reader.buildBlock();
+        assertBlock(block, (values, position) -> values.getShort(position, 0), (short) 10, (short) 11, (short) 12, null, null, (short) 7, (short) 7);
+
+        reader.reset();
+        reader.putShorts(0, 1, new short[] {20}, 0);
+        assertBlock(reader.buildBlock(), (values, position) -> values.getShort(position, 0), (short) 20);
+        assertBlock(block, (values, position) -> values.getShort(position, 0), (short) 10, (short) 11, (short) 12, null, null, (short) 7, (short) 7);
+    }
+
+    @Test
+    public void testDoubleReader()
+    {
+        DoubleStreamReader reader = new DoubleStreamReader(BATCH_SIZE, DataTypes.DOUBLE);
+        reader.putDoubles(0, 2, new double[] {-1, 1.5, 2.5, -1}, 1);
+        reader.putNulls(2, 2);
+        reader.putDoubles(4, 3, 0.5);
+        Block block = reader.buildBlock();
+        assertBlock(block, (values, position) -> Double.longBitsToDouble(values.getLong(position, 0)), 1.5, 2.5, null, null, 0.5, 0.5, 0.5);
+
+        reader.reset();
+        reader.putDouble(0, 3.5);
+        assertBlock(reader.buildBlock(), (values, position) -> Double.longBitsToDouble(values.getLong(position, 0)), 3.5);
+        assertBlock(block, (values, position) -> Double.longBitsToDouble(values.getLong(position, 0)), 1.5, 2.5, null, null, 0.5, 0.5, 0.5);
+    }
+
+    @Test
+    public void testFloatReader()
+    {
+        FloatStreamReader reader = new FloatStreamReader(BATCH_SIZE, DataTypes.FLOAT);
+        reader.putFloats(0, 3, new float[] {-1, -1, 1.5f, 2.5f, 3.5f}, 2);
+        reader.putNulls(3, 2);
+        reader.putFloat(5, 0.5f);
+        Block block = reader.buildBlock();
+        assertBlock(block, (values, position) -> Float.intBitsToFloat(values.getInt(position, 0)), 1.5f, 2.5f, 3.5f, null, null, 0.5f);
+    }
+
+    @Test
+    public void testByteReader()
+    {
+        ByteStreamReader reader = new ByteStreamReader(BATCH_SIZE, DataTypes.BYTE);
+        reader.putBytes(0, 3, new byte[] {-1, 10, 11, 12}, 1);
+        reader.putNulls(3, 2);
+        reader.putByte(5, (byte) 7);
+        Block block = reader.buildBlock();
+        assertBlock(block, (values, position) -> values.getByte(position, 0), (byte) 10, (byte) 11, (byte) 12, null, null, (byte) 7);
+
+        reader.reset();
+        reader.putBytes(0, 2, new byte[] {20, 21}, 0);
+        assertBlock(reader.buildBlock(), (values, position) -> values.getByte(position, 0), (byte) 20, (byte) 21);
+        assertBlock(block, (values, position) -> values.getByte(position, 0), (byte) 10, (byte) 11, (byte) 12, null, null, (byte) 7);
+    }
+
+    @Test
+    public void testBooleanReader()
+    {
+        BooleanStreamReader reader = new BooleanStreamReader(BATCH_SIZE, DataTypes.BOOLEAN);
+        reader.putBytes(0, 3, new byte[] {1, 1, 0, 1}, 1);
+        reader.putNulls(3, 2);
+        reader.putBoolean(5, false);
+        Block block = reader.buildBlock();
+        assertBlock(block, (values, position) -> values.getByte(position, 0) != 0, true, false, true, null, null, false);
+    }
+
+    private static void assertBlock(Block block, BiFunction<Block, Integer, Object> getter, Object... expected)
+    {
+        assertEquals(block.getPositionCount(), expected.length);
+        for (int position = 0; position < expected.length; position++) {
+            if (expected[position] == null) {
+                assertTrue(block.isNull(position), "position " + position);
+            }
+            else {
+                assertFalse(block.isNull(position), "position " + position);
+                assertEquals(getter.apply(block, position), expected[position], "position " + position + " of " + Arrays.toString(expected));
+            }
+        }
+    }
+}
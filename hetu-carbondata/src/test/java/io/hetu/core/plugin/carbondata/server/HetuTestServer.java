@@ -224,4 +224,9 @@ public class HetuTestServer
     {
         return queryRunner.getCatalogManager();
     }
+
+    public DistributedQueryRunner getQueryRunner()
+    {
+        return queryRunner;
+    }
 }
@@ -48,6 +48,8 @@ public class DataCenterConfig
 
     private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 20;
 
+    private static final int DEFAULT_MAX_RESPONSE_SIZE_MB = 8;
+
     private URI connectionUrl;
 
     private String connectionUser = System.getProperty("user.name");
@@ -123,6 +125,8 @@ public class DataCenterConfig
 
     private Duration updateThreshold = new Duration(1, TimeUnit.MINUTES);
 
+    private DataSize maxResponseSize = new DataSize(DEFAULT_MAX_RESPONSE_SIZE_MB, DataSize.Unit.MEGABYTE);
+
     @NotNull
     public URI getConnectionUrl()
     {
@@ -844,4 +848,23 @@ public class DataCenterConfig
         this.maxIdleConnections = maxIdleConnectionsParameter;
         return this;
     }
+
+    public DataSize getMaxResponseSize()
+    {
+        return this.maxResponseSize;
+    }
+
+    /**
+     * set maximum size of the pages the remote data center sends in a single response.
+     *
+     * @param maxResponseSize maximum response size.
+     * @return DataCenterConfig object
+     */
+    @Config("dc.max-response-size")
+    @ConfigDescription("Maximum size of the pages the remote data center sends in a single response to a split")
+    public DataCenterConfig setMaxResponseSize(DataSize maxResponseSize)
+    {
+        this.maxResponseSize = maxResponseSize;
+        return this;
+    }
 }
@@ -16,6 +16,7 @@
 package io.hetu.core.plugin.datacenter;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.airlift.bootstrap.LifeCycleManager;
 import io.airlift.log.Logger;
 import io.hetu.core.plugin.datacenter.client.DataCenterClient;
@@ -39,6 +40,8 @@ import javax.inject.Inject;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static io.hetu.core.plugin.datacenter.DataCenterTransactionHandle.INSTANCE;
 import static java.util.Objects.requireNonNull;
@@ -67,6 +70,8 @@ public class DataCenterConnector
 
     private final ConnectorPlanOptimizer planOptimizer;
 
+    private final ExecutorService pageSourceExecutor;
+
     /**
      * Constructor of data center connector.
      *
@@ -85,7 +90,12 @@ public class DataCenterConnector
         this.httpClient = DataCenterStatementClientFactory.newHttpClient(dataCenterConfig);
         this.dataCenterClient = new DataCenterClient(dataCenterConfig, this.httpClient, typeManager);
         this.splitManager = new DataCenterSplitManager(dataCenterConfig, this.dataCenterClient);
-        this.pageSourceProvider = new DataCenterPageSourceProvider(dataCenterConfig, this.httpClient, typeManager);
+        this.pageSourceExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("dc-page-source-%s")
+                .setDaemon(true)
+                .build());
+        this.pageSourceProvider = new DataCenterPageSourceProvider(dataCenterConfig, this.httpClient, typeManager,
+                this.pageSourceExecutor);
         this.planOptimizer = planOptimizer;
         if (dataCenterConfig.isMetadataCacheEnabled()) {
             this.metadata = new CachedConnectorMetadata(new DataCenterMetadata(dataCenterClient, dataCenterConfig),
@@ -154,6 +164,7 @@ public class DataCenterConnector
         catch (Exception e) {
             log.error(e, "Error shutting down connector");
         }
+        this.pageSourceExecutor.shutdownNow();
         this.httpClient.dispatcher().executorService().shutdown();
         this.httpClient.connectionPool().evictAll();
     }
@@ -85,6 +85,7 @@ public class DataCenterStatementClientFactory
                 .withClientTimeout(config.getClientTimeout())
                 .withMaxAnticipatedDelay(config.getMaxAnticipatedDelay())
                 .withCompression(config.isCompressionEnabled())
+                .withMaxResponseSize(config.getMaxResponseSize())
                 .withProperties(properties)
                 .withTypeManager(typeManager);
         return builder.build();
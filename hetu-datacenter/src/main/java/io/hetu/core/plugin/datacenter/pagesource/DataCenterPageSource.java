@@ -15,6 +15,8 @@
 
 package io.hetu.core.plugin.datacenter.pagesource;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.log.Logger;
 import io.prestosql.client.DataCenterClientSession;
@@ -37,6 +39,13 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 /**
  * Data center page source.
@@ -50,12 +59,20 @@ public class DataCenterPageSource
 
     private final long startTime;
     private final int numberOfColumns;
-    private DataCenterStatementClient client;
+    private final DataCenterStatementClient client;
+    // serializes the calls on the client made by the fetching thread and by close
+    private final Object clientLock = new Object();
+    private boolean closed;
     private long readBytes;
-    private long lastMemoryUsage;
-    private Queue<Page> pages = new LinkedList<>();
+    private final Queue<Page> pages = new LinkedList<>();
+    private long bufferedBytes;
+    private volatile long prefetchedBytes;
     private final Optional<DynamicFilterSupplier> dynamicFilterSupplier;
+    // only used by the fetching thread
     private final Set<String> appliedDynamicFilters = new HashSet<>();
+    private final Executor executor;
+    // pages of the next response, fetched in the background while the current pages are processed
+    private CompletableFuture<List<Page>> nextPages;
 
     /**
      * Constructor of data center page source.
@@ -65,18 +82,28 @@ public class DataCenterPageSource
      * @param sql sql statement.
      * @param queryId id of query that user issued.
      * @param columns columns of sql.
+     * @param executor executor fetching the responses of the remote data center.
      */
     public DataCenterPageSource(OkHttpClient httpClient, DataCenterClientSession clientSession, String sql,
-            String queryId, List<ColumnHandle> columns)
+            String queryId, List<ColumnHandle> columns, Executor executor)
     {
-        this(httpClient, clientSession, sql, queryId, columns, null);
+        this(httpClient, clientSession, sql, queryId, columns, Optional.empty(), executor);
     }
 
     public DataCenterPageSource(OkHttpClient httpClient, DataCenterClientSession clientSession, String sql,
-            String queryId, List<ColumnHandle> columns, Optional<DynamicFilterSupplier> dynamicFilterSupplier)
+            String queryId, List<ColumnHandle> columns, Optional<DynamicFilterSupplier> dynamicFilterSupplier,
+            Executor executor)
+    {
+        this(DataCenterStatementClient.newStatementClient(httpClient, clientSession, sql, queryId), columns, dynamicFilterSupplier, executor);
+    }
+
+    @VisibleForTesting
+    DataCenterPageSource(DataCenterStatementClient client, List<ColumnHandle> columns, Optional<DynamicFilterSupplier> dynamicFilterSupplier,
+            Executor executor)
     {
+        this.executor = requireNonNull(executor, "executor is null");
         this.startTime = System.nanoTime();
-        this.client = DataCenterStatementClient.newStatementClient(httpClient, clientSession, sql, queryId);
+        this.client = requireNonNull(client, "client is null");
         this.numberOfColumns = columns.size();
         this.dynamicFilterSupplier = dynamicFilterSupplier;
     }
@@ -96,32 +123,92 @@ public class DataCenterPageSource
     @Override
     public boolean isFinished()
     {
-        return this.pages.isEmpty() && !this.client.isRunning();
+        return this.pages.isEmpty() && this.nextPages == null && !this.client.isRunning();
     }
 
     @Override
-    public Page getNextPage()
+    public CompletableFuture<?> isBlocked()
     {
-        if (dynamicFilterSupplier.isPresent() && !dynamicFilterSupplier.get().getDynamicFilters().isEmpty()) {
-            /*  applying only for the first map in the dynamic filter since we do not have
-                more than one element as we do not expect disjuncts in this connector   */
-            applyDynamicFilters(dynamicFilterSupplier.get().getDynamicFilters().get(0));
+        if (!this.pages.isEmpty() || this.nextPages == null || this.nextPages.isDone()) {
+            return NOT_BLOCKED;
         }
+        // failures are reported by getNextPage
+        return this.nextPages.handle((pageList, failure) -> null);
+    }
 
+    @Override
+    public Page getNextPage()
+    {
         if (!this.pages.isEmpty()) {
-            return processPage(this.pages.poll());
+            return pollPage();
         }
-        if (this.client.isRunning()) {
-            List<Page> pageList = client.getPages();
-            if (pageList != null && !pageList.isEmpty()) {
-                this.update(pageList);
-                this.pages.addAll(pageList);
+        if (this.nextPages == null) {
+            if (!this.client.isRunning()) {
+                return null;
             }
-            this.client.advance();
+            this.nextPages = fetchPagesAsync();
+        }
+        if (!this.nextPages.isDone()) {
+            return null;
+        }
+
+        List<Page> pageList;
+        try {
+            pageList = this.nextPages.join();
+        }
+        catch (CompletionException e) {
+            throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+        finally {
+            this.nextPages = null;
+            this.prefetchedBytes = 0;
+        }
+        if (!pageList.isEmpty()) {
+            this.update(pageList);
+            this.pages.addAll(pageList);
+        }
+        if (this.client.isRunning()) {
+            // request the next response while these pages are processed
+            this.nextPages = fetchPagesAsync();
+        }
+        if (!this.pages.isEmpty()) {
+            return pollPage();
         }
         return null;
     }
 
+    private CompletableFuture<List<Page>> fetchPagesAsync()
+    {
+        /*  applying only for the first map in the dynamic filter since we do not have
+            more than one element as we do not expect disjuncts in this connector   */
+        Optional<Map<ColumnHandle, DynamicFilter>> dynamicFilters = dynamicFilterSupplier
+                .map(DynamicFilterSupplier::getDynamicFilters)
+                .filter(filters -> !filters.isEmpty())
+                .map(filters -> filters.get(0));
+        return supplyAsync(() -> fetchPages(dynamicFilters), this.executor);
+    }
+
+    private List<Page> fetchPages(Optional<Map<ColumnHandle, DynamicFilter>> dynamicFilters)
+    {
+        synchronized (this.clientLock) {
+            if (this.closed) {
+                return ImmutableList.of();
+            }
+            // dynamic filters are sent between two requests, never while a request is in flight
+            dynamicFilters.ifPresent(this::applyDynamicFilters);
+            if (!this.client.advance()) {
+                return ImmutableList.of();
+            }
+            List<Page> pageList = this.client.getPages();
+            if (pageList == null) {
+                return ImmutableList.of();
+            }
+            this.prefetchedBytes = getRetainedSizeInBytes(pageList);
+            return pageList;
+        }
+    }
+
     private void applyDynamicFilters(Map<ColumnHandle, DynamicFilter> dynamicFilters)
     {
         ImmutableMap.Builder<String, byte[]> builder = new ImmutableMap.Builder();
@@ -157,6 +244,13 @@ public class DataCenterPageSource
         }
     }
 
+    private Page pollPage()
+    {
+        Page page = this.pages.poll();
+        this.bufferedBytes -= page.getRetainedSizeInBytes();
+        return processPage(page);
+    }
+
     private Page processPage(Page page)
     {
         if (this.numberOfColumns == 0) {
@@ -171,25 +265,44 @@ public class DataCenterPageSource
     private void update(List<Page> pageList)
     {
         long bytes = 0L;
-        long memory = 0L;
         for (Page page : pageList) {
             bytes += page.getSizeInBytes();
-            memory += page.getRetainedSizeInBytes();
         }
         this.readBytes += bytes;
-        this.lastMemoryUsage = memory;
+        this.bufferedBytes += getRetainedSizeInBytes(pageList);
+    }
+
+    private static long getRetainedSizeInBytes(List<Page> pageList)
+    {
+        long bytes = 0L;
+        for (Page page : pageList) {
+            bytes += page.getRetainedSizeInBytes();
+        }
+        return bytes;
     }
 
     @Override
     public long getSystemMemoryUsage()
     {
-        return this.lastMemoryUsage;
+        // pages not returned yet, and the pages of a response fetched ahead
+        return this.bufferedBytes + this.prefetchedBytes;
     }
 
     @Override
     public void close()
             throws IOException
     {
-        this.client.close();
+        if (this.nextPages != null) {
+            // a fetch that has not started yet never runs, one in progress is waited for below
+            this.nextPages.cancel(false);
+            this.nextPages = null;
+        }
+        synchronized (this.clientLock) {
+            this.closed = true;
+            this.client.close();
+        }
+        this.pages.clear();
+        this.bufferedBytes = 0;
+        this.prefetchedBytes = 0;
     }
 }
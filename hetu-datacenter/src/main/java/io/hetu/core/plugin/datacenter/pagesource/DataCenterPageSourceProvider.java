@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.Executor;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.stream.Collectors.joining;
@@ -58,18 +59,23 @@ public class DataCenterPageSourceProvider
 
     private final TypeManager typeManager;
 
+    private final Executor executor;
+
     /**
      * Constructor of data center page source provider.
      *
      * @param config data center config.
      * @param httpClient http client.
      * @param typeManager type manager.
+     * @param executor executor fetching the responses of the remote data center.
      */
-    public DataCenterPageSourceProvider(DataCenterConfig config, OkHttpClient httpClient, TypeManager typeManager)
+    public DataCenterPageSourceProvider(DataCenterConfig config, OkHttpClient httpClient, TypeManager typeManager,
+            Executor executor)
     {
         this.config = config;
         this.httpClient = httpClient;
         this.typeManager = typeManager;
+        this.executor = executor;
     }
 
     private static String buildSql(DataCenterTableHandle tableHandler, List<ColumnHandle> columnHandles,
@@ -138,6 +144,6 @@ public class DataCenterPageSourceProvider
         DataCenterClientSession clientSession = DataCenterStatementClientFactory.createClientSession(this.config,
                 this.typeManager, properties);
         return new DataCenterPageSource(this.httpClient, clientSession, query, ((DataCenterSplit) split).getQueryId(),
-                columns, dynamicFilterSupplier);
+                columns, dynamicFilterSupplier, this.executor);
     }
 }
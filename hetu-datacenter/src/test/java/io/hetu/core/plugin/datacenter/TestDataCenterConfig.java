@@ -69,7 +69,8 @@ public class TestDataCenterConfig
                 .setCompressionEnabled(false)
                 .setMaxAnticipatedDelay(new Duration(10, TimeUnit.MINUTES))
                 .setUpdateThreshold(new Duration(1, TimeUnit.MINUTES))
-                .setMaxIdleConnections(20));
+                .setMaxIdleConnections(20)
+                .setMaxResponseSize(new DataSize(8, DataSize.Unit.MEGABYTE)));
     }
 
     @Test
@@ -110,6 +111,7 @@ public class TestDataCenterConfig
                 .put("dc.max.anticipated.delay", "5s")
                 .put("hetu.dc.catalog.update.threshold", "2m")
                 .put("dc.httpclient.maximum.idle.connections", "10")
+                .put("dc.max-response-size", "32MB")
                 .build();
 
         DataCenterConfig expected = new DataCenterConfig().setConnectionUrl(URI.create("http://127.0.0.1:9002"))
@@ -145,7 +147,8 @@ public class TestDataCenterConfig
                 .setCompressionEnabled(true)
                 .setMaxAnticipatedDelay(new Duration(5, TimeUnit.SECONDS))
                 .setUpdateThreshold(new Duration(2, TimeUnit.MINUTES))
-                .setMaxIdleConnections(10);
+                .setMaxIdleConnections(10)
+                .setMaxResponseSize(new DataSize(32, DataSize.Unit.MEGABYTE));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -0,0 +1,397 @@
+/*
+ * Copyright (C) 2018-2021. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.hetu.core.plugin.datacenter.pagesource;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.hetu.core.plugin.datacenter.DataCenterColumnHandle;
+import io.prestosql.client.ClientSelectedRole;
+import io.prestosql.client.DataCenterStatementClient;
+import io.prestosql.client.QueryData;
+import io.prestosql.client.QueryStatusInfo;
+import io.prestosql.client.StatementStats;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ColumnHandle;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestDataCenterPageSource
+{
+    private static final List<ColumnHandle> COLUMNS = ImmutableList.of(new DataCenterColumnHandle("value", BIGINT, 0));
+
+    private final ExecutorService executor = newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("test-data-center-page-source-%s")
+            .setDaemon(true)
+            .build());
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testPrefetch()
+            throws Exception
+    {
+        TestingStatementClient client = new TestingStatementClient();
+        DataCenterPageSource pageSource = new DataCenterPageSource(client, COLUMNS, Optional.empty(), executor);
+        Page page1 = createPage(10);
+        Page page2 = createPage(20);
+        Page page3 = createPage(30);
+
+        client.respond(ImmutableList.of(page1, page2));
+        assertEquals(getNextPage(pageSource), page1);
+
+        // the next response is requested while the buffered page is still to be processed
+        waitUntil(() -> client.getRequests() == 2);
+        assertEquals(pageSource.getSystemMemoryUsage(), page2.getRetainedSizeInBytes());
+        client.respond(ImmutableList.of(page3));
+        waitUntil(() -> pageSource.getSystemMemoryUsage() == page2.getRetainedSizeInBytes() + page3.getRetainedSizeInBytes());
+
+        assertEquals(getNextPage(pageSource), page2);
+        assertEquals(getNextPage(pageSource), page3);
+        assertEquals(pageSource.getCompletedBytes(), page1.getSizeInBytes() + page2.getSizeInBytes() + page3.getSizeInBytes());
+
+        client.finish();
+        while (!pageSource.isFinished()) {
+            assertNull(pageSource.getNextPage());
+            pageSource.isBlocked().get(10, SECONDS);
+        }
+        assertEquals(pageSource.getSystemMemoryUsage(), 0);
+        pageSource.close();
+        assertFalse(client.isOverlapped());
+    }
+
+    @Test
+    public void testCloseWaitsForFetch()
+            throws Exception
+    {
+        TestingStatementClient client = new TestingStatementClient();
+        DataCenterPageSource pageSource = new DataCenterPageSource(client, COLUMNS, Optional.empty(), executor);
+
+        // the request blocks until a response is offered
+        assertNull(pageSource.getNextPage());
+        waitUntil(() -> client.getRequests() == 1);
+        CompletableFuture<?> closed = CompletableFuture.runAsync(() -> {
+            try {
+                pageSource.close();
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, executor);
+        MILLISECONDS.sleep(100);
+        assertFalse(closed.isDone());
+
+        client.respond(ImmutableList.of(createPage(10)));
+        closed.get(10, SECONDS);
+        assertTrue(client.isClosed());
+        assertEquals(pageSource.getSystemMemoryUsage(), 0);
+        assertFalse(client.isOverlapped());
+    }
+
+    private static Page getNextPage(DataCenterPageSource pageSource)
+            throws Exception
+    {
+        for (int i = 0; i < 1000; i++) {
+            Page page = pageSource.getNextPage();
+            if (page != null) {
+                return page;
+            }
+            pageSource.isBlocked().get(10, SECONDS);
+        }
+        fail("no page returned");
+        return null;
+    }
+
+    private static void waitUntil(BooleanSupplier condition)
+            throws InterruptedException
+    {
+        long deadline = System.nanoTime() + SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static Page createPage(int positionCount)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            BIGINT.writeLong(blockBuilder, i);
+        }
+        return new Page(blockBuilder.build());
+    }
+
+    /**
+     * Returns the responses offered by the test, and records whether any two calls overlapped.
+     */
+    private static class TestingStatementClient
+            implements DataCenterStatementClient
+    {
+        private static final List<Page> FINISHED = new ArrayList<>();
+
+        private final BlockingQueue<List<Page>> responses = new LinkedBlockingQueue<>();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicBoolean inCall = new AtomicBoolean();
+        private final AtomicBoolean overlapped = new AtomicBoolean();
+        private volatile boolean running = true;
+        private volatile boolean closed;
+        private List<Page> currentPages;
+
+        public void respond(List<Page> pages)
+        {
+            responses.add(pages);
+        }
+
+        public void finish()
+        {
+            responses.add(FINISHED);
+        }
+
+        public int getRequests()
+        {
+            return requests.get();
+        }
+
+        public boolean isOverlapped()
+        {
+            return overlapped.get();
+        }
+
+        public boolean isClosed()
+        {
+            return closed;
+        }
+
+        private void enter()
+        {
+            if (!inCall.compareAndSet(false, true)) {
+                overlapped.set(true);
+            }
+        }
+
+        private void exit()
+        {
+            inCall.set(false);
+        }
+
+        @Override
+        public boolean advance()
+        {
+            enter();
+            try {
+                requests.incrementAndGet();
+                List<Page> response = responses.take();
+                if (response == FINISHED) {
+                    running = false;
+                    return false;
+                }
+                currentPages = response;
+                return true;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            finally {
+                exit();
+            }
+        }
+
+        @Override
+        public List<Page> getPages()
+        {
+            return currentPages;
+        }
+
+        @Override
+        public boolean applyDynamicFilters(Map<String, byte[]> dynamicFilters)
+        {
+            enter();
+            exit();
+            return true;
+        }
+
+        @Override
+        public boolean isRunning()
+        {
+            return running;
+        }
+
+        @Override
+        public void close()
+        {
+            enter();
+            running = false;
+            closed = true;
+            exit();
+        }
+
+        @Override
+        public String getQuery()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ZoneId getTimeZone()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isClientAborted()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isClientError()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isFinished()
+        {
+            return !running;
+        }
+
+        @Override
+        public StatementStats getStats()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryStatusInfo currentStatusInfo()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryData currentData()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryStatusInfo finalStatusInfo()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<String> getSetCatalog()
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> getSetSchema()
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> getSetPath()
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public Map<String, String> getSetSessionProperties()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<String> getResetSessionProperties()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, ClientSelectedRole> getSetRoles()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, String> getAddedPreparedStatements()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<String> getDeallocatedPreparedStatements()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getStartedTransactionId()
+        {
+            return null;
+        }
+
+        @Override
+        public boolean isClearTransactionId()
+        {
+            return false;
+        }
+
+        @Override
+        public void cancelLeafStage()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isTimeInMilliseconds()
+        {
+            return false;
+        }
+    }
+}
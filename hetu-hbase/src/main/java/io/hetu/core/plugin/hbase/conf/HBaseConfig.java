@@ -15,6 +15,7 @@
 package io.hetu.core.plugin.hbase.conf;
 
 import io.airlift.configuration.Config;
+import io.hetu.core.plugin.hbase.utils.Constants;
 import io.prestosql.spi.function.Mandatory;
 
 /**
@@ -42,6 +43,7 @@ public class HBaseConfig
     private String principalUsername; // principal username
     private String kerberos;
     private boolean isClientSideEnable; // use client side mode
+    private int scanCaching = Constants.SCAN_CACHING_SIZE; // rows fetched by each scanner RPC
 
     public int getRetryNumber()
     {
@@ -244,6 +246,17 @@ public class HBaseConfig
         this.isClientSideEnable = isClientSideEnable;
     }
 
+    public int getScanCaching()
+    {
+        return scanCaching;
+    }
+
+    @Config("hbase.scan.caching")
+    public void setScanCaching(int scanCaching)
+    {
+        this.scanCaching = scanCaching;
+    }
+
     public int getRetryCreateSnapshotNumber()
     {
         return retryCreateSnapshotNumber;
@@ -22,7 +22,6 @@ import io.hetu.core.plugin.hbase.connector.HBaseColumnHandle;
 import io.hetu.core.plugin.hbase.connector.HBaseConnection;
 import io.hetu.core.plugin.hbase.connector.HBaseTableHandle;
 import io.hetu.core.plugin.hbase.split.HBaseSplit;
-import io.hetu.core.plugin.hbase.utils.Constants;
 import io.hetu.core.plugin.hbase.utils.Utils;
 import io.hetu.core.plugin.hbase.utils.serializers.HBaseRowSerializer;
 import io.prestosql.spi.connector.ConnectorSession;
@@ -261,7 +260,7 @@ public class HBaseRecordSet
             scan.withStopRow(Bytes.toBytes(split.getEndRow()));
         }
 
-        scan.setCaching(Constants.SCAN_CACHING_SIZE);
+        scan.setCaching(hBaseConnection.getHbaseConfig().getScanCaching());
         scan.setLoadColumnFamiliesOnDemand(true);
         scan.setCacheBlocks(true);
     }
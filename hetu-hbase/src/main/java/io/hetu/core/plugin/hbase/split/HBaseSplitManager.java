@@ -16,6 +16,7 @@ package io.hetu.core.plugin.hbase.split;
 
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
+import io.airlift.slice.Slice;
 import io.hetu.core.plugin.hbase.connector.HBaseColumnHandle;
 import io.hetu.core.plugin.hbase.connector.HBaseConnection;
 import io.hetu.core.plugin.hbase.connector.HBaseTableHandle;
@@ -35,15 +36,21 @@ import io.prestosql.spi.connector.FixedSplitSource;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.type.VarcharType;
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.RegionInfo;
+import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.util.Bytes;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -114,6 +121,13 @@ public class HBaseSplitManager
 
         List<StartAndEndKey> startAndEndRowKeys =
                 getStartAndEndKeys(splitByChar, Constants.START_END_KEYS_COUNT);
+
+        // large tables have more regions than first characters, read them region by region on the region servers
+        List<HRegionLocation> regions = getRegionLocations(hbaseTableName);
+        if (regions.size() >= startAndEndRowKeys.size() && regions.stream().allMatch(HBaseSplitManager::hasStringKeys)) {
+            return getSplitsForRegions(regions, tupleDomain, tableHandle, ranges);
+        }
+
         for (StartAndEndKey startAndEndRowKey : startAndEndRowKeys) {
             splits.add(
                     new HBaseSplit(
@@ -132,6 +146,110 @@ public class HBaseSplitManager
         return splits;
     }
 
+    /**
+     * Get one split per region, located on the region server hosting it. Regions that can not contain a rowKey
+     * of the predicate are skipped.
+     *
+     * @param regions regions of the table
+     * @param tupleDomain tupleDomain
+     * @param tableHandle tableHandle
+     * @param ranges ranges of the predicate
+     * @return splits
+     */
+    private List<HBaseSplit> getSplitsForRegions(
+            List<HRegionLocation> regions,
+            TupleDomain<ColumnHandle> tupleDomain,
+            HBaseTableHandle tableHandle,
+            Map<Integer, List<Range>> ranges)
+    {
+        List<HBaseSplit> splits = new ArrayList<>();
+        Optional<Range> rowKeySpan = getRowKeySpan(tupleDomain, tableHandle.getRowIdOrdinal());
+        for (HRegionLocation region : regions) {
+            byte[] startKey = region.getRegion().getStartKey();
+            byte[] endKey = region.getRegion().getEndKey();
+            if (rowKeySpan.isPresent() && !overlaps(rowKeySpan.get(), startKey, endKey)) {
+                continue;
+            }
+            List<HostAddress> hostAddresses = new ArrayList<>();
+            if (region.getHostname() != null) {
+                hostAddresses.add(HostAddress.fromString(region.getHostname()));
+            }
+            splits.add(
+                    new HBaseSplit(
+                            tableHandle.getRowId(),
+                            tableHandle,
+                            hostAddresses,
+                            Bytes.toString(startKey),
+                            Bytes.toString(endKey),
+                            ranges,
+                            -1,
+                            false,
+                            null));
+        }
+
+        printSplits("Region", splits);
+        return splits;
+    }
+
+    private List<HRegionLocation> getRegionLocations(TableName hbaseTableName)
+    {
+        try (RegionLocator regionLocator = hbaseConnection.getConn().getRegionLocator(hbaseTableName)) {
+            List<HRegionLocation> regions = regionLocator.getAllRegionLocations();
+            return regions == null ? Collections.emptyList() : regions;
+        }
+        catch (IOException e) {
+            LOG.warn("Failed to get the regions of %s, split by the first char of rowKey: %s", hbaseTableName.getNameAsString(), e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Split start and end rows are strings, so only regions whose boundaries are valid UTF-8 can be used.
+     */
+    private static boolean hasStringKeys(HRegionLocation region)
+    {
+        byte[] startKey = region.getRegion().getStartKey();
+        byte[] endKey = region.getRegion().getEndKey();
+        return Arrays.equals(Bytes.toBytes(Bytes.toString(startKey)), startKey)
+                && Arrays.equals(Bytes.toBytes(Bytes.toString(endKey)), endKey);
+    }
+
+    private static Optional<Range> getRowKeySpan(TupleDomain<ColumnHandle> tupleDomain, int rowIdOrdinal)
+    {
+        if (!tupleDomain.getDomains().isPresent()) {
+            return Optional.empty();
+        }
+        for (Map.Entry<ColumnHandle, Domain> entry : tupleDomain.getDomains().get().entrySet()) {
+            if (entry.getKey() instanceof HBaseColumnHandle
+                    && ((HBaseColumnHandle) entry.getKey()).getOrdinal() == rowIdOrdinal
+                    && entry.getValue().getType() instanceof VarcharType
+                    && !entry.getValue().getValues().isNone()) {
+                return Optional.of(entry.getValue().getValues().getRanges().getSpan());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether the region [startKey, endKey) may contain a rowKey in the span. Empty keys are unbounded.
+     */
+    private static boolean overlaps(Range span, byte[] startKey, byte[] endKey)
+    {
+        if (!span.getLow().isLowerUnbounded() && endKey.length > 0) {
+            byte[] low = ((Slice) span.getLow().getValue()).getBytes();
+            if (Bytes.compareTo(endKey, low) <= 0) {
+                return false;
+            }
+        }
+        if (!span.getHigh().isUpperUnbounded() && startKey.length > 0) {
+            byte[] high = ((Slice) span.getHigh().getValue()).getBytes();
+            if (Bytes.compareTo(startKey, high) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * In order to get more splits to improve concurrency of tableScan, we slice the split by different character.
      * HBase server support to use startRow and EndRow to get scanner.
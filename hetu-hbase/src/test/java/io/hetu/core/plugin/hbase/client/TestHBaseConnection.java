@@ -154,7 +154,7 @@ public class TestHBaseConnection
     public RegionLocator getRegionLocator(TableName tableName)
             throws IOException
     {
-        return new TestHBaseRegionLocator();
+        return new TestHBaseRegionLocator(tableName);
     }
 
     @Override
@@ -14,12 +14,17 @@
  */
 package io.hetu.core.plugin.hbase.client;
 
+import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.HRegionLocation;
+import org.apache.hadoop.hbase.ServerName;
 import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.RegionInfoBuilder;
 import org.apache.hadoop.hbase.client.RegionLocator;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +36,23 @@ import java.util.Optional;
 public class TestHBaseRegionLocator
         implements RegionLocator
 {
+    /**
+     * Region servers hosting the regions, in turn
+     */
+    public static final int REGION_SERVER_COUNT = 3;
+
+    /**
+     * The table is split before each of these rowKeys, so it has one more region than split keys
+     */
+    public static final String SPLIT_KEYS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private final TableName tableName;
+
+    public TestHBaseRegionLocator(TableName tableName)
+    {
+        this.tableName = tableName;
+    }
+
     @Override
     public HRegionLocation getRegionLocation(byte[] row)
             throws IOException
@@ -68,8 +90,16 @@ public class TestHBaseRegionLocator
     public List<HRegionLocation> getAllRegionLocations()
             throws IOException
     {
-        List<HRegionLocation> hrls = null;
-        return Optional.ofNullable(hrls).orElse(hrls);
+        List<HRegionLocation> hrls = new ArrayList<>();
+        byte[] startKey = HConstants.EMPTY_START_ROW;
+        for (int index = 0; index <= SPLIT_KEYS.length(); index++) {
+            byte[] endKey = index < SPLIT_KEYS.length() ? Bytes.toBytes(SPLIT_KEYS.substring(index, index + 1)) : HConstants.EMPTY_END_ROW;
+            hrls.add(new HRegionLocation(
+                    RegionInfoBuilder.newBuilder(tableName).setStartKey(startKey).setEndKey(endKey).build(),
+                    ServerName.valueOf("regionserver" + (index % REGION_SERVER_COUNT), 16020, 1L)));
+            startKey = endKey;
+        }
+        return hrls;
     }
 
     @Override
@@ -99,8 +129,7 @@ public class TestHBaseRegionLocator
     @Override
     public TableName getName()
     {
-        TableName tableName = null;
-        return Optional.ofNullable(tableName).orElse(tableName);
+        return tableName;
     }
 
     @Override
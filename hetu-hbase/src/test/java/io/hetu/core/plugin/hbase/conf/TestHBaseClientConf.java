@@ -78,6 +78,10 @@ public class TestHBaseClientConf
         hcc.setZkZnodeParent("/hbase");
         assertEquals("/hbase", hcc.getZkZnodeParent());
 
+        assertEquals(10000, hcc.getScanCaching());
+        hcc.setScanCaching(500);
+        assertEquals(500, hcc.getScanCaching());
+
         hcc.setDefaultValue("default");
         assertEquals("default", hcc.getDefaultValue());
 
@@ -14,20 +14,40 @@
  */
 package io.hetu.core.plugin.hbase.split;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.hetu.core.plugin.hbase.client.TestUtils;
 import io.hetu.core.plugin.hbase.conf.HBaseConfig;
+import io.hetu.core.plugin.hbase.connector.HBaseColumnHandle;
 import io.hetu.core.plugin.hbase.connector.HBaseConnection;
 import io.hetu.core.plugin.hbase.connector.HBaseTableHandle;
 import io.hetu.core.plugin.hbase.connector.TestHBaseClientConnection;
+import io.hetu.core.plugin.hbase.metadata.HBaseTable;
 import io.hetu.core.plugin.hbase.metadata.TestingHetuMetastore;
+import io.prestosql.spi.HostAddress;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ConnectorSplit;
+import io.prestosql.spi.connector.ConnectorSplitSource;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.OptionalLong;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.hetu.core.plugin.hbase.client.TestHBaseRegionLocator.REGION_SERVER_COUNT;
+import static io.hetu.core.plugin.hbase.client.TestHBaseRegionLocator.SPLIT_KEYS;
+import static io.prestosql.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static org.testng.Assert.assertEquals;
 
 /**
@@ -41,6 +61,9 @@ public class TestHbaseSplitManager
     private HBaseConfig hCConf = new HBaseConfig();
     private HBaseSplitManager hsm;
     private TestingHetuMetastore hetuMetastore;
+    private final List<HBaseColumnHandle> regionTableColumns = ImmutableList.of(
+            new HBaseColumnHandle("rowkey", Optional.of(""), Optional.of(""), VARCHAR, 0, "HBase row ID", false),
+            new HBaseColumnHandle("name", Optional.of("name"), Optional.of("nick_name"), VARCHAR, 1, "HBase column name:nick_name. Indexed: false", false));
 
     /**
      * setUp
@@ -54,6 +77,20 @@ public class TestHbaseSplitManager
         hconn = new TestHBaseClientConnection(hCConf, hetuMetastore.getHetuMetastore());
         hconn.createConnection();
         hsm = new HBaseSplitManager(hconn);
+
+        // split by the default chars, the table has more regions than split chars
+        HBaseTable regionTable = new HBaseTable(
+                "hbase",
+                "region_table",
+                regionTableColumns,
+                "rowkey",
+                false,
+                Optional.of("io.hetu.core.plugin.hbase.utils.serializers.StringRowSerializer"),
+                Optional.empty(),
+                Optional.of("hbase:region_table"),
+                Optional.of("0~9,a~z,A~Z"));
+        regionTable.setColumnsToMap(ImmutableMap.of("rowkey", regionTableColumns.get(0), "name", regionTableColumns.get(1)));
+        hetuMetastore.getHetuMetastore().addHBaseTable(regionTable);
     }
 
     @AfterClass
@@ -101,4 +138,76 @@ public class TestHbaseSplitManager
 
         hsm.getSplits(null, null, tableHandle, null);
     }
+
+    /**
+     * testGetSplitsForRegions
+     */
+    @Test
+    public void testGetSplitsForRegions()
+    {
+        List<HBaseSplit> splits = getRegionTableSplits(TupleDomain.all());
+
+        // one split per region, placed on the region server hosting it
+        assertEquals(splits.size(), SPLIT_KEYS.length() + 1);
+        for (int index = 0; index < splits.size(); index++) {
+            HBaseSplit split = splits.get(index);
+            assertEquals(split.getStartRow(), index == 0 ? "" : SPLIT_KEYS.substring(index - 1, index));
+            assertEquals(split.getEndRow(), index == SPLIT_KEYS.length() ? "" : SPLIT_KEYS.substring(index, index + 1));
+            assertEquals(split.getAddresses(), ImmutableList.of(HostAddress.fromString("regionserver" + (index % REGION_SERVER_COUNT))));
+        }
+    }
+
+    /**
+     * testGetSplitsForRegionsPrunedByRowKey
+     */
+    @Test
+    public void testGetSplitsForRegionsPrunedByRowKey()
+    {
+        // regions [b, c), [c, d) and [d, e) may contain a rowKey in [b, d]
+        List<HBaseSplit> splits = getRegionTableSplits(rowKeyDomain(Range.range(VARCHAR, utf8Slice("b"), true, utf8Slice("d"), true)));
+        assertEquals(splits.size(), 3);
+        assertEquals(splits.get(0).getStartRow(), "b");
+        assertEquals(splits.get(0).getEndRow(), "c");
+        assertEquals(splits.get(2).getStartRow(), "d");
+        assertEquals(splits.get(2).getEndRow(), "e");
+
+        // the first region has no start key, the last region has no end key
+        splits = getRegionTableSplits(rowKeyDomain(Range.lessThan(VARCHAR, utf8Slice("-"))));
+        assertEquals(splits.size(), 1);
+        assertEquals(splits.get(0).getStartRow(), "");
+        assertEquals(splits.get(0).getEndRow(), "0");
+
+        splits = getRegionTableSplits(rowKeyDomain(Range.greaterThan(VARCHAR, utf8Slice("z"))));
+        assertEquals(splits.size(), 1);
+        assertEquals(splits.get(0).getStartRow(), "z");
+        assertEquals(splits.get(0).getEndRow(), "");
+    }
+
+    private TupleDomain<ColumnHandle> rowKeyDomain(Range range)
+    {
+        return TupleDomain.withColumnDomains(ImmutableMap.of(regionTableColumns.get(0), Domain.create(ValueSet.ofRanges(range), false)));
+    }
+
+    private List<HBaseSplit> getRegionTableSplits(TupleDomain<ColumnHandle> constraint)
+    {
+        HBaseTableHandle tableHandle =
+                new HBaseTableHandle(
+                        "hbase",
+                        "region_table",
+                        "rowkey",
+                        false,
+                        "io.hetu.core.plugin.hbase.utils.serializers.StringRowSerializer",
+                        Optional.of("hbase:region_table"),
+                        "",
+                        constraint,
+                        regionTableColumns,
+                        0,
+                        OptionalLong.empty());
+
+        ConnectorSplitSource splitSource = hsm.getSplits(null, null, tableHandle, null);
+        List<ConnectorSplit> splits = getFutureValue(splitSource.getNextBatch(NOT_PARTITIONED, 1000)).getSplits();
+        return splits.stream()
+                .map(HBaseSplit.class::cast)
+                .collect(toImmutableList());
+    }
 }
@@ -53,6 +53,8 @@ public class MongoClientConfig
 
     // query configurations
     private int cursorBatchSize; // use driver default
+    private long documentsPerSplit = 1_000_000;
+    private int maxSplitsPerTable = 64;
 
     private ReadPreferenceType readPreference = ReadPreferenceType.PRIMARY;
     private WriteConcernType writeConcern = WriteConcernType.ACKNOWLEDGED;
@@ -289,6 +291,32 @@ public class MongoClientConfig
         return this;
     }
 
+    @Min(1)
+    public long getDocumentsPerSplit()
+    {
+        return documentsPerSplit;
+    }
+
+    @Config("mongodb.documents-per-split")
+    public MongoClientConfig setDocumentsPerSplit(long documentsPerSplit)
+    {
+        this.documentsPerSplit = documentsPerSplit;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxSplitsPerTable()
+    {
+        return maxSplitsPerTable;
+    }
+
+    @Config("mongodb.max-splits-per-table")
+    public MongoClientConfig setMaxSplitsPerTable(int maxSplitsPerTable)
+    {
+        this.maxSplitsPerTable = maxSplitsPerTable;
+        return this;
+    }
+
     @NotNull
     public String getImplicitRowFieldPrefix()
     {
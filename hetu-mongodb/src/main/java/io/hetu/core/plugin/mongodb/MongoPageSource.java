@@ -40,6 +40,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -87,11 +88,12 @@ public class MongoPageSource
     public MongoPageSource(
             MongoSession mongoSession,
             MongoTableHandle tableHandle,
-            List<MongoColumnHandle> columns)
+            List<MongoColumnHandle> columns,
+            Optional<Document> rangeFilter)
     {
         this.columnNames = columns.stream().map(MongoColumnHandle::getName).collect(toList());
         this.columnTypes = columns.stream().map(MongoColumnHandle::getType).collect(toList());
-        this.cursor = mongoSession.execute(tableHandle, columns);
+        this.cursor = mongoSession.execute(tableHandle, columns, rangeFilter);
         currentDoc = null;
 
         pageBuilder = new PageBuilder(columnTypes);
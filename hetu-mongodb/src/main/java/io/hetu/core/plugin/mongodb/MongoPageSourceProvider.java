@@ -21,6 +21,7 @@ import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
+import org.bson.Document;
 
 import javax.inject.Inject;
 
@@ -48,12 +49,13 @@ public class MongoPageSourceProvider
             List<ColumnHandle> columns)
     {
         MongoTableHandle tableHandle = (MongoTableHandle) table;
+        MongoSplit mongoSplit = (MongoSplit) split;
 
         ImmutableList.Builder<MongoColumnHandle> handles = ImmutableList.builder();
         for (ColumnHandle handle : requireNonNull(columns, "columns is null")) {
             handles.add((MongoColumnHandle) handle);
         }
 
-        return new MongoPageSource(mongoSession, tableHandle, handles.build());
+        return new MongoPageSource(mongoSession, tableHandle, handles.build(), mongoSplit.getRangeFilter().map(Document::parse));
     }
 }
@@ -70,6 +70,9 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.mongodb.client.model.Aggregates.project;
+import static com.mongodb.client.model.Aggregates.sample;
+import static com.mongodb.client.model.Projections.include;
 import static io.hetu.core.plugin.mongodb.ObjectIdType.OBJECT_ID;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
@@ -78,6 +81,7 @@ import static io.prestosql.spi.type.SmallintType.SMALLINT;
 import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
 import static io.prestosql.spi.type.TinyintType.TINYINT;
 import static io.prestosql.spi.type.VarcharType.createUnboundedVarcharType;
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.util.Locale.ENGLISH;
@@ -98,7 +102,14 @@ public class MongoSession
     private static final String FIELDS_TYPE_KEY = "type";
     private static final String FIELDS_HIDDEN_KEY = "hidden";
 
+    private static final String ID_KEY = "_id";
+    // _id types whose Java ordering is the BSON ordering, so that sampled values can be used as range boundaries
+    private static final Set<Class<?>> SPLITTABLE_ID_CLASSES = ImmutableSet.of(ObjectId.class, Integer.class, Long.class, Date.class);
+    private static final int SAMPLES_PER_SPLIT = 16;
+
     private static final String OR_OP = "$or";
+    private static final String AND_OP = "$and";
+    private static final String NOT_OP = "$not";
 
     private static final String EQ_OP = "$eq";
     private static final String NOT_EQ_OP = "$ne";
@@ -266,7 +277,7 @@ public class MongoSession
         return MongoIndex.parse(getCollection(tableName).listIndexes());
     }
 
-    public MongoCursor<Document> execute(MongoTableHandle tableHandle, List<MongoColumnHandle> columns)
+    public MongoCursor<Document> execute(MongoTableHandle tableHandle, List<MongoColumnHandle> columns, Optional<Document> rangeFilter)
     {
         Document output = new Document();
         for (MongoColumnHandle column : columns) {
@@ -274,6 +285,9 @@ public class MongoSession
         }
         MongoCollection<Document> collection = getCollection(tableHandle.getSchemaTableName());
         Document query = buildQuery(tableHandle.getConstraint());
+        if (rangeFilter.isPresent()) {
+            query = query.isEmpty() ? rangeFilter.get() : new Document(AND_OP, ImmutableList.of(query, rangeFilter.get()));
+        }
         FindIterable<Document> iterable = collection.find(query).projection(output);
         log.debug("Find documents: collection: %s, filter: %s, projection: %s", tableHandle.getSchemaTableName(), query.toJson(), output.toJson());
 
@@ -284,6 +298,78 @@ public class MongoSession
         return iterable.iterator();
     }
 
+    /**
+     * Divides the collection into ranges of _id holding about {@code documentsPerSplit} documents each,
+     * using boundaries taken from a random sample of the collection. Returns a filter per range,
+     * or an empty list if the collection is not worth splitting.
+     */
+    public List<Document> getRangeFilters(SchemaTableName tableName, long documentsPerSplit, int maxSplits)
+    {
+        if (maxSplits <= 1 || isView(tableName)) {
+            return ImmutableList.of();
+        }
+
+        MongoCollection<Document> collection = getCollection(tableName);
+        long splitCount = min(maxSplits, (collection.count() + documentsPerSplit - 1) / documentsPerSplit);
+        if (splitCount <= 1) {
+            return ImmutableList.of();
+        }
+
+        List<Object> ids = new ArrayList<>();
+        for (Document document : collection.aggregate(ImmutableList.of(sample(toIntExact(splitCount * SAMPLES_PER_SPLIT)), project(include(ID_KEY))))) {
+            ids.add(document.get(ID_KEY));
+        }
+        List<Object> boundaries = selectRangeBoundaries(ids, toIntExact(splitCount));
+        log.debug("Split collection %s at _id values %s", tableName, boundaries);
+        return buildRangeFilters(boundaries);
+    }
+
+    @VisibleForTesting
+    @SuppressWarnings("unchecked")
+    static List<Object> selectRangeBoundaries(List<Object> ids, int splitCount)
+    {
+        if (ids.isEmpty() || ids.get(0) == null) {
+            return ImmutableList.of();
+        }
+        Class<?> idClass = ids.get(0).getClass();
+        if (!SPLITTABLE_ID_CLASSES.contains(idClass) || ids.stream().anyMatch(id -> id == null || id.getClass() != idClass)) {
+            return ImmutableList.of();
+        }
+
+        List<Object> sortedIds = ids.stream()
+                .map(id -> (Comparable<Object>) id)
+                .distinct()
+                .sorted()
+                .collect(toList());
+        ImmutableList.Builder<Object> boundaries = ImmutableList.builder();
+        Object previous = null;
+        for (int split = 1; split < splitCount; split++) {
+            Object boundary = sortedIds.get(split * sortedIds.size() / splitCount);
+            if (!boundary.equals(previous)) {
+                boundaries.add(boundary);
+                previous = boundary;
+            }
+        }
+        return boundaries.build();
+    }
+
+    @VisibleForTesting
+    static List<Document> buildRangeFilters(List<Object> boundaries)
+    {
+        if (boundaries.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        ImmutableList.Builder<Document> filters = ImmutableList.builder();
+        // range operators only match values of the same BSON type, so the first range also takes any _id of another type
+        filters.add(documentOf(ID_KEY, documentOf(NOT_OP, documentOf(GTE_OP, boundaries.get(0)))));
+        for (int i = 1; i < boundaries.size(); i++) {
+            filters.add(documentOf(ID_KEY, new Document(GTE_OP, boundaries.get(i - 1)).append(LT_OP, boundaries.get(i))));
+        }
+        filters.add(documentOf(ID_KEY, documentOf(GTE_OP, boundaries.get(boundaries.size() - 1))));
+        return filters.build();
+    }
+
     @VisibleForTesting
     static Document buildQuery(TupleDomain<ColumnHandle> tupleDomain)
     {
@@ -21,32 +21,48 @@ import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.FixedSplitSource;
+import org.bson.Document;
 
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Optional;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.spi.HostAddress.fromParts;
+import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
 public class MongoSplitManager
         implements ConnectorSplitManager
 {
+    private final MongoSession mongoSession;
     private final List<HostAddress> addresses;
+    private final long documentsPerSplit;
+    private final int maxSplitsPerTable;
 
     @Inject
-    public MongoSplitManager(MongoClientConfig config)
+    public MongoSplitManager(MongoSession mongoSession, MongoClientConfig config)
     {
+        this.mongoSession = requireNonNull(mongoSession, "mongoSession is null");
         this.addresses = config.getSeeds().stream()
                 .map(s -> fromParts(s.getHost(), s.getPort()))
                 .collect(toList());
+        this.documentsPerSplit = config.getDocumentsPerSplit();
+        this.maxSplitsPerTable = config.getMaxSplitsPerTable();
     }
 
     @Override
     public ConnectorSplitSource getSplits(ConnectorTransactionHandle transactionHandle, ConnectorSession session, ConnectorTableHandle table, SplitSchedulingStrategy splitSchedulingStrategy)
     {
-        MongoSplit split = new MongoSplit(addresses);
+        MongoTableHandle tableHandle = (MongoTableHandle) table;
+        List<Document> rangeFilters = mongoSession.getRangeFilters(tableHandle.getSchemaTableName(), documentsPerSplit, maxSplitsPerTable);
+        if (rangeFilters.isEmpty()) {
+            return new FixedSplitSource(ImmutableList.of(new MongoSplit(addresses, Optional.empty())));
+        }
 
-        return new FixedSplitSource(ImmutableList.of(split));
+        return new FixedSplitSource(rangeFilters.stream()
+                .map(rangeFilter -> new MongoSplit(addresses, Optional.of(rangeFilter.toJson())))
+                .collect(toImmutableList()));
     }
 }
@@ -43,6 +43,8 @@ public class TestMongoClientConfig
                 .setSslEnabled(false)
                 .setMaxConnectionIdleTime(0)
                 .setCursorBatchSize(0)
+                .setDocumentsPerSplit(1_000_000)
+                .setMaxSplitsPerTable(64)
                 .setReadPreference(ReadPreferenceType.PRIMARY)
                 .setWriteConcern(WriteConcernType.ACKNOWLEDGED)
                 .setRequiredReplicaSetName(null)
@@ -66,6 +68,8 @@ public class TestMongoClientConfig
                 .put("mongodb.ssl.enabled", "true")
                 .put("mongodb.max-connection-idle-time", "180000")
                 .put("mongodb.cursor-batch-size", "1")
+                .put("mongodb.documents-per-split", "5000")
+                .put("mongodb.max-splits-per-table", "8")
                 .put("mongodb.read-preference", "NEAREST")
                 .put("mongodb.write-concern", "UNACKNOWLEDGED")
                 .put("mongodb.required-replica-set", "replica_set")
@@ -86,6 +90,8 @@ public class TestMongoClientConfig
                 .setSslEnabled(true)
                 .setMaxConnectionIdleTime(180_000)
                 .setCursorBatchSize(1)
+                .setDocumentsPerSplit(5000)
+                .setMaxSplitsPerTable(8)
                 .setReadPreference(ReadPreferenceType.NEAREST)
                 .setWriteConcern(WriteConcernType.UNACKNOWLEDGED)
                 .setRequiredReplicaSetName("replica_set")
@@ -20,8 +20,13 @@ import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.predicate.ValueSet;
 import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.spi.predicate.Range.equal;
 import static io.prestosql.spi.predicate.Range.greaterThan;
@@ -103,4 +108,41 @@ public class TestMongoSession
                 new Document(COL1.getName(), new Document("$eq", null))));
         assertEquals(query, expected);
     }
+
+    @Test
+    public void testSelectRangeBoundaries()
+    {
+        List<Object> ids = LongStream.range(0, 100)
+                .map(id -> 99 - id)
+                .boxed()
+                .collect(Collectors.toList());
+        assertEquals(MongoSession.selectRangeBoundaries(ids, 4), ImmutableList.of(25L, 50L, 75L));
+
+        // duplicate boundaries are removed
+        assertEquals(MongoSession.selectRangeBoundaries(ImmutableList.of(1L, 1L, 2L), 4), ImmutableList.of(1L, 2L));
+
+        // mixed or unordered types can not be split
+        assertEquals(MongoSession.selectRangeBoundaries(ImmutableList.of(1L, 2, 3L), 2), ImmutableList.of());
+        assertEquals(MongoSession.selectRangeBoundaries(ImmutableList.of("a", "b", "c"), 2), ImmutableList.of());
+        assertEquals(MongoSession.selectRangeBoundaries(ImmutableList.of(), 2), ImmutableList.of());
+    }
+
+    @Test
+    public void testBuildRangeFilters()
+    {
+        ObjectId first = new ObjectId("5f0000000000000000000000");
+        ObjectId second = new ObjectId("5f1000000000000000000000");
+
+        assertEquals(MongoSession.buildRangeFilters(ImmutableList.of()), ImmutableList.of());
+        assertEquals(
+                MongoSession.buildRangeFilters(ImmutableList.of(first, second)),
+                ImmutableList.of(
+                        new Document("_id", new Document("$not", new Document("$gte", first))),
+                        new Document("_id", new Document("$gte", first).append("$lt", second)),
+                        new Document("_id", new Document("$gte", second))));
+
+        // split filters survive the JSON round trip through MongoSplit
+        Document filter = MongoSession.buildRangeFilters(ImmutableList.of(first)).get(1);
+        assertEquals(Document.parse(filter.toJson()), filter);
+    }
 }
@@ -17,6 +17,8 @@ import com.google.common.collect.ImmutableList;
 import io.airlift.json.JsonCodec;
 import org.testng.annotations.Test;
 
+import java.util.Optional;
+
 import static org.testng.Assert.assertEquals;
 
 public class TestMongoSplit
@@ -26,11 +28,12 @@ public class TestMongoSplit
     @Test
     public void testJsonRoundTrip()
     {
-        MongoSplit expected = new MongoSplit(ImmutableList.of());
+        MongoSplit expected = new MongoSplit(ImmutableList.of(), Optional.of("{\"_id\": {\"$gte\": 10}}"));
 
         String json = codec.toJson(expected);
         MongoSplit actual = codec.fromJson(json);
 
         assertEquals(actual.getAddresses(), ImmutableList.of());
+        assertEquals(actual.getRangeFilter(), expected.getRangeFilter());
     }
 }
@@ -16,6 +16,7 @@ package io.prestosql.plugin.jdbc;
 import io.airlift.configuration.Config;
 import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.ConfigSecuritySensitive;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MinDuration;
 import io.prestosql.plugin.jdbc.optimization.JdbcPushDownModule;
@@ -30,6 +31,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.sql.builder.functioncall.BaseFunctionUtil.parserExternalFunctionCatalogSchema;
 import static io.prestosql.sql.builder.functioncall.BaseFunctionUtil.parserPushDownSupportedRemoteCatalogSchema;
 import static io.prestosql.sql.builder.functioncall.FunctionCallConstants.REMOTE_FUNCTION_CATALOG_SCHEMA;
@@ -63,6 +65,9 @@ public class BaseJdbcConfig
     private boolean jmxEnabled = true;
     // Hetu: JDBC fetch size configuration
     private int fetchSize;
+    private DataSize fetchBufferSize = new DataSize(4, MEGABYTE);
+    private boolean batchReadEnabled;
+    private int batchReadThreads = Runtime.getRuntime().availableProcessors();
     private boolean dmlStatementsCommitInATransaction;
     // Hetu: JDBC query push down enable
     private boolean pushDownEnable = true;
@@ -446,6 +451,47 @@ public class BaseJdbcConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getFetchBufferSize()
+    {
+        return fetchBufferSize;
+    }
+
+    @Config("jdbc.fetch-buffer-size")
+    @ConfigDescription("Approximate size of the rows fetched at once from the remote database, used to derive the fetch size if fetch-size is 0. Assigning 0 will leave the default JDBC connection fetch size.")
+    public BaseJdbcConfig setFetchBufferSize(DataSize fetchBufferSize)
+    {
+        this.fetchBufferSize = fetchBufferSize;
+        return this;
+    }
+
+    public boolean isBatchReadEnabled()
+    {
+        return batchReadEnabled;
+    }
+
+    @Config("jdbc.batch-read-enabled")
+    @ConfigDescription("Read query results directly into pages on background threads. Disabled by default, which reads them row by row through a record cursor")
+    public BaseJdbcConfig setBatchReadEnabled(boolean batchReadEnabled)
+    {
+        this.batchReadEnabled = batchReadEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getBatchReadThreads()
+    {
+        return batchReadThreads;
+    }
+
+    @Config("jdbc.batch-read-threads")
+    @ConfigDescription("Number of background threads reading query results into pages, shared by all splits of the catalog")
+    public BaseJdbcConfig setBatchReadThreads(int batchReadThreads)
+    {
+        this.batchReadThreads = batchReadThreads;
+        return this;
+    }
+
     /**
      * If a connection, all its DML statements, such as Insert, Update or Delete, will be executed and committed as a transaction. Default is false, every 1000 statements will be executed and committed as a transaction.
      */
@@ -0,0 +1,715 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.VerifyException;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.log.Logger;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.ByteArrayBlock;
+import io.prestosql.spi.block.IntArrayBlock;
+import io.prestosql.spi.block.LongArrayBlock;
+import io.prestosql.spi.block.ShortArrayBlock;
+import io.prestosql.spi.block.VariableWidthBlock;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.FixedWidthType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarbinaryType;
+import io.prestosql.spi.type.VarcharType;
+import io.prestosql.spi.type.VariableWidthType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.plugin.jdbc.JdbcErrorCode.JDBC_ERROR;
+import static io.prestosql.spi.block.PageBuilderStatus.DEFAULT_MAX_PAGE_SIZE_IN_BYTES;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static java.lang.Double.doubleToLongBits;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+/**
+ * Reads the result set of a split directly into pages, without going through a {@link JdbcRecordCursor}.
+ * Pages are read on a background thread, so the next page is fetched from the remote database
+ * while the previous one is processed. Values of primitive, character and binary columns are read with the
+ * typed getters of the result set into arrays, from which the blocks of the page are built.
+ */
+public class JdbcPageSource
+        implements ConnectorPageSource
+{
+    private static final Logger log = Logger.get(JdbcPageSource.class);
+
+    private static final int MAX_ROWS_PER_PAGE = 8192;
+    private static final int MIN_FETCH_SIZE = 100;
+    private static final int MAX_FETCH_SIZE = 100_000;
+    private static final int VARIABLE_WIDTH_COLUMN_SIZE = 64;
+    private static final int MAX_COLUMN_SIZE = 4096;
+    // per value overhead of the result set buffers of JDBC drivers
+    private static final int VALUE_OVERHEAD = 16;
+
+    // JDBC types whose typed getters return a primitive value, 0 for a null value
+    private static final Set<Integer> PRIMITIVE_JDBC_TYPES = ImmutableSet.of(
+            Types.BIT, Types.BOOLEAN, Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.REAL, Types.FLOAT, Types.DOUBLE);
+    private static final Set<Type> PRIMITIVE_TYPES = ImmutableSet.of(BOOLEAN, TINYINT, SMALLINT, INTEGER, BIGINT, REAL, DOUBLE);
+    private static final Set<Integer> CHARACTER_JDBC_TYPES = ImmutableSet.of(Types.VARCHAR, Types.NVARCHAR, Types.LONGVARCHAR, Types.LONGNVARCHAR);
+    private static final Set<Integer> BINARY_JDBC_TYPES = ImmutableSet.of(Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY);
+
+    // fetch size of new statements, by the class of the connection creating them
+    private static final Map<Class<?>, Integer> DEFAULT_FETCH_SIZES = new ConcurrentHashMap<>();
+
+    private final JdbcClient jdbcClient;
+    private final Executor executor;
+    private final ColumnBuffer[] columnBuffers;
+    private final Connection connection;
+    private final PreparedStatement statement;
+
+    // only used by the thread reading the next page
+    private ResultSet resultSet;
+    private boolean exhausted;
+
+    private CompletableFuture<Page> nextPage;
+    private boolean finished;
+    private volatile boolean closed;
+    private volatile long readTimeNanos;
+    // size of the pages read but not returned yet
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private long completedBytes;
+    private long completedPositions;
+
+    public JdbcPageSource(JdbcClient jdbcClient, Executor executor, ConnectorSession session, JdbcSplit split, JdbcTableHandle table, List<JdbcColumnHandle> columnHandles, OptionalInt fetchSize)
+    {
+        this.jdbcClient = requireNonNull(jdbcClient, "jdbcClient is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.columnBuffers = new ColumnBuffer[columnHandles.size()];
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = jdbcClient.getConnection(JdbcIdentity.from(session), split);
+            for (int i = 0; i < columnBuffers.length; i++) {
+                JdbcColumnHandle columnHandle = columnHandles.get(i);
+                ColumnMapping columnMapping = jdbcClient.toPrestoType(session, connection, columnHandle.getJdbcTypeHandle())
+                        .orElseThrow(() -> new VerifyException("Unsupported column type"));
+                columnBuffers[i] = createColumnBuffer(columnHandle.getColumnType(), columnHandle.getJdbcTypeHandle().getJdbcType(), columnMapping.getReadFunction());
+            }
+            statement = jdbcClient.buildSql(session, connection, split, table, columnHandles);
+            // keep a fetch size the client has already chosen for its database
+            if (fetchSize.isPresent() && hasDefaultFetchSize(connection, statement)) {
+                statement.setFetchSize(fetchSize.getAsInt());
+            }
+        }
+        catch (SQLException | RuntimeException e) {
+            closeQuietly(statement);
+            closeQuietly(connection);
+            throw new PrestoException(JDBC_ERROR, e);
+        }
+        this.connection = connection;
+        this.statement = statement;
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return completedBytes;
+    }
+
+    @Override
+    public OptionalLong getCompletedPositionCount()
+    {
+        return OptionalLong.of(completedPositions);
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        if (finished) {
+            return null;
+        }
+        if (nextPage == null) {
+            nextPage = supplyAsync(this::readPage, executor);
+        }
+        if (!nextPage.isDone()) {
+            return null;
+        }
+
+        Page page;
+        try {
+            page = nextPage.join();
+        }
+        catch (CompletionException e) {
+            close();
+            throwIfInstanceOf(e.getCause(), PrestoException.class);
+            throw new PrestoException(JDBC_ERROR, e.getCause());
+        }
+        if (page == null) {
+            close();
+            return null;
+        }
+
+        queuedBytes.addAndGet(-page.getRetainedSizeInBytes());
+        completedBytes += page.getSizeInBytes();
+        completedPositions += page.getPositionCount();
+        // fetch the next page while this one is processed
+        nextPage = supplyAsync(this::readPage, executor);
+        return page;
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        if (finished || nextPage == null || nextPage.isDone()) {
+            return NOT_BLOCKED;
+        }
+        // failures are reported by getNextPage
+        return nextPage.handle((page, failure) -> null);
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return queuedBytes.get();
+    }
+
+    @Override
+    public void close()
+    {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        closed = true;
+
+        if (nextPage != null && !nextPage.isDone()) {
+            // the result set is still in use by the reading thread
+            try {
+                statement.cancel();
+            }
+            catch (SQLException | RuntimeException e) {
+                log.debug(e, "Failed to cancel statement");
+            }
+            try {
+                nextPage.join();
+            }
+            catch (CompletionException ignored) {
+                // the read was aborted
+            }
+        }
+
+        // pages read ahead are dropped
+        queuedBytes.set(0);
+        closeQuietly(resultSet);
+        closeQuietly(statement);
+        try {
+            jdbcClient.abortReadConnection(connection);
+        }
+        catch (SQLException | RuntimeException e) {
+            // ignore exception from close
+            log.warn(e.toString());
+        }
+        closeQuietly(connection);
+    }
+
+    private Page readPage()
+    {
+        long start = System.nanoTime();
+        try {
+            if (resultSet == null) {
+                log.debug("Executing: %s", statement);
+                resultSet = statement.executeQuery();
+            }
+            for (ColumnBuffer columnBuffer : columnBuffers) {
+                columnBuffer.reset();
+            }
+            int positionCount = 0;
+            while (!exhausted && !closed && positionCount < MAX_ROWS_PER_PAGE && !isFull(positionCount)) {
+                if (!resultSet.next()) {
+                    exhausted = true;
+                    break;
+                }
+                for (int i = 0; i < columnBuffers.length; i++) {
+                    columnBuffers[i].read(resultSet, i + 1, positionCount);
+                }
+                positionCount++;
+            }
+
+            if (positionCount == 0) {
+                return null;
+            }
+            Block[] blocks = new Block[columnBuffers.length];
+            for (int i = 0; i < columnBuffers.length; i++) {
+                blocks[i] = columnBuffers[i].build(positionCount);
+            }
+            Page page = new Page(positionCount, blocks);
+            queuedBytes.addAndGet(page.getRetainedSizeInBytes());
+            return page;
+        }
+        catch (SQLException e) {
+            throw new PrestoException(JDBC_ERROR, e);
+        }
+        finally {
+            readTimeNanos += System.nanoTime() - start;
+        }
+    }
+
+    private boolean isFull(int positionCount)
+    {
+        long sizeInBytes = 0;
+        for (ColumnBuffer columnBuffer : columnBuffers) {
+            sizeInBytes += columnBuffer.getSizeInBytes(positionCount);
+        }
+        return sizeInBytes >= DEFAULT_MAX_PAGE_SIZE_IN_BYTES;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable)
+    {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        }
+        catch (Exception e) {
+            // ignore exception from close
+            log.warn(e.toString());
+        }
+    }
+
+    /**
+     * Whether the statement still uses the fetch size the driver gives new statements of the connection.
+     * The default fetch size is looked up once for each driver.
+     */
+    @VisibleForTesting
+    static boolean hasDefaultFetchSize(Connection connection, Statement statement)
+            throws SQLException
+    {
+        Integer defaultFetchSize = DEFAULT_FETCH_SIZES.get(connection.getClass());
+        if (defaultFetchSize == null) {
+            try (Statement defaultStatement = connection.createStatement()) {
+                defaultFetchSize = defaultStatement.getFetchSize();
+            }
+            DEFAULT_FETCH_SIZES.putIfAbsent(connection.getClass(), defaultFetchSize);
+        }
+        return statement.getFetchSize() == defaultFetchSize;
+    }
+
+    /**
+     * Fetch size at which one fetch from the remote database holds about {@code fetchBufferBytes} of rows of the given columns.
+     */
+    @VisibleForTesting
+    static int getFetchSize(List<JdbcColumnHandle> columnHandles, long fetchBufferBytes)
+    {
+        long rowSize = 0;
+        for (JdbcColumnHandle columnHandle : columnHandles) {
+            rowSize += getColumnSize(columnHandle.getJdbcTypeHandle()) + VALUE_OVERHEAD;
+        }
+        return (int) min(MAX_FETCH_SIZE, max(MIN_FETCH_SIZE, fetchBufferBytes / max(rowSize, 1)));
+    }
+
+    private static int getColumnSize(JdbcTypeHandle typeHandle)
+    {
+        switch (typeHandle.getJdbcType()) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+                return 1;
+            case Types.SMALLINT:
+                return 2;
+            case Types.INTEGER:
+            case Types.REAL:
+            case Types.DATE:
+                return 4;
+            case Types.BIGINT:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return 8;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.TIME_WITH_TIMEZONE:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return 16;
+            default:
+                // character, binary and other variable width types
+                if (typeHandle.getColumnSize() <= 0) {
+                    return VARIABLE_WIDTH_COLUMN_SIZE;
+                }
+                return min(typeHandle.getColumnSize(), MAX_COLUMN_SIZE);
+        }
+    }
+
+    private static ColumnBuffer createColumnBuffer(Type type, int jdbcType, ReadFunction readFunction)
+    {
+        Class<?> javaType = type.getJavaType();
+        if (type instanceof FixedWidthType && (javaType == boolean.class || javaType == long.class || javaType == double.class)) {
+            int fixedSize = ((FixedWidthType) type).getFixedSize();
+            if (fixedSize == Byte.BYTES || fixedSize == Short.BYTES || fixedSize == Integer.BYTES || fixedSize == Long.BYTES) {
+                // typed getters of primitive columns return 0 for a null value, other read functions may dereference it
+                boolean nullSafe = PRIMITIVE_JDBC_TYPES.contains(jdbcType) && PRIMITIVE_TYPES.contains(type);
+                return new FixedWidthColumnBuffer(fixedSize, createValueReader(javaType, readFunction), nullSafe);
+            }
+        }
+        if (type instanceof VarcharType && CHARACTER_JDBC_TYPES.contains(jdbcType)) {
+            return new VariableWidthColumnBuffer((resultSet, index) -> {
+                String value = resultSet.getString(index);
+                return value == null ? null : utf8Slice(value);
+            });
+        }
+        if (type instanceof VarbinaryType && BINARY_JDBC_TYPES.contains(jdbcType)) {
+            return new VariableWidthColumnBuffer((resultSet, index) -> {
+                byte[] value = resultSet.getBytes(index);
+                return value == null ? null : wrappedBuffer(value);
+            });
+        }
+        if (type instanceof VariableWidthType && javaType == Slice.class) {
+            SliceReadFunction function = (SliceReadFunction) readFunction;
+            return new VariableWidthColumnBuffer((resultSet, index) -> {
+                // the read function does not handle null values
+                resultSet.getObject(index);
+                return resultSet.wasNull() ? null : function.readSlice(resultSet, index);
+            });
+        }
+        return new BlockBuilderColumnBuffer(type, createColumnReader(type, readFunction));
+    }
+
+    private static ValueReader createValueReader(Class<?> javaType, ReadFunction readFunction)
+    {
+        if (javaType == boolean.class) {
+            BooleanReadFunction function = (BooleanReadFunction) readFunction;
+            return (resultSet, index) -> function.readBoolean(resultSet, index) ? 1 : 0;
+        }
+        if (javaType == double.class) {
+            DoubleReadFunction function = (DoubleReadFunction) readFunction;
+            return (resultSet, index) -> doubleToLongBits(function.readDouble(resultSet, index));
+        }
+        LongReadFunction function = (LongReadFunction) readFunction;
+        return function::readLong;
+    }
+
+    private static ColumnReader createColumnReader(Type type, ReadFunction readFunction)
+    {
+        Class<?> javaType = type.getJavaType();
+        if (javaType == boolean.class) {
+            BooleanReadFunction function = (BooleanReadFunction) readFunction;
+            return (resultSet, index, output) -> type.writeBoolean(output, function.readBoolean(resultSet, index));
+        }
+        if (javaType == double.class) {
+            DoubleReadFunction function = (DoubleReadFunction) readFunction;
+            return (resultSet, index, output) -> type.writeDouble(output, function.readDouble(resultSet, index));
+        }
+        if (javaType == long.class) {
+            LongReadFunction function = (LongReadFunction) readFunction;
+            return (resultSet, index, output) -> type.writeLong(output, function.readLong(resultSet, index));
+        }
+        if (javaType == Slice.class) {
+            SliceReadFunction function = (SliceReadFunction) readFunction;
+            return (resultSet, index, output) -> {
+                Slice slice = function.readSlice(resultSet, index);
+                type.writeSlice(output, slice, 0, slice.length());
+            };
+        }
+        if (javaType == Block.class) {
+            BlockReadFunction function = (BlockReadFunction) readFunction;
+            return (resultSet, index, output) -> type.writeObject(output, function.readBlock(resultSet, index));
+        }
+        throw new IllegalStateException(format("Unsupported java type %s", javaType));
+    }
+
+    /**
+     * Values of one column of the page being read.
+     */
+    private interface ColumnBuffer
+    {
+        /**
+         * Starts the next page. The buffers of the previous page belong to its blocks.
+         */
+        void reset();
+
+        void read(ResultSet resultSet, int columnIndex, int position)
+                throws SQLException;
+
+        long getSizeInBytes(int positionCount);
+
+        Block build(int positionCount);
+    }
+
+    private static class FixedWidthColumnBuffer
+            implements ColumnBuffer
+    {
+        private final int fixedSize;
+        private final ValueReader valueReader;
+        private final boolean nullSafe;
+
+        private boolean[] valueIsNull;
+        private boolean hasNull;
+        private long[] longValues;
+        private int[] intValues;
+        private short[] shortValues;
+        private byte[] byteValues;
+
+        public FixedWidthColumnBuffer(int fixedSize, ValueReader valueReader, boolean nullSafe)
+        {
+            this.fixedSize = fixedSize;
+            this.valueReader = valueReader;
+            this.nullSafe = nullSafe;
+        }
+
+        @Override
+        public void reset()
+        {
+            valueIsNull = new boolean[MAX_ROWS_PER_PAGE];
+            hasNull = false;
+            switch (fixedSize) {
+                case Long.BYTES:
+                    longValues = new long[MAX_ROWS_PER_PAGE];
+                    break;
+                case Integer.BYTES:
+                    intValues = new int[MAX_ROWS_PER_PAGE];
+                    break;
+                case Short.BYTES:
+                    shortValues = new short[MAX_ROWS_PER_PAGE];
+                    break;
+                default:
+                    byteValues = new byte[MAX_ROWS_PER_PAGE];
+            }
+        }
+
+        @Override
+        public void read(ResultSet resultSet, int columnIndex, int position)
+                throws SQLException
+        {
+            long value = 0;
+            if (nullSafe) {
+                value = valueReader.read(resultSet, columnIndex);
+                valueIsNull[position] = resultSet.wasNull();
+            }
+            else {
+                resultSet.getObject(columnIndex);
+                valueIsNull[position] = resultSet.wasNull();
+                if (!valueIsNull[position]) {
+                    value = valueReader.read(resultSet, columnIndex);
+                }
+            }
+            hasNull |= valueIsNull[position];
+
+            switch (fixedSize) {
+                case Long.BYTES:
+                    longValues[position] = value;
+                    break;
+                case Integer.BYTES:
+                    intValues[position] = (int) value;
+                    break;
+                case Short.BYTES:
+                    shortValues[position] = (short) value;
+                    break;
+                default:
+                    byteValues[position] = (byte) value;
+            }
+        }
+
+        @Override
+        public long getSizeInBytes(int positionCount)
+        {
+            return (long) positionCount * (fixedSize + Byte.BYTES);
+        }
+
+        @Override
+        public Block build(int positionCount)
+        {
+            Optional<boolean[]> nulls = hasNull ? Optional.of(Arrays.copyOf(valueIsNull, positionCount)) : Optional.empty();
+            switch (fixedSize) {
+                case Long.BYTES:
+                    return new LongArrayBlock(positionCount, nulls, Arrays.copyOf(longValues, positionCount));
+                case Integer.BYTES:
+                    return new IntArrayBlock(positionCount, nulls, Arrays.copyOf(intValues, positionCount));
+                case Short.BYTES:
+                    return new ShortArrayBlock(positionCount, nulls, Arrays.copyOf(shortValues, positionCount));
+                default:
+                    return new ByteArrayBlock(positionCount, nulls, Arrays.copyOf(byteValues, positionCount));
+            }
+        }
+    }
+
+    private static class VariableWidthColumnBuffer
+            implements ColumnBuffer
+    {
+        private final SliceReader sliceReader;
+
+        private SliceOutput output;
+        private int[] offsets;
+        private boolean[] valueIsNull;
+        private boolean hasNull;
+
+        public VariableWidthColumnBuffer(SliceReader sliceReader)
+        {
+            this.sliceReader = sliceReader;
+        }
+
+        @Override
+        public void reset()
+        {
+            output = new DynamicSliceOutput(MAX_ROWS_PER_PAGE * Long.BYTES);
+            offsets = new int[MAX_ROWS_PER_PAGE + 1];
+            valueIsNull = new boolean[MAX_ROWS_PER_PAGE];
+            hasNull = false;
+        }
+
+        @Override
+        public void read(ResultSet resultSet, int columnIndex, int position)
+                throws SQLException
+        {
+            Slice value = sliceReader.read(resultSet, columnIndex);
+            if (value == null) {
+                valueIsNull[position] = true;
+                hasNull = true;
+            }
+            else {
+                output.writeBytes(value);
+            }
+            offsets[position + 1] = output.size();
+        }
+
+        @Override
+        public long getSizeInBytes(int positionCount)
+        {
+            return output.size() + (long) positionCount * (Integer.BYTES + Byte.BYTES);
+        }
+
+        @Override
+        public Block build(int positionCount)
+        {
+            Optional<boolean[]> nulls = hasNull ? Optional.of(Arrays.copyOf(valueIsNull, positionCount)) : Optional.empty();
+            return new VariableWidthBlock(positionCount, output.slice(), Arrays.copyOf(offsets, positionCount + 1), nulls);
+        }
+    }
+
+    /**
+     * Columns of other types are read value by value into a block builder.
+     */
+    private static class BlockBuilderColumnBuffer
+            implements ColumnBuffer
+    {
+        private final Type type;
+        private final ColumnReader columnReader;
+
+        private BlockBuilder blockBuilder;
+
+        public BlockBuilderColumnBuffer(Type type, ColumnReader columnReader)
+        {
+            this.type = type;
+            this.columnReader = columnReader;
+        }
+
+        @Override
+        public void reset()
+        {
+            blockBuilder = type.createBlockBuilder(null, MAX_ROWS_PER_PAGE);
+        }
+
+        @Override
+        public void read(ResultSet resultSet, int columnIndex, int position)
+                throws SQLException
+        {
+            // the read functions do not handle null values
+            resultSet.getObject(columnIndex);
+            if (resultSet.wasNull()) {
+                blockBuilder.appendNull();
+            }
+            else {
+                columnReader.read(resultSet, columnIndex, blockBuilder);
+            }
+        }
+
+        @Override
+        public long getSizeInBytes(int positionCount)
+        {
+            return blockBuilder.getSizeInBytes();
+        }
+
+        @Override
+        public Block build(int positionCount)
+        {
+            return blockBuilder.build();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ValueReader
+    {
+        long read(ResultSet resultSet, int columnIndex)
+                throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface SliceReader
+    {
+        Slice read(ResultSet resultSet, int columnIndex)
+                throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader
+    {
+        void read(ResultSet resultSet, int columnIndex, BlockBuilder output)
+                throws SQLException;
+    }
+}
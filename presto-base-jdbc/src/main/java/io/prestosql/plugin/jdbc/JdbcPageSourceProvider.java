@@ -14,6 +14,7 @@
  */
 package io.prestosql.plugin.jdbc;
 
+import com.google.common.collect.ImmutableList;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorPageSourceProvider;
@@ -24,11 +25,16 @@ import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.RecordPageSource;
 import io.prestosql.spi.connector.RecordSet;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
 
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 
 public class JdbcPageSourceProvider
         implements ConnectorPageSourceProvider
@@ -36,6 +42,7 @@ public class JdbcPageSourceProvider
     private JdbcRecordSetProvider recordSetProvider;
     private final JdbcClient jdbcClient;
     private final BaseJdbcConfig config;
+    private final ExecutorService executor;
 
     @Inject
     public JdbcPageSourceProvider(@InternalBaseJdbc JdbcClient jdbcClient, BaseJdbcConfig config, JdbcRecordSetProvider recordSetProvider)
@@ -43,12 +50,23 @@ public class JdbcPageSourceProvider
         this.jdbcClient = requireNonNull(jdbcClient, "jdbcClient is null");
         this.config = requireNonNull(config, "config is null");
         this.recordSetProvider = requireNonNull(recordSetProvider, "recordSetProvider is null");
+        // each task reads one page, so splits take turns on the threads
+        this.executor = newFixedThreadPool(config.getBatchReadThreads(), daemonThreadsNamed("jdbc-page-source-%s"));
     }
 
     @Override
     public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<ColumnHandle> columns)
     {
         JdbcTableHandle jdbcTableHandle = (JdbcTableHandle) table;
+        if (!jdbcTableHandle.getDeleteOrUpdate() && config.isBatchReadEnabled()) {
+            ImmutableList.Builder<JdbcColumnHandle> handles = ImmutableList.builder();
+            for (ColumnHandle handle : columns) {
+                handles.add((JdbcColumnHandle) handle);
+            }
+            List<JdbcColumnHandle> columnHandles = handles.build();
+            return new JdbcPageSource(jdbcClient, executor, session, (JdbcSplit) split, jdbcTableHandle, columnHandles, getFetchSize(columnHandles));
+        }
+
         RecordSet recordSet = recordSetProvider.getRecordSet(transaction, session, split, table, columns);
         if (jdbcTableHandle.getDeleteOrUpdate()) {
             return new JdbcUpdatablePageSource(recordSet, session, table, jdbcClient, config, (JdbcSplit) split);
@@ -57,4 +75,19 @@ public class JdbcPageSourceProvider
             return new RecordPageSource(recordSet);
         }
     }
+
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    private OptionalInt getFetchSize(List<JdbcColumnHandle> columnHandles)
+    {
+        // an explicit fetch size is set by the client
+        if (config.getFetchSize() > 0 || config.getFetchBufferSize().toBytes() == 0) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(JdbcPageSource.getFetchSize(columnHandles, config.getFetchBufferSize().toBytes()));
+    }
 }
@@ -44,8 +44,8 @@ public class JdbcSplitManager
     public ConnectorSplitSource getSplits(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorTableHandle table, SplitSchedulingStrategy splitSchedulingStrategy)
     {
         JdbcTableHandle tableHandle = (JdbcTableHandle) table;
-        //table split eanble and no pushdown operator
-        if (tableSplitEnable && !tableHandle.getGeneratedSql().isPresent()) {
+        //table split enable and no pushdown operator, or the pushed down query only filters and projects the table
+        if (tableSplitEnable && (!tableHandle.getGeneratedSql().isPresent() || !tableHandle.getGeneratedSql().get().getSplitColumns().isEmpty())) {
             return tableSplitManager.getSplits(JdbcIdentity.from(session), tableHandle);
         }
         return jdbcClient.getSplits(JdbcIdentity.from(session), tableHandle);
@@ -15,6 +15,7 @@
 package io.prestosql.plugin.jdbc.optimization;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.log.Logger;
 import io.prestosql.plugin.jdbc.JdbcColumnHandle;
@@ -40,6 +41,7 @@ import io.prestosql.spi.plan.UnionNode;
 import io.prestosql.spi.plan.WindowNode;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.relation.RowExpression;
+import io.prestosql.spi.relation.VariableReferenceExpression;
 import io.prestosql.spi.sql.QueryGenerator;
 import io.prestosql.spi.sql.SqlStatementWriter;
 import io.prestosql.spi.sql.expression.OrderBy;
@@ -47,6 +49,7 @@ import io.prestosql.spi.sql.expression.Selection;
 import io.prestosql.spi.sql.expression.Types;
 import io.prestosql.spi.type.TypeManager;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -146,7 +149,7 @@ public class BaseJdbcQueryGenerator
 
         boolean isPushDown = context.isHasPushDown();
 
-        return new GeneratedSql(sql, isPushDown);
+        return new GeneratedSql(sql, isPushDown, context.getSplitColumns());
     }
 
     protected class BaseJdbcPlanVisitor
@@ -190,6 +193,7 @@ public class BaseJdbcQueryGenerator
                     .setSelections(getProjectSelections(context.getSelections()))
                     .setFrom(getDerivedTable(buildSql(context).getSql(), derivedTableIdentifier++))
                     .setFilter(Optional.of(filter))
+                    .setSplitColumns(context.getSplitColumns())
                     .setOutputColumns(node.getOutputSymbols())
                     .setHasPushDown(true)
                     .build());
@@ -303,10 +307,23 @@ public class BaseJdbcQueryGenerator
                 newSelections.put(entry.getKey().getName(), new Selection(entry.getValue().accept(converter, jdbcConverterContext), entry.getKey().getName()));
             }
 
+            // columns that are only renamed can still be used to split the table
+            Map<String, String> splitColumns = new HashMap<>();
+            for (Map.Entry<String, String> splitColumn : context.getSplitColumns().entrySet()) {
+                for (Map.Entry<Symbol, RowExpression> entry : assignments.entrySet()) {
+                    if (entry.getValue() instanceof VariableReferenceExpression
+                            && ((VariableReferenceExpression) entry.getValue()).getName().equals(splitColumn.getValue())) {
+                        splitColumns.put(splitColumn.getKey(), entry.getKey().getName());
+                        break;
+                    }
+                }
+            }
+
             return Optional.of(buildAsNewTable(context)
                     .setHasPushDown(true)
                     .setFrom(getDerivedTable(buildSql(context).getSql(), derivedTableIdentifier++))
                     .setSelections(newSelections)
+                    .setSplitColumns(splitColumns)
                     .setOutputColumns(node.getOutputSymbols())
                     .build());
         }
@@ -400,9 +417,11 @@ public class BaseJdbcQueryGenerator
             JdbcTableHandle jdbcTableHandle = (JdbcTableHandle) node.getTable().getConnectorHandle();
             checkArgument(!jdbcTableHandle.getGeneratedSql().isPresent(), "Jdbc tableHandle should not have sql before pushdown");
             LinkedHashMap<String, Selection> selections = new LinkedHashMap<>();
+            Map<String, String> splitColumns = new HashMap<>();
             node.getOutputSymbols().forEach(outputColumn -> {
                 JdbcColumnHandle jdbcColumn = (JdbcColumnHandle) node.getAssignments().get(outputColumn);
                 selections.put(outputColumn.getName(), new Selection(jdbcColumn.getColumnName(), outputColumn.getName()));
+                splitColumns.put(jdbcColumn.getColumnName(), outputColumn.getName());
             });
             StringBuilder table = new StringBuilder();
             if (!isNullOrEmpty(jdbcTableHandle.getCatalogName())) {
@@ -438,6 +457,9 @@ public class BaseJdbcQueryGenerator
                 contextBuilder.setLimit(jdbcTableHandle.getLimit());
                 contextBuilder.setHasPushDown(true);
             }
+            else {
+                contextBuilder.setSplitColumns(splitColumns);
+            }
 
             return Optional.of(contextBuilder.build());
         }
@@ -542,6 +564,7 @@ public class BaseJdbcQueryGenerator
             JdbcQueryGeneratorContext context = sourceContext.get();
             return Optional.of(buildFrom(context)
                     .setHasPushDown(true)
+                    .setSplitColumns(ImmutableMap.of())
                     .setLimit(OptionalLong.of(node.getCount()))
                     .setOutputColumns(node.getOutputSymbols())
                     .build());
@@ -286,7 +286,7 @@ public class JdbcPlanOptimizer
                             context.getRemoteTableName(),
                             TupleDomain.all(),
                             OptionalLong.empty(),
-                            Optional.of(new GeneratedSql(sql, true)),
+                            Optional.of(new GeneratedSql(sql, true, generatedSql.getSplitColumns())),
                             false),
                     context.getTransaction().get(),
                     Optional.empty());
@@ -14,6 +14,7 @@
  */
 package io.prestosql.plugin.jdbc.optimization;
 
+import com.google.common.collect.ImmutableMap;
 import io.prestosql.spi.connector.CatalogName;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.SchemaTableName;
@@ -31,6 +32,7 @@ import java.util.OptionalLong;
 import java.util.Set;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.Objects.requireNonNull;
 
 public final class JdbcQueryGeneratorContext
@@ -50,6 +52,8 @@ public final class JdbcQueryGeneratorContext
     private final Optional<List<OrderBy>> orderBy;
     private final boolean hasPushDown;
     private final GroupIdNodeInfo groupIdNodeInfo;
+    // columns of the scanned table that are still selected unchanged, only kept while the query filters and projects a single table
+    private final Map<String, String> splitColumns;
 
     private JdbcQueryGeneratorContext(
             Optional<CatalogName> catalogName,
@@ -65,7 +69,8 @@ public final class JdbcQueryGeneratorContext
             OptionalLong limit,
             Optional<List<OrderBy>> orderBy,
             GroupIdNodeInfo groupIdNodeInfo,
-            boolean hasPushDown)
+            boolean hasPushDown,
+            Map<String, String> splitColumns)
     {
         this.catalogName = catalogName;
         this.schemaTableName = schemaTableName;
@@ -81,6 +86,9 @@ public final class JdbcQueryGeneratorContext
         this.orderBy = orderBy;
         this.groupIdNodeInfo = groupIdNodeInfo;
         this.hasPushDown = hasPushDown;
+        this.splitColumns = requireNonNull(splitColumns, "splitColumns is null").entrySet().stream()
+                .filter(entry -> this.selections.containsKey(entry.getValue()))
+                .collect(toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
     }
 
     public Optional<CatalogName> getCatalogName()
@@ -153,6 +161,14 @@ public final class JdbcQueryGeneratorContext
         return hasPushDown;
     }
 
+    /**
+     * Remote column name to selection alias of the columns a split range predicate can be applied to
+     */
+    public Map<String, String> getSplitColumns()
+    {
+        return splitColumns;
+    }
+
     @Override
     public String toString()
     {
@@ -229,6 +245,7 @@ public final class JdbcQueryGeneratorContext
         private Optional<List<OrderBy>> orderBy = Optional.empty();
         private GroupIdNodeInfo groupIdNodeInfo = new GroupIdNodeInfo();
         private boolean hasPushDown;
+        private Map<String, String> splitColumns = ImmutableMap.of();
 
         public Builder() {}
 
@@ -248,6 +265,7 @@ public final class JdbcQueryGeneratorContext
             this.orderBy = context.getOrderBy();
             this.hasPushDown = context.isHasPushDown();
             this.groupIdNodeInfo = context.getGroupIdNodeInfo();
+            this.splitColumns = context.getSplitColumns();
         }
 
         private Builder(
@@ -346,6 +364,12 @@ public final class JdbcQueryGeneratorContext
             return this;
         }
 
+        public Builder setSplitColumns(Map<String, String> splitColumns)
+        {
+            this.splitColumns = splitColumns;
+            return this;
+        }
+
         public Builder setOutputColumns(List<Symbol> outputColumns)
         {
             LinkedHashMap<String, Selection> newSelections = new LinkedHashMap<>();
@@ -383,7 +407,8 @@ public final class JdbcQueryGeneratorContext
                     limit,
                     orderBy,
                     groupIdNodeInfo,
-                    hasPushDown);
+                    hasPushDown,
+                    splitColumns);
         }
     }
 }
@@ -16,6 +16,9 @@ package io.prestosql.plugin.jdbc.optimization;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 
@@ -46,14 +49,22 @@ public class JdbcQueryGeneratorResult
     {
         private final String sql;
         private final boolean isPushDown;
+        private final Map<String, String> splitColumns;
+
+        public GeneratedSql(String sql, boolean isPushDown)
+        {
+            this(sql, isPushDown, ImmutableMap.of());
+        }
 
         @JsonCreator
         public GeneratedSql(
                 @JsonProperty("sql") String sql,
-                @JsonProperty("isPushDown") boolean isPushDown)
+                @JsonProperty("isPushDown") boolean isPushDown,
+                @JsonProperty("splitColumns") Map<String, String> splitColumns)
         {
             this.sql = sql;
             this.isPushDown = isPushDown;
+            this.splitColumns = splitColumns == null ? ImmutableMap.of() : ImmutableMap.copyOf(splitColumns);
         }
 
         @JsonProperty("sql")
@@ -68,12 +79,24 @@ public class JdbcQueryGeneratorResult
             return isPushDown;
         }
 
+        /**
+         * Remote column name to output column name of the table columns the sql returns unchanged.
+         * Only present when the sql filters and projects a single table, so that a range of
+         * the column can be read by each split.
+         */
+        @JsonProperty("splitColumns")
+        public Map<String, String> getSplitColumns()
+        {
+            return splitColumns;
+        }
+
         @Override
         public String toString()
         {
             return toStringHelper(this)
                     .add("sql", sql)
                     .add("isPushDown", isPushDown)
+                    .add("splitColumns", splitColumns)
                     .toString();
         }
     }
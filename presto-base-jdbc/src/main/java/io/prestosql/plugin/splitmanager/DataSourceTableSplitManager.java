@@ -132,6 +132,10 @@ public class DataSourceTableSplitManager
                     splitConfig.getSplitField());
             return getFixedSplitSource(jdbcTableHandle);
         }
+        Optional<String> splitColumn = getSplitColumn(jdbcTableHandle, splitConfig.getSplitField());
+        if (!splitColumn.isPresent()) {
+            return getFixedSplitSource(jdbcTableHandle);
+        }
         long timeStamp = System.nanoTime();
         if (splitConfig.isCalcStepEnable()) {
             List<SplitStatLog> splitLogs;
@@ -147,8 +151,8 @@ public class DataSourceTableSplitManager
             }
 
             for (SplitStatLog splitLog : splitLogs) {
-                String splitPart = splitConfig.getSplitField() + " > " + splitLog.getBeginIndex() + " and "
-                        + splitConfig.getSplitField() + " <= " + splitLog.getEndIndex();
+                String splitPart = splitColumn.get() + " > " + splitLog.getBeginIndex() + " and "
+                        + splitColumn.get() + " <= " + splitLog.getEndIndex();
                 JdbcSplit jdbcSplit = new JdbcSplit(splitLog.getCatalogName(),
                         splitLog.getSchemaName(),
                         splitLog.getTableName(),
@@ -173,7 +177,7 @@ public class DataSourceTableSplitManager
             catch (SQLException e) {
                 return getFixedSplitSource(jdbcTableHandle);
             }
-            splitTable(fieldMinAndMaxValue, jdbcTableHandle, jdbcSplitsList, splitConfig, timeStamp);
+            splitTable(fieldMinAndMaxValue, jdbcTableHandle, jdbcSplitsList, splitConfig, splitColumn.get(), timeStamp);
         }
 
         //submit static log, and filter fixed split source
@@ -194,6 +198,21 @@ public class DataSourceTableSplitManager
         return new DataSourceSplitSource(jdbcSplitsList);
     }
 
+    /**
+     * Column the split ranges are applied to. When the query is pushed down, the ranges are applied to the
+     * output of the generated sql, so the split field must be returned unchanged by it.
+     */
+    private static Optional<String> getSplitColumn(JdbcTableHandle tableHandle, String splitField)
+    {
+        if (!tableHandle.getGeneratedSql().isPresent()) {
+            return Optional.of(splitField);
+        }
+        return tableHandle.getGeneratedSql().get().getSplitColumns().entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(splitField))
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+
     private FixedSplitSource getFixedSplitSource(JdbcTableHandle tableHandle)
     {
         return new FixedSplitSource(ImmutableList.of(new JdbcSplit(tableHandle.getCatalogName(),
@@ -217,7 +236,7 @@ public class DataSourceTableSplitManager
      * Splitting table by field or limit
      */
     private void splitTable(Long[] fieldMinAndMaxValue, JdbcTableHandle jdbcTableHandle,
-            List<JdbcSplit> splits, TableSplitConfig config, long timeStamp)
+            List<JdbcSplit> splits, TableSplitConfig config, String splitColumn, long timeStamp)
     {
         long tableTotalRecords;
         int scanNodes = config.getSplitCount();
@@ -231,27 +250,27 @@ public class DataSourceTableSplitManager
                 autoIncrementOffset = fieldMinAndMaxValue[1];
             }
             String[] splitInfo = getSplitInfo(chunkOffset, autoIncrementOffset - 1,
-                    fieldMinAndMaxValue, chunkLength, tableTotalRecords, config.getSplitField());
+                    fieldMinAndMaxValue, chunkLength, tableTotalRecords, splitColumn);
             addJdbcSplit(jdbcTableHandle, splits, splitInfo, timeStamp, scanNodes, config);
             chunkOffset += chunkLength;
             autoIncrementOffset += chunkLength;
         }
         if (!config.isDataReadOnly()) {
-            fillLastRecord(jdbcTableHandle, splits, scanNodes, timeStamp, fieldMinAndMaxValue[0], config);
-            fillFirstRecord(jdbcTableHandle, splits, scanNodes, timeStamp, fieldMinAndMaxValue[1] - 1, config);
+            fillLastRecord(jdbcTableHandle, splits, scanNodes, timeStamp, fieldMinAndMaxValue[0], config, splitColumn);
+            fillFirstRecord(jdbcTableHandle, splits, scanNodes, timeStamp, fieldMinAndMaxValue[1] - 1, config, splitColumn);
         }
     }
 
-    private void fillLastRecord(JdbcTableHandle jdbcTableHandle, List<JdbcSplit> splits, int scanNodes, long timeStamp, long endIndex, TableSplitConfig config)
+    private void fillLastRecord(JdbcTableHandle jdbcTableHandle, List<JdbcSplit> splits, int scanNodes, long timeStamp, long endIndex, TableSplitConfig config, String splitColumn)
     {
-        String splitPart = config.getSplitField() + " > " + endIndex;
+        String splitPart = splitColumn + " > " + endIndex;
         addJdbcSplit(jdbcTableHandle, splits,
                 new String[] {splitPart, String.valueOf(endIndex), String.valueOf(Long.MAX_VALUE)}, timeStamp, scanNodes, config);
     }
 
-    private void fillFirstRecord(JdbcTableHandle jdbcTableHandle, List<JdbcSplit> splits, int scanNodes, long timeStamp, long startIndex, TableSplitConfig config)
+    private void fillFirstRecord(JdbcTableHandle jdbcTableHandle, List<JdbcSplit> splits, int scanNodes, long timeStamp, long startIndex, TableSplitConfig config, String splitColumn)
     {
-        String splitPart = config.getSplitField() + " <= " + startIndex;
+        String splitPart = splitColumn + " <= " + startIndex;
         addJdbcSplit(jdbcTableHandle, splits,
                 new String[] {splitPart, String.valueOf(Long.MIN_VALUE), String.valueOf(startIndex)}, timeStamp, scanNodes, config);
     }
@@ -14,6 +14,7 @@
 package io.prestosql.plugin.jdbc;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.tpch.TpchTable;
 import io.prestosql.Session;
 import io.prestosql.plugin.tpch.TpchPlugin;
@@ -58,7 +59,11 @@ public final class JdbcQueryRunner
             createSchema(properties, "tpch");
 
             queryRunner.installPlugin(new JdbcPlugin("base-jdbc", new TestingH2JdbcModule()));
-            queryRunner.createCatalog("jdbc", "base-jdbc", properties);
+            // the distributed queries cover the batch read page source, which is disabled by default
+            queryRunner.createCatalog("jdbc", "base-jdbc", ImmutableMap.<String, String>builder()
+                    .putAll(properties)
+                    .put("jdbc.batch-read-enabled", "true")
+                    .build());
 
             copyTpchTables(queryRunner, "tpch", TINY_SCHEMA_NAME, createSession(), tables);
 
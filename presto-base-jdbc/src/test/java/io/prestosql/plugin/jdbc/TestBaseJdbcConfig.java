@@ -15,11 +15,13 @@ package io.prestosql.plugin.jdbc;
 
 import com.google.common.collect.ImmutableMap;
 import io.airlift.configuration.testing.ConfigAssertions;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import org.testng.annotations.Test;
 
 import java.util.Map;
 
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.plugin.jdbc.optimization.JdbcPushDownModule.BASE_PUSHDOWN;
 import static io.prestosql.plugin.jdbc.optimization.JdbcPushDownModule.DEFAULT;
 import static io.prestosql.sql.builder.functioncall.FunctionCallConstants.REMOTE_FUNCTION_CATALOG_SCHEMA;
@@ -42,6 +44,9 @@ public class TestBaseJdbcConfig
                 .setCaseInsensitiveNameMatching(false)
                 .setDmlStatementsCommitInATransaction(false)
                 .setFetchSize(0)
+                .setFetchBufferSize(new DataSize(4, MEGABYTE))
+                .setBatchReadEnabled(false)
+                .setBatchReadThreads(Runtime.getRuntime().availableProcessors())
                 .setUseConnectionPool(false)
                 .setBlockWhenExhausted(false)
                 .setFairness(false)
@@ -82,6 +87,9 @@ public class TestBaseJdbcConfig
                 .put("case-insensitive-name-matching", "true")
                 .put("case-insensitive-name-matching.cache-ttl", "1s")
                 .put("fetch-size", "1000")
+                .put("jdbc.fetch-buffer-size", "16MB")
+                .put("jdbc.batch-read-enabled", "true")
+                .put("jdbc.batch-read-threads", "3")
                 .put("dml-statements-commit-in-a-transaction", "true")
                 .put("jdbc.connection.pool.lifo", "false")
                 .put("jdbc.connection.pool.fairness", "true")
@@ -117,6 +125,9 @@ public class TestBaseJdbcConfig
                 .setPasswordCredentialName("bar")
                 .setCaseInsensitiveNameMatching(true)
                 .setFetchSize(1000)
+                .setFetchBufferSize(new DataSize(16, MEGABYTE))
+                .setBatchReadEnabled(true)
+                .setBatchReadThreads(3)
                 .setDmlStatementsCommitInATransaction(true)
                 .setUseConnectionPool(true)
                 .setBlockWhenExhausted(false)
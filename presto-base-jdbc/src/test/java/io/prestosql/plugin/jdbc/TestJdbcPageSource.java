@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.connector.SchemaTableName;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.prestosql.plugin.jdbc.TestingJdbcTypeHandle.JDBC_BIGINT;
+import static io.prestosql.plugin.jdbc.TestingJdbcTypeHandle.JDBC_VARCHAR;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.spi.type.VarcharType.createVarcharType;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestJdbcPageSource
+{
+    private TestingDatabase database;
+    private JdbcClient jdbcClient;
+    private JdbcTableHandle table;
+    private JdbcSplit split;
+    private Map<String, JdbcColumnHandle> columnHandles;
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        database = new TestingDatabase();
+        jdbcClient = database.getJdbcClient();
+        table = database.getTableHandle(SESSION, new SchemaTableName("example", "numbers"));
+        split = database.getSplit(SESSION, table);
+        columnHandles = database.getColumnHandles(SESSION, table);
+        executor = newCachedThreadPool(daemonThreadsNamed("test-jdbc-page-source-%s"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        database.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadPages()
+    {
+        ConnectorPageSource pageSource = new JdbcPageSource(jdbcClient, executor, SESSION, split, table, ImmutableList.of(
+                columnHandles.get("text"),
+                columnHandles.get("text_short"),
+                columnHandles.get("value")),
+                OptionalInt.of(2));
+
+        Map<String, Long> data = new LinkedHashMap<>();
+        while (!pageSource.isFinished()) {
+            Page page = pageSource.getNextPage();
+            if (page == null) {
+                pageSource.isBlocked().join();
+                continue;
+            }
+            Block text = page.getBlock(0);
+            Block textShort = page.getBlock(1);
+            Block value = page.getBlock(2);
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                assertEquals(createVarcharType(32).getSlice(textShort, position), VARCHAR.getSlice(text, position));
+                data.put(VARCHAR.getSlice(text, position).toStringUtf8(), BIGINT.getLong(value, position));
+            }
+        }
+        assertNull(pageSource.getNextPage());
+        // every page read ahead has been returned
+        assertEquals(pageSource.getSystemMemoryUsage(), 0);
+        pageSource.close();
+
+        assertEquals(data, ImmutableMap.<String, Long>builder()
+                .put("one", 1L)
+                .put("two", 2L)
+                .put("three", 3L)
+                .put("ten", 10L)
+                .put("eleven", 11L)
+                .put("twelve", 12L)
+                .build());
+        assertEquals(pageSource.getCompletedPositionCount().getAsLong(), 6);
+    }
+
+    @Test
+    public void testCloseWhileReading()
+    {
+        ConnectorPageSource pageSource = new JdbcPageSource(jdbcClient, executor, SESSION, split, table, ImmutableList.of(columnHandles.get("value")), OptionalInt.empty());
+        // starts reading the first page in the background
+        pageSource.getNextPage();
+        pageSource.close();
+        assertTrue(pageSource.isFinished());
+        assertNull(pageSource.getNextPage());
+    }
+
+    @Test
+    public void testClientFetchSizeIsKept()
+            throws Exception
+    {
+        Connection connection = database.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM example.numbers")) {
+            assertTrue(JdbcPageSource.hasDefaultFetchSize(connection, statement));
+            // e.g. the PostgreSQL and Greenplum clients fix the fetch size at 1000
+            statement.setFetchSize(1000);
+            assertFalse(JdbcPageSource.hasDefaultFetchSize(connection, statement));
+        }
+    }
+
+    @Test
+    public void testFetchSize()
+    {
+        JdbcColumnHandle bigint = new JdbcColumnHandle("value", JDBC_BIGINT, BIGINT, true);
+        JdbcColumnHandle varchar = new JdbcColumnHandle("text", JDBC_VARCHAR, VARCHAR, true);
+
+        // 8 bytes of value and 16 bytes of overhead per column
+        assertEquals(JdbcPageSource.getFetchSize(ImmutableList.of(bigint, bigint), 48_000), 1000);
+        // limited to a sensible range
+        assertEquals(JdbcPageSource.getFetchSize(ImmutableList.of(bigint), 1), 100);
+        assertEquals(JdbcPageSource.getFetchSize(ImmutableList.of(), 1L << 40), 100_000);
+        // wide columns fetch fewer rows
+        assertTrue(JdbcPageSource.getFetchSize(ImmutableList.of(varchar), 48_000) < JdbcPageSource.getFetchSize(ImmutableList.of(bigint), 48_000));
+    }
+}
@@ -30,6 +30,7 @@ import io.prestosql.spi.sql.expression.Types;
 import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
 import org.testng.annotations.Test;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -65,6 +66,16 @@ public class TestBaseBaseJdbcQueryGenerator
         assertEquals(generatedJQL, expectedJQL);
     }
 
+    private Map<String, String> getSplitColumns(Function<PlanBuilder, PlanNode> planBuilderConsumer)
+    {
+        TesterParameter testerParameter = TesterParameter.getTesterParameter();
+        JdbcPushDownParameter pushDownParameter = new JdbcPushDownParameter("'", false, FULL_PUSHDOWN, testerParameter.getFunctionResolution());
+        return (new BaseJdbcQueryGenerator(pushDownParameter, new BaseJdbcRowExpressionConverter(testerParameter.getMetadata().getFunctionAndTypeManager(), testerParameter.getFunctionResolution(), testerParameter.getRowExpressionService(), testerParameter.getDeterminismEvaluator()), new BaseJdbcSqlStatementWriter(pushDownParameter)))
+                .generate(planBuilderConsumer.apply(createPlanBuilder()), new TestTypeManager()).get()
+                .getGeneratedSql()
+                .getSplitColumns();
+    }
+
     private PlanNode buildPlan(Function<PlanBuilder, PlanNode> consumer)
     {
         PlanBuilder planBuilder = createPlanBuilder();
@@ -154,6 +165,24 @@ public class TestBaseBaseJdbcQueryGenerator
                 "SELECT city, fare FROM (SELECT regionid, city, fare, amount FROM (SELECT regionid, city, fare, amount FROM 'table') hetu_table_1 WHERE (amount > 20)) hetu_table_2 LIMIT 30");
     }
 
+    @Test
+    public void testSplitColumns()
+    {
+        assertEquals(getSplitColumns(planBuilder -> project(
+                planBuilder,
+                filter(
+                        planBuilder,
+                        tableScan(planBuilder, jdbcTable, regionId, city, fare, amount),
+                        getRowExpression("amount > 20", defaultSessionHolder)),
+                ImmutableList.of("city", "fare"))),
+                ImmutableMap.of("city", "city", "fare", "fare"));
+        assertEquals(getSplitColumns(planBuilder -> limit(planBuilder, 10L, tableScan(planBuilder, jdbcTable, regionId, city, fare, amount))),
+                ImmutableMap.of());
+        PlanNode justScan = buildPlan(planBuilder -> tableScan(planBuilder, jdbcTable, regionId, city, fare, amount));
+        assertEquals(getSplitColumns(planBuilder -> planBuilder.aggregation(aggBuilder -> aggBuilder.source(justScan).singleGroupingSet(symbol("regionid")))),
+                ImmutableMap.of());
+    }
+
     @Test
     public void testCountStar()
     {
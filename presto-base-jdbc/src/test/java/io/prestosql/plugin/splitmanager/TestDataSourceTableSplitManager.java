@@ -14,6 +14,7 @@
  */
 package io.prestosql.plugin.splitmanager;
 
+import com.google.common.collect.ImmutableMap;
 import io.prestosql.plugin.jdbc.BaseJdbcClient;
 import io.prestosql.plugin.jdbc.BaseJdbcConfig;
 import io.prestosql.plugin.jdbc.DriverConnectionFactory;
@@ -21,10 +22,12 @@ import io.prestosql.plugin.jdbc.JdbcClient;
 import io.prestosql.plugin.jdbc.JdbcIdentity;
 import io.prestosql.plugin.jdbc.JdbcSplit;
 import io.prestosql.plugin.jdbc.JdbcTableHandle;
+import io.prestosql.plugin.jdbc.optimization.JdbcQueryGeneratorResult.GeneratedSql;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.FixedSplitSource;
 import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.testing.TestingNodeManager;
 import org.h2.Driver;
 import org.testng.annotations.BeforeClass;
@@ -35,6 +38,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Properties;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -351,6 +355,50 @@ public class TestDataSourceTableSplitManager
         }
     }
 
+    // query is pushed down
+    @Test
+    public void testGetTableSplitsWithPushDown()
+    {
+        BaseJdbcConfig config = new BaseJdbcConfig();
+        config.setPushDownEnable(true)
+                .setTableSplitEnable(true)
+                .setTableSplitFields("[{\"catalogName\":\"" + catalogName + "\",\"schemaName\":\"EXAMPLE\",\"tableName\":\"NUMBERS\"," +
+                        "\"splitField\":\"value\",\"calcStepEnable\":\"false\",\"dataReadOnly\":\"true\",\"splitCount\":\"2\"," +
+                        "\"fieldMinValue\":\"1\",\"fieldMaxValue\":\"12\"}]");
+        splitManager = new DataSourceTableSplitManager(config, jdbcClient, nodeManager);
+        JdbcTableHandle table = getTableHandle(new SchemaTableName("example", "numbers"));
+        splitManager.getTableSplitConfig(table).setTableSplitFieldValid(true);
+
+        // the split field is returned by the pushed down query under another name
+        tableHandle = withGeneratedSql(table, new GeneratedSql(
+                "SELECT VALUE AS v FROM EXAMPLE.NUMBERS WHERE (TEXT <> 'one')",
+                true,
+                ImmutableMap.of("VALUE", "v")));
+        List<ConnectorSplit> splits = getFutureValue(splitManager.getTableSplits(JdbcIdentity.from(SESSION), tableHandle).getNextBatch(NOT_PARTITIONED, 1000)).getSplits();
+        assertEquals(splits.size(), 2);
+        assertEquals(((JdbcSplit) splits.get(0)).getAdditionalPredicate(), Optional.of("v > 0 and v <= 6"));
+        assertEquals(((JdbcSplit) splits.get(1)).getAdditionalPredicate(), Optional.of("v > 6 and v <= 12"));
+
+        // the pushed down query aggregates the table
+        tableHandle = withGeneratedSql(table, new GeneratedSql(
+                "SELECT count(*) AS c FROM EXAMPLE.NUMBERS",
+                true));
+        assertEquals(splitManager.getTableSplits(JdbcIdentity.from(SESSION), tableHandle).getClass(), FixedSplitSource.class);
+    }
+
+    private static JdbcTableHandle withGeneratedSql(JdbcTableHandle table, GeneratedSql generatedSql)
+    {
+        return new JdbcTableHandle(
+                table.getSchemaTableName(),
+                table.getCatalogName(),
+                table.getSchemaName(),
+                table.getTableName(),
+                TupleDomain.all(),
+                OptionalLong.empty(),
+                Optional.of(generatedSql),
+                false);
+    }
+
     private void initSplitDatabase()
             throws SQLException
     {
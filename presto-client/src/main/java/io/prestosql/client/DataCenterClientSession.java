@@ -14,6 +14,7 @@
  */
 package io.prestosql.client;
 
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.prestosql.spi.type.TypeManager;
 
@@ -32,13 +33,15 @@ public class DataCenterClientSession
 {
     private final Duration maxAnticipatedDelay;
     private final boolean compressionEnabled;
+    private final DataSize maxResponseSize;
     private TypeManager typeManager;
 
-    private DataCenterClientSession(URI server, String user, String source, Optional<String> traceToken, Set<String> clientTags, String clientInfo, String catalog, String schema, String path, ZoneId timeZone, Locale locale, Map<String, String> resourceEstimates, Map<String, String> properties, Map<String, String> preparedStatements, Map<String, ClientSelectedRole> roles, Map<String, String> extraCredentials, String transactionId, Duration clientRequestTimeout, Duration maxAnticipatedDelay, boolean compressionEnabled, TypeManager typeManager)
+    private DataCenterClientSession(URI server, String user, String source, Optional<String> traceToken, Set<String> clientTags, String clientInfo, String catalog, String schema, String path, ZoneId timeZone, Locale locale, Map<String, String> resourceEstimates, Map<String, String> properties, Map<String, String> preparedStatements, Map<String, ClientSelectedRole> roles, Map<String, String> extraCredentials, String transactionId, Duration clientRequestTimeout, Duration maxAnticipatedDelay, boolean compressionEnabled, DataSize maxResponseSize, TypeManager typeManager)
     {
         super(server, user, source, traceToken, clientTags, clientInfo, catalog, schema, path, timeZone, locale, resourceEstimates, properties, preparedStatements, roles, extraCredentials, transactionId, clientRequestTimeout);
         this.maxAnticipatedDelay = maxAnticipatedDelay;
         this.compressionEnabled = compressionEnabled;
+        this.maxResponseSize = maxResponseSize;
         this.typeManager = typeManager;
     }
 
@@ -62,6 +65,14 @@ public class DataCenterClientSession
         return compressionEnabled;
     }
 
+    /**
+     * Maximum size of the pages the remote cluster may send in a single response, or null to let the remote cluster decide.
+     */
+    public DataSize getMaxResponseSize()
+    {
+        return maxResponseSize;
+    }
+
     public TypeManager getTypeManager()
     {
         return typeManager;
@@ -92,6 +103,7 @@ public class DataCenterClientSession
         private Duration clientRequestTimeout;
         private Duration maxAnticipatedDelay;
         private boolean compressionEnabled;
+        private DataSize maxResponseSize;
         private TypeManager typeManager;
 
         private Builder(URI server, String user)
@@ -130,6 +142,7 @@ public class DataCenterClientSession
             clientRequestTimeout = clientSession.getClientRequestTimeout();
             maxAnticipatedDelay = clientSession.getMaxAnticipatedDelay();
             compressionEnabled = clientSession.isCompressionEnabled();
+            maxResponseSize = clientSession.getMaxResponseSize();
             typeManager = clientSession.getTypeManager();
         }
 
@@ -199,6 +212,12 @@ public class DataCenterClientSession
             return this;
         }
 
+        public Builder withMaxResponseSize(DataSize maxResponseSize)
+        {
+            this.maxResponseSize = maxResponseSize;
+            return this;
+        }
+
         public Builder withSource(String source)
         {
             this.source = source;
@@ -264,6 +283,7 @@ public class DataCenterClientSession
                     clientRequestTimeout,
                     maxAnticipatedDelay,
                     compressionEnabled,
+                    maxResponseSize,
                     typeManager);
         }
     }
@@ -60,6 +60,7 @@ import static io.prestosql.client.PrestoHeaders.PRESTO_ADDED_PREPARE;
 import static io.prestosql.client.PrestoHeaders.PRESTO_CLEAR_SESSION;
 import static io.prestosql.client.PrestoHeaders.PRESTO_CLEAR_TRANSACTION_ID;
 import static io.prestosql.client.PrestoHeaders.PRESTO_DEALLOCATED_PREPARE;
+import static io.prestosql.client.PrestoHeaders.PRESTO_MAX_SIZE;
 import static io.prestosql.client.PrestoHeaders.PRESTO_SET_CATALOG;
 import static io.prestosql.client.PrestoHeaders.PRESTO_SET_PATH;
 import static io.prestosql.client.PrestoHeaders.PRESTO_SET_ROLE;
@@ -379,7 +380,12 @@ public class DataCenterHTTPClientV1
             state.compareAndSet(State.RUNNING, State.FINISHED);
             return false;
         }
-        Request request = prepareRequest(this.nextURL(), this.session).build();
+        Request.Builder requestBuilder = prepareRequest(this.nextURL(), this.session);
+        if (this.session.getMaxResponseSize() != null) {
+            // the remote cluster sends up to this many bytes of queued pages in one response
+            requestBuilder.addHeader(PRESTO_MAX_SIZE, this.session.getMaxResponseSize().toString());
+        }
+        Request request = requestBuilder.build();
 
         Exception cause = null;
         long start = System.nanoTime();
@@ -53,6 +53,7 @@ import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -482,12 +483,29 @@ public class ElasticsearchClient
         return jsonNode.get(name);
     }
 
-    public SearchResponse beginSearch(String index, int shard, QueryBuilder query, Optional<List<String>> fields, List<String> documentFields)
+    /**
+     * Starts a scroll through the given shard, or, when {@code sliceCount} is greater than one, through the given slice of the whole index.
+     * Slices are not restricted to a shard, as servers before 6.4 assign the slices of a search to the shards of the index
+     * regardless of the shards targeted by its preference, which leaves all but one slice of a single shard empty.
+     */
+    public SearchResponse beginSearch(String index, int shard, int slice, int sliceCount, QueryBuilder query, Optional<List<String>> fields, List<String> documentFields)
     {
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource()
                 .query(query)
                 .size(scrollSize);
 
+        SearchRequest request = new SearchRequest(index)
+                .searchType(QUERY_THEN_FETCH)
+                .scroll(new TimeValue(scrollTimeout.toMillis()))
+                .source(sourceBuilder);
+
+        if (sliceCount > 1) {
+            sourceBuilder.slice(new SliceBuilder(slice, sliceCount));
+        }
+        else {
+            request.preference("_shards:" + shard);
+        }
+
         fields.ifPresent(values -> {
             if (values.isEmpty()) {
                 sourceBuilder.fetchSource(false);
@@ -498,12 +516,36 @@ public class ElasticsearchClient
         });
         documentFields.forEach(sourceBuilder::docValueField);
 
-        SearchRequest request = new SearchRequest(index)
-                .searchType(QUERY_THEN_FETCH)
-                .preference("_shards:" + shard)
-                .scroll(new TimeValue(scrollTimeout.toMillis()))
-                .source(sourceBuilder);
+        return search(request);
+    }
 
+    /**
+     * Number of documents of the shard matching the query, counted without fetching any of them.
+     */
+    public long count(String index, int shard, QueryBuilder query)
+    {
+        return count(new SearchRequest(index).preference("_shards:" + shard), query);
+    }
+
+    /**
+     * Number of documents of the index matching the query, counted without fetching any of them.
+     */
+    public long count(String index, QueryBuilder query)
+    {
+        return count(new SearchRequest(index), query);
+    }
+
+    private long count(SearchRequest request, QueryBuilder query)
+    {
+        SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource()
+                .query(query)
+                .size(0);
+
+        return search(request.source(sourceBuilder)).getHits().getTotalHits();
+    }
+
+    private SearchResponse search(SearchRequest request)
+    {
         try {
             return client.search(request);
         }
@@ -57,6 +57,7 @@ public class ElasticsearchConfig
     private String defaultSchema = "default";
     private int scrollSize = 1_000;
     private Duration scrollTimeout = new Duration(1, MINUTES);
+    private int splitsPerShard = 1;
     private Duration requestTimeout = new Duration(10, SECONDS);
     private Duration connectTimeout = new Duration(1, SECONDS);
     private Duration maxRetryTime = new Duration(30, SECONDS);
@@ -157,6 +158,20 @@ public class ElasticsearchConfig
         return this;
     }
 
+    @Min(1)
+    public int getSplitsPerShard()
+    {
+        return splitsPerShard;
+    }
+
+    @Config("elasticsearch.splits-per-shard")
+    @ConfigDescription("Number of splits reading each shard in parallel with sliced scrolls")
+    public ElasticsearchConfig setSplitsPerShard(int splitsPerShard)
+    {
+        this.splitsPerShard = splitsPerShard;
+        return this;
+    }
+
     @NotNull
     public Duration getRequestTimeout()
     {
@@ -42,6 +42,7 @@ import io.prestosql.spi.type.ArrayType;
 import io.prestosql.spi.type.RowType;
 import io.prestosql.spi.type.Type;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 
@@ -68,6 +69,8 @@ import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
 import static io.prestosql.spi.type.TinyintType.TINYINT;
 import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 import static java.util.function.Predicate.isEqual;
 import static java.util.stream.Collectors.toList;
@@ -79,11 +82,18 @@ public class ElasticsearchPageSource
 
     private final List<Decoder> decoders;
 
+    private final ElasticsearchClient client;
+    private final ElasticsearchTableHandle table;
+    private final ElasticsearchSplit split;
+    private final QueryBuilder query;
+    // null when only the number of matching documents is needed
     private final SearchHitIterator iterator;
     private final BlockBuilder[] columnBuilders;
     private final List<ElasticsearchColumnHandle> columns;
     private long totalBytes;
     private long readTimeNanos;
+    // matching documents not yet returned when only their number is needed, -1 until counted
+    private long remainingCount = -1;
     private boolean finished;
 
     public ElasticsearchPageSource(
@@ -92,7 +102,9 @@ public class ElasticsearchPageSource
             ElasticsearchSplit split,
             List<ElasticsearchColumnHandle> columns)
     {
-        requireNonNull(client, "client is null");
+        this.client = requireNonNull(client, "client is null");
+        this.table = requireNonNull(table, "table is null");
+        this.split = requireNonNull(split, "split is null");
         requireNonNull(columns, "columns is null");
 
         this.columns = ImmutableList.copyOf(columns);
@@ -122,11 +134,19 @@ public class ElasticsearchPageSource
                 .filter(name -> !BuiltinColumns.NAMES.contains(name))
                 .collect(toList());
 
+        this.query = buildSearchQuery(table.getConstraint(), columns, table.getQuery());
+        if (columns.isEmpty()) {
+            this.iterator = null;
+            return;
+        }
+
         long start = System.nanoTime();
         SearchResponse searchResponse = client.beginSearch(
                 table.getIndex(),
                 split.getShard(),
-                buildSearchQuery(table.getConstraint(), columns, table.getQuery()),
+                split.getSlice(),
+                split.getSliceCount(),
+                query,
                 needAllFields ? Optional.empty() : Optional.of(requiredFields),
                 documentFields);
         readTimeNanos += System.nanoTime() - start;
@@ -142,13 +162,13 @@ public class ElasticsearchPageSource
     @Override
     public long getReadTimeNanos()
     {
-        return readTimeNanos + iterator.getReadTimeNanos();
+        return readTimeNanos + (iterator == null ? 0 : iterator.getReadTimeNanos());
     }
 
     @Override
     public boolean isFinished()
     {
-        return finished || !iterator.hasNext();
+        return finished || (iterator != null && !iterator.hasNext());
     }
 
     @Override
@@ -160,22 +180,24 @@ public class ElasticsearchPageSource
     @Override
     public void close()
     {
-        iterator.close();
+        if (iterator != null) {
+            iterator.close();
+        }
     }
 
     @Override
     public Page getNextPage()
     {
-        if (columnBuilders.length == 0) {
-            // TODO: emit "count" query against Elasticsearch
-            int count = 0;
-            while (iterator.hasNext()) {
-                iterator.next();
-                count++;
+        if (iterator == null) {
+            if (remainingCount < 0) {
+                remainingCount = countDocuments();
             }
 
-            finished = true;
-            return new Page(count);
+            // the count of a large index does not fit into a single page
+            int positionCount = toIntExact(min(remainingCount, Integer.MAX_VALUE));
+            remainingCount -= positionCount;
+            finished = remainingCount == 0;
+            return new Page(positionCount);
         }
 
         long size = 0;
@@ -206,6 +228,24 @@ public class ElasticsearchPageSource
         return new Page(blocks);
     }
 
+    private long countDocuments()
+    {
+        // a sliced split counts the whole index, so only the first slice reports it
+        if (split.getSliceCount() == 1) {
+            long start = System.nanoTime();
+            long count = client.count(table.getIndex(), split.getShard(), query);
+            readTimeNanos += System.nanoTime() - start;
+            return count;
+        }
+        if (split.getSlice() == 0) {
+            long start = System.nanoTime();
+            long count = client.count(table.getIndex(), query);
+            readTimeNanos += System.nanoTime() - start;
+            return count;
+        }
+        return 0;
+    }
+
     public static Object getField(Map<String, Object> document, String field)
     {
         Object value = document.get(field);
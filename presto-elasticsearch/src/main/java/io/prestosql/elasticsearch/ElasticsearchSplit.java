@@ -22,20 +22,33 @@ import io.prestosql.spi.connector.ConnectorSplit;
 import java.util.List;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 public class ElasticsearchSplit
         implements ConnectorSplit
 {
     private final int shard;
+    private final int slice;
+    private final int sliceCount;
     private final String address;
 
+    public ElasticsearchSplit(int shard, String address)
+    {
+        this(shard, 0, 1, address);
+    }
+
     @JsonCreator
     public ElasticsearchSplit(
             @JsonProperty("shard") int shard,
+            @JsonProperty("slice") int slice,
+            @JsonProperty("sliceCount") int sliceCount,
             @JsonProperty("address") String address)
     {
+        checkArgument(slice >= 0 && slice < sliceCount, "slice %s is not in [0, %s)", slice, sliceCount);
         this.shard = shard;
+        this.slice = slice;
+        this.sliceCount = sliceCount;
         this.address = requireNonNull(address, "address is null");
     }
 
@@ -45,6 +58,21 @@ public class ElasticsearchSplit
         return shard;
     }
 
+    /**
+     * Part of the index read by this split with a sliced scroll, when the index is read by {@link #getSliceCount()} splits rather than one split per shard.
+     */
+    @JsonProperty
+    public int getSlice()
+    {
+        return slice;
+    }
+
+    @JsonProperty
+    public int getSliceCount()
+    {
+        return sliceCount;
+    }
+
     @JsonProperty
     public String getAddress()
     {
@@ -74,6 +102,8 @@ public class ElasticsearchSplit
     {
         return toStringHelper(this)
                 .addValue(shard)
+                .add("slice", slice)
+                .add("sliceCount", sliceCount)
                 .toString();
     }
 }
@@ -13,6 +13,7 @@
  */
 package io.prestosql.elasticsearch;
 
+import io.prestosql.elasticsearch.client.Shard;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitManager;
 import io.prestosql.spi.connector.ConnectorSplitSource;
@@ -23,6 +24,7 @@ import io.prestosql.spi.connector.FixedSplitSource;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
@@ -31,11 +33,13 @@ public class ElasticsearchSplitManager
         implements ConnectorSplitManager
 {
     private final ElasticsearchClient client;
+    private final int splitsPerShard;
 
     @Inject
-    public ElasticsearchSplitManager(ElasticsearchClient client)
+    public ElasticsearchSplitManager(ElasticsearchClient client, ElasticsearchConfig config)
     {
         this.client = requireNonNull(client, "client is null");
+        this.splitsPerShard = requireNonNull(config, "config is null").getSplitsPerShard();
     }
 
     @Override
@@ -43,8 +47,22 @@ public class ElasticsearchSplitManager
     {
         ElasticsearchTableHandle tableHandle = (ElasticsearchTableHandle) table;
 
-        List<ElasticsearchSplit> splits = client.getSearchShards(tableHandle.getIndex()).stream()
-                .map(shard -> new ElasticsearchSplit(shard.getId(), shard.getAddress()))
+        List<Shard> shards = client.getSearchShards(tableHandle.getIndex());
+        if (splitsPerShard == 1) {
+            List<ElasticsearchSplit> splits = shards.stream()
+                    .map(shard -> new ElasticsearchSplit(shard.getId(), shard.getAddress()))
+                    .collect(toImmutableList());
+            return new FixedSplitSource(splits);
+        }
+
+        // the index is read by several splits per shard in parallel, each scrolling through a disjoint slice of its documents.
+        // Elasticsearch assigns slice i to the i-th shard (modulo the shard count) of the search, so the split is placed on the node of that shard
+        int sliceCount = shards.size() * splitsPerShard;
+        List<ElasticsearchSplit> splits = IntStream.range(0, sliceCount)
+                .mapToObj(slice -> {
+                    Shard shard = shards.get(slice % shards.size());
+                    return new ElasticsearchSplit(shard.getId(), slice, sliceCount, shard.getAddress());
+                })
                 .collect(toImmutableList());
 
         return new FixedSplitSource(splits);
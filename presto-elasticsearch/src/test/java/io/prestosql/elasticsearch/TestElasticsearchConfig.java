@@ -40,6 +40,7 @@ public class TestElasticsearchConfig
                 .setDefaultSchema("default")
                 .setScrollSize(1000)
                 .setScrollTimeout(new Duration(1, MINUTES))
+                .setSplitsPerShard(1)
                 .setRequestTimeout(new Duration(10, SECONDS))
                 .setConnectTimeout(new Duration(1, SECONDS))
                 .setMaxRetryTime(new Duration(30, SECONDS))
@@ -68,6 +69,7 @@ public class TestElasticsearchConfig
                 .put("elasticsearch.default-schema-name", "test")
                 .put("elasticsearch.scroll-size", "4000")
                 .put("elasticsearch.scroll-timeout", "20s")
+                .put("elasticsearch.splits-per-shard", "4")
                 .put("elasticsearch.request-timeout", "1s")
                 .put("elasticsearch.connect-timeout", "10s")
                 .put("elasticsearch.max-retry-time", "10s")
@@ -89,6 +91,7 @@ public class TestElasticsearchConfig
                 .setDefaultSchema("test")
                 .setScrollSize(4000)
                 .setScrollTimeout(new Duration(20, SECONDS))
+                .setSplitsPerShard(4)
                 .setRequestTimeout(new Duration(1, SECONDS))
                 .setConnectTimeout(new Duration(10, SECONDS))
                 .setMaxRetryTime(new Duration(10, SECONDS))
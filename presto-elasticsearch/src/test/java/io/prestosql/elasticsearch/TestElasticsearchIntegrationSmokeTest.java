@@ -17,27 +17,42 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Closer;
 import io.airlift.tpch.TpchTable;
+import io.prestosql.spi.connector.ConnectorSplit;
+import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.testing.MaterializedResult;
 import io.prestosql.testing.MaterializedRow;
 import io.prestosql.testing.QueryRunner;
 import io.prestosql.tests.AbstractTestIntegrationSmokeTest;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.search.SearchHit;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.elasticsearch.ElasticsearchQueryRunner.createElasticsearchQueryRunner;
 import static io.prestosql.elasticsearch.EmbeddedElasticsearchNode.createEmbeddedElasticsearchNode;
+import static io.prestosql.spi.connector.ConnectorSplitManager.SplitSchedulingStrategy.UNGROUPED_SCHEDULING;
+import static io.prestosql.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
 import static io.prestosql.testing.assertions.Assert.assertEquals;
 import static java.lang.String.format;
 import static org.elasticsearch.client.Requests.refreshRequest;
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestElasticsearchIntegrationSmokeTest
         extends AbstractTestIntegrationSmokeTest
@@ -128,6 +143,48 @@ public class TestElasticsearchIntegrationSmokeTest
         assertEquals(actualResult, expectedColumns, format("%s != %s", actualResult, expectedColumns));
     }
 
+    @Test
+    public void testSlicedScroll()
+            throws IOException
+    {
+        ElasticsearchConfig config = new ElasticsearchConfig()
+                .setHost("localhost")
+                .setPort(9200)
+                .setSplitsPerShard(3);
+        ElasticsearchClient client = new ElasticsearchClient(config, Optional.empty());
+        client.initialize();
+        try {
+            ElasticsearchTableHandle table = new ElasticsearchTableHandle("tpch", "orders", Optional.empty());
+            ConnectorSplitSource splitSource = new ElasticsearchSplitManager(client, config).getSplits(null, null, table, UNGROUPED_SCHEDULING);
+            List<ConnectorSplit> splits = getFutureValue(splitSource.getNextBatch(NOT_PARTITIONED, 1000)).getSplits();
+            assertEquals(splits.size(), client.getSearchShards("orders").size() * 3);
+
+            // each slice reads a non-empty part of the index, and the slices together read each document exactly once
+            Set<Long> orderKeys = new HashSet<>();
+            for (ConnectorSplit connectorSplit : splits) {
+                ElasticsearchSplit split = (ElasticsearchSplit) connectorSplit;
+                List<Long> sliceOrderKeys = new ArrayList<>();
+                SearchResponse response = client.beginSearch("orders", split.getShard(), split.getSlice(), split.getSliceCount(), matchAllQuery(), Optional.of(ImmutableList.of("orderkey")), ImmutableList.of());
+                while (response.getHits().getHits().length > 0) {
+                    for (SearchHit hit : response.getHits().getHits()) {
+                        sliceOrderKeys.add(((Number) hit.getSourceAsMap().get("orderkey")).longValue());
+                    }
+                    response = client.nextPage(response.getScrollId());
+                }
+                client.clearScroll(response.getScrollId());
+
+                assertFalse(sliceOrderKeys.isEmpty(), format("slice %s is empty", split.getSlice()));
+                for (long orderKey : sliceOrderKeys) {
+                    assertTrue(orderKeys.add(orderKey), format("order %s is read by more than one slice", orderKey));
+                }
+            }
+            assertEquals((long) orderKeys.size(), computeActual("SELECT count(*) FROM orders").getOnlyValue());
+        }
+        finally {
+            client.close();
+        }
+    }
+
     @Test
     public void testNestedFields()
     {
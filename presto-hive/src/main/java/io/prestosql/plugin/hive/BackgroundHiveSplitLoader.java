@@ -21,6 +21,7 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Streams;
 import com.google.common.io.CharStreams;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.log.Logger;
 import io.prestosql.plugin.hive.HdfsEnvironment.HdfsContext;
 import io.prestosql.plugin.hive.HiveBucketing.BucketingVersion;
@@ -66,6 +67,8 @@ import org.apache.hudi.hadoop.HoodieParquetInputFormat;
 import org.apache.hudi.hadoop.HoodieROTablePathFilter;
 import org.apache.hudi.hadoop.realtime.HoodieParquetRealtimeInputFormat;
 
+import javax.annotation.concurrent.GuardedBy;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -73,6 +76,7 @@ import java.lang.annotation.Annotation;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
@@ -80,10 +84,13 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.IntPredicate;
 import java.util.function.Supplier;
@@ -94,8 +101,10 @@ import java.util.stream.Collectors;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.prestosql.plugin.hive.HiveSessionProperties.getMaxConcurrentFileListings;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isDynamicFilteringSplitFilteringEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isForceLocalScheduling;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isPropagateTableScanSortingProperties;
 import static io.prestosql.plugin.hive.HiveUtil.checkCondition;
 import static io.prestosql.plugin.hive.HiveUtil.getBucketNumber;
 import static io.prestosql.plugin.hive.HiveUtil.getFooterCount;
@@ -140,6 +149,15 @@ public class BackgroundHiveSplitLoader
     private final Supplier<List<Set<DynamicFilter>>> dynamicFilterSupplier;
     private final Configuration configuration;
     private final Supplier<HoodieROTablePathFilter> hoodiePathFilterSupplier;
+    private final int maxConcurrentFileListings;
+    // Number of directory listings queued or running whose split iterator has not yet been pushed to fileIterators
+    private final AtomicInteger pendingFileListings = new AtomicInteger();
+    // Number of directory listings submitted to the executor, at most maxConcurrentFileListings
+    private final AtomicInteger runningFileListings = new AtomicInteger();
+    // Directory listings waiting for a running listing to return, e.g. further read paths of an ACID partition
+    private final Queue<Runnable> queuedFileListings = new ConcurrentLinkedQueue<>();
+    @GuardedBy("this")
+    private SettableFuture<?> fileListingProgress = SettableFuture.create();
 
     // Purpose of this lock:
     // * Write lock: when you need a consistent view across partitions, fileIterators, and hiveSplitSource.
@@ -149,6 +167,7 @@ public class BackgroundHiveSplitLoader
     // * When write lock is acquired, except the holder, no one can do any of the following:
     // ** poll from (or check empty) partitions
     // ** poll from (or check empty) or push to fileIterators
+    // ** update (or check zero) pendingFileListings
     // ** push to hiveSplitSource
     // * When any of the above three operations is carried out, either a read lock or a write lock must be held.
     // * When a series of operations involving two or more of the above three operations are carried out, the lock
@@ -206,6 +225,7 @@ public class BackgroundHiveSplitLoader
         configuration = hdfsEnvironment.getConfiguration(hdfsContext, path);
         jobConf = ConfigurationUtils.toJobConf(configuration);
         this.hoodiePathFilterSupplier = Suppliers.memoize(() -> new HoodieROTablePathFilter(configuration));
+        this.maxConcurrentFileListings = getMaxConcurrentFileListings(session);
     }
 
     /**
@@ -293,7 +313,7 @@ public class BackgroundHiveSplitLoader
         taskExecutionLock.readLock().lock();
         try {
             // This is an opportunistic check to avoid getting the write lock unnecessarily
-            if (!partitions.isEmpty() || !fileIterators.isEmpty()) {
+            if (!partitions.isEmpty() || !fileIterators.isEmpty() || pendingFileListings.get() > 0) {
                 return;
             }
         }
@@ -309,7 +329,7 @@ public class BackgroundHiveSplitLoader
         taskExecutionLock.writeLock().lock();
         try {
             // the write lock guarantees that no one is operating on the partitions, fileIterators, or hiveSplitSource, or half way through doing so.
-            if (partitions.isEmpty() && fileIterators.isEmpty()) {
+            if (partitions.isEmpty() && fileIterators.isEmpty() && pendingFileListings.get() == 0) {
                 // It is legal to call `noMoreSplits` multiple times or after `stop` was called.
                 // Nothing bad will happen if `noMoreSplits` implementation calls methods that will try to obtain a read lock because the lock is re-entrant.
                 hiveSplitSource.noMoreSplits();
@@ -329,9 +349,17 @@ public class BackgroundHiveSplitLoader
     {
         Iterator<InternalHiveSplit> splits = fileIterators.poll();
         if (splits == null) {
+            // Obtain the progress future before checking the pending listings, so that a listing
+            // completing in between is not missed
+            ListenableFuture<?> listingProgress = getFileListingProgress();
+            int pendingListings = pendingFileListings.get();
+            if (pendingListings > 0 && pendingListings >= maxConcurrentFileListings) {
+                // Do not issue more listings until one of the in-flight listings returns
+                return listingProgress;
+            }
             HivePartitionMetadata partition = partitions.poll();
             if (partition == null) {
-                return COMPLETED_FUTURE;
+                return pendingListings == 0 ? COMPLETED_FUTURE : listingProgress;
             }
             return loadPartition(partition);
         }
@@ -357,11 +385,9 @@ public class BackgroundHiveSplitLoader
         List<HivePartitionKey> partitionKeys = getPartitionKeys(table, partition.getPartition());
         TupleDomain<HiveColumnHandle> effectivePredicate = (TupleDomain<HiveColumnHandle>) compactEffectivePredicate;
 
-        if (dynamicFilterSupplier != null && isDynamicFilteringSplitFilteringEnabled(session)) {
-            if (isPartitionFiltered(partitionKeys, dynamicFilterSupplier.get(), typeManager)) {
-                // Avoid listing files and creating splits from a partition if it has been pruned due to dynamic filters
-                return COMPLETED_FUTURE;
-            }
+        if (isPartitionFilteredByDynamicFilter(partitionKeys)) {
+            // Avoid listing files and creating splits from a partition if it has been pruned due to dynamic filters
+            return COMPLETED_FUTURE;
         }
 
         Path path = new Path(getPartitionLocation(table, partition.getPartition()));
@@ -599,13 +625,125 @@ public class BackgroundHiveSplitLoader
         }
 
         for (Path readPath : readPaths) {
-            fileIterators.addLast(createInternalHiveSplitIterator(readPath, fs, splitFactory, splittable,
-                    getDeleteDeltaLocationFor(readPath, deleteDeltaLocations), Optional.empty(), pathFilter));
+            if (maxConcurrentFileListings > 0) {
+                listFilesAsync(readPath, fs, splitFactory, splittable, getDeleteDeltaLocationFor(readPath, deleteDeltaLocations), pathFilter, partitionKeys);
+            }
+            else {
+                fileIterators.addLast(createInternalHiveSplitIterator(readPath, fs, splitFactory, splittable,
+                        getDeleteDeltaLocationFor(readPath, deleteDeltaLocations), Optional.empty(), pathFilter));
+            }
         }
 
         return COMPLETED_FUTURE;
     }
 
+    /**
+     * List the files of the given path on the executor, so that listings of several partitions are in flight
+     * at the same time. Splits of the path are pushed to fileIterators as soon as its listing returns.
+     */
+    private void listFilesAsync(Path path, FileSystem fileSystem, InternalHiveSplitFactory splitFactory, boolean splittable, Optional<DeleteDeltaLocations> deleteDeltaLocations, PathFilter pathFilter, List<HivePartitionKey> partitionKeys)
+    {
+        pendingFileListings.incrementAndGet();
+        queuedFileListings.add(() -> listFiles(path, fileSystem, splitFactory, splittable, deleteDeltaLocations, pathFilter, partitionKeys));
+        startQueuedFileListings();
+    }
+
+    private void startQueuedFileListings()
+    {
+        while (true) {
+            int running = runningFileListings.get();
+            if (running >= maxConcurrentFileListings) {
+                // The listing returning next starts the queued ones
+                return;
+            }
+            if (!runningFileListings.compareAndSet(running, running + 1)) {
+                continue;
+            }
+            Runnable listing = queuedFileListings.poll();
+            if (listing == null) {
+                runningFileListings.decrementAndGet();
+                // A listing queued in the meantime may have found no free slot
+                if (queuedFileListings.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                executor.execute(listing);
+            }
+            catch (RuntimeException e) {
+                runningFileListings.decrementAndGet();
+                pendingFileListings.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    private void listFiles(Path path, FileSystem fileSystem, InternalHiveSplitFactory splitFactory, boolean splittable, Optional<DeleteDeltaLocations> deleteDeltaLocations, PathFilter pathFilter, List<HivePartitionKey> partitionKeys)
+    {
+        Throwable failure = null;
+        Iterator<InternalHiveSplit> splits = null;
+        try {
+            // Dynamic filters may have arrived while this listing was queued
+            if (!stopped && !isPartitionFilteredByDynamicFilter(partitionKeys)) {
+                HiveFileIterator files = new HiveFileIterator(table, path, fileSystem, directoryLister, namenodeStats, recursiveDirWalkerEnabled ? RECURSE : IGNORED, pathFilter);
+                // Only the first round trip to the namenode is made here, the remaining files are listed while the splits are loaded
+                hdfsEnvironment.doAs(hdfsContext.getIdentity().getUser(), files::hasNext);
+                splits = createInternalHiveSplitIterator(files, splitFactory, splittable, deleteDeltaLocations, Optional.empty());
+            }
+        }
+        catch (RuntimeException | Error e) {
+            failure = e instanceof PrestoException || e instanceof Error ? e : new PrestoException(HiveErrorCode.HIVE_FILESYSTEM_ERROR, e);
+        }
+
+        taskExecutionLock.readLock().lock();
+        try {
+            if (failure != null) {
+                // Fail the split source before the listing is no longer pending
+                // Otherwise, a race could occur where the split source is completed before we fail it.
+                hiveSplitSource.fail(failure);
+            }
+            else if (splits != null) {
+                fileIterators.addLast(splits);
+            }
+            pendingFileListings.decrementAndGet();
+        }
+        finally {
+            taskExecutionLock.readLock().unlock();
+        }
+
+        runningFileListings.decrementAndGet();
+        try {
+            startQueuedFileListings();
+        }
+        catch (RuntimeException e) {
+            hiveSplitSource.fail(e);
+        }
+        completeFileListingProgress();
+    }
+
+    private boolean isPartitionFilteredByDynamicFilter(List<HivePartitionKey> partitionKeys)
+    {
+        return dynamicFilterSupplier != null
+                && isDynamicFilteringSplitFilteringEnabled(session)
+                && isPartitionFiltered(partitionKeys, dynamicFilterSupplier.get(), typeManager);
+    }
+
+    private synchronized ListenableFuture<?> getFileListingProgress()
+    {
+        return fileListingProgress;
+    }
+
+    private void completeFileListingProgress()
+    {
+        SettableFuture<?> completed;
+        synchronized (this) {
+            completed = fileListingProgress;
+            fileListingProgress = SettableFuture.create();
+        }
+        completed.set(null);
+    }
+
     private Optional<DeleteDeltaLocations> getDeleteDeltaLocationFor(Path readPath, Optional<DeleteDeltaLocations> allDeleteDeltaLocations)
     {
         if (!allDeleteDeltaLocations.isPresent() || allDeleteDeltaLocations.get().getDeleteDeltas().isEmpty()) {
@@ -666,7 +804,17 @@ public class BackgroundHiveSplitLoader
 
     private Iterator<InternalHiveSplit> createInternalHiveSplitIterator(Path path, FileSystem fileSystem, InternalHiveSplitFactory splitFactory, boolean splittable, Optional<DeleteDeltaLocations> deleteDeltaLocations, Optional<Long> startRowOffsetOfFile, PathFilter pathFilter)
     {
-        return Streams.stream(new HiveFileIterator(table, path, fileSystem, directoryLister, namenodeStats, recursiveDirWalkerEnabled ? RECURSE : IGNORED, pathFilter))
+        return createInternalHiveSplitIterator(
+                new HiveFileIterator(table, path, fileSystem, directoryLister, namenodeStats, recursiveDirWalkerEnabled ? RECURSE : IGNORED, pathFilter),
+                splitFactory,
+                splittable,
+                deleteDeltaLocations,
+                startRowOffsetOfFile);
+    }
+
+    private static Iterator<InternalHiveSplit> createInternalHiveSplitIterator(Iterator<LocatedFileStatus> files, InternalHiveSplitFactory splitFactory, boolean splittable, Optional<DeleteDeltaLocations> deleteDeltaLocations, Optional<Long> startRowOffsetOfFile)
+    {
+        return Streams.stream(files)
                 .map(status -> splitFactory.createInternalHiveSplit(status, splittable, deleteDeltaLocations, startRowOffsetOfFile))
                 .filter(Optional::isPresent)
                 .map(Optional::get)
@@ -727,6 +875,21 @@ public class BackgroundHiveSplitLoader
             break;
         }
 
+        // table scan sorting properties assume that each bucket is a single sorted file
+        if (isPropagateTableScanSortingProperties(session) && table.getStorage().getBucketProperty().map(property -> !property.getSortedBy().isEmpty()).orElse(false)) {
+            for (Map.Entry<Integer, Collection<LocatedFileStatus>> entry : bucketFiles.asMap().entrySet()) {
+                if (entry.getValue().size() > 1) {
+                    throw new PrestoException(HiveErrorCode.HIVE_INVALID_BUCKET_FILES, format(
+                            "Hive table '%s' has %s files for bucket %s in partition %s, but sorting properties can only be used with a single file per bucket. " +
+                                    "Disable the propagate_table_scan_sorting_properties session property to read this table.",
+                            table.getSchemaTableName(),
+                            entry.getValue().size(),
+                            entry.getKey(),
+                            splitFactory.getPartitionName()));
+                }
+            }
+        }
+
         // convert files internal splits
         List<InternalHiveSplit> splitList = new ArrayList<>();
         for (int bucketNumber = 0; bucketNumber < bucketCount; bucketNumber++) {
@@ -173,6 +173,7 @@ public class HiveConfig
     private int fileSystemMaxCacheSize = 1000;
 
     private boolean optimizeMismatchedBucketCount;
+    private boolean propagateTableScanSortingProperties;
     private boolean writesToNonManagedTablesEnabled;
     private boolean createsOfNonManagedTablesEnabled = true;
 
@@ -184,6 +185,9 @@ public class HiveConfig
     private String recordingPath;
     private boolean replay;
     private Duration recordingDuration = new Duration(10, MINUTES);
+    private String metastoreStatisticsSnapshotPath;
+    private Duration metastoreStatisticsSnapshotInterval = new Duration(1, MINUTES);
+    private Duration metastoreStatisticsSnapshotTtl = new Duration(1, HOURS);
     private boolean s3SelectPushdownEnabled;
     private int s3SelectPushdownMaxConnections = 500;
 
@@ -209,6 +213,7 @@ public class HiveConfig
     private boolean autoVacuumEnabled;
     private boolean orcPredicatePushdownEnabled;
     private int hmsWriteBatchSize = 8;
+    private int maxConcurrentFileListings;
 
     public int getMaxInitialSplits()
     {
@@ -1111,6 +1116,19 @@ public class HiveConfig
         return this;
     }
 
+    public boolean isPropagateTableScanSortingProperties()
+    {
+        return propagateTableScanSortingProperties;
+    }
+
+    @Config("hive.propagate-table-scan-sorting-properties")
+    @ConfigDescription("Use sorted_by of bucketed tables to plan streaming operations, assuming every bucket is a single sorted file")
+    public HiveConfig setPropagateTableScanSortingProperties(boolean propagateTableScanSortingProperties)
+    {
+        this.propagateTableScanSortingProperties = propagateTableScanSortingProperties;
+        return this;
+    }
+
     public List<String> getFileStatusCacheTables()
     {
         return fileStatusCacheTables;
@@ -1160,6 +1178,20 @@ public class HiveConfig
         return this;
     }
 
+    @Min(0)
+    public int getMaxConcurrentFileListings()
+    {
+        return maxConcurrentFileListings;
+    }
+
+    @Config("hive.max-concurrent-file-listings")
+    @ConfigDescription("Maximum number of partition directories listed asynchronously per table scan, 0 lists synchronously")
+    public HiveConfig setMaxConcurrentFileListings(int maxConcurrentFileListings)
+    {
+        this.maxConcurrentFileListings = maxConcurrentFileListings;
+        return this;
+    }
+
     public enum HiveMetastoreAuthenticationType
     {
         NONE,
@@ -1410,6 +1442,48 @@ public class HiveConfig
         return recordingDuration;
     }
 
+    @Config("hive.metastore-statistics-snapshot-path")
+    @ConfigDescription("File used to persist table and partition statistics loaded from the metastore across restarts")
+    public HiveConfig setMetastoreStatisticsSnapshotPath(String metastoreStatisticsSnapshotPath)
+    {
+        this.metastoreStatisticsSnapshotPath = metastoreStatisticsSnapshotPath;
+        return this;
+    }
+
+    public String getMetastoreStatisticsSnapshotPath()
+    {
+        return metastoreStatisticsSnapshotPath;
+    }
+
+    @Config("hive.metastore-statistics-snapshot-interval")
+    @ConfigDescription("Interval at which the persisted metastore statistics are written")
+    public HiveConfig setMetastoreStatisticsSnapshotInterval(Duration metastoreStatisticsSnapshotInterval)
+    {
+        this.metastoreStatisticsSnapshotInterval = metastoreStatisticsSnapshotInterval;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("1s")
+    public Duration getMetastoreStatisticsSnapshotInterval()
+    {
+        return metastoreStatisticsSnapshotInterval;
+    }
+
+    @Config("hive.metastore-statistics-snapshot-ttl")
+    @ConfigDescription("Time after which persisted metastore statistics are reloaded, even if the table or partition is unchanged")
+    public HiveConfig setMetastoreStatisticsSnapshotTtl(Duration metastoreStatisticsSnapshotTtl)
+    {
+        this.metastoreStatisticsSnapshotTtl = metastoreStatisticsSnapshotTtl;
+        return this;
+    }
+
+    @NotNull
+    public Duration getMetastoreStatisticsSnapshotTtl()
+    {
+        return metastoreStatisticsSnapshotTtl;
+    }
+
     public boolean isS3SelectPushdownEnabled()
     {
         return s3SelectPushdownEnabled;
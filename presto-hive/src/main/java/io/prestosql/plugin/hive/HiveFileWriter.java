@@ -14,12 +14,15 @@
 package io.prestosql.plugin.hive;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.spi.Page;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
 import java.util.Optional;
 
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+
 public interface HiveFileWriter
 {
     long getWrittenBytes();
@@ -28,6 +31,14 @@ public interface HiveFileWriter
 
     void appendRows(Page dataPage);
 
+    /**
+     * Returns a future that completes once the writer can append rows without waiting.
+     */
+    default ListenableFuture<?> isBlocked()
+    {
+        return immediateFuture(null);
+    }
+
     void commit();
 
     void rollback();
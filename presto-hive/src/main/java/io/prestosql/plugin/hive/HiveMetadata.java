@@ -72,10 +72,13 @@ import io.prestosql.spi.connector.ConnectorViewDefinition;
 import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.DiscretePredicates;
+import io.prestosql.spi.connector.GroupingProperty;
 import io.prestosql.spi.connector.InMemoryRecordSet;
+import io.prestosql.spi.connector.LocalProperty;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.connector.SortingProperty;
 import io.prestosql.spi.connector.SystemTable;
 import io.prestosql.spi.connector.TableAlreadyExistsException;
 import io.prestosql.spi.connector.TableNotFoundException;
@@ -2180,12 +2183,54 @@ public class HiveMetadata
                             .collect(toList())));
         }
 
+        List<LocalProperty<ColumnHandle>> localProperties = ImmutableList.of();
+        // sorting only holds within a bucket file, so rows of different partitions would interleave
+        if (HiveSessionProperties.isPropagateTableScanSortingProperties(session) && hiveTable.getBucketHandle().isPresent() && partitions.size() <= 1) {
+            Table hmsTable = metastore.getTable(identity, hiveTable.getSchemaName(), hiveTable.getTableName())
+                    .orElseThrow(() -> new TableNotFoundException(hiveTable.getSchemaTableName()));
+            Optional<HiveBucketProperty> bucketProperty = hmsTable.getStorage().getBucketProperty();
+            if (bucketProperty.isPresent() && !AcidUtils.isTransactionalTable(hmsTable.getParameters())) {
+                Map<String, HiveColumnHandle> columnHandles = hiveColumnHandles(hmsTable).stream()
+                        .collect(toImmutableMap(HiveColumnHandle::getName, identity()));
+                localProperties = getBucketLocalProperties(bucketProperty.get(), columnHandles);
+            }
+        }
+
         return new ConnectorTableProperties(
                 predicate,
                 tablePartitioning,
                 Optional.empty(),
                 discretePredicates,
-                ImmutableList.of());
+                localProperties);
+    }
+
+    /**
+     * Rows of a bucket file are sorted by the sorted_by columns, and all rows with the same bucketing values are in the same bucket.
+     * As long as every bucket is a single file read by a single split, the rows of a table scan are thus grouped on the shortest
+     * prefix of sorted_by that contains all bucketing columns, and sorted on the remaining sorted_by columns within each group.
+     */
+    @VisibleForTesting
+    static List<LocalProperty<ColumnHandle>> getBucketLocalProperties(HiveBucketProperty bucketProperty, Map<String, HiveColumnHandle> columnHandles)
+    {
+        List<SortingColumn> sortedBy = bucketProperty.getSortedBy();
+        Set<String> ungroupedBucketColumns = new HashSet<>(bucketProperty.getBucketedBy());
+        int groupingColumns = 0;
+        while (!ungroupedBucketColumns.isEmpty() && groupingColumns < sortedBy.size()) {
+            ungroupedBucketColumns.remove(sortedBy.get(groupingColumns).getColumnName());
+            groupingColumns++;
+        }
+        if (groupingColumns == 0 || !ungroupedBucketColumns.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        ImmutableList.Builder<LocalProperty<ColumnHandle>> properties = ImmutableList.builder();
+        properties.add(new GroupingProperty<>(sortedBy.subList(0, groupingColumns).stream()
+                .map(column -> (ColumnHandle) columnHandles.get(column.getColumnName()))
+                .collect(toImmutableList())));
+        for (SortingColumn column : sortedBy.subList(groupingColumns, sortedBy.size())) {
+            properties.add(new SortingProperty<>(columnHandles.get(column.getColumnName()), column.getOrder().getSortOrder()));
+        }
+        return properties.build();
     }
 
     @Override
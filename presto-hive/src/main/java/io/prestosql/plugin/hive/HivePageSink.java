@@ -702,7 +702,16 @@ public class HivePageSink
             hdfsEnvironment.doAs(session.getUser(), () -> doAppend(page));
         }
 
-        return NOT_BLOCKED;
+        // a writer still writing a stripe in the background blocks the sink, a failure is reported by its next append or commit
+        List<ListenableFuture<?>> blockedWriters = writers.stream()
+                .filter(Objects::nonNull)
+                .map(HiveWriter::isBlocked)
+                .filter(future -> !future.isDone())
+                .collect(toList());
+        if (blockedWriters.isEmpty()) {
+            return NOT_BLOCKED;
+        }
+        return MoreFutures.toCompletableFuture(Futures.successfulAsList(blockedWriters));
     }
 
     private void doAppend(Page inputPage)
@@ -784,7 +784,7 @@ public class HivePageSourceProvider
         return domain;
     }
 
-    private static TupleDomain<HiveColumnHandle> getPredicate(DynamicFilter dynamicFilter, Type type, HiveColumnHandle hiveColumnHandle)
+    protected static TupleDomain<HiveColumnHandle> getPredicate(DynamicFilter dynamicFilter, Type type, HiveColumnHandle hiveColumnHandle)
     {
         if (dynamicFilter instanceof CombinedDynamicFilter) {
             List<DynamicFilter> filters = ((CombinedDynamicFilter) dynamicFilter).getFilters();
@@ -81,6 +81,7 @@ public final class HiveSessionProperties
     private static final String IGNORE_CORRUPTED_STATISTICS = "ignore_corrupted_statistics";
     private static final String COLLECT_COLUMN_STATISTICS_ON_WRITE = "collect_column_statistics_on_write";
     private static final String OPTIMIZE_MISMATCHED_BUCKET_COUNT = "optimize_mismatched_bucket_count";
+    private static final String PROPAGATE_TABLE_SCAN_SORTING_PROPERTIES = "propagate_table_scan_sorting_properties";
     private static final String S3_SELECT_PUSHDOWN_ENABLED = "s3_select_pushdown_enabled";
     private static final String TEMPORARY_STAGING_DIRECTORY_ENABLED = "temporary_staging_directory_enabled";
     private static final String TEMPORARY_STAGING_DIRECTORY_PATH = "temporary_staging_directory_path";
@@ -91,6 +92,7 @@ public final class HiveSessionProperties
     private static final String ORC_PUSHDOWN_DATACACHE = "orc_pushdown_data_cache_enabled";
     private static final String WRITE_PARTITION_DISTRIBUTION = "write_partition_distribution";
     private static final String METASTORE_WRITE_BATCH_SIZE = "metastore_write_batch_size";
+    private static final String MAX_CONCURRENT_FILE_LISTINGS = "max_concurrent_file_listings";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -347,6 +349,11 @@ public final class HiveSessionProperties
                         "Experimenal: Enable optimization to avoid shuffle when bucket count is compatible but not the same",
                         hiveConfig.isOptimizeMismatchedBucketCount(),
                         false),
+                booleanProperty(
+                        PROPAGATE_TABLE_SCAN_SORTING_PROPERTIES,
+                        "Experimental: Use sorted_by of bucketed tables to plan streaming operations. Requires a single sorted file per bucket",
+                        hiveConfig.isPropagateTableScanSortingProperties(),
+                        false),
                 booleanProperty(
                         S3_SELECT_PUSHDOWN_ENABLED,
                         "S3 Select pushdown enabled",
@@ -367,6 +374,11 @@ public final class HiveSessionProperties
                         "Batch size for requests to HMS for partition and partition statistics write operation",
                         hiveConfig.getMetastoreWriteBatchSize(),
                         false),
+                integerProperty(
+                        MAX_CONCURRENT_FILE_LISTINGS,
+                        "Maximum number of partition directories listed asynchronously per table scan, 0 lists synchronously",
+                        hiveConfig.getMaxConcurrentFileListings(),
+                        false),
                 integerProperty(
                         DYNAMIC_FILTERING_ROW_FILTERING_THRESHOLD,
                         "Only enable row filtering with dynamic filter if the filter size is below this threshold",
@@ -414,6 +426,11 @@ public final class HiveSessionProperties
         return session.getProperty(METASTORE_WRITE_BATCH_SIZE, Integer.class);
     }
 
+    public static int getMaxConcurrentFileListings(ConnectorSession session)
+    {
+        return session.getProperty(MAX_CONCURRENT_FILE_LISTINGS, Integer.class);
+    }
+
     public static boolean isForceLocalScheduling(ConnectorSession session)
     {
         return session.getProperty(FORCE_LOCAL_SCHEDULING, Boolean.class);
@@ -631,6 +648,11 @@ public final class HiveSessionProperties
         return session.getProperty(OPTIMIZE_MISMATCHED_BUCKET_COUNT, Boolean.class);
     }
 
+    public static boolean isPropagateTableScanSortingProperties(ConnectorSession session)
+    {
+        return session.getProperty(PROPAGATE_TABLE_SCAN_SORTING_PROPERTIES, Boolean.class);
+    }
+
     public static boolean isTemporaryStagingDirectoryEnabled(ConnectorSession session)
     {
         return session.getProperty(TEMPORARY_STAGING_DIRECTORY_ENABLED, Boolean.class);
@@ -15,6 +15,7 @@ package io.prestosql.plugin.hive;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.spi.Page;
 
 import java.util.Collections;
@@ -89,6 +90,11 @@ public class HiveWriter
         return rowCount;
     }
 
+    public ListenableFuture<?> isBlocked()
+    {
+        return fileWriter.isBlocked();
+    }
+
     public void append(Page dataPage)
     {
         // getRegionSizeInBytes for each row can be expensive; use getRetainedSizeInBytes for estimation
@@ -14,6 +14,7 @@
 package io.prestosql.plugin.hive;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.log.Logger;
 import io.prestosql.orc.OrcDataSink;
 import io.prestosql.orc.OrcDataSource;
@@ -53,9 +54,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.util.concurrent.Futures.successfulAsList;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITER_CLOSE_ERROR;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITER_DATA_ERROR;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITE_VALIDATION_FAILED;
@@ -107,6 +110,7 @@ public class OrcFileWriter
             Optional<Supplier<OrcDataSource>> validationInputFactory,
             OrcWriteValidationMode validationMode,
             OrcWriterStats stats,
+            Optional<Executor> columnEncodingExecutor,
             Optional<AcidOutputFormat.Options> acidOptions,
             Optional<HiveACIDWriteType> acidWriteType,
             Optional<HiveFileWriter> deleteDeltaFileWriter,
@@ -127,7 +131,8 @@ public class OrcFileWriter
                 validationMode,
                 stats,
                 Optional.of(flushStripeCallback()),
-                Optional.of(closeCallback()));
+                Optional.of(closeCallback()),
+                columnEncodingExecutor);
         this.deleteDeltaFileWriter = deleteDeltaFileWriter;
         this.rollbackAction = requireNonNull(rollbackAction, "rollbackAction is null");
 
@@ -239,6 +244,15 @@ public class OrcFileWriter
         return INSTANCE_SIZE + orcWriter.getRetainedBytes();
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (deleteDeltaFileWriter.isPresent()) {
+            return successfulAsList(orcWriter.isBlocked(), deleteDeltaFileWriter.get().isBlocked());
+        }
+        return orcWriter.isBlocked();
+    }
+
     @Override
     public void appendRows(Page dataPage)
     {
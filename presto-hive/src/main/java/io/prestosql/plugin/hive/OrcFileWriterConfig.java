@@ -14,13 +14,18 @@
 package io.prestosql.plugin.hive;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.units.DataSize;
 import io.prestosql.orc.OrcWriterOptions;
 
+import javax.validation.constraints.Min;
+
 @SuppressWarnings("unused")
 public class OrcFileWriterConfig
 {
     private OrcWriterOptions options = new OrcWriterOptions();
+    private int encodingThreads;
+    private boolean asyncFlushEnabled;
 
     public OrcWriterOptions toOrcWriterOptions()
     {
@@ -110,4 +115,31 @@ public class OrcFileWriterConfig
         options = options.withMaxCompressionBufferSize(maxCompressionBufferSize);
         return this;
     }
+
+    @Min(0)
+    public int getEncodingThreads()
+    {
+        return encodingThreads;
+    }
+
+    @Config("hive.orc.writer.encoding-threads")
+    @ConfigDescription("Number of threads shared by all ORC writers to close the columns of a stripe in parallel, 0 closes them on the writer thread")
+    public OrcFileWriterConfig setEncodingThreads(int encodingThreads)
+    {
+        this.encodingThreads = encodingThreads;
+        return this;
+    }
+
+    public boolean isAsyncFlushEnabled()
+    {
+        return asyncFlushEnabled;
+    }
+
+    @Config("hive.orc.writer.async-flush-enabled")
+    @ConfigDescription("Write finished stripes to the file system in the background, blocking the writer instead of its thread")
+    public OrcFileWriterConfig setAsyncFlushEnabled(boolean asyncFlushEnabled)
+    {
+        this.asyncFlushEnabled = asyncFlushEnabled;
+        return this;
+    }
 }
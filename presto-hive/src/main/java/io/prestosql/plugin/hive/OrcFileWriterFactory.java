@@ -16,6 +16,7 @@ package io.prestosql.plugin.hive;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.log.Logger;
+import io.prestosql.orc.AsyncOrcDataSink;
 import io.prestosql.orc.OrcDataSink;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcDataSourceId;
@@ -42,6 +43,7 @@ import org.apache.orc.OrcConf;
 import org.weakref.jmx.Flatten;
 import org.weakref.jmx.Managed;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import java.io.IOException;
@@ -49,14 +51,19 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.prestosql.plugin.hive.HiveUtil.getColumnNames;
 import static io.prestosql.plugin.hive.HiveUtil.getColumnTypes;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.stream.Collectors.toList;
 
 public class OrcFileWriterFactory
@@ -71,6 +78,8 @@ public class OrcFileWriterFactory
     private final OrcWriterStats stats = new OrcWriterStats();
     private final OrcWriterOptions orcWriterOptions;
     private final boolean writeLegacyVersion;
+    private final Optional<ExecutorService> encodingExecutor;
+    private final Optional<ExecutorService> flushExecutor;
 
     @Inject
     public OrcFileWriterFactory(
@@ -87,7 +96,9 @@ public class OrcFileWriterFactory
                 nodeVersion,
                 hiveConfig.isOrcWriteLegacyVersion(),
                 readStats,
-                requireNonNull(config, "config is null").toOrcWriterOptions());
+                requireNonNull(config, "config is null").toOrcWriterOptions(),
+                config.getEncodingThreads(),
+                config.isAsyncFlushEnabled());
     }
 
     public OrcFileWriterFactory(
@@ -97,6 +108,19 @@ public class OrcFileWriterFactory
             boolean writeLegacyVersion,
             FileFormatDataSourceStats readStats,
             OrcWriterOptions orcWriterOptions)
+    {
+        this(hdfsEnvironment, typeManager, nodeVersion, writeLegacyVersion, readStats, orcWriterOptions, 0, false);
+    }
+
+    public OrcFileWriterFactory(
+            HdfsEnvironment hdfsEnvironment,
+            TypeManager typeManager,
+            NodeVersion nodeVersion,
+            boolean writeLegacyVersion,
+            FileFormatDataSourceStats readStats,
+            OrcWriterOptions orcWriterOptions,
+            int encodingThreads,
+            boolean asyncFlushEnabled)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
@@ -104,6 +128,16 @@ public class OrcFileWriterFactory
         this.writeLegacyVersion = writeLegacyVersion;
         this.readStats = requireNonNull(readStats, "stats is null");
         this.orcWriterOptions = requireNonNull(orcWriterOptions, "orcWriterOptions is null");
+        // closing columns is CPU bound, so it shares a fixed pool, while flushes mostly wait on the file system
+        this.encodingExecutor = encodingThreads > 0 ? Optional.of(newFixedThreadPool(encodingThreads, daemonThreadsNamed("orc-writer-encoding-%s"))) : Optional.empty();
+        this.flushExecutor = asyncFlushEnabled ? Optional.of(newCachedThreadPool(daemonThreadsNamed("orc-writer-flush-%s"))) : Optional.empty();
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        encodingExecutor.ifPresent(ExecutorService::shutdownNow);
+        flushExecutor.ifPresent(ExecutorService::shutdownNow);
     }
 
     @Managed
@@ -174,6 +208,9 @@ public class OrcFileWriterFactory
         try {
             FileSystem fileSystem = hdfsEnvironment.getFileSystem(session.getUser(), path, configuration);
             OrcDataSink orcDataSink = createOrcDataSink(session, fileSystem, path);
+            if (flushExecutor.isPresent()) {
+                orcDataSink = new AsyncOrcDataSink(orcDataSink, flushExecutor.get());
+            }
 
             Optional<Supplier<OrcDataSource>> validationInputFactory = Optional.empty();
             if (HiveSessionProperties.isOrcOptimizedWriterValidate(session)) {
@@ -226,6 +263,7 @@ public class OrcFileWriterFactory
                     validationInputFactory,
                     HiveSessionProperties.getOrcOptimizedWriterValidateMode(session),
                     stats,
+                    encodingExecutor.map(Executor.class::cast),
                     acidOptions,
                     acidWriteType,
                     deleteDeltaWriter,
@@ -0,0 +1,785 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.metastore;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.airlift.json.JsonCodec;
+import io.airlift.log.Logger;
+import io.prestosql.plugin.hive.ForPersistentStatisticsHiveMetastore;
+import io.prestosql.plugin.hive.HiveConfig;
+import io.prestosql.plugin.hive.HivePartition;
+import io.prestosql.plugin.hive.HiveType;
+import io.prestosql.plugin.hive.PartitionStatistics;
+import io.prestosql.plugin.hive.authentication.HiveIdentity;
+import io.prestosql.plugin.hive.metastore.RecordingHiveMetastore.Pair;
+import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.security.RoleGrant;
+import io.prestosql.spi.statistics.ColumnStatisticType;
+import io.prestosql.spi.type.Type;
+import org.apache.hadoop.hive.metastore.api.DataOperationType;
+import org.apache.hadoop.hive.metastore.api.ShowLocksRequest;
+import org.apache.hadoop.hive.metastore.api.ShowLocksResponse;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static io.prestosql.plugin.hive.metastore.HivePartitionName.hivePartitionName;
+import static io.prestosql.plugin.hive.metastore.HiveTableName.hiveTableName;
+import static io.prestosql.plugin.hive.metastore.MetastoreUtil.makePartitionName;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.hadoop.hive.metastore.api.hive_metastoreConstants.DDL_TIME;
+
+/**
+ * Keeps table and partition statistics loaded from the metastore in a snapshot file, so that a restarted
+ * coordinator, or another coordinator reading the same file, plans with warm statistics.
+ * <p>
+ * Every entry is stored together with the time it was loaded and a version made of the last DDL time and a
+ * SHA-256 digest of the parameters and columns of the table or partition it was loaded for. Statistics are served from the snapshot only while the
+ * version still matches the table or partition passed in by the caller, so only partitions altered since the
+ * snapshot was written are reloaded from the metastore. Column statistics collected by another engine do not
+ * necessarily change the parameters, so entries are also reloaded once they are older than the snapshot TTL.
+ * <p>
+ * Statistics loaded while the table or partition was invalidated are not cached, since they may predate
+ * the change that caused the invalidation.
+ * <p>
+ * The snapshot is written from the entries of this instance only. Invalidated entries are therefore dropped
+ * from the file, and coordinators sharing the file pick up each other's entries on startup.
+ */
+@ThreadSafe
+public class PersistentStatisticsHiveMetastore
+        implements HiveMetastore
+{
+    private static final Logger LOG = Logger.get(PersistentStatisticsHiveMetastore.class);
+    private static final JsonCodec<StatisticsSnapshot> SNAPSHOT_CODEC = jsonCodec(StatisticsSnapshot.class);
+
+    private final HiveMetastore delegate;
+    private final Path snapshotPath;
+    private final long snapshotIntervalMillis;
+    private final long snapshotTtlMillis;
+    private final Cache<HiveTableName, VersionedStatistics> tableStatisticsCache;
+    private final Cache<HivePartitionName, VersionedStatistics> partitionStatisticsCache;
+    private final AtomicBoolean modified = new AtomicBoolean();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final ScheduledExecutorService snapshotExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed("hive-metastore-statistics-snapshot-%s"));
+    // incremented by every invalidation, so loads that started before one do not cache their statistics
+    @GuardedBy("this")
+    private long generation;
+
+    @Inject
+    public PersistentStatisticsHiveMetastore(@ForPersistentStatisticsHiveMetastore HiveMetastore delegate, HiveConfig hiveConfig)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        requireNonNull(hiveConfig, "hiveConfig is null");
+        this.snapshotPath = Paths.get(requireNonNull(hiveConfig.getMetastoreStatisticsSnapshotPath(), "metastoreStatisticsSnapshotPath is null"));
+        this.snapshotIntervalMillis = hiveConfig.getMetastoreStatisticsSnapshotInterval().toMillis();
+        this.snapshotTtlMillis = hiveConfig.getMetastoreStatisticsSnapshotTtl().toMillis();
+        this.tableStatisticsCache = CacheBuilder.newBuilder()
+                .maximumSize(hiveConfig.getMetastoreCacheMaximumSize())
+                .build();
+        this.partitionStatisticsCache = CacheBuilder.newBuilder()
+                .maximumSize(hiveConfig.getMetastoreCacheMaximumSize())
+                .build();
+
+        loadSnapshot();
+    }
+
+    @PostConstruct
+    public void start()
+    {
+        snapshotExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                if (modified.get()) {
+                    writeSnapshot();
+                }
+            }
+            catch (IOException | RuntimeException e) {
+                LOG.warn(e, "Failed to write metastore statistics snapshot to %s", snapshotPath);
+            }
+        }, snapshotIntervalMillis, snapshotIntervalMillis, MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        snapshotExecutor.shutdownNow();
+        try {
+            if (modified.get()) {
+                writeSnapshot();
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            LOG.warn(e, "Failed to write metastore statistics snapshot to %s", snapshotPath);
+        }
+    }
+
+    @VisibleForTesting
+    void loadSnapshot()
+    {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        try {
+            StatisticsSnapshot snapshot = SNAPSHOT_CODEC.fromJson(Files.readAllBytes(snapshotPath));
+            // entries loaded by this coordinator are never older than the ones in the snapshot
+            snapshot.getTableStatistics().stream()
+                    .filter(pair -> !isExpired(pair.getValue()))
+                    .forEach(pair -> tableStatisticsCache.asMap().putIfAbsent(pair.getKey(), pair.getValue()));
+            snapshot.getPartitionStatistics().stream()
+                    .filter(pair -> !isExpired(pair.getValue()))
+                    .forEach(pair -> partitionStatisticsCache.asMap().putIfAbsent(pair.getKey(), pair.getValue()));
+        }
+        catch (IOException | IllegalArgumentException e) {
+            LOG.warn(e, "Ignoring unreadable metastore statistics snapshot %s", snapshotPath);
+        }
+    }
+
+    @Managed
+    public void writeSnapshot()
+            throws IOException
+    {
+        modified.set(false);
+
+        StatisticsSnapshot snapshot = new StatisticsSnapshot(toPairs(tableStatisticsCache), toPairs(partitionStatisticsCache));
+        Path temporaryPath = Files.createTempFile(snapshotPath.toAbsolutePath().getParent(), snapshotPath.getFileName().toString(), ".tmp");
+        Files.write(temporaryPath, SNAPSHOT_CODEC.toJsonBytes(snapshot));
+        Files.move(temporaryPath, snapshotPath, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    @Managed
+    public long getTableStatisticsSize()
+    {
+        return tableStatisticsCache.size();
+    }
+
+    @Managed
+    public long getPartitionStatisticsSize()
+    {
+        return partitionStatisticsCache.size();
+    }
+
+    @Managed
+    public synchronized void flushCache()
+    {
+        generation++;
+        tableStatisticsCache.invalidateAll();
+        partitionStatisticsCache.invalidateAll();
+        modified.set(true);
+    }
+
+    private static <K> List<Pair<K, VersionedStatistics>> toPairs(Cache<K, VersionedStatistics> cache)
+    {
+        return cache.asMap().entrySet().stream()
+                .map(entry -> new Pair<>(entry.getKey(), entry.getValue()))
+                .collect(toImmutableList());
+    }
+
+    private boolean isExpired(VersionedStatistics statistics)
+    {
+        return System.currentTimeMillis() - statistics.getLoadTimeMillis() >= snapshotTtlMillis;
+    }
+
+    private boolean isValid(VersionedStatistics statistics, String version)
+    {
+        return statistics.getVersion().equals(version) && !isExpired(statistics);
+    }
+
+    private static String getVersion(Table table)
+    {
+        return getVersion(table.getParameters(), table.getDataColumns());
+    }
+
+    private static String getVersion(Partition partition)
+    {
+        return getVersion(partition.getParameters(), partition.getColumns());
+    }
+
+    private static String getVersion(Map<String, String> parameters, List<Column> columns)
+    {
+        Hasher hasher = Hashing.sha256().newHasher();
+        new TreeMap<>(parameters).forEach((key, value) -> {
+            putString(hasher, key);
+            putString(hasher, value);
+        });
+        for (Column column : columns) {
+            putString(hasher, column.getName());
+            putString(hasher, column.getType().getHiveTypeName().toString());
+            putString(hasher, column.getComment().orElse(""));
+        }
+        return parameters.getOrDefault(DDL_TIME, "") + ":" + hasher.hash();
+    }
+
+    private static void putString(Hasher hasher, String value)
+    {
+        // the length keeps adjacent strings from hashing the same as a different split of their characters
+        hasher.putInt(value.length());
+        hasher.putString(value, UTF_8);
+    }
+
+    private synchronized long getGeneration()
+    {
+        return generation;
+    }
+
+    private synchronized void cacheStatistics(long loadGeneration, HiveTableName tableName, VersionedStatistics statistics)
+    {
+        if (loadGeneration == generation) {
+            tableStatisticsCache.put(tableName, statistics);
+            modified.set(true);
+        }
+    }
+
+    private synchronized void cacheStatistics(long loadGeneration, Map<HivePartitionName, VersionedStatistics> statistics)
+    {
+        if (loadGeneration == generation) {
+            partitionStatisticsCache.putAll(statistics);
+            modified.set(true);
+        }
+    }
+
+    @Override
+    public PartitionStatistics getTableStatistics(HiveIdentity identity, Table table)
+    {
+        if (delegate.isImpersonationEnabled()) {
+            return delegate.getTableStatistics(identity, table);
+        }
+
+        HiveTableName key = hiveTableName(table.getDatabaseName(), table.getTableName());
+        String version = getVersion(table);
+        VersionedStatistics cached = tableStatisticsCache.getIfPresent(key);
+        if (cached != null && isValid(cached, version)) {
+            hitCount.incrementAndGet();
+            return cached.getStatistics();
+        }
+
+        missCount.incrementAndGet();
+        long loadGeneration = getGeneration();
+        PartitionStatistics statistics = delegate.getTableStatistics(identity, table);
+        cacheStatistics(loadGeneration, key, new VersionedStatistics(version, System.currentTimeMillis(), statistics));
+        return statistics;
+    }
+
+    @Override
+    public Map<String, PartitionStatistics> getPartitionStatistics(HiveIdentity identity, Table table, List<Partition> partitions)
+    {
+        if (delegate.isImpersonationEnabled()) {
+            return delegate.getPartitionStatistics(identity, table, partitions);
+        }
+
+        HiveTableName hiveTableName = hiveTableName(table.getDatabaseName(), table.getTableName());
+        ImmutableMap.Builder<String, PartitionStatistics> result = ImmutableMap.builder();
+        List<Partition> missingPartitions = new ArrayList<>();
+        for (Partition partition : partitions) {
+            String partitionName = makePartitionName(table, partition);
+            VersionedStatistics cached = partitionStatisticsCache.getIfPresent(hivePartitionName(hiveTableName, partitionName));
+            if (cached != null && isValid(cached, getVersion(partition))) {
+                result.put(partitionName, cached.getStatistics());
+            }
+            else {
+                missingPartitions.add(partition);
+            }
+        }
+        hitCount.addAndGet(partitions.size() - missingPartitions.size());
+        if (missingPartitions.isEmpty()) {
+            return result.build();
+        }
+
+        missCount.addAndGet(missingPartitions.size());
+        long loadGeneration = getGeneration();
+        Map<String, PartitionStatistics> loaded = delegate.getPartitionStatistics(identity, table, missingPartitions);
+        long loadTimeMillis = System.currentTimeMillis();
+        Map<HivePartitionName, VersionedStatistics> loadedStatistics = new HashMap<>();
+        for (Partition partition : missingPartitions) {
+            String partitionName = makePartitionName(table, partition);
+            PartitionStatistics statistics = loaded.get(partitionName);
+            if (statistics != null) {
+                loadedStatistics.put(hivePartitionName(hiveTableName, partitionName), new VersionedStatistics(getVersion(partition), loadTimeMillis, statistics));
+            }
+        }
+        cacheStatistics(loadGeneration, loadedStatistics);
+        result.putAll(loaded);
+        return result.build();
+    }
+
+    @Override
+    public void updateTableStatistics(HiveIdentity identity, String databaseName, String tableName, Function<PartitionStatistics, PartitionStatistics> update)
+    {
+        try {
+            delegate.updateTableStatistics(identity, databaseName, tableName, update);
+        }
+        finally {
+            invalidateTable(databaseName, tableName);
+        }
+    }
+
+    @Override
+    public void updatePartitionStatistics(HiveIdentity identity, String databaseName, String tableName, String partitionName, Function<PartitionStatistics, PartitionStatistics> update)
+    {
+        try {
+            delegate.updatePartitionStatistics(identity, databaseName, tableName, partitionName, update);
+        }
+        finally {
+            invalidatePartition(hivePartitionName(databaseName, tableName, partitionName));
+        }
+    }
+
+    @Override
+    public void updatePartitionsStatistics(HiveIdentity identity, String databaseName, String tableName, Map<String, Function<PartitionStatistics, PartitionStatistics>> partNamesUpdateFunctionMap)
+    {
+        try {
+            delegate.updatePartitionsStatistics(identity, databaseName, tableName, partNamesUpdateFunctionMap);
+        }
+        finally {
+            partNamesUpdateFunctionMap.keySet().forEach(partitionName -> invalidatePartition(hivePartitionName(databaseName, tableName, partitionName)));
+        }
+    }
+
+    private synchronized void invalidateTable(String databaseName, String tableName)
+    {
+        generation++;
+        HiveTableName hiveTableName = hiveTableName(databaseName, tableName);
+        tableStatisticsCache.invalidate(hiveTableName);
+        partitionStatisticsCache.asMap().keySet().removeIf(partitionName -> partitionName.getHiveTableName().equals(hiveTableName));
+        modified.set(true);
+    }
+
+    private synchronized void invalidatePartition(HivePartitionName partitionName)
+    {
+        generation++;
+        partitionStatisticsCache.invalidate(partitionName);
+        modified.set(true);
+    }
+
+    @Override
+    public Optional<Database> getDatabase(String databaseName)
+    {
+        return delegate.getDatabase(databaseName);
+    }
+
+    @Override
+    public List<String> getAllDatabases()
+    {
+        return delegate.getAllDatabases();
+    }
+
+    @Override
+    public Optional<Table> getTable(HiveIdentity identity, String databaseName, String tableName)
+    {
+        return delegate.getTable(identity, databaseName, tableName);
+    }
+
+    @Override
+    public Set<ColumnStatisticType> getSupportedColumnStatistics(Type type)
+    {
+        return delegate.getSupportedColumnStatistics(type);
+    }
+
+    @Override
+    public Optional<List<String>> getAllTables(String databaseName)
+    {
+        return delegate.getAllTables(databaseName);
+    }
+
+    @Override
+    public Optional<List<String>> getAllViews(String databaseName)
+    {
+        return delegate.getAllViews(databaseName);
+    }
+
+    @Override
+    public void createDatabase(HiveIdentity identity, Database database)
+    {
+        delegate.createDatabase(identity, database);
+    }
+
+    @Override
+    public void dropDatabase(HiveIdentity identity, String databaseName)
+    {
+        delegate.dropDatabase(identity, databaseName);
+    }
+
+    @Override
+    public void renameDatabase(HiveIdentity identity, String databaseName, String newDatabaseName)
+    {
+        delegate.renameDatabase(identity, databaseName, newDatabaseName);
+    }
+
+    @Override
+    public void createTable(HiveIdentity identity, Table table, PrincipalPrivileges principalPrivileges)
+    {
+        delegate.createTable(identity, table, principalPrivileges);
+    }
+
+    @Override
+    public void dropTable(HiveIdentity identity, String databaseName, String tableName, boolean deleteData)
+    {
+        try {
+            delegate.dropTable(identity, databaseName, tableName, deleteData);
+        }
+        finally {
+            invalidateTable(databaseName, tableName);
+        }
+    }
+
+    @Override
+    public void replaceTable(HiveIdentity identity, String databaseName, String tableName, Table newTable, PrincipalPrivileges principalPrivileges)
+    {
+        try {
+            delegate.replaceTable(identity, databaseName, tableName, newTable, principalPrivileges);
+        }
+        finally {
+            invalidateTable(databaseName, tableName);
+        }
+    }
+
+    @Override
+    public void renameTable(HiveIdentity identity, String databaseName, String tableName, String newDatabaseName, String newTableName)
+    {
+        try {
+            delegate.renameTable(identity, databaseName, tableName, newDatabaseName, newTableName);
+        }
+        finally {
+            invalidateTable(databaseName, tableName);
+            invalidateTable(newDatabaseName, newTableName);
+        }
+    }
+
+    @Override
+    public void commentTable(HiveIdentity identity, String databaseName, String tableName, Optional<String> comment)
+    {
+        delegate.commentTable(identity, databaseName, tableName, comment);
+    }
+
+    @Override
+    public void addColumn(HiveIdentity identity, String databaseName, String tableName, String columnName, HiveType columnType, String columnComment)
+    {
+        delegate.addColumn(identity, databaseName, tableName, columnName, columnType, columnComment);
+    }
+
+    @Override
+    public void renameColumn(HiveIdentity identity, String databaseName, String tableName, String oldColumnName, String newColumnName)
+    {
+        delegate.renameColumn(identity, databaseName, tableName, oldColumnName, newColumnName);
+    }
+
+    @Override
+    public void dropColumn(HiveIdentity identity, String databaseName, String tableName, String columnName)
+    {
+        delegate.dropColumn(identity, databaseName, tableName, columnName);
+    }
+
+    @Override
+    public Optional<Partition> getPartition(HiveIdentity identity, String databaseName, String tableName, List<String> partitionValues)
+    {
+        return delegate.getPartition(identity, databaseName, tableName, partitionValues);
+    }
+
+    @Override
+    public Optional<List<String>> getPartitionNames(HiveIdentity identity, String databaseName, String tableName)
+    {
+        return delegate.getPartitionNames(identity, databaseName, tableName);
+    }
+
+    @Override
+    public Optional<List<String>> getPartitionNamesByParts(HiveIdentity identity, String databaseName, String tableName, List<String> parts)
+    {
+        return delegate.getPartitionNamesByParts(identity, databaseName, tableName, parts);
+    }
+
+    @Override
+    public Map<String, Optional<Partition>> getPartitionsByNames(HiveIdentity identity, String databaseName, String tableName, List<String> partitionNames)
+    {
+        return delegate.getPartitionsByNames(identity, databaseName, tableName, partitionNames);
+    }
+
+    @Override
+    public void addPartitions(HiveIdentity identity, String databaseName, String tableName, List<PartitionWithStatistics> partitions)
+    {
+        delegate.addPartitions(identity, databaseName, tableName, partitions);
+    }
+
+    @Override
+    public void dropPartition(HiveIdentity identity, String databaseName, String tableName, List<String> parts, boolean deleteData)
+    {
+        try {
+            delegate.dropPartition(identity, databaseName, tableName, parts, deleteData);
+        }
+        finally {
+            invalidatePartition(hivePartitionName(databaseName, tableName, parts));
+        }
+    }
+
+    @Override
+    public void alterPartition(HiveIdentity identity, String databaseName, String tableName, PartitionWithStatistics partition)
+    {
+        try {
+            delegate.alterPartition(identity, databaseName, tableName, partition);
+        }
+        finally {
+            invalidatePartition(hivePartitionName(databaseName, tableName, partition.getPartitionName()));
+        }
+    }
+
+    @Override
+    public void createRole(String role, String grantor)
+    {
+        delegate.createRole(role, grantor);
+    }
+
+    @Override
+    public void dropRole(String role)
+    {
+        delegate.dropRole(role);
+    }
+
+    @Override
+    public Set<String> listRoles()
+    {
+        return delegate.listRoles();
+    }
+
+    @Override
+    public void grantRoles(Set<String> roles, Set<HivePrincipal> grantees, boolean withAdminOption, HivePrincipal grantor)
+    {
+        delegate.grantRoles(roles, grantees, withAdminOption, grantor);
+    }
+
+    @Override
+    public void revokeRoles(Set<String> roles, Set<HivePrincipal> grantees, boolean adminOptionFor, HivePrincipal grantor)
+    {
+        delegate.revokeRoles(roles, grantees, adminOptionFor, grantor);
+    }
+
+    @Override
+    public Set<RoleGrant> listRoleGrants(HivePrincipal principal)
+    {
+        return delegate.listRoleGrants(principal);
+    }
+
+    @Override
+    public void grantTablePrivileges(String databaseName, String tableName, HivePrincipal grantee, Set<HivePrivilegeInfo> privileges)
+    {
+        delegate.grantTablePrivileges(databaseName, tableName, grantee, privileges);
+    }
+
+    @Override
+    public void revokeTablePrivileges(String databaseName, String tableName, HivePrincipal grantee, Set<HivePrivilegeInfo> privileges)
+    {
+        delegate.revokeTablePrivileges(databaseName, tableName, grantee, privileges);
+    }
+
+    @Override
+    public Set<HivePrivilegeInfo> listTablePrivileges(String databaseName, String tableName, HivePrincipal principal)
+    {
+        return delegate.listTablePrivileges(databaseName, tableName, principal);
+    }
+
+    @Override
+    public long openTransaction(HiveIdentity identity)
+    {
+        return delegate.openTransaction(identity);
+    }
+
+    @Override
+    public void commitTransaction(HiveIdentity identity, long transactionId)
+    {
+        delegate.commitTransaction(identity, transactionId);
+    }
+
+    @Override
+    public void abortTransaction(HiveIdentity identity, long transactionId)
+    {
+        delegate.abortTransaction(identity, transactionId);
+    }
+
+    @Override
+    public void sendTransactionHeartbeat(HiveIdentity identity, long transactionId)
+    {
+        delegate.sendTransactionHeartbeat(identity, transactionId);
+    }
+
+    @Override
+    public void acquireSharedReadLock(HiveIdentity identity, String queryId, long transactionId, List<SchemaTableName> fullTables, List<HivePartition> partitions)
+    {
+        delegate.acquireSharedReadLock(identity, queryId, transactionId, fullTables, partitions);
+    }
+
+    @Override
+    public void acquireLock(HiveIdentity identity, String queryId, long transactionId, List<SchemaTableName> fullTables, List<HivePartition> partitions, DataOperationType operationType)
+    {
+        delegate.acquireLock(identity, queryId, transactionId, fullTables, partitions, operationType);
+    }
+
+    @Override
+    public String getValidWriteIds(HiveIdentity identity, List<SchemaTableName> tables, long currentTransactionId, boolean isVacuum)
+    {
+        return delegate.getValidWriteIds(identity, tables, currentTransactionId, isVacuum);
+    }
+
+    @Override
+    public ShowLocksResponse showLocks(ShowLocksRequest rqst)
+    {
+        return delegate.showLocks(rqst);
+    }
+
+    @Override
+    public Optional<String> getConfigValue(String name)
+    {
+        return delegate.getConfigValue(name);
+    }
+
+    @Override
+    public long getTableWriteId(String dbName, String tableName, long transactionId)
+    {
+        return delegate.getTableWriteId(dbName, tableName, transactionId);
+    }
+
+    @Override
+    public Set<HivePrivilegeInfo> listColumnPrivileges(String databaseName, String tableName, String columnName, HivePrincipal principal)
+    {
+        return delegate.listColumnPrivileges(databaseName, tableName, columnName, principal);
+    }
+
+    @Override
+    public Set<HivePrivilegeInfo> listSchemaPrivileges(String databaseName, String tableName, HivePrincipal principal)
+    {
+        return delegate.listSchemaPrivileges(databaseName, tableName, principal);
+    }
+
+    @Override
+    public boolean isImpersonationEnabled()
+    {
+        return delegate.isImpersonationEnabled();
+    }
+
+    @Override
+    public void refreshMetastoreCache()
+    {
+        delegate.refreshMetastoreCache();
+    }
+
+    @Immutable
+    public static class VersionedStatistics
+    {
+        private final String version;
+        private final long loadTimeMillis;
+        private final PartitionStatistics statistics;
+
+        @JsonCreator
+        public VersionedStatistics(
+                @JsonProperty("version") String version,
+                @JsonProperty("loadTimeMillis") long loadTimeMillis,
+                @JsonProperty("statistics") PartitionStatistics statistics)
+        {
+            this.version = requireNonNull(version, "version is null");
+            this.loadTimeMillis = loadTimeMillis;
+            this.statistics = requireNonNull(statistics, "statistics is null");
+        }
+
+        @JsonProperty
+        public String getVersion()
+        {
+            return version;
+        }
+
+        @JsonProperty
+        public long getLoadTimeMillis()
+        {
+            return loadTimeMillis;
+        }
+
+        @JsonProperty
+        public PartitionStatistics getStatistics()
+        {
+            return statistics;
+        }
+    }
+
+    @Immutable
+    public static class StatisticsSnapshot
+    {
+        private final List<Pair<HiveTableName, VersionedStatistics>> tableStatistics;
+        private final List<Pair<HivePartitionName, VersionedStatistics>> partitionStatistics;
+
+        @JsonCreator
+        public StatisticsSnapshot(
+                @JsonProperty("tableStatistics") List<Pair<HiveTableName, VersionedStatistics>> tableStatistics,
+                @JsonProperty("partitionStatistics") List<Pair<HivePartitionName, VersionedStatistics>> partitionStatistics)
+        {
+            this.tableStatistics = ImmutableList.copyOf(requireNonNull(tableStatistics, "tableStatistics is null"));
+            this.partitionStatistics = ImmutableList.copyOf(requireNonNull(partitionStatistics, "partitionStatistics is null"));
+        }
+
+        @JsonProperty
+        public List<Pair<HiveTableName, VersionedStatistics>> getTableStatistics()
+        {
+            return tableStatistics;
+        }
+
+        @JsonProperty
+        public List<Pair<HivePartitionName, VersionedStatistics>> getPartitionStatistics()
+        {
+            return partitionStatistics;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import com.google.inject.multibindings.Multibinder;
 import io.airlift.configuration.AbstractConfigurationAwareModule;
 import io.airlift.log.Logger;
 import io.prestosql.plugin.hive.ForCachingHiveMetastore;
+import io.prestosql.plugin.hive.ForPersistentStatisticsHiveMetastore;
 import io.prestosql.plugin.hive.ForRecordingHiveMetastore;
 import io.prestosql.plugin.hive.HiveConfig;
 import io.prestosql.plugin.hive.HiveErrorCode;
@@ -26,6 +27,7 @@ import io.prestosql.plugin.hive.metastore.CachingHiveMetastore;
 import io.prestosql.plugin.hive.metastore.HiveMetastore;
 import io.prestosql.plugin.hive.metastore.MetastoreClientFactory;
 import io.prestosql.plugin.hive.metastore.MetastoreConfig;
+import io.prestosql.plugin.hive.metastore.PersistentStatisticsHiveMetastore;
 import io.prestosql.plugin.hive.metastore.RecordingHiveMetastore;
 import io.prestosql.plugin.hive.metastore.WriteHiveMetastoreRecordingProcedure;
 import io.prestosql.spi.PrestoException;
@@ -104,6 +106,18 @@ public class ThriftMetastoreModule
             Multibinder<Procedure> procedures = newSetBinder(binder, Procedure.class);
             procedures.addBinding().toProvider(WriteHiveMetastoreRecordingProcedure.class).in(Scopes.SINGLETON);
         }
+        else if (buildConfigObject(HiveConfig.class).getMetastoreStatisticsSnapshotPath() != null) {
+            binder.bind(HiveMetastore.class)
+                    .annotatedWith(ForPersistentStatisticsHiveMetastore.class)
+                    .to(BridgingHiveMetastore.class)
+                    .in(Scopes.SINGLETON);
+            binder.bind(HiveMetastore.class)
+                    .annotatedWith(ForCachingHiveMetastore.class)
+                    .to(PersistentStatisticsHiveMetastore.class)
+                    .in(Scopes.SINGLETON);
+            binder.bind(PersistentStatisticsHiveMetastore.class).in(Scopes.SINGLETON);
+            newExporter(binder).export(PersistentStatisticsHiveMetastore.class).withGeneratedName();
+        }
         else {
             binder.bind(HiveMetastore.class)
                     .annotatedWith(ForCachingHiveMetastore.class)
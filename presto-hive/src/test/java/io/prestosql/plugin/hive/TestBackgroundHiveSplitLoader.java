@@ -32,6 +32,7 @@ import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorVacuumTableHandle;
 import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.dynamicfilter.DynamicFilter;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.resourcegroups.QueryType;
@@ -68,12 +69,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -85,6 +89,7 @@ import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.plugin.hive.HiveBucketing.BucketingVersion.BUCKETING_V1;
 import static io.prestosql.plugin.hive.HiveColumnHandle.pathColumnHandle;
+import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static io.prestosql.plugin.hive.HiveTestUtils.createTestDynamicFilterSupplier;
 import static io.prestosql.plugin.hive.HiveTestUtils.createTestHdfsEnvironment;
 import static io.prestosql.plugin.hive.HiveType.HIVE_INT;
@@ -670,6 +675,158 @@ public class TestBackgroundHiveSplitLoader
         assertEquals(splits.size(), 0, "Splits should be filtered");
     }
 
+    @Test(dataProvider = "maxConcurrentFileListings", timeOut = 60_000)
+    public void testAsyncFileListingOfPartitions(int maxConcurrentFileListings)
+            throws Exception
+    {
+        int partitionCount = 20;
+        Storage storage = new Storage(
+                StorageFormat.create(
+                        "com.facebook.hive.orc.OrcSerde",
+                        "org.apache.hadoop.hive.ql.io.RCFileInputFormat",
+                        "org.apache.hadoop.hive.ql.io.RCFileInputFormat"),
+                "location",
+                Optional.empty(),
+                false,
+                ImmutableMap.of());
+        ImmutableList.Builder<HivePartitionMetadata> hivePartitionMetadatas = ImmutableList.builder();
+        for (int i = 0; i < partitionCount; i++) {
+            hivePartitionMetadatas.add(new HivePartitionMetadata(
+                    new HivePartition(new SchemaTableName("testSchema", "table_name")),
+                    Optional.of(new Partition(
+                            "testSchema",
+                            "table_name",
+                            ImmutableList.of(String.valueOf(i)),
+                            storage,
+                            ImmutableList.of(TABLE_COLUMN),
+                            ImmutableMap.of())),
+                    ImmutableMap.of()));
+        }
+
+        ConnectorSession connectorSession = new TestingConnectorSession(
+                new HiveSessionProperties(
+                        new HiveConfig()
+                                .setMaxSplitSize(new DataSize(1.0, GIGABYTE))
+                                .setMaxConcurrentFileListings(maxConcurrentFileListings),
+                        new OrcFileWriterConfig(),
+                        new ParquetFileWriterConfig()).getSessionProperties());
+
+        BackgroundHiveSplitLoader backgroundHiveSplitLoader = new BackgroundHiveSplitLoader(
+                table(PARTITION_COLUMNS, Optional.empty(), ImmutableMap.of()),
+                hivePartitionMetadatas.build(),
+                TupleDomain.all(),
+                Optional.empty(),
+                connectorSession,
+                new TestingHdfsEnvironment(TEST_FILES),
+                new NamenodeStats(),
+                new CachingDirectoryLister(new HiveConfig()),
+                EXECUTOR,
+                2,
+                false,
+                Optional.empty(),
+                null,
+                Optional.empty(),
+                ImmutableMap.of(),
+                null);
+
+        HiveSplitSource hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+
+        assertEquals(drainSplits(hiveSplitSource).size(), partitionCount * TEST_FILES.size());
+    }
+
+    @Test
+    public void testAsyncFileListingRechecksDynamicFilter()
+            throws Exception
+    {
+        // the dynamic filter arrives after the partition was checked, while its listing is queued
+        Supplier<List<Set<DynamicFilter>>> dynamicFilter = createTestDynamicFilterSupplier("partitionColumn", ImmutableList.of(0L, 2L, 3L));
+        AtomicInteger dynamicFilterRequests = new AtomicInteger();
+        AtomicInteger listings = new AtomicInteger();
+
+        BackgroundHiveSplitLoader backgroundHiveSplitLoader = asyncFileListingSplitLoader(
+                (fileSystem, table, path) -> {
+                    listings.incrementAndGet();
+                    return fileSystem.listLocatedStatus(path);
+                },
+                () -> dynamicFilterRequests.getAndIncrement() == 0 ? ImmutableList.of() : dynamicFilter.get());
+
+        HiveSplitSource hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+
+        assertEquals(drainSplits(hiveSplitSource).size(), 0, "Splits should be filtered");
+        assertEquals(dynamicFilterRequests.get(), 2);
+        assertEquals(listings.get(), 0, "Pruned partition should not be listed");
+    }
+
+    @Test
+    public void testAsyncFileListingFailure()
+    {
+        BackgroundHiveSplitLoader backgroundHiveSplitLoader = asyncFileListingSplitLoader(
+                (fileSystem, table, path) -> {
+                    throw new IOException("listing failed");
+                },
+                null);
+
+        HiveSplitSource hiveSplitSource = hiveSplitSource(backgroundHiveSplitLoader);
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+
+        assertThatThrownBy(() -> drain(hiveSplitSource))
+                .isInstanceOfSatisfying(PrestoException.class, e -> assertEquals(e.getErrorCode(), HIVE_FILESYSTEM_ERROR.toErrorCode()))
+                .hasMessageStartingWith("Failed to list directory");
+        assertThatThrownBy(hiveSplitSource::isFinished)
+                .hasMessageStartingWith("Failed to list directory");
+    }
+
+    private static BackgroundHiveSplitLoader asyncFileListingSplitLoader(DirectoryLister directoryLister, Supplier<List<Set<DynamicFilter>>> dynamicFilterSupplier)
+    {
+        List<HivePartitionMetadata> hivePartitionMetadatas =
+                ImmutableList.of(
+                        new HivePartitionMetadata(
+                                new HivePartition(new SchemaTableName("testSchema", "table_name")),
+                                Optional.of(new Partition(
+                                        "testSchema",
+                                        "table_name",
+                                        ImmutableList.of("1"),
+                                        TABLE_STORAGE,
+                                        ImmutableList.of(TABLE_COLUMN),
+                                        ImmutableMap.of("param", "value"))),
+                                ImmutableMap.of()));
+
+        ConnectorSession connectorSession = new TestingConnectorSession(
+                new HiveSessionProperties(
+                        new HiveConfig()
+                                .setMaxSplitSize(new DataSize(1.0, GIGABYTE))
+                                .setDynamicFilterPartitionFilteringEnabled(true)
+                                .setMaxConcurrentFileListings(1),
+                        new OrcFileWriterConfig(),
+                        new ParquetFileWriterConfig()).getSessionProperties());
+
+        return new BackgroundHiveSplitLoader(
+                PARTITIONED_TABLE,
+                hivePartitionMetadatas,
+                TupleDomain.all(),
+                BackgroundHiveSplitLoader.BucketSplitInfo.createBucketSplitInfo(Optional.empty(), Optional.empty()),
+                connectorSession,
+                new TestingHdfsEnvironment(TEST_FILES),
+                new NamenodeStats(),
+                directoryLister,
+                EXECUTOR,
+                2,
+                false,
+                Optional.empty(),
+                dynamicFilterSupplier,
+                Optional.empty(),
+                ImmutableMap.of(),
+                new TestingTypeManager());
+    }
+
+    @DataProvider
+    public Object[][] maxConcurrentFileListings()
+    {
+        return new Object[][] {{0}, {1}, {4}, {64}};
+    }
+
     private static List<String> drain(HiveSplitSource source)
             throws Exception
     {
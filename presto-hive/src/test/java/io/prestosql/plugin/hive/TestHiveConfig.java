@@ -117,6 +117,7 @@ public class TestHiveConfig
                 .setFileSystemMaxCacheSize(1000)
                 .setTableStatisticsEnabled(true)
                 .setOptimizeMismatchedBucketCount(false)
+                .setPropagateTableScanSortingProperties(false)
                 .setWritesToNonManagedTablesEnabled(false)
                 .setCreatesOfNonManagedTablesEnabled(true)
                 .setHdfsWireEncryptionEnabled(false)
@@ -150,7 +151,11 @@ public class TestHiveConfig
                 .setVacuumCollectorInterval(new Duration(5, TimeUnit.MINUTES))
                 .setMaxSplitsToGroup(1)
                 .setWorkerMetaStoreCacheEnabled(false)
-                .setMetastoreWriteBatchSize(8));
+                .setMetastoreWriteBatchSize(8)
+                .setMaxConcurrentFileListings(0)
+                .setMetastoreStatisticsSnapshotPath(null)
+                .setMetastoreStatisticsSnapshotInterval(new Duration(1, TimeUnit.MINUTES))
+                .setMetastoreStatisticsSnapshotTtl(new Duration(1, TimeUnit.HOURS)));
     }
 
     @Test
@@ -248,6 +253,7 @@ public class TestHiveConfig
                 .put("hive.fs.cache.max-size", "1010")
                 .put("hive.table-statistics-enabled", "false")
                 .put("hive.optimize-mismatched-bucket-count", "true")
+                .put("hive.propagate-table-scan-sorting-properties", "true")
                 .put("hive.non-managed-table-writes-enabled", "true")
                 .put("hive.non-managed-table-creates-enabled", "false")
                 .put("hive.hdfs.wire-encryption.enabled", "true")
@@ -280,6 +286,10 @@ public class TestHiveConfig
                 .put("hive.max-splits-to-group", "20")
                 .put("hive.worker-metastore-cache-enabled", "true")
                 .put("hive.metastore-write-batch-size", "64")
+                .put("hive.max-concurrent-file-listings", "32")
+                .put("hive.metastore-statistics-snapshot-path", "/tmp/statistics.json")
+                .put("hive.metastore-statistics-snapshot-interval", "5m")
+                .put("hive.metastore-statistics-snapshot-ttl", "2h")
                 .build();
 
         HiveConfig expected = new HiveConfig()
@@ -363,6 +373,7 @@ public class TestHiveConfig
                 .setFileSystemMaxCacheSize(1010)
                 .setTableStatisticsEnabled(false)
                 .setOptimizeMismatchedBucketCount(true)
+                .setPropagateTableScanSortingProperties(true)
                 .setWritesToNonManagedTablesEnabled(true)
                 .setCreatesOfNonManagedTablesEnabled(false)
                 .setHdfsWireEncryptionEnabled(true)
@@ -396,7 +407,11 @@ public class TestHiveConfig
                 .setVacuumCollectorInterval(new Duration(5, TimeUnit.SECONDS))
                 .setMaxSplitsToGroup(20)
                 .setWorkerMetaStoreCacheEnabled(true)
-                .setMetastoreWriteBatchSize(64);
+                .setMetastoreWriteBatchSize(64)
+                .setMaxConcurrentFileListings(32)
+                .setMetastoreStatisticsSnapshotPath("/tmp/statistics.json")
+                .setMetastoreStatisticsSnapshotInterval(new Duration(5, TimeUnit.MINUTES))
+                .setMetastoreStatisticsSnapshotTtl(new Duration(2, TimeUnit.HOURS));
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -13,9 +13,13 @@
  */
 package io.prestosql.plugin.hive;
 
+import io.prestosql.Session;
 import io.prestosql.tests.AbstractTestJoinQueries;
+import org.testng.annotations.Test;
 
 import static io.airlift.tpch.TpchTable.getTables;
+import static io.prestosql.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static io.prestosql.SystemSessionProperties.LATE_MATERIALIZATION;
 import static io.prestosql.plugin.hive.HiveQueryRunner.createQueryRunner;
 
 public class TestHiveDistributedJoinQueries
@@ -25,4 +29,27 @@ public class TestHiveDistributedJoinQueries
     {
         super(() -> createQueryRunner(getTables()));
     }
+
+    @Test
+    public void testJoinWithLateMaterialization()
+    {
+        // broadcast join, so the ORC scan of lineitem directly feeds the probe
+        Session session = Session.builder(getSession())
+                .setSystemProperty(LATE_MATERIALIZATION, "true")
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, "BROADCAST")
+                .build();
+
+        // selective filters on both sides, so most probe pages produce no output and keep their lazy columns unread
+        assertQuery(session, "SELECT l.orderkey, l.partkey, l.comment, o.orderstatus " +
+                "FROM lineitem l JOIN orders o ON l.orderkey = o.orderkey " +
+                "WHERE l.suppkey = 7 AND o.custkey % 5 = 0");
+        assertQuery(session, "SELECT o.orderstatus, count(*), max(l.comment), sum(l.extendedprice) " +
+                "FROM lineitem l JOIN orders o ON l.orderkey = o.orderkey " +
+                "WHERE l.quantity < 5 AND o.orderpriority = '1-URGENT' " +
+                "GROUP BY o.orderstatus");
+        assertQueryOrdered(session, "SELECT l.orderkey, l.shipdate, l.comment " +
+                "FROM lineitem l JOIN orders o ON l.orderkey = o.orderkey " +
+                "WHERE l.partkey % 100 = 3 " +
+                "ORDER BY l.orderkey, l.linenumber");
+    }
 }
@@ -16,15 +16,28 @@ package io.prestosql.plugin.hive;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slices;
+import io.prestosql.plugin.hive.metastore.SortingColumn;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.GroupingProperty;
 import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.connector.SortingProperty;
 import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.type.TypeSignature;
 import io.prestosql.spi.type.VarcharType;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static io.prestosql.plugin.hive.HiveBucketing.BucketingVersion.BUCKETING_V1;
 import static io.prestosql.plugin.hive.HiveMetadata.createPredicate;
+import static io.prestosql.plugin.hive.HiveMetadata.getBucketLocalProperties;
+import static io.prestosql.plugin.hive.metastore.SortingColumn.Order.ASCENDING;
+import static io.prestosql.plugin.hive.metastore.SortingColumn.Order.DESCENDING;
+import static io.prestosql.spi.block.SortOrder.ASC_NULLS_FIRST;
+import static io.prestosql.spi.block.SortOrder.DESC_NULLS_LAST;
+import static org.testng.Assert.assertEquals;
 
 public class TestHiveMetadata
 {
@@ -85,4 +98,46 @@ public class TestHiveMetadata
 
         createPredicate(ImmutableList.of(TEST_COLUMN_HANDLE), partitions.build());
     }
+
+    @Test
+    public void testBucketLocalProperties()
+    {
+        HiveColumnHandle a = regularColumn("a", 0);
+        HiveColumnHandle b = regularColumn("b", 1);
+        HiveColumnHandle c = regularColumn("c", 2);
+        Map<String, HiveColumnHandle> columnHandles = ImmutableMap.of("a", a, "b", b, "c", c);
+
+        // grouped on the sorted_by prefix covering the bucketing columns, sorted on the rest
+        assertEquals(
+                getBucketLocalProperties(bucketProperty(ImmutableList.of("a"), new SortingColumn("a", ASCENDING), new SortingColumn("b", DESCENDING), new SortingColumn("c", ASCENDING)), columnHandles),
+                ImmutableList.of(
+                        new GroupingProperty<ColumnHandle>(ImmutableList.of(a)),
+                        new SortingProperty<ColumnHandle>(b, DESC_NULLS_LAST),
+                        new SortingProperty<ColumnHandle>(c, ASC_NULLS_FIRST)));
+        assertEquals(
+                getBucketLocalProperties(bucketProperty(ImmutableList.of("b"), new SortingColumn("a", ASCENDING), new SortingColumn("b", ASCENDING), new SortingColumn("c", ASCENDING)), columnHandles),
+                ImmutableList.of(
+                        new GroupingProperty<ColumnHandle>(ImmutableList.of(a, b)),
+                        new SortingProperty<ColumnHandle>(c, ASC_NULLS_FIRST)));
+
+        // values of sorted_by columns not covering the bucketing columns may be spread over buckets
+        assertEquals(getBucketLocalProperties(bucketProperty(ImmutableList.of("c"), new SortingColumn("a", ASCENDING), new SortingColumn("b", ASCENDING)), columnHandles), ImmutableList.of());
+        assertEquals(getBucketLocalProperties(bucketProperty(ImmutableList.of("a")), columnHandles), ImmutableList.of());
+    }
+
+    private static HiveBucketProperty bucketProperty(List<String> bucketedBy, SortingColumn... sortedBy)
+    {
+        return new HiveBucketProperty(bucketedBy, BUCKETING_V1, 8, ImmutableList.copyOf(sortedBy));
+    }
+
+    private static HiveColumnHandle regularColumn(String name, int index)
+    {
+        return new HiveColumnHandle(
+                name,
+                HiveType.HIVE_LONG,
+                TypeSignature.parseTypeSignature("bigint"),
+                index,
+                HiveColumnHandle.ColumnType.REGULAR,
+                Optional.empty());
+    }
 }
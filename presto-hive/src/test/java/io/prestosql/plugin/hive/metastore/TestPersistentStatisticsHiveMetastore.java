@@ -0,0 +1,279 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.metastore;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.Duration;
+import io.prestosql.plugin.hive.HiveBasicStatistics;
+import io.prestosql.plugin.hive.HiveConfig;
+import io.prestosql.plugin.hive.HiveType;
+import io.prestosql.plugin.hive.PartitionStatistics;
+import io.prestosql.plugin.hive.authentication.HiveIdentity;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.plugin.hive.metastore.MetastoreUtil.makePartitionName;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertEquals;
+
+public class TestPersistentStatisticsHiveMetastore
+{
+    private static final Column TABLE_COLUMN = new Column("column", HiveType.HIVE_INT, Optional.empty());
+    private static final Column PARTITION_COLUMN = new Column("ds", HiveType.HIVE_STRING, Optional.empty());
+    private static final Storage STORAGE = new Storage(
+            StorageFormat.create("serde", "input", "output"),
+            "location",
+            Optional.empty(),
+            false,
+            ImmutableMap.of());
+    private static final Table TABLE = new Table(
+            "database",
+            "table",
+            "owner",
+            "table_type",
+            STORAGE,
+            ImmutableList.of(TABLE_COLUMN),
+            ImmutableList.of(PARTITION_COLUMN),
+            ImmutableMap.of("transient_lastDdlTime", "1"),
+            Optional.empty(),
+            Optional.empty());
+    private static final Partition PARTITION_1 = partition("2020-01-01", "1");
+    private static final Partition PARTITION_2 = partition("2020-01-02", "1");
+    private static final HiveIdentity IDENTITY = new HiveIdentity(SESSION);
+
+    @Test
+    public void testStatisticsSurviveRestart()
+            throws IOException
+    {
+        File snapshotFile = File.createTempFile("statistics_snapshot_test", "json");
+        snapshotFile.delete();
+        HiveConfig hiveConfig = new HiveConfig().setMetastoreStatisticsSnapshotPath(snapshotFile.getCanonicalPath());
+
+        CountingHiveMetastore delegate = new CountingHiveMetastore();
+        PersistentStatisticsHiveMetastore metastore = new PersistentStatisticsHiveMetastore(delegate, hiveConfig);
+        assertEquals(metastore.getTableStatistics(IDENTITY, TABLE), statistics(TABLE.getTableName()));
+        assertEquals(metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1, PARTITION_2)).size(), 2);
+        assertEquals(delegate.getTableStatisticsCount(), 1);
+        assertEquals(delegate.getPartitionStatisticsCount(), 2);
+        metastore.writeSnapshot();
+
+        // a new instance is warm without calling the metastore
+        delegate = new CountingHiveMetastore();
+        metastore = new PersistentStatisticsHiveMetastore(delegate, hiveConfig);
+        assertEquals(metastore.getTableStatistics(IDENTITY, TABLE), statistics(TABLE.getTableName()));
+        assertEquals(
+                metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1, PARTITION_2)),
+                ImmutableMap.of(
+                        makePartitionName(TABLE, PARTITION_1), statistics(makePartitionName(TABLE, PARTITION_1)),
+                        makePartitionName(TABLE, PARTITION_2), statistics(makePartitionName(TABLE, PARTITION_2))));
+        assertEquals(delegate.getTableStatisticsCount(), 0);
+        assertEquals(delegate.getPartitionStatisticsCount(), 0);
+        assertEquals(metastore.getHitCount(), 3);
+
+        // only the altered partition is reloaded
+        Partition alteredPartition = partition("2020-01-02", "2");
+        metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1, alteredPartition));
+        assertEquals(delegate.getPartitionStatisticsCount(), 1);
+        assertEquals(metastore.getMissCount(), 1);
+
+        snapshotFile.delete();
+    }
+
+    @Test
+    public void testInvalidationSurvivesSnapshotWrite()
+            throws IOException
+    {
+        File snapshotFile = File.createTempFile("statistics_snapshot_test", "json");
+        snapshotFile.delete();
+        HiveConfig hiveConfig = new HiveConfig().setMetastoreStatisticsSnapshotPath(snapshotFile.getCanonicalPath());
+
+        CountingHiveMetastore delegate = new CountingHiveMetastore();
+        PersistentStatisticsHiveMetastore metastore = new PersistentStatisticsHiveMetastore(delegate, hiveConfig);
+        metastore.getTableStatistics(IDENTITY, TABLE);
+        metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1, PARTITION_2));
+        metastore.writeSnapshot();
+
+        // statistics updated after the snapshot was written must not be served from it again
+        metastore.updatePartitionStatistics(IDENTITY, TABLE.getDatabaseName(), TABLE.getTableName(), makePartitionName(TABLE, PARTITION_1), Function.identity());
+        metastore.writeSnapshot();
+        delegate = new CountingHiveMetastore();
+        metastore = new PersistentStatisticsHiveMetastore(delegate, hiveConfig);
+        metastore.getTableStatistics(IDENTITY, TABLE);
+        metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1, PARTITION_2));
+        assertEquals(delegate.getTableStatisticsCount(), 0);
+        assertEquals(delegate.getPartitionStatisticsCount(), 1);
+
+        metastore.flushCache();
+        metastore.writeSnapshot();
+        delegate = new CountingHiveMetastore();
+        metastore = new PersistentStatisticsHiveMetastore(delegate, hiveConfig);
+        metastore.getTableStatistics(IDENTITY, TABLE);
+        metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1, PARTITION_2));
+        assertEquals(delegate.getTableStatisticsCount(), 1);
+        assertEquals(delegate.getPartitionStatisticsCount(), 2);
+
+        snapshotFile.delete();
+    }
+
+    @Test
+    public void testExpiredStatisticsAreReloaded()
+            throws IOException
+    {
+        File snapshotFile = File.createTempFile("statistics_snapshot_test", "json");
+        snapshotFile.delete();
+        HiveConfig hiveConfig = new HiveConfig().setMetastoreStatisticsSnapshotPath(snapshotFile.getCanonicalPath());
+
+        CountingHiveMetastore delegate = new CountingHiveMetastore();
+        PersistentStatisticsHiveMetastore metastore = new PersistentStatisticsHiveMetastore(delegate, hiveConfig);
+        metastore.getTableStatistics(IDENTITY, TABLE);
+        metastore.writeSnapshot();
+
+        // e.g. column statistics collected by another engine without changing the table parameters
+        delegate = new CountingHiveMetastore();
+        metastore = new PersistentStatisticsHiveMetastore(delegate, hiveConfig.setMetastoreStatisticsSnapshotTtl(new Duration(0, MILLISECONDS)));
+        metastore.getTableStatistics(IDENTITY, TABLE);
+        metastore.getTableStatistics(IDENTITY, TABLE);
+        assertEquals(delegate.getTableStatisticsCount(), 2);
+        assertEquals(metastore.getHitCount(), 0);
+
+        snapshotFile.delete();
+    }
+
+    @Test
+    public void testStatisticsLoadedDuringInvalidationAreNotCached()
+            throws IOException
+    {
+        File snapshotFile = File.createTempFile("statistics_snapshot_test", "json");
+        snapshotFile.delete();
+        HiveConfig hiveConfig = new HiveConfig().setMetastoreStatisticsSnapshotPath(snapshotFile.getCanonicalPath());
+
+        CountingHiveMetastore delegate = new CountingHiveMetastore();
+        PersistentStatisticsHiveMetastore metastore = new PersistentStatisticsHiveMetastore(delegate, hiveConfig);
+        // the statistics are updated while they are being loaded, so the loaded ones may be stale
+        delegate.setLoadListener(() -> metastore.updatePartitionStatistics(IDENTITY, TABLE.getDatabaseName(), TABLE.getTableName(), makePartitionName(TABLE, PARTITION_1), Function.identity()));
+        metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1));
+        assertEquals(metastore.getPartitionStatisticsSize(), 0);
+
+        delegate.setLoadListener(() -> {});
+        metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1));
+        metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1));
+        assertEquals(delegate.getPartitionStatisticsCount(), 2);
+
+        snapshotFile.delete();
+    }
+
+    @Test
+    public void testParametersChangedWithoutDdlTimeAreReloaded()
+            throws IOException
+    {
+        File snapshotFile = File.createTempFile("statistics_snapshot_test", "json");
+        snapshotFile.delete();
+        HiveConfig hiveConfig = new HiveConfig().setMetastoreStatisticsSnapshotPath(snapshotFile.getCanonicalPath());
+
+        CountingHiveMetastore delegate = new CountingHiveMetastore();
+        PersistentStatisticsHiveMetastore metastore = new PersistentStatisticsHiveMetastore(delegate, hiveConfig);
+        metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(PARTITION_1));
+        Partition alteredPartition = new Partition(
+                PARTITION_1.getDatabaseName(),
+                PARTITION_1.getTableName(),
+                PARTITION_1.getValues(),
+                STORAGE,
+                ImmutableList.of(TABLE_COLUMN),
+                ImmutableMap.of("transient_lastDdlTime", "1", "numRows", "10"));
+        metastore.getPartitionStatistics(IDENTITY, TABLE, ImmutableList.of(alteredPartition));
+        assertEquals(delegate.getPartitionStatisticsCount(), 2);
+
+        snapshotFile.delete();
+    }
+
+    private static Partition partition(String value, String lastDdlTime)
+    {
+        return new Partition(
+                "database",
+                "table",
+                ImmutableList.of(value),
+                STORAGE,
+                ImmutableList.of(TABLE_COLUMN),
+                ImmutableMap.of("transient_lastDdlTime", lastDdlTime));
+    }
+
+    private static PartitionStatistics statistics(String name)
+    {
+        return new PartitionStatistics(
+                new HiveBasicStatistics(OptionalLong.of(1), OptionalLong.of(name.length()), OptionalLong.empty(), OptionalLong.empty()),
+                ImmutableMap.of());
+    }
+
+    private static class CountingHiveMetastore
+            extends UnimplementedHiveMetastore
+    {
+        private final AtomicInteger tableStatisticsCount = new AtomicInteger();
+        private final AtomicInteger partitionStatisticsCount = new AtomicInteger();
+        private volatile Runnable loadListener = () -> {};
+
+        @Override
+        public PartitionStatistics getTableStatistics(HiveIdentity identity, Table table)
+        {
+            tableStatisticsCount.incrementAndGet();
+            return statistics(table.getTableName());
+        }
+
+        @Override
+        public Map<String, PartitionStatistics> getPartitionStatistics(HiveIdentity identity, Table table, List<Partition> partitions)
+        {
+            partitionStatisticsCount.addAndGet(partitions.size());
+            loadListener.run();
+            return partitions.stream()
+                    .map(partition -> makePartitionName(table, partition))
+                    .collect(toImmutableMap(name -> name, TestPersistentStatisticsHiveMetastore::statistics));
+        }
+
+        @Override
+        public void updatePartitionStatistics(HiveIdentity identity, String databaseName, String tableName, String partitionName, Function<PartitionStatistics, PartitionStatistics> update)
+        {
+        }
+
+        @Override
+        public boolean isImpersonationEnabled()
+        {
+            return false;
+        }
+
+        public void setLoadListener(Runnable loadListener)
+        {
+            this.loadListener = loadListener;
+        }
+
+        public int getTableStatisticsCount()
+        {
+            return tableStatisticsCount.get();
+        }
+
+        public int getPartitionStatisticsCount()
+        {
+            return partitionStatisticsCount.get();
+        }
+    }
+}
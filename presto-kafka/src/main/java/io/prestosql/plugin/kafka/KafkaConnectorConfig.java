@@ -23,6 +23,7 @@ import io.airlift.units.MinDuration;
 import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.function.Mandatory;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -70,6 +71,11 @@ public class KafkaConnectorConfig
      */
     private boolean hideInternalColumns = true;
 
+    /**
+     * Maximum number of messages of a partition read by a single split.
+     */
+    private int messagesPerSplit = 100_000;
+
     /**
      * the path of krb5.conf ,used for develop
      */
@@ -342,6 +348,19 @@ public class KafkaConnectorConfig
         return this;
     }
 
+    @Min(1)
+    public int getMessagesPerSplit()
+    {
+        return messagesPerSplit;
+    }
+
+    @Config("kafka.messages-per-split")
+    public KafkaConnectorConfig setMessagesPerSplit(int messagesPerSplit)
+    {
+        this.messagesPerSplit = messagesPerSplit;
+        return this;
+    }
+
     public static ImmutableSet<HostAddress> parseNodes(String nodes)
     {
         Splitter splitter = Splitter.on(',').omitEmptyStrings().trimResults();
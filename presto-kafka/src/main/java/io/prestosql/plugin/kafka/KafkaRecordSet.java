@@ -25,8 +25,6 @@ import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.RecordSet;
 import io.prestosql.spi.type.Type;
-import kafka.api.FetchRequest;
-import kafka.api.FetchRequestBuilder;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
@@ -57,7 +55,7 @@ public class KafkaRecordSet
 {
     private static final Logger log = Logger.get(KafkaRecordSet.class);
 
-    private static final int KAFKA_READ_BUFFER_SIZE = 100_000;
+    private static final long POLL_TIMEOUT_MILLIS = 500;
     private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
 
     private final KafkaSplit split;
@@ -110,6 +108,8 @@ public class KafkaRecordSet
     {
         private long totalBytes;
         private long totalMessages;
+        private long readTimeNanos;
+        private final TopicPartition topicPartition = new TopicPartition(split.getTopicName(), split.getPartitionId());
         private long cursorOffset = split.getStart();
         private Iterator<ConsumerRecord<ByteBuffer, ByteBuffer>> recordIterator;
         private final AtomicBoolean reported = new AtomicBoolean();
@@ -129,7 +129,7 @@ public class KafkaRecordSet
         @Override
         public long getReadTimeNanos()
         {
-            return 0;
+            return readTimeNanos;
         }
 
         @Override
@@ -316,21 +316,19 @@ public class KafkaRecordSet
         {
             try {
                 if (recordIterator == null) {
-                    log.debug("Fetching %d bytes from offset %d (%d - %d). %d messages read so far", KAFKA_READ_BUFFER_SIZE, cursorOffset, split.getStart(), split.getEnd(), totalMessages);
-                    FetchRequest req = new FetchRequestBuilder()
-                            .clientId("presto-worker-" + Thread.currentThread().getName())
-                            .addFetch(split.getTopicName(), split.getPartitionId(), cursorOffset, KAFKA_READ_BUFFER_SIZE)
-                            .build();
-
                     // TODO - this should look at the actual node this is running on and prefer
                     // that copy if running locally. - look into NodeInfo
                     if (leaderKafkaConsumer == null) {
                         leaderKafkaConsumer = consumerManager.getSaslConsumer(split.getLeader());
+                        // the consumer keeps its position and fetches the next records in the background,
+                        // so it is only positioned once at the start of the split
+                        leaderKafkaConsumer.assign(Collections.singletonList(topicPartition));
+                        leaderKafkaConsumer.seek(topicPartition, cursorOffset);
                     }
-                    TopicPartition topicPartition = new TopicPartition(split.getTopicName(), split.getPartitionId());
-                    leaderKafkaConsumer.assign(Collections.singletonList(topicPartition));
-                    leaderKafkaConsumer.seek(topicPartition, cursorOffset);
-                    ConsumerRecords<ByteBuffer, ByteBuffer> records = leaderKafkaConsumer.poll(500);
+                    log.debug("Fetching from offset %d (%d - %d). %d messages read so far", cursorOffset, split.getStart(), split.getEnd(), totalMessages);
+                    long start = System.nanoTime();
+                    ConsumerRecords<ByteBuffer, ByteBuffer> records = leaderKafkaConsumer.poll(POLL_TIMEOUT_MILLIS);
+                    readTimeNanos += System.nanoTime() - start;
                     recordIterator = records.records(topicPartition).iterator();
                 }
             }
@@ -20,6 +20,7 @@ import com.google.common.io.CharStreams;
 import io.airlift.log.Logger;
 import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorSplitManager;
@@ -27,6 +28,11 @@ import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.FixedSplitSource;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Marker;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
 import kafka.api.PartitionOffsetRequestInfo;
 import kafka.common.TopicAndPartition;
 import kafka.javaapi.OffsetRequest;
@@ -47,12 +53,20 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static io.prestosql.plugin.kafka.KafkaErrorCode.KAFKA_SPLIT_ERROR;
+import static io.prestosql.plugin.kafka.KafkaInternalFieldDescription.PARTITION_ID_FIELD;
+import static io.prestosql.plugin.kafka.KafkaInternalFieldDescription.PARTITION_OFFSET_FIELD;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Locale.ENGLISH;
@@ -68,6 +82,7 @@ public class KafkaSplitManager
 
     private final KafkaSimpleConsumerManager consumerManager;
     private final Set<HostAddress> nodes;
+    private final int messagesPerSplit;
 
     @Inject
     public KafkaSplitManager(
@@ -78,36 +93,57 @@ public class KafkaSplitManager
 
         requireNonNull(kafkaConnectorConfig, "kafkaConfig is null");
         this.nodes = ImmutableSet.copyOf(kafkaConnectorConfig.getNodes());
+        this.messagesPerSplit = kafkaConnectorConfig.getMessagesPerSplit();
     }
 
     @Override
     public ConnectorSplitSource getSplits(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorTableHandle table, SplitSchedulingStrategy splitSchedulingStrategy)
     {
         KafkaTableHandle kafkaTableHandle = (KafkaTableHandle) table;
+        TupleDomain<ColumnHandle> constraint = kafkaTableHandle.getConstraint();
+        if (constraint.isNone()) {
+            return new FixedSplitSource(ImmutableList.of());
+        }
+        Domain partitionIdDomain = getDomain(constraint, PARTITION_ID_FIELD);
+        Domain offsetDomain = getDomain(constraint, PARTITION_OFFSET_FIELD);
+
         try (KafkaConsumer<ByteBuffer, ByteBuffer> kafkaConsumer = consumerManager.getSaslConsumer(selectRandom(nodes))) {
             List<PartitionInfo> partitionInfos = kafkaConsumer.partitionsFor(kafkaTableHandle.getTopicName());
 
-            ImmutableList.Builder<ConnectorSplit> splits = ImmutableList.builder();
-
+            Map<TopicPartition, HostAddress> partitionLeaders = new LinkedHashMap<>();
             for (PartitionInfo partitionInfo : partitionInfos) {
-                log.debug("Adding Partition %s/%s", partitionInfo.topic(), partitionInfo.partition());
+                if (!partitionIdDomain.includesNullableValue((long) partitionInfo.partition())) {
+                    log.debug("Skipping Partition %s/%s", partitionInfo.topic(), partitionInfo.partition());
+                    continue;
+                }
                 Node leader = partitionInfo.leader();
-                HostAddress partitionLeader = HostAddress.fromParts(leader.host(), leader.port());
-                TopicPartition topicPartition = new TopicPartition(partitionInfo.topic(), partitionInfo.partition());
-                kafkaConsumer.assign(ImmutableList.of(topicPartition));
-                long beginOffset = kafkaConsumer.beginningOffsets(ImmutableList.of(topicPartition)).values().iterator().next();
-                long endOffset = kafkaConsumer.endOffsets(ImmutableList.of(topicPartition)).values().iterator().next();
-                KafkaSplit split = new KafkaSplit(
-                        topicPartition.topic(),
-                        kafkaTableHandle.getKeyDataFormat(),
-                        kafkaTableHandle.getMessageDataFormat(),
-                        kafkaTableHandle.getKeyDataSchemaLocation().map(KafkaSplitManager::readSchema),
-                        kafkaTableHandle.getMessageDataSchemaLocation().map(KafkaSplitManager::readSchema),
-                        topicPartition.partition(),
-                        beginOffset,
-                        endOffset,
-                        partitionLeader);
-                splits.add(split);
+                partitionLeaders.put(new TopicPartition(partitionInfo.topic(), partitionInfo.partition()), HostAddress.fromParts(leader.host(), leader.port()));
+            }
+            if (partitionLeaders.isEmpty()) {
+                return new FixedSplitSource(ImmutableList.of());
+            }
+
+            Map<TopicPartition, Long> beginOffsets = kafkaConsumer.beginningOffsets(partitionLeaders.keySet());
+            Map<TopicPartition, Long> endOffsets = kafkaConsumer.endOffsets(partitionLeaders.keySet());
+            Optional<String> keyDataSchemaContents = kafkaTableHandle.getKeyDataSchemaLocation().map(KafkaSplitManager::readSchema);
+            Optional<String> messageDataSchemaContents = kafkaTableHandle.getMessageDataSchemaLocation().map(KafkaSplitManager::readSchema);
+
+            ImmutableList.Builder<ConnectorSplit> splits = ImmutableList.builder();
+            for (Map.Entry<TopicPartition, HostAddress> entry : partitionLeaders.entrySet()) {
+                TopicPartition topicPartition = entry.getKey();
+                log.debug("Adding Partition %s/%s", topicPartition.topic(), topicPartition.partition());
+                for (long[] offsets : getOffsetRanges(beginOffsets.get(topicPartition), endOffsets.get(topicPartition), offsetDomain, messagesPerSplit)) {
+                    splits.add(new KafkaSplit(
+                            topicPartition.topic(),
+                            kafkaTableHandle.getKeyDataFormat(),
+                            kafkaTableHandle.getMessageDataFormat(),
+                            keyDataSchemaContents,
+                            messageDataSchemaContents,
+                            topicPartition.partition(),
+                            offsets[0],
+                            offsets[1],
+                            entry.getValue()));
+                }
             }
 
             return new FixedSplitSource(splits.build());
@@ -120,6 +156,48 @@ public class KafkaSplitManager
         }
     }
 
+    private static Domain getDomain(TupleDomain<ColumnHandle> constraint, KafkaInternalFieldDescription field)
+    {
+        return constraint.getDomains().get().entrySet().stream()
+                .filter(entry -> ((KafkaColumnHandle) entry.getKey()).getName().equals(field.getColumnName()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(Domain.all(BIGINT));
+    }
+
+    /**
+     * Divides the offsets [beginOffset, endOffset) of a partition into ranges of at most {@code messagesPerSplit} offsets,
+     * leaving out the ranges that contain no offset of the domain.
+     */
+    private static List<long[]> getOffsetRanges(long beginOffset, long endOffset, Domain offsetDomain, int messagesPerSplit)
+    {
+        if (offsetDomain.getValues().isNone()) {
+            // offsets are never null
+            return ImmutableList.of();
+        }
+
+        long first = beginOffset;
+        long last = endOffset;
+        Range span = offsetDomain.getValues().getRanges().getSpan();
+        if (!span.getLow().isLowerUnbounded()) {
+            long low = (long) span.getLow().getValue();
+            first = max(first, span.getLow().getBound() == Marker.Bound.ABOVE ? low + 1 : low);
+        }
+        if (!span.getHigh().isUpperUnbounded()) {
+            long high = (long) span.getHigh().getValue();
+            last = min(last, span.getHigh().getBound() == Marker.Bound.BELOW ? high : high + 1);
+        }
+
+        ImmutableList.Builder<long[]> ranges = ImmutableList.builder();
+        for (long start = first; start < last; start += messagesPerSplit) {
+            long end = min(start + messagesPerSplit, last);
+            if (offsetDomain.getValues().overlaps(ValueSet.ofRanges(Range.range(BIGINT, start, true, end, false)))) {
+                ranges.add(new long[] {start, end});
+            }
+        }
+        return ranges.build();
+    }
+
     private static String readSchema(String dataSchemaLocation)
     {
         InputStream inputStream = null;
@@ -40,7 +40,8 @@ public class TestKafkaConnectorConfig
                 .setLoginConfig(null)
                 .setSaslKerberosServiceName(null)
                 .setSaslMechanism(null)
-                .setHideInternalColumns(true));
+                .setHideInternalColumns(true)
+                .setMessagesPerSplit(100_000));
     }
 
     @Test
@@ -54,6 +55,7 @@ public class TestKafkaConnectorConfig
                 .put("kafka.connect-timeout", "1h")
                 .put("kafka.buffer-size", "1MB")
                 .put("kafka.hide-internal-columns", "false")
+                .put("kafka.messages-per-split", "1000")
                 .put("group.id", "test")
                 .put("sasl.jaas.config", "com.sun.security.auth.module.Krb5LoginModule required" +
                         " useKeyTab=true" +
@@ -89,7 +91,8 @@ public class TestKafkaConnectorConfig
                 .setKerberosOn("false")
                 .setUserPasswordOn("false")
                 .setSecurityProtocol("SASL_PLAINTEXT")
-                .setHideInternalColumns(false);
+                .setHideInternalColumns(false)
+                .setMessagesPerSplit(1000);
 
         ConfigAssertions.assertFullMapping(properties, expected);
     }
@@ -114,4 +114,32 @@ public class TestManySegments
 
         assertEquals(result, expected);
     }
+
+    @Test
+    public void testPartitionOffsetPredicate()
+    {
+        MaterializedResult result = queryRunner.execute("SELECT count(_message), min(_partition_offset), max(_partition_offset) from " + topicName + " WHERE _partition_offset BETWEEN 15000 AND 34999");
+
+        MaterializedResult expected = MaterializedResult.resultBuilder(SESSION, BigintType.BIGINT, BigintType.BIGINT, BigintType.BIGINT)
+                .row(20000L, 15000L, 34999L)
+                .build();
+
+        assertEquals(result, expected);
+
+        result = queryRunner.execute("SELECT count(_message) from " + topicName + " WHERE _partition_offset IN (5, 50000, 99999) AND _partition_id = 0");
+
+        expected = MaterializedResult.resultBuilder(SESSION, BigintType.BIGINT)
+                .row(3L)
+                .build();
+
+        assertEquals(result, expected);
+
+        result = queryRunner.execute("SELECT count(_message) from " + topicName + " WHERE _partition_id = 1");
+
+        expected = MaterializedResult.resultBuilder(SESSION, BigintType.BIGINT)
+                .row(0L)
+                .build();
+
+        assertEquals(result, expected);
+    }
 }
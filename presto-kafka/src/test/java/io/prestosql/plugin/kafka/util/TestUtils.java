@@ -56,7 +56,8 @@ public final class TestUtils
                 "kafka.nodes", embeddedKafka.getConnectString(),
                 "kafka.table-names", Joiner.on(",").join(topicDescriptions.keySet()),
                 "kafka.connect-timeout", "120s",
-                "kafka.default-schema", "default");
+                "kafka.default-schema", "default",
+                "kafka.messages-per-split", "10000");
         queryRunner.createCatalog("kafka", "kafka", kafkaConfig);
     }
 
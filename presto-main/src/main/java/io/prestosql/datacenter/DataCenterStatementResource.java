@@ -14,6 +14,7 @@
  */
 package io.prestosql.datacenter;
 
+import io.airlift.units.DataSize;
 import io.prestosql.client.CrossRegionDynamicFilterRequest;
 import io.prestosql.client.CrossRegionDynamicFilterResponse;
 import io.prestosql.client.DataCenterRequest;
@@ -38,6 +39,7 @@ import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
@@ -53,6 +55,7 @@ import javax.ws.rs.core.UriInfo;
 
 import java.util.Map;
 
+import static io.prestosql.client.PrestoHeaders.PRESTO_MAX_SIZE;
 import static java.util.Objects.isNull;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
@@ -160,11 +163,12 @@ public class DataCenterStatementResource
             @PathParam("globalQueryId") String globalQueryId,
             @PathParam("slug") String slug,
             @PathParam("token") long token,
+            @HeaderParam(PRESTO_MAX_SIZE) DataSize maxSize,
             @Suspended AsyncResponse asyncResponse)
     {
         PageSubscriber subscriber = null;
         if (responseType == DataCenterResponseType.HTTP_PULL) {
-            subscriber = new SingleHTTPSubscriber(asyncResponse, token);
+            subscriber = new SingleHTTPSubscriber(asyncResponse, token, maxSize == null ? 0 : maxSize.toBytes());
         }
         else {
             badRequest(BAD_REQUEST, responseType + " not supported");
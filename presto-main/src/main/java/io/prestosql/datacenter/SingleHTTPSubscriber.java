@@ -29,11 +29,13 @@ public class SingleHTTPSubscriber
     private final AsyncResponse asyncResponse;
     private boolean active = true;
     private final long token;
+    private final long maxSize;
 
-    public SingleHTTPSubscriber(AsyncResponse asyncResponse, long token)
+    public SingleHTTPSubscriber(AsyncResponse asyncResponse, long token, long maxSize)
     {
         this.asyncResponse = requireNonNull(asyncResponse, "asyncResponse is null");
         this.token = token;
+        this.maxSize = maxSize;
     }
 
     @Override
@@ -54,6 +56,12 @@ public class SingleHTTPSubscriber
         return this.token;
     }
 
+    @Override
+    public long getMaxSize()
+    {
+        return this.maxSize;
+    }
+
     @Override
     public void send(Query query, DataCenterQueryResults results)
     {
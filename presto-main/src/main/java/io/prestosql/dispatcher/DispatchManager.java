@@ -17,6 +17,7 @@ package io.prestosql.dispatcher;
 import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.log.Logger;
+import io.airlift.units.Duration;
 import io.prestosql.Session;
 import io.prestosql.execution.QueryIdGenerator;
 import io.prestosql.execution.QueryInfo;
@@ -46,6 +47,7 @@ import io.prestosql.statestore.StateCacheStore;
 import io.prestosql.statestore.StateFetcher;
 import io.prestosql.statestore.StateStoreConstants;
 import io.prestosql.statestore.StateStoreProvider;
+import io.prestosql.statestore.StateSyncStats;
 import io.prestosql.statestore.StateUpdater;
 import io.prestosql.transaction.TransactionManager;
 import io.prestosql.utils.HetuConfig;
@@ -72,8 +74,10 @@ import static io.prestosql.spi.StandardErrorCode.QUERY_TEXT_TOO_LARGE;
 import static io.prestosql.util.StatementUtils.getQueryType;
 import static io.prestosql.util.StatementUtils.isTransactionControlStatement;
 import static io.prestosql.utils.StateUtils.isMultiCoordinatorEnabled;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class DispatchManager
 {
@@ -92,6 +96,7 @@ public class DispatchManager
     private final StateStoreProvider stateStoreProvider;
     private StateUpdater stateUpdater;
     private StateFetcher stateFetcher;
+    private final StateSyncStats stateSyncStats;
     private final HetuConfig hetuConfig;
     private final int maxQueryLength;
     private final QueryHistoryService queryHistoryService;
@@ -117,6 +122,7 @@ public class DispatchManager
             DispatchExecutor dispatchExecutor,
             StateStoreProvider stateStoreProvider,
             HetuConfig hetuConfig,
+            StateSyncStats stateSyncStats,
             QueryHistoryService queryHistoryService)
     {
         this.queryIdGenerator = requireNonNull(queryIdGenerator, "queryIdGenerator is null");
@@ -131,6 +137,7 @@ public class DispatchManager
         // StateStoreProvider and load HetuConfig
         this.stateStoreProvider = requireNonNull(stateStoreProvider, "stateStoreProvider is null");
         this.hetuConfig = requireNonNull(hetuConfig, "hetuConfig is null");
+        this.stateSyncStats = requireNonNull(stateSyncStats, "stateSyncStats is null");
         this.queryHistoryService = requireNonNull(queryHistoryService, "queryHistoryService is null");
         PropertyService.setProperty(HetuConstant.MULTI_COORDINATOR_ENABLED, hetuConfig.isMultipleCoordinatorEnabled());
 
@@ -403,11 +410,15 @@ public class DispatchManager
         }
 
         if (stateUpdater == null) {
-            stateUpdater = new StateUpdater(stateStoreProvider, hetuConfig.getStateUpdateInterval());
+            // unchanged states must be refreshed before other coordinators consider them as expired
+            Duration refreshInterval = new Duration(
+                    min(hetuConfig.getStateRefreshInterval().toMillis(), hetuConfig.getStateExpireTime().toMillis() / 2),
+                    MILLISECONDS);
+            stateUpdater = new StateUpdater(stateStoreProvider, hetuConfig.getStateUpdateInterval(), refreshInterval, stateSyncStats);
         }
 
         if (stateFetcher == null) {
-            stateFetcher = new StateFetcher(stateStoreProvider, hetuConfig.getStateFetchInterval(), hetuConfig.getStateExpireTime());
+            stateFetcher = new StateFetcher(stateStoreProvider, hetuConfig.getStateFetchInterval(), hetuConfig.getStateExpireTime(), stateSyncStats);
         }
 
         // Start state updater
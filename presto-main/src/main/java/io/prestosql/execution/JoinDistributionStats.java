@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.airlift.units.DataSize;
+import io.prestosql.spi.plan.JoinNode.DistributionType;
+import io.prestosql.spi.plan.PlanNodeId;
+
+import javax.annotation.concurrent.Immutable;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Distribution of a join chosen by the planner, next to the size of the build side observed at runtime,
+ * and the distribution the observed size calls for under the broadcast table size limit of the query.
+ * For replicated joins the build size is the size of the table built by each task.
+ */
+@Immutable
+public class JoinDistributionStats
+{
+    private final PlanNodeId planNodeId;
+    private final DistributionType distributionType;
+    private final DataSize buildDataSize;
+    private final long buildPositions;
+    private final DistributionType preferredDistributionType;
+
+    @JsonCreator
+    public JoinDistributionStats(
+            @JsonProperty("planNodeId") PlanNodeId planNodeId,
+            @JsonProperty("distributionType") DistributionType distributionType,
+            @JsonProperty("buildDataSize") DataSize buildDataSize,
+            @JsonProperty("buildPositions") long buildPositions,
+            @JsonProperty("preferredDistributionType") DistributionType preferredDistributionType)
+    {
+        this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+        this.distributionType = requireNonNull(distributionType, "distributionType is null");
+        this.buildDataSize = requireNonNull(buildDataSize, "buildDataSize is null");
+        this.buildPositions = buildPositions;
+        this.preferredDistributionType = requireNonNull(preferredDistributionType, "preferredDistributionType is null");
+    }
+
+    @JsonProperty
+    public PlanNodeId getPlanNodeId()
+    {
+        return planNodeId;
+    }
+
+    @JsonProperty
+    public DistributionType getDistributionType()
+    {
+        return distributionType;
+    }
+
+    @JsonProperty
+    public DataSize getBuildDataSize()
+    {
+        return buildDataSize;
+    }
+
+    @JsonProperty
+    public long getBuildPositions()
+    {
+        return buildPositions;
+    }
+
+    @JsonProperty
+    public DistributionType getPreferredDistributionType()
+    {
+        return preferredDistributionType;
+    }
+
+    public boolean isMisestimated()
+    {
+        return distributionType != preferredDistributionType;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("planNodeId", planNodeId)
+                .add("distributionType", distributionType)
+                .add("buildDataSize", buildDataSize)
+                .add("buildPositions", buildPositions)
+                .add("preferredDistributionType", preferredDistributionType)
+                .toString();
+    }
+}
@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.prestosql.Session;
 import io.prestosql.SystemSessionProperties;
@@ -33,6 +34,7 @@ import io.prestosql.execution.warnings.WarningCollector;
 import io.prestosql.memory.VersionedMemoryPoolId;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.BlockedReason;
+import io.prestosql.operator.HashBuilderOperator;
 import io.prestosql.operator.OperatorStats;
 import io.prestosql.operator.TaskLocation;
 import io.prestosql.security.AccessControl;
@@ -43,11 +45,15 @@ import io.prestosql.spi.ErrorCode;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.QueryId;
 import io.prestosql.spi.eventlistener.StageGcStatistics;
+import io.prestosql.spi.plan.JoinNode;
+import io.prestosql.spi.plan.JoinNode.DistributionType;
 import io.prestosql.spi.plan.TableScanNode;
 import io.prestosql.spi.resourcegroups.ResourceGroupId;
 import io.prestosql.spi.security.SelectedRole;
 import io.prestosql.spi.type.Type;
+import io.prestosql.sql.analyzer.FeaturesConfig.JoinDistributionType;
 import io.prestosql.sql.planner.PlanFragment;
+import io.prestosql.sql.planner.optimizations.PlanNodeSearcher;
 import io.prestosql.transaction.TransactionId;
 import io.prestosql.transaction.TransactionManager;
 import org.joda.time.DateTime;
@@ -95,6 +101,9 @@ import static io.prestosql.memory.LocalMemoryManager.GENERAL_POOL;
 import static io.prestosql.snapshot.RecoveryState.STOPPING_FOR_RESCHEDULE;
 import static io.prestosql.spi.StandardErrorCode.NOT_FOUND;
 import static io.prestosql.spi.StandardErrorCode.USER_CANCELED;
+import static io.prestosql.spi.plan.JoinNode.DistributionType.PARTITIONED;
+import static io.prestosql.spi.plan.JoinNode.DistributionType.REPLICATED;
+import static io.prestosql.sql.analyzer.FeaturesConfig.JoinDistributionType.AUTOMATIC;
 import static io.prestosql.util.Failures.toFailure;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -536,6 +545,9 @@ public class QueryStateMachine
         Set<BlockedReason> blockedReasons = new HashSet<>();
 
         ImmutableList.Builder<OperatorStats> operatorStatsSummary = ImmutableList.builder();
+        ImmutableList.Builder<JoinDistributionStats> joinDistributionStats = ImmutableList.builder();
+        JoinDistributionType joinDistributionType = SystemSessionProperties.getJoinDistributionType(session);
+        Optional<DataSize> joinMaxBroadcastTableSize = SystemSessionProperties.getJoinMaxBroadcastTableSize(session);
         boolean completeInfo = true;
         for (StageInfo stageInfo : getAllStages(rootStage)) {
             StageStats stageStats = stageInfo.getStageStats();
@@ -601,6 +613,7 @@ public class QueryStateMachine
 
             completeInfo = completeInfo && stageInfo.isCompleteInfo();
             operatorStatsSummary.addAll(stageInfo.getStageStats().getOperatorSummaries());
+            joinDistributionStats.addAll(getJoinDistributionStats(stageInfo, joinDistributionType, joinMaxBroadcastTableSize));
         }
 
         if (rootStage.isPresent()) {
@@ -691,6 +704,7 @@ public class QueryStateMachine
                 stageGcStatistics.build(),
 
                 operatorStatsSummary.build(),
+                joinDistributionStats.build(),
                 new Duration(inputBlockedTime, NANOSECONDS).convertToMostSuccinctTimeUnit(),
                 new Duration(failedInputBlockedTime, NANOSECONDS).convertToMostSuccinctTimeUnit(),
                 new Duration(outputBlockedTime, NANOSECONDS).convertToMostSuccinctTimeUnit(),
@@ -1242,6 +1256,76 @@ public class QueryStateMachine
         finalQueryInfo.compareAndSet(finalInfo, Optional.of(prunedQueryInfo));
     }
 
+    @VisibleForTesting
+    static List<JoinDistributionStats> getJoinDistributionStats(StageInfo stageInfo, JoinDistributionType joinDistributionType, Optional<DataSize> joinMaxBroadcastTableSize)
+    {
+        PlanFragment plan = stageInfo.getPlan();
+        // the build sides of a stage are only complete once the stage has finished
+        if (plan == null || stageInfo.getState() != StageState.FINISHED) {
+            return ImmutableList.of();
+        }
+        long finishedTasks = stageInfo.getTasks().stream()
+                .filter(task -> task.getTaskStatus().getState() == TaskState.FINISHED)
+                .count();
+
+        ImmutableList.Builder<JoinDistributionStats> joinDistributionStats = ImmutableList.builder();
+        List<JoinNode> joinNodes = PlanNodeSearcher.searchFrom(plan.getRoot())
+                .where(JoinNode.class::isInstance)
+                .findAll();
+        for (JoinNode joinNode : joinNodes) {
+            if (!joinNode.getDistributionType().isPresent()) {
+                continue;
+            }
+
+            // joins not built by hash builders have no build side stats
+            boolean buildStarted = false;
+            long buildDataSize = 0;
+            long buildPositions = 0;
+            for (OperatorStats operatorStats : stageInfo.getStageStats().getOperatorSummaries()) {
+                if (operatorStats.getPlanNodeId().equals(joinNode.getId()) && operatorStats.getOperatorType().equals(HashBuilderOperator.class.getSimpleName())) {
+                    buildStarted = true;
+                    buildDataSize += operatorStats.getInputDataSize().toBytes();
+                    buildPositions += operatorStats.getInputPositions();
+                }
+            }
+            if (!buildStarted) {
+                continue;
+            }
+
+            DistributionType distributionType = joinNode.getDistributionType().get();
+            if (distributionType == REPLICATED) {
+                if (finishedTasks == 0) {
+                    continue;
+                }
+                // every finished task built the whole table
+                buildDataSize /= finishedTasks;
+                buildPositions /= finishedTasks;
+            }
+            joinDistributionStats.add(new JoinDistributionStats(
+                    joinNode.getId(),
+                    distributionType,
+                    succinctBytes(buildDataSize),
+                    buildPositions,
+                    getPreferredDistributionType(joinNode, buildDataSize, joinDistributionType, joinMaxBroadcastTableSize)));
+        }
+        return joinDistributionStats.build();
+    }
+
+    private static DistributionType getPreferredDistributionType(JoinNode joinNode, long buildDataSize, JoinDistributionType joinDistributionType, Optional<DataSize> joinMaxBroadcastTableSize)
+    {
+        DistributionType distributionType = joinNode.getDistributionType().get();
+        JoinNode.Type type = joinNode.getType();
+        if (joinDistributionType != AUTOMATIC) {
+            // the distribution was forced by the session, not chosen from estimates
+            return distributionType;
+        }
+        if (!joinMaxBroadcastTableSize.isPresent() || type == JoinNode.Type.RIGHT || type == JoinNode.Type.FULL || joinNode.getCriteria().isEmpty()) {
+            // the distribution does not depend on the size of the build side
+            return distributionType;
+        }
+        return buildDataSize <= joinMaxBroadcastTableSize.get().toBytes() ? REPLICATED : PARTITIONED;
+    }
+
     private static QueryStats pruneQueryStats(QueryStats queryStats)
     {
         return new QueryStats(
@@ -1312,6 +1396,7 @@ public class QueryStateMachine
                 queryStats.getFailedPhysicalWrittenDataSize(),
                 queryStats.getStageGcStatistics(),
                 ImmutableList.of(), // Remove the operator summaries as OperatorInfo (especially ExchangeClientStatus) can hold onto a large amount of memory
+                queryStats.getJoinDistributionStats(),
                 queryStats.getInputBlockedTime(),
                 queryStats.getFailedInputBlockedTime(),
                 queryStats.getOutputBlockedTime(),
@@ -121,6 +121,8 @@ public class QueryStats
 
     private final List<OperatorStats> operatorSummaries;
 
+    private final List<JoinDistributionStats> joinDistributionStats;
+
     private final Duration inputBlockedTime;
     private final Duration failedInputBlockedTime;
     private final Duration outputBlockedTime;
@@ -209,6 +211,8 @@ public class QueryStats
 
             @JsonProperty("operatorSummaries") List<OperatorStats> operatorSummaries,
 
+            @JsonProperty("joinDistributionStats") List<JoinDistributionStats> joinDistributionStats,
+
             @JsonProperty("inputBlockedTime") Duration inputBlockedTime,
             @JsonProperty("failedInputBlockedTime") Duration failedInputBlockedTime,
             @JsonProperty("outputBlockedTime") Duration outputBlockedTime,
@@ -313,6 +317,8 @@ public class QueryStats
 
         this.operatorSummaries = ImmutableList.copyOf(requireNonNull(operatorSummaries, "operatorSummaries is null"));
 
+        this.joinDistributionStats = ImmutableList.copyOf(requireNonNull(joinDistributionStats, "joinDistributionStats is null"));
+
         this.inputBlockedTime = requireNonNull(inputBlockedTime, "inputBlockedTime is null");
         this.failedInputBlockedTime = requireNonNull(failedInputBlockedTime, "failedInputBlockedTime is null");
         this.outputBlockedTime = requireNonNull(outputBlockedTime, "outputBlockedTime is null");
@@ -741,6 +747,12 @@ public class QueryStats
         return operatorSummaries;
     }
 
+    @JsonProperty
+    public List<JoinDistributionStats> getJoinDistributionStats()
+    {
+        return joinDistributionStats;
+    }
+
     @JsonProperty
     public OptionalDouble getProgressPercentage()
     {
@@ -0,0 +1,481 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.operator.scalar.CombineHashFunction;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.snapshot.BlockEncodingSerdeProvider;
+import io.prestosql.spi.snapshot.RestorableConfig;
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.gen.JoinCompiler;
+import io.prestosql.sql.planner.optimizations.HashGenerationOptimizer;
+import io.prestosql.type.TypeUtils;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.prestosql.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Group by hash over fixed width keys, which stores every group as a flat record of the raw hash, the values
+ * of the keys and their null bits. The records are packed into large slices, so the groups do not hold any
+ * object, and rehashing reads the stored hashes instead of hashing the keys again. Every slot of the hash
+ * table has the upper bits of the raw hash next to the group id, so that probing only reads the record of
+ * a group when the hashes match.
+ */
+@RestorableConfig(uncapturedFields = {"types", "hashTypes", "channels", "hashStrategy", "inputHashChannel",
+        "processDictionary", "hashGenerator", "channelBuilders", "dictionaryLookBack", "updateMemory"})
+public class FlatGroupByHash
+        extends MultiChannelGroupBy implements GroupByHash
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(FlatGroupByHash.class).instanceSize();
+    private static final float FILL_RATIO = 0.75f;
+
+    private static final int RECORDS_PER_CHUNK_SHIFT = 10;
+    private static final int RECORDS_PER_CHUNK_MASK = (1 << RECORDS_PER_CHUNK_SHIFT) - 1;
+    private static final int VALUES_OFFSET = Long.BYTES;
+    private static final long HASH_TAG_MASK = 0xFFFF_FFFF_0000_0000L;
+    private static final long GROUP_ID_MASK = 0x0000_0000_FFFF_FFFFL;
+    private static final long EMPTY_SLOT = -1;
+
+    // record layout: raw hash, the value of every key, and a bit per key that is set when the key is null
+    private final int nullsOffset;
+    private final int recordSize;
+
+    private int hashCapacity;
+    private int maxFill;
+    private int mask;
+    // the upper bits of the raw hash and the group id, or EMPTY_SLOT
+    private long[] hashTable;
+
+    // the records of the groups, in chunks of a fixed number of records
+    private final ObjectArrayList<Slice> recordChunks = new ObjectArrayList<>();
+    private long recordChunksSizeInBytes;
+
+    private int nextGroupId;
+    private long hashCollisions;
+    private double expectedHashCollisions;
+
+    // reserve enough memory before rehash
+    private final UpdateMemory updateMemory;
+    private long preallocatedMemoryInBytes;
+
+    public FlatGroupByHash(
+            List<? extends Type> hashTypes,
+            int[] hashChannels,
+            Optional<Integer> inputHashChannel,
+            int expectedSize,
+            boolean processDictionary,
+            JoinCompiler joinCompiler,
+            UpdateMemory updateMemory)
+    {
+        super(hashTypes, hashChannels, inputHashChannel, expectedSize, processDictionary, joinCompiler);
+        checkArgument(isSupported(hashTypes), "Types are not fixed width: %s", hashTypes);
+
+        nullsOffset = VALUES_OFFSET + hashChannels.length * Long.BYTES;
+        recordSize = nullsOffset + (hashChannels.length + Byte.SIZE - 1) / Byte.SIZE;
+
+        hashCapacity = arraySize(expectedSize, FILL_RATIO);
+        maxFill = calculateMaxFill(hashCapacity);
+        mask = hashCapacity - 1;
+        hashTable = new long[hashCapacity];
+        Arrays.fill(hashTable, EMPTY_SLOT);
+
+        // This interface is used for actively reserving memory (push model) for rehash.
+        // The caller can also query memory usage on this object (pull model)
+        this.updateMemory = requireNonNull(updateMemory, "updateMemory is null");
+    }
+
+    /**
+     * Whether all the types are stored as a long that is equal for equal values.
+     */
+    public static boolean isSupported(List<? extends Type> types)
+    {
+        for (Type type : types) {
+            boolean supported = type.equals(BIGINT) ||
+                    type.equals(INTEGER) ||
+                    type.equals(SMALLINT) ||
+                    type.equals(TINYINT) ||
+                    type.equals(DATE) ||
+                    type.equals(TIMESTAMP) ||
+                    (type instanceof DecimalType && ((DecimalType) type).isShort());
+            if (!supported) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public int getGroupCount()
+    {
+        return nextGroupId;
+    }
+
+    @Override
+    public long getEstimatedSize()
+    {
+        return INSTANCE_SIZE +
+                sizeOf(hashTable) +
+                sizeOf(recordChunks.elements()) +
+                recordChunksSizeInBytes +
+                preallocatedMemoryInBytes;
+    }
+
+    @Override
+    public long getHashCollisions()
+    {
+        return hashCollisions;
+    }
+
+    @Override
+    public double getExpectedHashCollisions()
+    {
+        return expectedHashCollisions + estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+    }
+
+    @Override
+    public long getRawHash(int groupId)
+    {
+        return getRecordChunk(groupId).getLong(getRecordOffset(groupId));
+    }
+
+    @Override
+    public void appendValuesTo(int groupId, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        Slice chunk = getRecordChunk(groupId);
+        int offset = getRecordOffset(groupId);
+        for (int i = 0; i < channels.length; i++) {
+            BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(outputChannelOffset + i);
+            if (isNull(chunk, offset, i)) {
+                blockBuilder.appendNull();
+            }
+            else {
+                hashTypes.get(i).writeLong(blockBuilder, chunk.getLong(offset + VALUES_OFFSET + i * Long.BYTES));
+            }
+        }
+        if (precomputedHashChannel.isPresent()) {
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(outputChannelOffset + precomputedHashChannel.getAsInt()), chunk.getLong(offset));
+        }
+    }
+
+    @Override
+    public Work<?> addPage(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        if (isRunLengthEncoded(page)) {
+            return new AddRunLengthEncodedPageWork(page, this);
+        }
+        if (canProcessDictionary(page)) {
+            return new AddDictionaryPageWork(page, this);
+        }
+
+        return new AddNonDictionaryPageWork(page, this);
+    }
+
+    @Override
+    public Work<GroupByIdBlock> getGroupIds(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        if (isRunLengthEncoded(page)) {
+            return new GetRunLengthEncodedGroupIdsWork(page, this);
+        }
+        if (canProcessDictionary(page)) {
+            return new GetDictionaryGroupIdsWork(page, this);
+        }
+
+        return new GetNonDictionaryGroupIdsWork(page, this);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels)
+    {
+        long rawHash = HashGenerationOptimizer.INITIAL_HASH_VALUE;
+        for (int i = 0; i < hashChannels.length; i++) {
+            rawHash = CombineHashFunction.getHash(rawHash, TypeUtils.hashPosition(hashTypes.get(i), page.getBlock(hashChannels[i]), position));
+        }
+        return contains(position, page, hashChannels, rawHash);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels, long rawHash)
+    {
+        return findGroupId(position, page, hashChannels, rawHash, false) >= 0;
+    }
+
+    @VisibleForTesting
+    @Override
+    public int getCapacity()
+    {
+        return hashCapacity;
+    }
+
+    @Override
+    public int putIfAbsent(int position, Page page)
+    {
+        return putIfAbsent(position, page, hashGenerator.hashPosition(position, page));
+    }
+
+    @Override
+    public int putIfAbsent(int position, Page page, long rawHash)
+    {
+        int groupId = findGroupId(position, page, channels, rawHash, true);
+        if (groupId >= 0) {
+            return groupId;
+        }
+        return addNewGroup(-groupId - 1, position, page, rawHash);
+    }
+
+    /**
+     * @return the group id of the row, or the empty slot for it as {@code -slot - 1} when there is no such group
+     */
+    private int findGroupId(int position, Page page, int[] hashChannels, long rawHash, boolean countCollisions)
+    {
+        long hashTag = rawHash & HASH_TAG_MASK;
+        int hashPosition = getHashPosition(rawHash, mask);
+
+        // look for an empty slot or a slot containing this key
+        long slot = hashTable[hashPosition];
+        while (slot != EMPTY_SLOT) {
+            int groupId = (int) (slot & GROUP_ID_MASK);
+            if ((slot & HASH_TAG_MASK) == hashTag && recordNotDistinctFromRow(groupId, position, page, hashChannels)) {
+                return groupId;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+            slot = hashTable[hashPosition];
+            if (countCollisions) {
+                hashCollisions++;
+            }
+        }
+        return -hashPosition - 1;
+    }
+
+    private boolean recordNotDistinctFromRow(int groupId, int position, Page page, int[] hashChannels)
+    {
+        Slice chunk = getRecordChunk(groupId);
+        int offset = getRecordOffset(groupId);
+        for (int i = 0; i < hashChannels.length; i++) {
+            Block block = page.getBlock(hashChannels[i]);
+            boolean rowIsNull = block.isNull(position);
+            if (rowIsNull != isNull(chunk, offset, i)) {
+                return false;
+            }
+            if (!rowIsNull && chunk.getLong(offset + VALUES_OFFSET + i * Long.BYTES) != hashTypes.get(i).getLong(block, position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int addNewGroup(int hashPosition, int position, Page page, long rawHash)
+    {
+        int groupId = nextGroupId++;
+        if ((groupId & RECORDS_PER_CHUNK_MASK) == 0) {
+            Slice chunk = Slices.allocate(recordSize << RECORDS_PER_CHUNK_SHIFT);
+            recordChunks.add(chunk);
+            recordChunksSizeInBytes += chunk.getRetainedSize();
+        }
+
+        // write the record of the group
+        Slice chunk = getRecordChunk(groupId);
+        int offset = getRecordOffset(groupId);
+        chunk.setLong(offset, rawHash);
+        for (int i = 0; i < channels.length; i++) {
+            Block block = page.getBlock(channels[i]);
+            if (block.isNull(position)) {
+                int nullByteOffset = offset + nullsOffset + i / Byte.SIZE;
+                chunk.setByte(nullByteOffset, chunk.getByte(nullByteOffset) | (1 << (i % Byte.SIZE)));
+            }
+            else {
+                chunk.setLong(offset + VALUES_OFFSET + i * Long.BYTES, hashTypes.get(i).getLong(block, position));
+            }
+        }
+
+        // record group id in hash
+        hashTable[hashPosition] = (rawHash & HASH_TAG_MASK) | groupId;
+
+        // increase capacity, if necessary
+        if (needMoreCapacity()) {
+            tryToIncreaseCapacity();
+        }
+        return groupId;
+    }
+
+    @Override
+    public boolean needMoreCapacity()
+    {
+        return nextGroupId >= maxFill;
+    }
+
+    @Override
+    public boolean tryToIncreaseCapacity()
+    {
+        long newCapacityLong = hashCapacity * 2L;
+        if (newCapacityLong > Integer.MAX_VALUE) {
+            throw new PrestoException(GENERIC_INSUFFICIENT_RESOURCES, "Size of hash table cannot exceed 1 billion entries");
+        }
+        int newCapacity = toIntExact(newCapacityLong);
+
+        // An estimate of how much extra memory is needed before we can go ahead and expand the hash table.
+        // This includes the new capacity for hashTable as well as the size of the current page
+        preallocatedMemoryInBytes = (newCapacity - hashCapacity) * (long) Long.BYTES + currentPageSizeInBytes;
+        if (!updateMemory.update()) {
+            // reserved memory but has exceeded the limit
+            return false;
+        }
+        preallocatedMemoryInBytes = 0;
+
+        expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+
+        // the records are scanned in order and hold their raw hash, so the keys are not hashed again
+        int newMask = newCapacity - 1;
+        long[] newHashTable = new long[newCapacity];
+        Arrays.fill(newHashTable, EMPTY_SLOT);
+        for (int groupId = 0; groupId < nextGroupId; groupId++) {
+            long rawHash = getRawHash(groupId);
+            int hashPosition = getHashPosition(rawHash, newMask);
+            while (newHashTable[hashPosition] != EMPTY_SLOT) {
+                hashPosition = (hashPosition + 1) & newMask;
+                hashCollisions++;
+            }
+            newHashTable[hashPosition] = (rawHash & HASH_TAG_MASK) | groupId;
+        }
+
+        this.mask = newMask;
+        this.hashCapacity = newCapacity;
+        this.maxFill = calculateMaxFill(newCapacity);
+        this.hashTable = newHashTable;
+        return true;
+    }
+
+    private Slice getRecordChunk(int groupId)
+    {
+        return recordChunks.get(groupId >>> RECORDS_PER_CHUNK_SHIFT);
+    }
+
+    private int getRecordOffset(int groupId)
+    {
+        return (groupId & RECORDS_PER_CHUNK_MASK) * recordSize;
+    }
+
+    private boolean isNull(Slice chunk, int offset, int channel)
+    {
+        return (chunk.getByte(offset + nullsOffset + channel / Byte.SIZE) & (1 << (channel % Byte.SIZE))) != 0;
+    }
+
+    private static int getHashPosition(long rawHash, int mask)
+    {
+        return (int) (murmurHash3(rawHash) & mask);
+    }
+
+    private static int calculateMaxFill(int hashSize)
+    {
+        checkArgument(hashSize > 0, "hashSize must be greater than 0");
+        int calculateFill = (int) Math.ceil(hashSize * FILL_RATIO);
+        if (calculateFill == hashSize) {
+            calculateFill--;
+        }
+        checkArgument(hashSize > calculateFill, "hashSize must be larger than calculateFill");
+        return calculateFill;
+    }
+
+    @Override
+    public Object capture(BlockEncodingSerdeProvider serdeProvider)
+    {
+        FlatGroupByHashState myState = new FlatGroupByHashState();
+        myState.hashCapacity = hashCapacity;
+        myState.maxFill = maxFill;
+        myState.mask = mask;
+        myState.hashTable = Arrays.copyOf(hashTable, hashTable.length);
+        myState.recordChunks = new byte[recordChunks.size()][];
+        for (int i = 0; i < recordChunks.size(); i++) {
+            myState.recordChunks[i] = recordChunks.get(i).getBytes();
+        }
+        myState.recordChunksSizeInBytes = recordChunksSizeInBytes;
+        myState.nextGroupId = nextGroupId;
+        myState.hashCollisions = hashCollisions;
+        myState.expectedHashCollisions = expectedHashCollisions;
+        myState.preallocatedMemoryInBytes = preallocatedMemoryInBytes;
+        myState.currentPageSizeInBytes = currentPageSizeInBytes;
+        return myState;
+    }
+
+    @Override
+    public void restore(Object state, BlockEncodingSerdeProvider serdeProvider)
+    {
+        FlatGroupByHashState myState = (FlatGroupByHashState) state;
+        this.hashCapacity = myState.hashCapacity;
+        this.maxFill = myState.maxFill;
+        this.mask = myState.mask;
+        this.hashTable = myState.hashTable;
+        this.recordChunks.clear();
+        for (byte[] recordChunk : myState.recordChunks) {
+            this.recordChunks.add(Slices.wrappedBuffer(recordChunk));
+        }
+        this.recordChunksSizeInBytes = myState.recordChunksSizeInBytes;
+        this.nextGroupId = myState.nextGroupId;
+        this.hashCollisions = myState.hashCollisions;
+        this.expectedHashCollisions = myState.expectedHashCollisions;
+        this.preallocatedMemoryInBytes = myState.preallocatedMemoryInBytes;
+        this.currentPageSizeInBytes = myState.currentPageSizeInBytes;
+    }
+
+    private static class FlatGroupByHashState
+            implements Serializable
+    {
+        private int hashCapacity;
+        private int maxFill;
+        private int mask;
+        private long[] hashTable;
+        private byte[][] recordChunks;
+        private long recordChunksSizeInBytes;
+        private int nextGroupId;
+        private long hashCollisions;
+        private double expectedHashCollisions;
+        private long preallocatedMemoryInBytes;
+        private long currentPageSizeInBytes;
+    }
+}
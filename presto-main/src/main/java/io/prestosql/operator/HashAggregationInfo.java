@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.prestosql.util.Mergeable;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+public class HashAggregationInfo
+        implements Mergeable<HashAggregationInfo>, OperatorInfo
+{
+    private final HashCollisionsInfo hashCollisionsInfo;
+    private final long spilledRuns;
+    private final long spillMergePasses;
+
+    @JsonCreator
+    public HashAggregationInfo(
+            @JsonProperty("hashCollisionsInfo") HashCollisionsInfo hashCollisionsInfo,
+            @JsonProperty("spilledRuns") long spilledRuns,
+            @JsonProperty("spillMergePasses") long spillMergePasses)
+    {
+        this.hashCollisionsInfo = requireNonNull(hashCollisionsInfo, "hashCollisionsInfo is null");
+        this.spilledRuns = spilledRuns;
+        this.spillMergePasses = spillMergePasses;
+    }
+
+    @JsonProperty
+    public HashCollisionsInfo getHashCollisionsInfo()
+    {
+        return hashCollisionsInfo;
+    }
+
+    /**
+     * Number of hash sorted runs spilled to disk
+     */
+    @JsonProperty
+    public long getSpilledRuns()
+    {
+        return spilledRuns;
+    }
+
+    /**
+     * Number of passes merging the spilled runs into fewer runs before producing output
+     */
+    @JsonProperty
+    public long getSpillMergePasses()
+    {
+        return spillMergePasses;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("hashCollisionsInfo", hashCollisionsInfo)
+                .add("spilledRuns", spilledRuns)
+                .add("spillMergePasses", spillMergePasses)
+                .toString();
+    }
+
+    @Override
+    public HashAggregationInfo mergeWith(HashAggregationInfo other)
+    {
+        return new HashAggregationInfo(
+                this.hashCollisionsInfo.mergeWith(other.getHashCollisionsInfo()),
+                this.spilledRuns + other.getSpilledRuns(),
+                this.spillMergePasses + other.getSpillMergePasses());
+    }
+}
@@ -14,13 +14,21 @@
 package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
+import io.prestosql.Session;
 import io.prestosql.operator.aggregation.AccumulatorFactory;
+import io.prestosql.operator.aggregation.GroupedAccumulator;
 import io.prestosql.operator.aggregation.builder.InMemoryHashAggregationBuilder;
 import io.prestosql.operator.aggregation.builder.SpillableHashAggregationBuilder;
 import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.LongArrayBlock;
 import io.prestosql.spi.plan.AggregationNode.Step;
 import io.prestosql.spi.plan.PlanNodeId;
+import io.prestosql.spi.snapshot.RestorableConfig;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spiller.SpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
@@ -31,11 +39,19 @@ import java.util.Optional;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.SystemSessionProperties.getAdaptivePartialAggregationMinRows;
+import static io.prestosql.SystemSessionProperties.getAdaptivePartialAggregationUniqueRowsRatioThreshold;
+import static io.prestosql.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
 import static java.util.Objects.requireNonNull;
 
+// markers are only accepted while no pass-through page is pending, and a restored operator simply aggregates again
+// spill statistics are reported through the operator info only
+@RestorableConfig(uncapturedFields = {"builderInputRows", "passThrough", "passThroughPage", "spilledRuns", "spillMergePasses"})
 public class HashAggregationOperator
         extends GroupAggregationOperator
 {
+    private static final Logger log = Logger.get(HashAggregationOperator.class);
+
     public static class HashAggregationOperatorFactory
             extends GroupAggregationOperatorFactory
     {
@@ -216,6 +232,16 @@ public class HashAggregationOperator
         }
     }
 
+    private final boolean adaptivePartialAggregation;
+    private final long adaptivePartialAggregationMinRows;
+    private final double uniqueRowsRatioThreshold;
+    // rows added to the current aggregation builder
+    private long builderInputRows;
+    private boolean passThrough;
+    private Page passThroughPage;
+    private long spilledRuns;
+    private long spillMergePasses;
+
     public HashAggregationOperator(
             OperatorContext operatorContext,
             List<Type> groupByTypes,
@@ -254,7 +280,36 @@ public class HashAggregationOperator
                 useSystemMemory);
 
         this.hashCollisionsCounter = new HashCollisionsCounter(operatorContext);
-        operatorContext.setInfoSupplier(hashCollisionsCounter);
+        operatorContext.setInfoSupplier(() -> new HashAggregationInfo(hashCollisionsCounter.get(), spilledRuns, spillMergePasses));
+
+        Session session = operatorContext.getSession();
+        // accumulators with ORDER BY or DISTINCT need all the rows of a group at once
+        this.adaptivePartialAggregation = step == Step.PARTIAL && isAdaptivePartialAggregationEnabled(session) && !hasOrderBy() && !hasDistinct();
+        this.adaptivePartialAggregationMinRows = getAdaptivePartialAggregationMinRows(session);
+        this.uniqueRowsRatioThreshold = getAdaptivePartialAggregationUniqueRowsRatioThreshold(session);
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        // building the result may wait for merged spilled runs being written
+        if (outputPages != null && outputPages.isBlocked()) {
+            return outputPages.getBlockedFuture();
+        }
+        return NOT_BLOCKED;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        if (passThroughPage != null) {
+            return false;
+        }
+        if (passThrough && aggregationBuilder != null) {
+            // flush the rows aggregated before switching to pass-through first
+            return false;
+        }
+        return super.needsInput();
     }
 
     @Override
@@ -277,8 +332,14 @@ public class HashAggregationOperator
         requireNonNull(page, "page is null");
         inputProcessed = true;
 
+        if (passThrough) {
+            passThroughPage = buildPassThroughPage(page);
+            return;
+        }
+
         if (aggregationBuilder == null) {
             createAggregationBuilder();
+            builderInputRows = 0;
         }
         else {
             checkState(!aggregationBuilder.isFull(), "Aggregation buffer is full");
@@ -290,6 +351,49 @@ public class HashAggregationOperator
             unfinishedWork = null;
         }
         aggregationBuilder.updateMemory();
+
+        builderInputRows += page.getPositionCount();
+        if (adaptivePartialAggregation && unfinishedWork == null && builderInputRows >= adaptivePartialAggregationMinRows) {
+            long groupCount = ((InMemoryHashAggregationBuilder) aggregationBuilder).getGroupCount();
+            if (groupCount > builderInputRows * uniqueRowsRatioThreshold) {
+                // the partial aggregation hardly reduces the rows, the final aggregation can do the work alone
+                log.debug("Partial aggregation %s of %s produced %s groups from %s rows, passing the remaining input through",
+                        operatorContext.getOperatorId(), operatorContext.getDriverContext().getTaskId(), groupCount, builderInputRows);
+                passThrough = true;
+            }
+        }
+    }
+
+    /**
+     * Turns every input row into a group of its own, in the layout of the output of the partial aggregation
+     */
+    private Page buildPassThroughPage(Page page)
+    {
+        int positionCount = page.getPositionCount();
+        long[] groupIds = new long[positionCount];
+        for (int position = 0; position < positionCount; position++) {
+            groupIds[position] = position;
+        }
+        GroupByIdBlock groupIdBlock = new GroupByIdBlock(positionCount, new LongArrayBlock(positionCount, Optional.empty(), groupIds));
+
+        Block[] blocks = new Block[groupByChannels.size() + (hashChannel.isPresent() ? 1 : 0) + accumulatorFactories.size()];
+        int channel = 0;
+        for (int groupByChannel : groupByChannels) {
+            blocks[channel++] = page.getBlock(groupByChannel);
+        }
+        if (hashChannel.isPresent()) {
+            blocks[channel++] = page.getBlock(hashChannel.get());
+        }
+        for (AccumulatorFactory accumulatorFactory : accumulatorFactories) {
+            GroupedAccumulator accumulator = accumulatorFactory.createGroupedAccumulator();
+            accumulator.addInput(groupIdBlock, page);
+            BlockBuilder output = accumulator.getIntermediateType().createBlockBuilder(null, positionCount);
+            for (int groupId = 0; groupId < positionCount; groupId++) {
+                accumulator.evaluateIntermediate(groupId, output);
+            }
+            blocks[channel++] = output.build();
+        }
+        return new Page(positionCount, blocks);
     }
 
     @Override
@@ -350,6 +454,12 @@ public class HashAggregationOperator
             return null;
         }
 
+        if (passThroughPage != null) {
+            Page page = passThroughPage;
+            passThroughPage = null;
+            return page;
+        }
+
         // process unfinished work if one exists
         if (unfinishedWork != null) {
             boolean workDone = unfinishedWork.process();
@@ -374,8 +484,8 @@ public class HashAggregationOperator
                 }
             }
 
-            // only flush if we are finishing or the aggregation builder is full
-            if (!finishing && (aggregationBuilder == null || !aggregationBuilder.isFull())) {
+            // only flush if we are finishing, the aggregation builder is full or the input is passed through from now on
+            if (!finishing && (aggregationBuilder == null || !(aggregationBuilder.isFull() || passThrough))) {
                 return null;
             }
 
@@ -408,6 +518,10 @@ public class HashAggregationOperator
         outputPages = null;
         if (aggregationBuilder != null) {
             aggregationBuilder.recordHashCollisions(hashCollisionsCounter);
+            if (aggregationBuilder instanceof SpillableHashAggregationBuilder) {
+                spilledRuns += ((SpillableHashAggregationBuilder) aggregationBuilder).getTotalSpilledRuns();
+                spillMergePasses += ((SpillableHashAggregationBuilder) aggregationBuilder).getSpillMergePasses();
+            }
             aggregationBuilder.close();
             // aggregationBuilder.close() will release all memory reserved in memory accounting.
             // The reference must be set to null afterwards to avoid unaccounted memory.
@@ -41,6 +41,10 @@ public final class JoinHash
     @Nullable
     private final PositionLinks positionLinks;
 
+    // scratch arrays of the batched lookups; the pages hash is shared by all the probes, but this instance is not
+    private final PagesHash.LookupBuffers lookupBuffers = new PagesHash.LookupBuffers();
+    private int[] addressIndexes = new int[0];
+
     public JoinHash(PagesHash pagesHash, Optional<JoinFilterFunction> filterFunction, Optional<PositionLinks> positionLinks)
     {
         this.pagesHash = requireNonNull(pagesHash, "pagesHash is null");
@@ -92,6 +96,18 @@ public final class JoinHash
         return startJoinPosition(addressIndex, position, allChannelsPage);
     }
 
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, @Nullable long[] rawHashes, long[] joinPositions)
+    {
+        if (addressIndexes.length < positionCount) {
+            addressIndexes = new int[positionCount];
+        }
+        pagesHash.getAddressIndexes(positions, positionCount, hashChannelsPage, rawHashes, lookupBuffers, addressIndexes);
+        for (int i = 0; i < positionCount; i++) {
+            joinPositions[i] = startJoinPosition(addressIndexes[i], positions[i], allChannelsPage);
+        }
+    }
+
     private long startJoinPosition(int currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
         if (currentJoinPosition == -1) {
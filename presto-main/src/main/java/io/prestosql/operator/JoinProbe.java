@@ -16,6 +16,7 @@ package io.prestosql.operator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -52,6 +53,10 @@ public class JoinProbe
 
     private int position = -1;
 
+    // join positions of the page, looked up in one batch from the lookup source they were computed with
+    private LookupSource batchLookupSource;
+    private long[] joinPositions;
+
     private JoinProbe(int[] probeOutputChannels, Page page, List<Integer> probeJoinChannels, OptionalInt probeHashChannel)
     {
         this.probeOutputChannels = probeOutputChannels;
@@ -79,14 +84,10 @@ public class JoinProbe
 
     public long getCurrentJoinPosition(LookupSource lookupSource)
     {
-        if (currentRowContainsNull()) {
-            return -1;
-        }
-        if (probeHashBlock.isPresent()) {
-            long rawHash = BIGINT.getLong(probeHashBlock.get(), position);
-            return lookupSource.getJoinPosition(position, probePage, page, rawHash);
+        if (lookupSource != batchLookupSource) {
+            lookupJoinPositions(lookupSource);
         }
-        return lookupSource.getJoinPosition(position, probePage, page);
+        return joinPositions[position];
     }
 
     public int getPosition()
@@ -99,7 +100,37 @@ public class JoinProbe
         return page;
     }
 
-    private boolean currentRowContainsNull()
+    /**
+     * Looks up the current and all the following positions of the page at once
+     */
+    private void lookupJoinPositions(LookupSource lookupSource)
+    {
+        int[] positions = new int[positionCount - position];
+        long[] rawHashes = probeHashBlock.isPresent() ? new long[positions.length] : null;
+        int count = 0;
+        for (int current = position; current < positionCount; current++) {
+            if (rowContainsNull(current)) {
+                continue;
+            }
+            positions[count] = current;
+            if (rawHashes != null) {
+                rawHashes[count] = BIGINT.getLong(probeHashBlock.get(), current);
+            }
+            count++;
+        }
+
+        long[] batchJoinPositions = new long[count];
+        lookupSource.getJoinPositions(positions, count, probePage, page, rawHashes, batchJoinPositions);
+
+        joinPositions = new long[positionCount];
+        Arrays.fill(joinPositions, -1);
+        for (int i = 0; i < count; i++) {
+            joinPositions[positions[i]] = batchJoinPositions[i];
+        }
+        batchLookupSource = lookupSource;
+    }
+
+    private boolean rowContainsNull(int position)
     {
         for (Block probeBlock : probeBlocks) {
             if (probeBlock.isNull(position)) {
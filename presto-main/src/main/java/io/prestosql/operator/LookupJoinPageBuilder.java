@@ -106,7 +106,9 @@ public class LookupJoinPageBuilder
         int[] probeOutputChannels = probe.getOutputChannels();
         Block[] blocks = new Block[probeOutputChannels.length + buildOutputChannelCount];
         for (int i = 0; i < probeOutputChannels.length; i++) {
-            Block probeBlock = probe.getPage().getBlock(probeOutputChannels[i]);
+            // lazy probe blocks must be loaded before the page leaves the join, as the source producing
+            // them (e.g. ORC reader) may move on to the next page as soon as the probe is finished
+            Block probeBlock = probe.getPage().getBlock(probeOutputChannels[i]).getLoadedBlock();
             if (!isSequentialProbeIndices || length == 0) {
                 blocks[i] = probeBlock.getPositions(probeIndices, 0, probeIndices.length);
             }
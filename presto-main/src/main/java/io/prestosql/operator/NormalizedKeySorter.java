@@ -0,0 +1,208 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.SortOrder;
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.Type;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static io.prestosql.operator.SyntheticAddress.decodePosition;
+import static io.prestosql.operator.SyntheticAddress.decodeSliceIndex;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static java.lang.Double.doubleToLongBits;
+import static java.lang.Float.floatToIntBits;
+import static java.lang.Float.intBitsToFloat;
+
+/**
+ * Sorts the positions of a {@link PagesIndex} by a normalized key. The values of the first sort channel
+ * are copied into an array of longs, whose signed order is the sort order, and the positions are sorted
+ * with a radix sort over that array, without accessing the pages. Positions with equal keys are then
+ * sorted by the remaining sort channels with the compiled {@link PagesIndexOrdering}.
+ */
+final class NormalizedKeySorter
+{
+    // below this number of positions, copying the keys costs more than comparing the rows in the pages
+    static final int MIN_POSITION_COUNT = 256;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private NormalizedKeySorter() {}
+
+    static boolean isSupported(Type type)
+    {
+        if (type instanceof DecimalType) {
+            return ((DecimalType) type).isShort();
+        }
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(DATE) ||
+                type.equals(TIMESTAMP) ||
+                type.equals(DOUBLE) ||
+                type.equals(REAL);
+    }
+
+    /**
+     * Memory used by the buffers of {@link #sort} for the given number of positions.
+     */
+    static long getSortBufferSizeInBytes(int positionCount)
+    {
+        // keys and addresses, and a copy of both for the radix sort
+        return 4L * Long.BYTES * positionCount + (long) Integer.BYTES * RADIX;
+    }
+
+    /**
+     * @param tieBreaker ordering by all sort channels, used to sort the positions with equal keys;
+     * empty when the key channel is the only sort channel
+     */
+    static void sort(PagesIndex pagesIndex, Type type, int channel, SortOrder sortOrder, Optional<PagesIndexOrdering> tieBreaker, int startPosition, int endPosition)
+    {
+        long[] addresses = pagesIndex.getValueAddresses().elements();
+        ObjectArrayList<Block> blocks = pagesIndex.getChannel(channel);
+        boolean isDouble = type.equals(DOUBLE);
+        boolean isReal = type.equals(REAL);
+
+        // non-null keys and their addresses are collected from the start, the addresses of nulls from the end
+        int positionCount = endPosition - startPosition;
+        long[] keys = new long[positionCount];
+        long[] sortedAddresses = new long[positionCount];
+        int keyCount = 0;
+        int nullCount = 0;
+        for (int i = startPosition; i < endPosition; i++) {
+            long address = addresses[i];
+            Block block = blocks.get(decodeSliceIndex(address));
+            int position = decodePosition(address);
+            if (block.isNull(position)) {
+                nullCount++;
+                sortedAddresses[positionCount - nullCount] = address;
+                continue;
+            }
+
+            long key;
+            if (isDouble) {
+                long bits = doubleToLongBits(type.getDouble(block, position));
+                // order of negative values is reversed by flipping all bits but the sign
+                key = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+            }
+            else if (isReal) {
+                int bits = floatToIntBits(intBitsToFloat((int) type.getLong(block, position)));
+                key = bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+            }
+            else {
+                key = type.getLong(block, position);
+            }
+            keys[keyCount] = sortOrder.isAscending() ? key : ~key;
+            sortedAddresses[keyCount] = address;
+            keyCount++;
+        }
+
+        radixSort(keys, sortedAddresses, keyCount);
+
+        int keysStart = startPosition;
+        int nullsStart = startPosition + keyCount;
+        if (sortOrder.isNullsFirst()) {
+            nullsStart = startPosition;
+            keysStart = startPosition + nullCount;
+        }
+        System.arraycopy(sortedAddresses, 0, addresses, keysStart, keyCount);
+        System.arraycopy(sortedAddresses, keyCount, addresses, nullsStart, nullCount);
+
+        if (!tieBreaker.isPresent()) {
+            return;
+        }
+        PagesIndexOrdering ordering = tieBreaker.get();
+        if (nullCount > 1) {
+            ordering.sort(pagesIndex, nullsStart, nullsStart + nullCount);
+        }
+        int runStart = 0;
+        for (int i = 1; i <= keyCount; i++) {
+            if (i == keyCount || keys[i] != keys[runStart]) {
+                if (i - runStart > 1) {
+                    ordering.sort(pagesIndex, keysStart + runStart, keysStart + i);
+                }
+                runStart = i;
+            }
+        }
+    }
+
+    /**
+     * Sorts the first {@code length} keys in signed order, least significant digit first, moving the values along.
+     */
+    private static void radixSort(long[] keys, long[] values, int length)
+    {
+        if (length < 2) {
+            return;
+        }
+
+        long[] sourceKeys = keys;
+        long[] sourceValues = values;
+        long[] targetKeys = new long[length];
+        long[] targetValues = new long[length];
+        int[] offsets = new int[RADIX];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < length; i++) {
+                offsets[digit(sourceKeys[i], shift)]++;
+            }
+            if (offsets[digit(sourceKeys[0], shift)] == length) {
+                // all keys have the same digit
+                continue;
+            }
+
+            int offset = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int count = offsets[digit];
+                offsets[digit] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < length; i++) {
+                int target = offsets[digit(sourceKeys[i], shift)]++;
+                targetKeys[target] = sourceKeys[i];
+                targetValues[target] = sourceValues[i];
+            }
+
+            long[] swap = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swap;
+            swap = sourceValues;
+            sourceValues = targetValues;
+            targetValues = swap;
+        }
+
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, length);
+            System.arraycopy(sourceValues, 0, values, 0, length);
+        }
+    }
+
+    private static int digit(long key, int shift)
+    {
+        // flipping the sign bit makes the unsigned digits follow the signed order
+        return (int) ((key ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1);
+    }
+}
@@ -54,6 +54,7 @@ import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.prestosql.operator.BlockedReason.WAITING_FOR_MEMORY;
 import static io.prestosql.operator.Operator.NOT_BLOCKED;
+import static io.prestosql.operator.PageUtils.getLoadedSizeInBytes;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static java.lang.Math.max;
 import static java.lang.String.format;
@@ -182,7 +183,7 @@ public class OperatorContext
     {
         operationTimer.recordOperationComplete(addInputTiming);
         if (page != null) {
-            inputDataSize.update(page.getSizeInBytes());
+            inputDataSize.update(getLoadedSizeInBytes(page));
             inputPositions.update(page.getPositionCount());
         }
     }
@@ -222,7 +223,7 @@ public class OperatorContext
     {
         operationTimer.recordOperationComplete(getOutputTiming);
         if (page != null) {
-            outputDataSize.update(page.getSizeInBytes());
+            outputDataSize.update(getLoadedSizeInBytes(page));
             outputPositions.update(page.getPositionCount());
         }
     }
@@ -279,10 +279,10 @@ public class OrderByOperator
                 }
             }
 
-            pageIndex.sort(sortChannels, sortOrder);
+            pageIndex.sort(sortChannels, sortOrder, localUserMemoryContext);
             Iterator<Page> sortedPagesIndex = pageIndex.getSortedPages();
 
-            secondaryPageIndex.sort(sortChannels, sortOrder);
+            secondaryPageIndex.sort(sortChannels, sortOrder, localUserMemoryContext);
             Iterator<Page> secondaryPageIndexSorted = secondaryPageIndex.getSortedPages();
 
             List<WorkProcessor<Page>> spilledPages = getSpilledPages();
@@ -423,7 +423,7 @@ public class OrderByOperator
                     operatorContext.getDriverContext().getTaskId().getQueryId().toString(), isSpillToHdfsEnabled));
         }
         primarySpillRunning = true;
-        pageIndex.sort(sortChannels, sortOrder);
+        pageIndex.sort(sortChannels, sortOrder, localUserMemoryContext);
         Pair<ListenableFuture<?>, Runnable> spillState = spiller.get().spillUnCommit(pageIndex.getSortedPages());
         spillInProgress = spillState.getLeft();
         LOG.debug("spilling to disk initiated by Order by operator using primary spiller");
@@ -553,7 +553,7 @@ public class OrderByOperator
     {
         verify(spiller.isPresent(), "spiller not present");
         secondarySpillRunning = true;
-        secondaryPageIndex.sort(sortChannels, sortOrder);
+        secondaryPageIndex.sort(sortChannels, sortOrder, localUserMemoryContext);
         Pair<ListenableFuture<?>, Runnable> spillState = spiller.get().spillUnCommit(secondaryPageIndex.getSortedPages());
         spill2InProgress = spillState.getLeft();
         LOG.debug("spilling to disk initiated by Order by operator using secondary spiller");
@@ -17,6 +17,7 @@ import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.LazyBlock;
 
+import java.util.Arrays;
 import java.util.function.LongConsumer;
 
 public final class PageUtils
@@ -46,4 +47,58 @@ public final class PageUtils
         }
         return new Page(page.getPositionCount(), blocks);
     }
+
+    /**
+     * Size of the loaded blocks of the page. Not loaded lazy blocks are skipped, so that
+     * computing statistics does not force them to be read.
+     */
+    public static long getLoadedSizeInBytes(Page page)
+    {
+        long sizeInBytes = 0;
+        for (int i = 0; i < page.getChannelCount(); i++) {
+            Block block = page.getBlock(i);
+            if (!isNotLoadedLazyBlock(block)) {
+                sizeInBytes += block.getSizeInBytes();
+            }
+        }
+        return sizeInBytes;
+    }
+
+    /**
+     * Same as {@link Block#copyPositions}, but a not loaded lazy block stays unloaded
+     * and the positions are only copied when the returned block is loaded.
+     */
+    public static <T> Block<T> copyPositions(Block<T> block, int[] positions, int offset, int length)
+    {
+        if (!isNotLoadedLazyBlock(block)) {
+            return block.copyPositions(positions, offset, length);
+        }
+
+        LazyBlock<T> delegateLazyBlock = (LazyBlock<T>) block;
+        // positions array can be reused by the caller
+        int[] retainedPositions = Arrays.copyOfRange(positions, offset, offset + length);
+        return new LazyBlock<T>(length, lazyBlock -> lazyBlock.setBlock(delegateLazyBlock.getLoadedBlock().copyPositions(retainedPositions, 0, length)));
+    }
+
+    /**
+     * Same as {@link Block#getRegion}, but a not loaded lazy block stays unloaded
+     * and the region is only taken when the returned block is loaded.
+     */
+    public static <T> Block<T> getRegion(Block<T> block, int positionOffset, int length)
+    {
+        if (!isNotLoadedLazyBlock(block)) {
+            return block.getRegion(positionOffset, length);
+        }
+
+        LazyBlock<T> delegateLazyBlock = (LazyBlock<T>) block;
+        if (positionOffset == 0 && length == block.getPositionCount()) {
+            return delegateLazyBlock;
+        }
+        return new LazyBlock<T>(length, lazyBlock -> lazyBlock.setBlock(delegateLazyBlock.getLoadedBlock().getRegion(positionOffset, length)));
+    }
+
+    public static boolean isNotLoadedLazyBlock(Block block)
+    {
+        return (block instanceof LazyBlock) && !((LazyBlock) block).isLoaded();
+    }
 }
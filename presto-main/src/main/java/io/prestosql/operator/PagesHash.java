@@ -16,10 +16,14 @@ package io.prestosql.operator;
 import io.airlift.units.DataSize;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.DictionaryBlock;
 import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import org.openjdk.jol.info.ClassLayout;
 
+import javax.annotation.Nullable;
+
 import java.util.Arrays;
 
 import static io.airlift.slice.SizeOf.sizeOf;
@@ -168,6 +172,101 @@ public final class PagesHash
         return -1;
     }
 
+    /**
+     * Batched version of {@link #getAddressIndex(int, Page, long)}. The first pass only computes the slots and loads
+     * their keys, and the second pass loads the hash byte and the address of the row each key points to. Both are
+     * independent loads the CPU can keep in flight together, rather than one cache miss per probe row and step. The
+     * last pass compares the rows and walks the collision chains.
+     *
+     * @param rawHashes hashes of the positions, or null to compute them
+     * @param buffers scratch arrays reused across calls, owned by the calling lookup source since this hash is shared
+     */
+    public void getAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, @Nullable long[] rawHashes, LookupBuffers buffers, int[] addressIndexes)
+    {
+        if (canLookupDictionary(positionCount, hashChannelsPage)) {
+            getDictionaryAddressIndexes(positions, positionCount, (DictionaryBlock) hashChannelsPage.getBlock(0), buffers, addressIndexes);
+            return;
+        }
+        lookupAddressIndexes(positions, positionCount, hashChannelsPage, rawHashes, buffers, addressIndexes);
+    }
+
+    private void lookupAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, @Nullable long[] rawHashes, LookupBuffers buffers, int[] addressIndexes)
+    {
+        long[] hashes = rawHashes;
+        if (hashes == null) {
+            hashes = buffers.getHashes(positionCount);
+            for (int i = 0; i < positionCount; i++) {
+                hashes[i] = pagesHashStrategy.hashRow(positions[i], hashChannelsPage);
+            }
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            addressIndexes[i] = key[getHashPosition(hashes[i], mask)];
+        }
+
+        // -1 is never a valid address, so it marks the keys whose hash byte already rules them out
+        long[] candidateAddresses = buffers.getCandidateAddresses(positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            int currentKey = addressIndexes[i];
+            candidateAddresses[i] = currentKey != -1 && positionToHashes[currentKey] == (byte) hashes[i] ? addresses.getLong(currentKey) : -1;
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            int currentKey = addressIndexes[i];
+            if (currentKey == -1 || (candidateAddresses[i] != -1 && addressEqualsCurrentRowIgnoreNulls(candidateAddresses[i], positions[i], hashChannelsPage))) {
+                continue;
+            }
+            int pos = getHashPosition(hashes[i], mask);
+            do {
+                // increment position and mask to handler wrap around
+                pos = (pos + 1) & mask;
+                currentKey = key[pos];
+            }
+            while (currentKey != -1 && !positionEqualsCurrentRowIgnoreNulls(currentKey, (byte) hashes[i], positions[i], hashChannelsPage));
+            addressIndexes[i] = currentKey;
+        }
+    }
+
+    private static boolean canLookupDictionary(int positionCount, Page hashChannelsPage)
+    {
+        // a dictionary larger than the batch would cost more to look up than the rows themselves
+        return hashChannelsPage.getChannelCount() == 1 &&
+                hashChannelsPage.getBlock(0) instanceof DictionaryBlock &&
+                ((DictionaryBlock) hashChannelsPage.getBlock(0)).getDictionary().getPositionCount() <= positionCount;
+    }
+
+    /**
+     * Looks up every distinct dictionary entry referenced by the positions once, and maps the dictionary ids
+     * of the positions to the address indexes of their entries.
+     */
+    private void getDictionaryAddressIndexes(int[] positions, int positionCount, DictionaryBlock dictionaryBlock, LookupBuffers buffers, int[] addressIndexes)
+    {
+        Block dictionary = dictionaryBlock.getDictionary();
+        int[] addressIndexByDictionaryId = buffers.getAddressIndexByDictionaryId(dictionary.getPositionCount());
+        Arrays.fill(addressIndexByDictionaryId, 0, dictionary.getPositionCount(), -2);
+
+        int[] dictionaryIds = buffers.getDictionaryIds(dictionary.getPositionCount());
+        int dictionaryIdCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int id = dictionaryBlock.getId(positions[i]);
+            if (addressIndexByDictionaryId[id] == -2) {
+                addressIndexByDictionaryId[id] = -1;
+                dictionaryIds[dictionaryIdCount] = id;
+                dictionaryIdCount++;
+            }
+        }
+
+        int[] dictionaryAddressIndexes = buffers.getDictionaryAddressIndexes(dictionaryIdCount);
+        lookupAddressIndexes(dictionaryIds, dictionaryIdCount, new Page(dictionary), null, buffers, dictionaryAddressIndexes);
+        for (int i = 0; i < dictionaryIdCount; i++) {
+            addressIndexByDictionaryId[dictionaryIds[i]] = dictionaryAddressIndexes[i];
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            addressIndexes[i] = addressIndexByDictionaryId[dictionaryBlock.getId(positions[i])];
+        }
+    }
+
     public void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset)
     {
         long pageAddress = addresses.getLong(toIntExact(position));
@@ -208,6 +307,14 @@ public final class PagesHash
         return pagesHashStrategy.positionEqualsRowIgnoreNulls(blockIndex, blockPosition, rightPosition, rightPage);
     }
 
+    private boolean addressEqualsCurrentRowIgnoreNulls(long pageAddress, int rightPosition, Page rightPage)
+    {
+        int blockIndex = decodeSliceIndex(pageAddress);
+        int blockPosition = decodePosition(pageAddress);
+
+        return pagesHashStrategy.positionEqualsRowIgnoreNulls(blockIndex, blockPosition, rightPosition, rightPage);
+    }
+
     private boolean positionEqualsPositionIgnoreNulls(int leftPosition, int rightPosition)
     {
         long leftPageAddress = addresses.getLong(leftPosition);
@@ -239,4 +346,56 @@ public final class PagesHash
 
         return (int) (rawHashNew & mask);
     }
+
+    /**
+     * Scratch arrays of the batched lookups, grown to the largest batch seen and reused after that
+     */
+    public static final class LookupBuffers
+    {
+        private long[] hashes = new long[0];
+        private long[] candidateAddresses = new long[0];
+        private int[] addressIndexByDictionaryId = new int[0];
+        private int[] dictionaryIds = new int[0];
+        private int[] dictionaryAddressIndexes = new int[0];
+
+        private long[] getHashes(int size)
+        {
+            if (hashes.length < size) {
+                hashes = new long[size];
+            }
+            return hashes;
+        }
+
+        private long[] getCandidateAddresses(int size)
+        {
+            if (candidateAddresses.length < size) {
+                candidateAddresses = new long[size];
+            }
+            return candidateAddresses;
+        }
+
+        private int[] getAddressIndexByDictionaryId(int size)
+        {
+            if (addressIndexByDictionaryId.length < size) {
+                addressIndexByDictionaryId = new int[size];
+            }
+            return addressIndexByDictionaryId;
+        }
+
+        private int[] getDictionaryIds(int size)
+        {
+            if (dictionaryIds.length < size) {
+                dictionaryIds = new int[size];
+            }
+            return dictionaryIds;
+        }
+
+        private int[] getDictionaryAddressIndexes(int size)
+        {
+            if (dictionaryAddressIndexes.length < size) {
+                dictionaryAddressIndexes = new int[size];
+            }
+            return dictionaryAddressIndexes;
+        }
+    }
 }
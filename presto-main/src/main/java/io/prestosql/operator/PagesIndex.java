@@ -23,6 +23,7 @@ import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
 import io.prestosql.Session;
 import io.prestosql.geospatial.Rectangle;
+import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.SpatialIndexBuilderOperator.SpatialPredicate;
 import io.prestosql.spi.Page;
@@ -93,6 +94,7 @@ public class PagesIndex
     private final LongArrayList valueAddresses;
     private final ObjectArrayList<Block>[] channels;
     private final boolean eagerCompact;
+    private final boolean normalizedKeySort;
 
     private int nextBlockToCompact;
     private int positionCount;
@@ -105,7 +107,8 @@ public class PagesIndex
             Metadata metadata,
             List<Type> types,
             int expectedPositions,
-            boolean eagerCompact)
+            boolean eagerCompact,
+            boolean normalizedKeySort)
     {
         this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
@@ -113,6 +116,7 @@ public class PagesIndex
         this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
         this.valueAddresses = new LongArrayList(expectedPositions);
         this.eagerCompact = eagerCompact;
+        this.normalizedKeySort = normalizedKeySort;
 
         //noinspection rawtypes
         channels = (ObjectArrayList<Block>[]) new ObjectArrayList[types.size()];
@@ -135,16 +139,23 @@ public class PagesIndex
         private static final Metadata METADATA = createTestMetadataManager();
         private static final JoinCompiler JOIN_COMPILER = new JoinCompiler(METADATA);
         private final boolean eagerCompact;
+        private final boolean normalizedKeySort;
 
         public TestingFactory(boolean eagerCompact)
+        {
+            this(eagerCompact, false);
+        }
+
+        public TestingFactory(boolean eagerCompact, boolean normalizedKeySort)
         {
             this.eagerCompact = eagerCompact;
+            this.normalizedKeySort = normalizedKeySort;
         }
 
         @Override
         public PagesIndex newPagesIndex(List<Type> types, int expectedPositions)
         {
-            return new PagesIndex(ORDERING_COMPILER, JOIN_COMPILER, METADATA, types, expectedPositions, eagerCompact);
+            return new PagesIndex(ORDERING_COMPILER, JOIN_COMPILER, METADATA, types, expectedPositions, eagerCompact, normalizedKeySort);
         }
     }
 
@@ -154,6 +165,7 @@ public class PagesIndex
         private final OrderingCompiler orderingCompiler;
         private final JoinCompiler joinCompiler;
         private final boolean eagerCompact;
+        private final boolean normalizedKeySort;
         private final Metadata metadata;
 
         @Inject
@@ -162,13 +174,14 @@ public class PagesIndex
             this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
             this.eagerCompact = requireNonNull(featuresConfig, "featuresConfig is null").isPagesIndexEagerCompactionEnabled();
+            this.normalizedKeySort = featuresConfig.isPagesIndexNormalizedKeySortEnabled();
             this.metadata = requireNonNull(metadata, "metadata is null");
         }
 
         @Override
         public PagesIndex newPagesIndex(List<Type> types, int expectedPositions)
         {
-            return new PagesIndex(orderingCompiler, joinCompiler, metadata, types, expectedPositions, eagerCompact);
+            return new PagesIndex(orderingCompiler, joinCompiler, metadata, types, expectedPositions, eagerCompact, normalizedKeySort);
         }
     }
 
@@ -387,6 +400,38 @@ public class PagesIndex
         createPagesIndexComparator(sortChannels, sortOrders).sort(this, startPosition, endPosition);
     }
 
+    public void sort(List<Integer> sortChannels, List<SortOrder> sortOrders, LocalMemoryContext sortMemoryContext)
+    {
+        sort(sortChannels, sortOrders, 0, getPositionCount(), sortMemoryContext);
+    }
+
+    /**
+     * Same as {@link #sort(List, List, int, int)}, but if enabled, positions are sorted by normalized keys.
+     * The buffers of the keys are reserved in {@code sortMemoryContext} while sorting. If they cannot be
+     * reserved, the positions are sorted with the compiled ordering instead.
+     */
+    public void sort(List<Integer> sortChannels, List<SortOrder> sortOrders, int startPosition, int endPosition, LocalMemoryContext sortMemoryContext)
+    {
+        if (normalizedKeySort && !sortChannels.isEmpty() && endPosition - startPosition >= NormalizedKeySorter.MIN_POSITION_COUNT) {
+            Type keyType = types.get(sortChannels.get(0));
+            long reservedBytes = sortMemoryContext.getBytes();
+            if (NormalizedKeySorter.isSupported(keyType) && sortMemoryContext.trySetBytes(reservedBytes + NormalizedKeySorter.getSortBufferSizeInBytes(endPosition - startPosition))) {
+                try {
+                    Optional<PagesIndexOrdering> tieBreaker = Optional.empty();
+                    if (sortChannels.size() > 1) {
+                        tieBreaker = Optional.of(createPagesIndexComparator(sortChannels, sortOrders));
+                    }
+                    NormalizedKeySorter.sort(this, keyType, sortChannels.get(0), sortOrders.get(0), tieBreaker, startPosition, endPosition);
+                }
+                finally {
+                    sortMemoryContext.setBytes(reservedBytes);
+                }
+                return;
+            }
+        }
+        sort(sortChannels, sortOrders, startPosition, endPosition);
+    }
+
     public boolean positionEqualsPosition(PagesHashStrategy partitionHashStrategy, int leftPosition, int rightPosition)
     {
         long leftAddress = valueAddresses.getLong(leftPosition);
@@ -127,6 +127,16 @@ public class PartitionedLookupSource
     @Nullable
     private final OuterPositionTracker outerPositionTracker;
 
+    // scratch arrays of the batched lookups, grown to the largest batch seen and reused after that
+    private final int[] partitionOffsets;
+    private final int[] nextIndexes;
+    private long[] hashes = new long[0];
+    private int[] partitions = new int[0];
+    private int[] sortedIndexes = new int[0];
+    private int[] partitionPositions = new int[0];
+    private long[] partitionHashes = new long[0];
+    private long[] partitionJoinPositions = new long[0];
+
     private boolean closed;
 
     private PartitionedLookupSource(List<? extends LookupSource> lookupSources, List<Type> hashChannelTypes, Optional<OuterPositionTracker> outerPositionTracker)
@@ -144,6 +154,8 @@ public class PartitionedLookupSource
         this.partitionMask = lookupSources.size() - 1;
         this.shiftSize = numberOfTrailingZeros(lookupSources.size()) + 1;
         this.outerPositionTracker = outerPositionTracker.orElse(null);
+        this.partitionOffsets = new int[lookupSources.size() + 1];
+        this.nextIndexes = new int[lookupSources.size()];
     }
 
     @Override
@@ -190,6 +202,64 @@ public class PartitionedLookupSource
         return encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
     }
 
+    @Override
+    public void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, @Nullable long[] rawHashes, long[] joinPositions)
+    {
+        ensureBatchCapacity(positionCount);
+
+        long[] positionHashes = rawHashes;
+        if (positionHashes == null) {
+            positionHashes = hashes;
+            for (int i = 0; i < positionCount; i++) {
+                positionHashes[i] = partitionGenerator.getRawHash(hashChannelsPage, positions[i]);
+            }
+        }
+
+        // group the positions by partition, so each partition is probed with a single batch
+        Arrays.fill(partitionOffsets, 0);
+        for (int i = 0; i < positionCount; i++) {
+            partitions[i] = partitionGenerator.getPartition(positionHashes[i]);
+            partitionOffsets[partitions[i] + 1]++;
+        }
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            partitionOffsets[partition + 1] += partitionOffsets[partition];
+        }
+        System.arraycopy(partitionOffsets, 0, nextIndexes, 0, lookupSources.length);
+        for (int i = 0; i < positionCount; i++) {
+            sortedIndexes[nextIndexes[partitions[i]]++] = i;
+        }
+
+        for (int partition = 0; partition < lookupSources.length; partition++) {
+            int start = partitionOffsets[partition];
+            int count = partitionOffsets[partition + 1] - start;
+            if (count == 0) {
+                continue;
+            }
+            for (int i = 0; i < count; i++) {
+                partitionPositions[i] = positions[sortedIndexes[start + i]];
+                partitionHashes[i] = positionHashes[sortedIndexes[start + i]];
+            }
+            lookupSources[partition].getJoinPositions(partitionPositions, count, hashChannelsPage, allChannelsPage, partitionHashes, partitionJoinPositions);
+            for (int i = 0; i < count; i++) {
+                long joinPosition = partitionJoinPositions[i];
+                joinPositions[sortedIndexes[start + i]] = joinPosition < 0 ? joinPosition : encodePartitionedJoinPosition(partition, toIntExact(joinPosition));
+            }
+        }
+    }
+
+    private void ensureBatchCapacity(int positionCount)
+    {
+        if (partitions.length >= positionCount) {
+            return;
+        }
+        hashes = new long[positionCount];
+        partitions = new int[positionCount];
+        sortedIndexes = new int[positionCount];
+        partitionPositions = new int[positionCount];
+        partitionHashes = new long[positionCount];
+        partitionJoinPositions = new long[positionCount];
+    }
+
     @Override
     public long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage)
     {
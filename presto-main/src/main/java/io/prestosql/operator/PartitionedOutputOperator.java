@@ -37,12 +37,14 @@ import io.prestosql.spi.type.Type;
 import io.prestosql.util.Mergeable;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Function;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -383,6 +385,7 @@ public class PartitionedOutputOperator
         private final OptionalInt nullChannel; // when present, send the position to every partition if this channel is null.
         private final AtomicLong rowsAdded = new AtomicLong();
         private final AtomicLong pagesAdded = new AtomicLong();
+        private final AtomicLongArray partitionRowsAdded;
         private boolean hasAnyRowBeenReplicated;
         private final OperatorContext operatorContext;
 
@@ -418,6 +421,7 @@ public class PartitionedOutputOperator
             for (int i = 0; i < partitionCount; i++) {
                 pageBuilders[i] = PageBuilder.withMaxPageSize(pageSize, sourceTypes);
             }
+            this.partitionRowsAdded = new AtomicLongArray(partitionCount);
         }
 
         public ListenableFuture<?> isFull()
@@ -450,7 +454,11 @@ public class PartitionedOutputOperator
 
         public PartitionedOutputInfo getInfo()
         {
-            return new PartitionedOutputInfo(rowsAdded.get(), pagesAdded.get(), outputBuffer.getPeakMemoryUsage());
+            long[] partitionRows = new long[partitionRowsAdded.length()];
+            for (int partition = 0; partition < partitionRows.length; partition++) {
+                partitionRows[partition] = partitionRowsAdded.get(partition);
+            }
+            return new PartitionedOutputInfo(rowsAdded.get(), pagesAdded.get(), outputBuffer.getPeakMemoryUsage(), partitionRows);
         }
 
         public void partitionPage(Page page)
@@ -524,6 +532,7 @@ public class PartitionedOutputOperator
                     }
                     pagesAdded.incrementAndGet();
                     rowsAdded.addAndGet(pagePartition.getPositionCount());
+                    partitionRowsAdded.addAndGet(partition, pagePartition.getPositionCount());
                 }
             }
         }
@@ -538,6 +547,10 @@ public class PartitionedOutputOperator
             }
             myState.rowsAdded = rowsAdded.get();
             myState.pagesAdded = pagesAdded.get();
+            myState.partitionRowsAdded = new long[partitionRowsAdded.length()];
+            for (int i = 0; i < myState.partitionRowsAdded.length; i++) {
+                myState.partitionRowsAdded[i] = partitionRowsAdded.get(i);
+            }
             myState.hasAnyRowBeenReplicated = hasAnyRowBeenReplicated;
             return myState;
         }
@@ -548,6 +561,9 @@ public class PartitionedOutputOperator
             PagePartitionerState myState = (PagePartitionerState) state;
             this.rowsAdded.set(myState.rowsAdded);
             this.pagesAdded.set(myState.pagesAdded);
+            for (int i = 0; i < this.partitionRowsAdded.length(); i++) {
+                this.partitionRowsAdded.set(i, myState.partitionRowsAdded[i]);
+            }
             this.hasAnyRowBeenReplicated = myState.hasAnyRowBeenReplicated;
         }
 
@@ -556,6 +572,7 @@ public class PartitionedOutputOperator
         {
             private long rowsAdded;
             private long pagesAdded;
+            private long[] partitionRowsAdded;
             private boolean hasAnyRowBeenReplicated;
         }
     }
@@ -566,16 +583,19 @@ public class PartitionedOutputOperator
         private final long rowsAdded;
         private final long pagesAdded;
         private final long outputBufferPeakMemoryUsage;
+        private final long[] partitionRowsAdded;
 
         @JsonCreator
         public PartitionedOutputInfo(
                 @JsonProperty("rowsAdded") long rowsAdded,
                 @JsonProperty("pagesAdded") long pagesAdded,
-                @JsonProperty("outputBufferPeakMemoryUsage") long outputBufferPeakMemoryUsage)
+                @JsonProperty("outputBufferPeakMemoryUsage") long outputBufferPeakMemoryUsage,
+                @JsonProperty("partitionRowsAdded") long[] partitionRowsAdded)
         {
             this.rowsAdded = rowsAdded;
             this.pagesAdded = pagesAdded;
             this.outputBufferPeakMemoryUsage = outputBufferPeakMemoryUsage;
+            this.partitionRowsAdded = requireNonNull(partitionRowsAdded, "partitionRowsAdded is null");
         }
 
         @JsonProperty
@@ -596,13 +616,48 @@ public class PartitionedOutputOperator
             return outputBufferPeakMemoryUsage;
         }
 
+        /**
+         * Rows sent to each output partition. Merged over all tasks of a stage, this shows
+         * how evenly the rows are distributed over the tasks of the consuming stage.
+         * Empty when the merged infos have different partition counts.
+         */
+        @JsonProperty
+        public long[] getPartitionRowsAdded()
+        {
+            return partitionRowsAdded.clone();
+        }
+
+        /**
+         * Ratio of the rows sent to the largest partition to the average rows per partition.
+         * 1 means the rows are evenly distributed, while a ratio close to the partition count
+         * means most rows go to a single partition, typically because of a few frequent keys.
+         */
+        public double getPartitionSkew()
+        {
+            long totalRows = Arrays.stream(partitionRowsAdded).sum();
+            if (totalRows == 0) {
+                return 1;
+            }
+            long maxRows = Arrays.stream(partitionRowsAdded).max().getAsLong();
+            return (double) maxRows * partitionRowsAdded.length / totalRows;
+        }
+
         @Override
         public PartitionedOutputInfo mergeWith(PartitionedOutputInfo other)
         {
+            // rows of different partitionings cannot be added up, so the histogram is dropped
+            long[] mergedPartitionRows = new long[0];
+            if (partitionRowsAdded.length == other.partitionRowsAdded.length) {
+                mergedPartitionRows = new long[partitionRowsAdded.length];
+                for (int partition = 0; partition < mergedPartitionRows.length; partition++) {
+                    mergedPartitionRows[partition] = partitionRowsAdded[partition] + other.partitionRowsAdded[partition];
+                }
+            }
             return new PartitionedOutputInfo(
                     rowsAdded + other.rowsAdded,
                     pagesAdded + other.pagesAdded,
-                    Math.max(outputBufferPeakMemoryUsage, other.outputBufferPeakMemoryUsage));
+                    Math.max(outputBufferPeakMemoryUsage, other.outputBufferPeakMemoryUsage),
+                    mergedPartitionRows);
         }
 
         @Override
@@ -618,6 +673,7 @@ public class PartitionedOutputOperator
                     .add("rowsAdded", rowsAdded)
                     .add("pagesAdded", pagesAdded)
                     .add("outputBufferPeakMemoryUsage", outputBufferPeakMemoryUsage)
+                    .add("partitionSkew", getPartitionSkew())
                     .toString();
         }
     }
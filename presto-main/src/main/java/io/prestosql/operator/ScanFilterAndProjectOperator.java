@@ -73,6 +73,7 @@ import static io.prestosql.operator.PageUtils.recordMaterializedBytes;
 import static io.prestosql.operator.WorkProcessor.TransformationState.finished;
 import static io.prestosql.operator.WorkProcessor.TransformationState.ofResult;
 import static io.prestosql.operator.project.MergePages.mergePages;
+import static io.prestosql.spi.operator.ReuseExchangeOperator.STRATEGY.REUSE_STRATEGY_DEFAULT;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
@@ -109,7 +110,8 @@ public class ScanFilterAndProjectOperator
             Optional<StateStoreProvider> stateStoreProviderOptional,
             Optional<QueryId> queryIdOptional,
             Optional<Metadata> metadataOptional,
-            Optional<DynamicFilterCacheManager> dynamicFilterCacheManagerOptional)
+            Optional<DynamicFilterCacheManager> dynamicFilterCacheManagerOptional,
+            boolean lateMaterialization)
     {
         pages = splits.flatTransform(
                 new SplitToPages(
@@ -129,7 +131,8 @@ public class ScanFilterAndProjectOperator
                         stateStoreProviderOptional,
                         queryIdOptional,
                         metadataOptional,
-                        dynamicFilterCacheManagerOptional));
+                        dynamicFilterCacheManagerOptional,
+                        lateMaterialization));
     }
 
     @Override
@@ -220,6 +223,7 @@ public class ScanFilterAndProjectOperator
         final Optional<Metadata> metadataOptional;
         final Optional<DynamicFilterCacheManager> dynamicFilterCacheManagerOptional;
         final int minOutputPageRowCount;
+        final boolean lateMaterialization;
 
         SplitToPages(
                 Session session,
@@ -238,7 +242,8 @@ public class ScanFilterAndProjectOperator
                 Optional<StateStoreProvider> stateStoreProviderOptional,
                 Optional<QueryId> queryIdOptional,
                 Optional<Metadata> metadataOptional,
-                Optional<DynamicFilterCacheManager> dynamicFilterCacheManagerOptional)
+                Optional<DynamicFilterCacheManager> dynamicFilterCacheManagerOptional,
+                boolean lateMaterialization)
         {
             this.session = requireNonNull(session, "session is null");
             this.yieldSignal = requireNonNull(yieldSignal, "yieldSignal is null");
@@ -260,6 +265,7 @@ public class ScanFilterAndProjectOperator
             this.queryIdOptional = queryIdOptional;
             this.metadataOptional = metadataOptional;
             this.dynamicFilterCacheManagerOptional = dynamicFilterCacheManagerOptional;
+            this.lateMaterialization = lateMaterialization;
         }
 
         @Override
@@ -307,8 +313,10 @@ public class ScanFilterAndProjectOperator
                             session.toConnectorSession(),
                             yieldSignal,
                             outputMemoryContext,
-                            page))
-                    .transformProcessor(processor -> mergePages(types, minOutputPageSize.toBytes(), minOutputPageRowCount, processor, localAggregatedMemoryContext))
+                            page,
+                            lateMaterialization))
+                    // merging copies the positions, which would load the lazy blocks the consumer may never read
+                    .transformProcessor(processor -> lateMaterialization ? processor : mergePages(types, minOutputPageSize.toBytes(), minOutputPageRowCount, processor, localAggregatedMemoryContext))
                     .withProcessStateMonitor(state -> memoryContext.setBytes(localAggregatedMemoryContext.getBytes()));
         }
     }
@@ -556,6 +564,7 @@ public class ScanFilterAndProjectOperator
         private final Optional<SpillerFactory> spillerFactory;
         private final Integer spillerThreshold;
         private final Integer consumerTableScanNodeCount;
+        private boolean lateMaterialization;
 
         public ScanFilterAndProjectOperatorFactory(
                 Session session,
@@ -659,7 +668,17 @@ public class ScanFilterAndProjectOperator
         {
             checkState(!closed, "Factory is already closed");
             OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, getOperatorType());
-            return new WorkProcessorSourceOperatorAdapter(operatorContext, this, strategy, reuseTableScanMappingId, spillEnabled, types, spillerFactory, spillerThreshold, consumerTableScanNodeCount);
+            return new WorkProcessorSourceOperatorAdapter(operatorContext, this, strategy, reuseTableScanMappingId, spillEnabled, types, spillerFactory, spillerThreshold, consumerTableScanNodeCount, lateMaterialization);
+        }
+
+        /**
+         * Pass output pages on without loading their lazy blocks. Only valid when the next operator
+         * finishes processing a page before it accepts the next one (e.g. lookup join probe).
+         */
+        public void enableLateMaterialization()
+        {
+            checkState(!closed, "Factory is already closed");
+            this.lateMaterialization = true;
         }
 
         @Override
@@ -687,7 +706,8 @@ public class ScanFilterAndProjectOperator
                     this.stateStoreProviderOptional,
                     queryIdOptional,
                     metadataOptional,
-                    dynamicFilterCacheManagerOptional);
+                    dynamicFilterCacheManagerOptional,
+                    lateMaterialization && strategy.equals(REUSE_STRATEGY_DEFAULT));
         }
 
         @Override
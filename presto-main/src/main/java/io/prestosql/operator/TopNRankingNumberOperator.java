@@ -16,34 +16,61 @@ package io.prestosql.operator;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.log.Logger;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.operator.WorkProcessor.ProcessState;
 import io.prestosql.operator.window.RankingFunction;
 import io.prestosql.snapshot.SingleInputSnapshotState;
+import io.prestosql.snapshot.Spillable;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.plan.PlanNodeId;
 import io.prestosql.spi.snapshot.BlockEncodingSerdeProvider;
 import io.prestosql.spi.snapshot.RestorableConfig;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.Spiller;
+import io.prestosql.spiller.SpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.Serializable;
-import java.util.Iterator;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.SystemSessionProperties.isDictionaryAggregationEnabled;
+import static io.prestosql.SystemSessionProperties.isSpillToHdfsEnabled;
 import static io.prestosql.operator.GroupByHash.createGroupByHash;
+import static io.prestosql.operator.window.RankingFunction.DENSE_RANK;
+import static io.prestosql.operator.window.RankingFunction.ROW_NUMBER;
+import static io.prestosql.spi.block.SortOrder.ASC_NULLS_LAST;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.util.MergeSortedPages.mergeSortedPages;
 import static java.util.Objects.requireNonNull;
 
-@RestorableConfig(uncapturedFields = {"outputChannels", "unfinishedWork", "outputIterator", "rankingFunction", "snapshotState"})
+// - spillInProgress: must be "done" when markers are received
+// - finishMemoryRevoke: must be empty, because new input (including markers) can't be added until finishMemoryRevoke is called
+// - spillRequested: must be false, because it is only set while there is unfinished work
+// - producingOutput, outputPages, previousRow, rowNumber, rankingNumber: only used after finish, when no more markers are received
+@RestorableConfig(uncapturedFields = {"outputChannels", "unfinishedWork", "outputPages", "rankingFunction", "snapshotState",
+        "sourceTypes", "partitionChannels", "partitionTypes", "maxRowCountPerPartition", "generateRankingNumber", "hashChannel",
+        "expectedPositions", "joinCompiler", "comparator", "spillEnabled", "spillerFactory", "pagesIndexFactory", "isSpillToHdfsEnabled",
+        "spillSortChannels", "spillSortOrders", "partitionComparator", "peerComparator", "spillInProgress", "finishMemoryRevoke", "spillRequested",
+        "producingOutput", "previousRow", "rowNumber", "rankingNumber"})
 public class TopNRankingNumberOperator
-        implements Operator
+        implements Operator, Spillable
 {
+    private static final Logger LOG = Logger.get(TopNRankingNumberOperator.class);
+
     public static class TopNRankingNumberOperatorFactory
             implements OperatorFactory
     {
@@ -66,6 +93,9 @@ public class TopNRankingNumberOperator
         private boolean closed;
         private final JoinCompiler joinCompiler;
         private final Optional<RankingFunction> rankingFunction;
+        private final boolean spillEnabled;
+        private final Optional<SpillerFactory> spillerFactory;
+        private final PagesIndex.Factory pagesIndexFactory;
 
         public TopNRankingNumberOperatorFactory(
                 int operatorId,
@@ -81,7 +111,10 @@ public class TopNRankingNumberOperator
                 Optional<Integer> hashChannel,
                 int expectedPositions,
                 JoinCompiler joinCompiler,
-                Optional<RankingFunction> rankingFunction)
+                Optional<RankingFunction> rankingFunction,
+                boolean spillEnabled,
+                Optional<SpillerFactory> spillerFactory,
+                PagesIndex.Factory pagesIndexFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -101,6 +134,10 @@ public class TopNRankingNumberOperator
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
 
             this.rankingFunction = requireNonNull(rankingFunction, "rankingFunction is null");
+            this.spillEnabled = spillEnabled;
+            this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+            checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
+            this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
         }
 
         @Override
@@ -121,7 +158,10 @@ public class TopNRankingNumberOperator
                     hashChannel,
                     expectedPositions,
                     joinCompiler,
-                    rankingFunction);
+                    rankingFunction,
+                    spillEnabled,
+                    spillerFactory,
+                    pagesIndexFactory);
         }
 
         @Override
@@ -133,23 +173,54 @@ public class TopNRankingNumberOperator
         @Override
         public TopNRankingNumberOperatorFactory duplicate()
         {
-            return new TopNRankingNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrder, maxRowCountPerPartition, partial, hashChannel, expectedPositions, joinCompiler, rankingFunction);
+            return new TopNRankingNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrder, maxRowCountPerPartition, partial, hashChannel, expectedPositions, joinCompiler, rankingFunction, spillEnabled, spillerFactory, pagesIndexFactory);
         }
     }
 
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
     private final List<Integer> outputChannels;
-
-    private final GroupByHash groupByHash;
-    private final GroupedTopNBuilder groupedTopNBuilder;
+    private final List<Type> sourceTypes;
+    private final List<Integer> partitionChannels;
+    private final List<Type> partitionTypes;
+    private final int maxRowCountPerPartition;
+    private final boolean generateRankingNumber;
+    private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+    private final JoinCompiler joinCompiler;
+
+    private GroupByHash groupByHash;
+    private GroupedTopNBuilder groupedTopNBuilder;
+    private final PageWithPositionComparator comparator;
 
     private boolean finishing;
     private Work<?> unfinishedWork;
-    private Iterator<Page> outputIterator;
+    private WorkProcessor<Page> outputPages;
     private Optional<RankingFunction> rankingFunction;
 
+    private final boolean spillEnabled;
+    private final Optional<SpillerFactory> spillerFactory;
+    private final PagesIndex.Factory pagesIndexFactory;
+    private final boolean isSpillToHdfsEnabled;
+    // spilled runs are sorted by the partition channels and then by the sort channels
+    private final List<Integer> spillSortChannels;
+    private final List<SortOrder> spillSortOrders;
+    private final PageWithPositionComparator partitionComparator;
+    private final PageWithPositionComparator peerComparator;
+    private Optional<Spiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+    private Runnable finishMemoryRevoke = () -> {};
+    // a memory revoke arrived while a page was being processed, so its rows are spilled once the page is done
+    private boolean spillRequested;
+    private boolean producingOutput;
+
+    // the last row of the previous merged page, and its numbers in its partition
+    private Page previousRow;
+    private long rowNumber;
+    private long rankingNumber;
+
     private final SingleInputSnapshotState snapshotState;
 
     public TopNRankingNumberOperator(
@@ -165,10 +236,14 @@ public class TopNRankingNumberOperator
             Optional<Integer> hashChannel,
             int expectedPositions,
             JoinCompiler joinCompiler,
-            Optional<RankingFunction> rankingFunction)
+            Optional<RankingFunction> rankingFunction,
+            boolean spillEnabled,
+            Optional<SpillerFactory> spillerFactory,
+            PagesIndex.Factory pagesIndexFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
 
         ImmutableList.Builder<Integer> outputChannelsBuilder = ImmutableList.builder();
         for (int channel : requireNonNull(outputChannels, "outputChannels is null")) {
@@ -180,30 +255,33 @@ public class TopNRankingNumberOperator
         this.outputChannels = outputChannelsBuilder.build();
 
         checkArgument(maxRowCountPerPartition > 0, "maxRowCountPerPartition must be > 0");
-
-        if (!partitionChannels.isEmpty()) {
-            checkArgument(expectedPositions > 0, "expectedPositions must be > 0");
-            groupByHash = createGroupByHash(
-                    partitionTypes,
-                    Ints.toArray(partitionChannels),
-                    hashChannel,
-                    expectedPositions,
-                    isDictionaryAggregationEnabled(operatorContext.getSession()),
-                    joinCompiler,
-                    this::updateMemoryReservation);
-        }
-        else {
-            groupByHash = new NoChannelGroupByHash();
-        }
+        checkArgument(partitionChannels.isEmpty() || expectedPositions > 0, "expectedPositions must be > 0");
+        this.sourceTypes = ImmutableList.copyOf(sourceTypes);
+        this.partitionChannels = ImmutableList.copyOf(partitionChannels);
+        this.partitionTypes = ImmutableList.copyOf(partitionTypes);
+        this.maxRowCountPerPartition = maxRowCountPerPartition;
+        this.generateRankingNumber = generateRankingNumber;
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.rankingFunction = requireNonNull(rankingFunction, "rankingFunction is null");
 
         List<Type> types = toTypes(sourceTypes, outputChannels, generateRankingNumber);
-        this.groupedTopNBuilder = new GroupedTopNBuilder(
-                ImmutableList.copyOf(sourceTypes),
-                new SimplePageWithPositionComparator(types, sortChannels, sortOrders),
-                maxRowCountPerPartition,
-                generateRankingNumber,
-                rankingFunction,
-                groupByHash);
+        this.comparator = new SimplePageWithPositionComparator(types, sortChannels, sortOrders);
+        this.groupByHash = newGroupByHash();
+        this.groupedTopNBuilder = newGroupedTopNBuilder();
+
+        // spilled runs are merged by the partition channels, which requires them to be orderable
+        this.spillEnabled = spillEnabled && this.partitionTypes.stream().allMatch(Type::isOrderable);
+        this.spillerFactory = requireNonNull(spillerFactory, "spillerFactory is null");
+        checkArgument(!spillEnabled || spillerFactory.isPresent(), "Spiller Factory is not present when spill is enabled");
+        this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
+        this.isSpillToHdfsEnabled = isSpillToHdfsEnabled(operatorContext.getSession());
+        List<SortOrder> partitionSortOrders = Collections.nCopies(partitionChannels.size(), ASC_NULLS_LAST);
+        this.spillSortChannels = ImmutableList.<Integer>builder().addAll(partitionChannels).addAll(sortChannels).build();
+        this.spillSortOrders = ImmutableList.<SortOrder>builder().addAll(partitionSortOrders).addAll(sortOrders).build();
+        this.partitionComparator = new SimplePageWithPositionComparator(this.sourceTypes, partitionChannels, partitionSortOrders);
+        this.peerComparator = new SimplePageWithPositionComparator(this.sourceTypes, sortChannels, sortOrders);
 
         this.snapshotState = operatorContext.isSnapshotEnabled() ? SingleInputSnapshotState.forOperator(this, operatorContext) : null;
     }
@@ -229,14 +307,26 @@ public class TopNRankingNumberOperator
         }
 
         // has no more input, has finished flushing, and has no unfinished work
-        return finishing && outputIterator != null && !outputIterator.hasNext() && unfinishedWork == null;
+        return finishing && outputPages != null && outputPages.isFinished() && unfinishedWork == null;
     }
 
     @Override
     public boolean needsInput()
     {
-        // still has more input, has not started flushing yet, and has no unfinished work
-        return !finishing && outputIterator == null && unfinishedWork == null;
+        // still has more input, has not started flushing yet, has no unfinished work and is not spilling
+        return !finishing && outputPages == null && unfinishedWork == null && spillInProgress.isDone();
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (!spillInProgress.isDone()) {
+            return spillInProgress;
+        }
+        if (outputPages != null && outputPages.isBlocked()) {
+            return outputPages.getBlockedFuture();
+        }
+        return NOT_BLOCKED;
     }
 
     @Override
@@ -244,8 +334,10 @@ public class TopNRankingNumberOperator
     {
         checkState(!finishing, "Operator is already finishing");
         checkState(unfinishedWork == null, "Cannot add input with the operator when unfinished work is not empty");
-        checkState(outputIterator == null, "Cannot add input with the operator when flushing");
+        checkState(outputPages == null, "Cannot add input with the operator when flushing");
+        checkState(spillInProgress.isDone(), "Cannot add input with the operator when spilling");
         requireNonNull(page, "page is null");
+        finishSpill();
 
         if (snapshotState != null) {
             if (snapshotState.processPage(page)) {
@@ -254,10 +346,11 @@ public class TopNRankingNumberOperator
         }
 
         unfinishedWork = groupedTopNBuilder.processPage(page);
-        if (unfinishedWork.process()) {
-            unfinishedWork = null;
-        }
+        boolean finished = unfinishedWork.process();
         updateMemoryReservation();
+        if (finished) {
+            finishUnfinishedWork();
+        }
     }
 
     @Override
@@ -276,32 +369,232 @@ public class TopNRankingNumberOperator
             if (!finished) {
                 return null;
             }
-            unfinishedWork = null;
+            finishUnfinishedWork();
+        }
+
+        if (!spillInProgress.isDone()) {
+            return null;
         }
+        finishSpill();
 
         if (!finishing) {
             return null;
         }
 
-        if (outputIterator == null) {
+        if (outputPages == null) {
             // start flushing
-            outputIterator = groupedTopNBuilder.buildResult();
+            outputPages = buildResult();
         }
 
         Page output = null;
-        if (outputIterator.hasNext()) {
-            Page page = outputIterator.next();
+        if (outputPages.process() && !outputPages.isFinished()) {
+            Page page = outputPages.getResult();
             // rewrite to expected column ordering
             Block[] blocks = new Block[page.getChannelCount()];
             for (int i = 0; i < outputChannels.size(); i++) {
                 blocks[i] = page.getBlock(outputChannels.get(i));
             }
-            output = new Page(blocks);
+            output = new Page(page.getPositionCount(), blocks);
+        }
+        if (spillInProgress.isDone()) {
+            // the rows of the last run stay accounted until they are written
+            updateMemoryReservation();
         }
-        updateMemoryReservation();
         return output;
     }
 
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        if (producingOutput) {
+            // all revocable memory has been converted to user memory when the output was started
+            return NOT_BLOCKED;
+        }
+        if (!spillInProgress.isDone()) {
+            // the rows of the last processed page are already being spilled
+            return spillInProgress;
+        }
+        if (unfinishedWork != null) {
+            // the rows of a page must not be split between spilled runs, so they are spilled once the page is processed
+            spillRequested = true;
+            return NOT_BLOCKED;
+        }
+        return spillToDisk();
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        if (producingOutput) {
+            // nothing was spilled by the revoke, and the output finishes its own spill
+            return;
+        }
+        finishSpill();
+    }
+
+    private void finishUnfinishedWork()
+    {
+        unfinishedWork = null;
+        if (spillRequested) {
+            spillRequested = false;
+            spillToDisk();
+        }
+    }
+
+    private void finishSpill()
+    {
+        getFutureValue(spillInProgress);
+        finishMemoryRevoke.run();
+        finishMemoryRevoke = () -> {};
+    }
+
+    private WorkProcessor<Page> buildResult()
+    {
+        checkState(spillInProgress.isDone(), "Previous spill hasn't yet finished");
+        producingOutput = true;
+
+        boolean spillRemainingRows = spiller.isPresent();
+        // Convert revocable memory to user memory as the output holds on to the heaps so we no longer can revoke.
+        if (localRevocableMemoryContext.getBytes() > 0) {
+            long currentRevocableBytes = localRevocableMemoryContext.getBytes();
+            localRevocableMemoryContext.setBytes(0);
+            if (!localUserMemoryContext.trySetBytes(localUserMemoryContext.getBytes() + currentRevocableBytes)) {
+                // spill since revocable memory could not be converted to user memory immediately
+                localRevocableMemoryContext.setBytes(currentRevocableBytes);
+                spillRemainingRows = true;
+            }
+        }
+
+        if (!spillRemainingRows) {
+            updateMemoryReservation();
+            return WorkProcessor.fromIterator(groupedTopNBuilder.buildResult());
+        }
+
+        // the rows left in memory are spilled as one more run, so that all the runs can be merged once it is written
+        spillToDisk();
+        return WorkProcessor.create(new SpilledRunsMerge())
+                .flatMap(mergedPages -> mergedPages);
+    }
+
+    private WorkProcessor<Page> mergeSpilledRuns()
+    {
+        if (!spiller.isPresent()) {
+            // there were no rows to spill
+            return WorkProcessor.fromIterator(groupedTopNBuilder.buildResult());
+        }
+        WorkProcessor<Page> mergedPages = mergeSortedPages(
+                spiller.get().getSpills().stream()
+                        .map(WorkProcessor::fromIterator)
+                        .collect(toImmutableList()),
+                new SimplePageWithPositionComparator(sourceTypes, spillSortChannels, spillSortOrders),
+                sourceTypes,
+                operatorContext.aggregateUserMemoryContext(),
+                operatorContext.getDriverContext().getYieldSignal());
+        return mergedPages.map(this::rankMergedRows);
+    }
+
+    // Spilled runs are only merged when producing output, after all input was consumed
+    @RestorableConfig(unsupported = true)
+    private class SpilledRunsMerge
+            implements WorkProcessor.Process<WorkProcessor<Page>>
+    {
+        private boolean merged;
+
+        @Override
+        public ProcessState<WorkProcessor<Page>> process()
+        {
+            if (merged) {
+                return ProcessState.finished();
+            }
+            if (!spillInProgress.isDone()) {
+                return ProcessState.blocked(spillInProgress);
+            }
+            finishSpill();
+            merged = true;
+            return ProcessState.ofResult(mergeSpilledRuns());
+        }
+    }
+
+    private ListenableFuture<?> spillToDisk()
+    {
+        checkState(spillInProgress.isDone(), "Previous spill hasn't yet finished");
+        if (groupByHash.getGroupCount() == 0) {
+            finishMemoryRevoke = this::updateMemoryReservation;
+            return spillInProgress;
+        }
+
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(createSpiller());
+        }
+
+        // the top rows of every partition are spilled as a run sorted by partition, so that the runs can be merged
+        PagesIndex pagesIndex = pagesIndexFactory.newPagesIndex(sourceTypes, groupByHash.getGroupCount());
+        groupedTopNBuilder.buildResult().forEachRemaining(pagesIndex::addPage);
+        pagesIndex.sort(spillSortChannels, spillSortOrders);
+        groupByHash = newGroupByHash();
+        groupedTopNBuilder = newGroupedTopNBuilder();
+
+        // the sorted rows stay accounted as revocable memory until they are written
+        localRevocableMemoryContext.setBytes(pagesIndex.getEstimatedSize().toBytes() + groupedTopNBuilder.getEstimatedSizeInBytes());
+        spillInProgress = spiller.get().spill(pagesIndex.getSortedPages());
+        LOG.debug("spilling to disk initiated by TopN Ranking Number operator");
+        finishMemoryRevoke = () -> {
+            pagesIndex.clear();
+            updateMemoryReservation();
+        };
+        return spillInProgress;
+    }
+
+    private Spiller createSpiller()
+    {
+        return spillerFactory.get().create(
+                sourceTypes,
+                operatorContext.getSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext(),
+                operatorContext.isSnapshotEnabled(),
+                operatorContext.getDriverContext().getTaskId().getQueryId().toString(),
+                isSpillToHdfsEnabled);
+    }
+
+    /**
+     * Numbers the merged rows of the spilled runs within their partitions, and keeps the rows that are in the top N.
+     * Each run has the top N rows of its partitions, so the ranking numbers of the kept rows are exact.
+     */
+    private Page rankMergedRows(Page page)
+    {
+        RankingFunction ranking = rankingFunction.orElse(ROW_NUMBER);
+        int[] retainedPositions = new int[page.getPositionCount()];
+        int retainedPositionCount = 0;
+        BlockBuilder rankingNumbers = BIGINT.createBlockBuilder(null, page.getPositionCount());
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            Page previousPage = position == 0 ? previousRow : page;
+            int previousPosition = position == 0 ? 0 : position - 1;
+            boolean newPartition = previousPage == null || partitionComparator.compareTo(previousPage, previousPosition, page, position) != 0;
+            if (newPartition) {
+                rowNumber = 0;
+                rankingNumber = 0;
+            }
+            rowNumber++;
+            if (newPartition || ranking == ROW_NUMBER || peerComparator.compareTo(previousPage, previousPosition, page, position) != 0) {
+                rankingNumber = ranking == DENSE_RANK ? rankingNumber + 1 : rowNumber;
+            }
+            if (rankingNumber <= maxRowCountPerPartition) {
+                retainedPositions[retainedPositionCount] = position;
+                retainedPositionCount++;
+                BIGINT.writeLong(rankingNumbers, rankingNumber);
+            }
+        }
+        if (page.getPositionCount() > 0) {
+            previousRow = page.getSingleValuePage(page.getPositionCount() - 1);
+        }
+
+        Page retainedRows = page.getPositions(retainedPositions, 0, retainedPositionCount);
+        if (generateRankingNumber) {
+            return retainedRows.appendColumn(rankingNumbers.build());
+        }
+        return retainedRows;
+    }
+
     @Override
     public Page pollMarker()
     {
@@ -317,11 +610,44 @@ public class TopNRankingNumberOperator
 
     private boolean updateMemoryReservation()
     {
+        if (spillEnabled && !producingOutput) {
+            // the heaps can be spilled until the output is produced
+            localUserMemoryContext.setBytes(0);
+            localRevocableMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
+            return true;
+        }
         // TODO: may need to use trySetMemoryReservation with a compaction to free memory (but that may cause GC pressure)
+        localRevocableMemoryContext.setBytes(0);
         localUserMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
         return operatorContext.isWaitingForMemory().isDone();
     }
 
+    private GroupByHash newGroupByHash()
+    {
+        if (partitionChannels.isEmpty()) {
+            return new NoChannelGroupByHash();
+        }
+        return createGroupByHash(
+                partitionTypes,
+                Ints.toArray(partitionChannels),
+                hashChannel,
+                expectedPositions,
+                isDictionaryAggregationEnabled(operatorContext.getSession()),
+                joinCompiler,
+                this::updateMemoryReservation);
+    }
+
+    private GroupedTopNBuilder newGroupedTopNBuilder()
+    {
+        return new GroupedTopNBuilder(
+                sourceTypes,
+                comparator,
+                maxRowCountPerPartition,
+                generateRankingNumber,
+                rankingFunction,
+                groupByHash);
+    }
+
     private static List<Type> toTypes(List<? extends Type> sourceTypes, List<Integer> outputChannels, boolean generateRowNumber)
     {
         ImmutableList.Builder<Type> types = ImmutableList.builder();
@@ -334,9 +660,42 @@ public class TopNRankingNumberOperator
         return types.build();
     }
 
+    @Override
+    public boolean isSpilled()
+    {
+        return spiller.isPresent();
+    }
+
+    @Override
+    public boolean isSpillToHdfsEnabled()
+    {
+        return isSpillToHdfsEnabled;
+    }
+
+    @Override
+    public List<Path> getSpilledFilePaths()
+    {
+        if (isSpilled()) {
+            return spiller.get().getSpilledFilePaths(isSpillToHdfsEnabled);
+        }
+        return ImmutableList.of();
+    }
+
+    @Override
+    public List<Pair<Path, Long>> getSpilledFileInfo()
+    {
+        if (isSpilled()) {
+            return spiller.get().getSpilledFileInfo();
+        }
+        return ImmutableList.of();
+    }
+
     @Override
     public void close()
     {
+        spiller.ifPresent(Spiller::close);
+        spiller = Optional.empty();
+        localRevocableMemoryContext.setBytes(0);
         if (snapshotState != null) {
             snapshotState.close();
         }
@@ -348,9 +707,13 @@ public class TopNRankingNumberOperator
         TopNRankingNumberOperatorState myState = new TopNRankingNumberOperatorState();
         myState.operatorContext = operatorContext.capture(serdeProvider);
         myState.localUserMemoryContext = localUserMemoryContext.getBytes();
+        myState.localRevocableMemoryContext = localRevocableMemoryContext.getBytes();
         myState.groupByHash = groupByHash.capture(serdeProvider);
         myState.groupedTopNBuilder = groupedTopNBuilder.capture(serdeProvider);
         myState.finishing = finishing;
+        if (spiller.isPresent()) {
+            myState.spiller = spiller.get().capture(serdeProvider);
+        }
         return myState;
     }
 
@@ -360,9 +723,16 @@ public class TopNRankingNumberOperator
         TopNRankingNumberOperatorState myState = (TopNRankingNumberOperatorState) state;
         this.operatorContext.restore(myState.operatorContext, serdeProvider);
         this.localUserMemoryContext.setBytes(myState.localUserMemoryContext);
+        this.localRevocableMemoryContext.setBytes(myState.localRevocableMemoryContext);
         this.groupByHash.restore(myState.groupByHash, serdeProvider);
         this.groupedTopNBuilder.restore(myState.groupedTopNBuilder, serdeProvider);
         this.finishing = myState.finishing;
+        if (myState.spiller != null) {
+            if (!spiller.isPresent()) {
+                spiller = Optional.of(createSpiller());
+            }
+            spiller.get().restore(myState.spiller, serdeProvider);
+        }
     }
 
     private static class TopNRankingNumberOperatorState
@@ -370,8 +740,10 @@ public class TopNRankingNumberOperator
     {
         private Object operatorContext;
         private long localUserMemoryContext;
+        private long localRevocableMemoryContext;
         private Object groupByHash;
         private Object groupedTopNBuilder;
         private boolean finishing;
+        private Object spiller;
     }
 }
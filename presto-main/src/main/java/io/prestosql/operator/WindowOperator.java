@@ -28,6 +28,7 @@ import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.WorkProcessor.ProcessState;
 import io.prestosql.operator.WorkProcessor.Transformation;
 import io.prestosql.operator.WorkProcessor.TransformationState;
+import io.prestosql.operator.window.AggregateWindowFunction;
 import io.prestosql.operator.window.FramedWindowFunction;
 import io.prestosql.operator.window.WindowPartition;
 import io.prestosql.snapshot.SingleInputSnapshotState;
@@ -697,15 +698,18 @@ public class WindowOperator
         }
     }
 
-    @RestorableConfig(uncapturedFields = {"this$0"})
+    // memoryContext: accounts for state of the window functions, which is rebuilt after restore
+    @RestorableConfig(uncapturedFields = {"this$0", "memoryContext"})
     private class WindowPartitionsToOutputPages
             implements Transformation<WindowPartition, Page>
     {
         final PageBuilder pageBuilder;
+        final LocalMemoryContext memoryContext;
 
         WindowPartitionsToOutputPages()
         {
             pageBuilder = new PageBuilder(outputTypes);
+            memoryContext = operatorContext.aggregateUserMemoryContext().newLocalMemoryContext(WindowPartitionsToOutputPages.class.getSimpleName());
         }
 
         @Override
@@ -713,6 +717,7 @@ public class WindowOperator
         {
             boolean finishing = partition == null;
             if (finishing) {
+                memoryContext.close();
                 if (pageBuilder.isEmpty()) {
                     return TransformationState.finished();
                 }
@@ -726,6 +731,7 @@ public class WindowOperator
             while (!pageBuilder.isFull() && partition.hasNext()) {
                 partition.processNextRow(pageBuilder);
             }
+            memoryContext.setBytes(getWindowFunctionsSizeInBytes());
             if (!pageBuilder.isFull()) {
                 return needsMoreData();
             }
@@ -735,6 +741,17 @@ public class WindowOperator
             return TransformationState.ofResult(page, !partition.hasNext());
         }
 
+        private long getWindowFunctionsSizeInBytes()
+        {
+            long sizeInBytes = 0;
+            for (FramedWindowFunction windowFunction : windowFunctions) {
+                if (windowFunction.getFunction() instanceof AggregateWindowFunction) {
+                    sizeInBytes += ((AggregateWindowFunction) windowFunction.getFunction()).getEstimatedSizeInBytes();
+                }
+            }
+            return sizeInBytes;
+        }
+
         @Override
         public Object capture(BlockEncodingSerdeProvider serdeProvider)
         {
@@ -1216,7 +1233,7 @@ public class WindowOperator
             int startPosition = 0;
             while (startPosition < pagesIndexWithHashStrategies.pagesIndex.getPositionCount()) {
                 int endPosition = findGroupEnd(pagesIndexWithHashStrategies.pagesIndex, pagesIndexWithHashStrategies.preSortedPartitionHashStrategy, startPosition);
-                pagesIndexWithHashStrategies.pagesIndex.sort(orderChannels, ordering, startPosition, endPosition);
+                pagesIndexWithHashStrategies.pagesIndex.sort(orderChannels, ordering, startPosition, endPosition, operatorContext.localUserMemoryContext());
                 startPosition = endPosition;
             }
         }
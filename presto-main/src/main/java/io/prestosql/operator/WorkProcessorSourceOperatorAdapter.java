@@ -96,6 +96,17 @@ public class WorkProcessorSourceOperatorAdapter
     public WorkProcessorSourceOperatorAdapter(OperatorContext operatorContext, WorkProcessorSourceOperatorFactory sourceOperatorFactory,
             ReuseExchangeOperator.STRATEGY strategy, UUID reuseTableScanMappingId, boolean spillEnabled, List<Type> projectionTypes,
             Optional<SpillerFactory> spillerFactory, Integer spillerThreshold, Integer consumerTableScanNodeCount)
+    {
+        this(operatorContext, sourceOperatorFactory, strategy, reuseTableScanMappingId, spillEnabled, projectionTypes, spillerFactory, spillerThreshold, consumerTableScanNodeCount, false);
+    }
+
+    /**
+     * @param lateMaterialization when set, output pages are returned without loading their lazy blocks.
+     * The consumer must be done with a page (and all blocks derived from it) before it asks for the next one.
+     */
+    public WorkProcessorSourceOperatorAdapter(OperatorContext operatorContext, WorkProcessorSourceOperatorFactory sourceOperatorFactory,
+            ReuseExchangeOperator.STRATEGY strategy, UUID reuseTableScanMappingId, boolean spillEnabled, List<Type> projectionTypes,
+            Optional<SpillerFactory> spillerFactory, Integer spillerThreshold, Integer consumerTableScanNodeCount, boolean lateMaterialization)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.sourceId = requireNonNull(sourceOperatorFactory, "sourceOperatorFactory is null").getSourceId();
@@ -109,8 +120,11 @@ public class WorkProcessorSourceOperatorAdapter
                                 operatorContext.aggregateSystemMemoryContext()),
                         operatorContext.getDriverContext().getYieldSignal(),
                         WorkProcessor.create(splitBuffer));
-        this.pages = sourceOperator.getOutputPages()
-                .map(Page::getLoadedPage)
+        WorkProcessor<Page> outputPages = sourceOperator.getOutputPages();
+        if (!lateMaterialization || !strategy.equals(REUSE_STRATEGY_DEFAULT)) {
+            outputPages = outputPages.map(Page::getLoadedPage);
+        }
+        this.pages = outputPages
                 .withProcessStateMonitor(state -> updateOperatorStats())
                 .finishWhen(() -> operatorFinishing);
         this.strategy = strategy;
@@ -14,16 +14,19 @@
 package io.prestosql.operator.aggregation.builder;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.log.Logger;
 import io.airlift.units.DataSize;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.operator.DriverYieldSignal;
 import io.prestosql.operator.HashCollisionsCounter;
 import io.prestosql.operator.MergeHashSort;
 import io.prestosql.operator.OperatorContext;
 import io.prestosql.operator.Work;
 import io.prestosql.operator.WorkProcessor;
+import io.prestosql.operator.WorkProcessor.ProcessState;
 import io.prestosql.operator.aggregation.AccumulatorFactory;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.plan.AggregationNode;
@@ -35,29 +38,37 @@ import io.prestosql.spiller.Spiller;
 import io.prestosql.spiller.SpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.math.IntMath.divide;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.SystemSessionProperties.isSpillToHdfsEnabled;
 import static io.prestosql.operator.Operator.NOT_BLOCKED;
+import static io.prestosql.spi.block.PageBuilderStatus.DEFAULT_MAX_PAGE_SIZE_IN_BYTES;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.math.RoundingMode.CEILING;
 
 // - merger: this variable is used after created from either captured fields or final fields, so no need to capture.
 // - mergeHashSort: this variable is used after created from operatorContext. amd operatorContext is captured, so no need to capture.
+// - spilledRunsMerge: only exists while building the result, when no more markers are received.
 // - spillInProgress: must be "done" when markers are received.
 @RestorableConfig(uncapturedFields = {"spillerFactory", "accumulatorFactories", "groupByTypes", "groupByChannels",
-        "hashChannel", "merger", "mergeHashSort", "spillInProgress", "joinCompiler"})
+        "hashChannel", "merger", "mergeHashSort", "spilledRunsMerge", "spillInProgress", "joinCompiler"})
 public class SpillableHashAggregationBuilder
         implements AggregationBuilder, Restorable
 {
     private static final Logger LOG = Logger.get(SpillableHashAggregationBuilder.class);
+
     private InMemoryHashAggregationBuilder hashAggregationBuilder;
     private final SpillerFactory spillerFactory;
     private final List<AccumulatorFactory> accumulatorFactories;
@@ -74,8 +85,13 @@ public class SpillableHashAggregationBuilder
     private Optional<Spiller> spiller = Optional.empty();
     private Optional<MergingHashAggregationBuilder> merger = Optional.empty();
     private Optional<MergeHashSort> mergeHashSort = Optional.empty();
+    private Optional<SpilledRunsMerge> spilledRunsMerge = Optional.empty();
     private ListenableFuture<?> spillInProgress = immediateFuture(null);
     private final JoinCompiler joinCompiler;
+    private int spilledRuns;
+    // reported through the operator info
+    private long totalSpilledRuns;
+    private long spillMergePasses;
 
     // todo get rid of that and only use revocable memory
     private long emptyHashAggregationBuilderSize;
@@ -147,6 +163,16 @@ public class SpillableHashAggregationBuilder
         expectedHashCollisions = 0;
     }
 
+    public long getTotalSpilledRuns()
+    {
+        return totalSpilledRuns;
+    }
+
+    public long getSpillMergePasses()
+    {
+        return spillMergePasses;
+    }
+
     @Override
     public boolean isFull()
     {
@@ -214,11 +240,14 @@ public class SpillableHashAggregationBuilder
         }
 
         if (shouldMergeWithMemory(getSizeInMemoryWhenUnspilling())) {
-            return mergeFromDiskAndMemory();
+            // content of hashAggregationBuilder is merged as one more run
+            return mergeSpilledRuns(getMergeFanIn() - 1)
+                    .flatMap(runs -> mergeFromDiskAndMemory());
         }
         else {
             getFutureValue(spillToDisk());
-            return mergeFromDisk();
+            return mergeSpilledRuns(getMergeFanIn())
+                    .flatMap(runs -> mergeFromDisk());
         }
     }
 
@@ -242,6 +271,7 @@ public class SpillableHashAggregationBuilder
                 closer.register(hashAggregationBuilder::close);
             }
             merger.ifPresent(closer::register);
+            spilledRunsMerge.ifPresent(closer::register);
             spiller.ifPresent(closer::register);
             mergeHashSort.ifPresent(closer::register);
             closer.register(() -> localUserMemoryContext.setBytes(0));
@@ -258,16 +288,13 @@ public class SpillableHashAggregationBuilder
         hashAggregationBuilder.setOutputPartial();
 
         if (!spiller.isPresent()) {
-            spiller = Optional.of(spillerFactory.create(
-                    hashAggregationBuilder.buildTypes(),
-                    operatorContext.getSpillContext(),
-                    operatorContext.newAggregateSystemMemoryContext(),
-                    operatorContext.isSnapshotEnabled(),
-                    operatorContext.getDriverContext().getTaskId().getQueryId().toString(), isSpillToHdfsEnabled(operatorContext.getSession())));
+            spiller = Optional.of(createSpiller());
         }
 
         // start spilling process with current content of the hashAggregationBuilder builder...
         spillInProgress = spiller.get().spill(hashAggregationBuilder.buildHashSortedResult().iterator());
+        spilledRuns++;
+        totalSpilledRuns++;
         LOG.debug("spilling to disk initiated by Hash Aggregation");
         // ... and immediately create new hashAggregationBuilder so effectively memory ownership
         // over hashAggregationBuilder is transferred from this thread to a spilling thread
@@ -276,6 +303,130 @@ public class SpillableHashAggregationBuilder
         return spillInProgress;
     }
 
+    private Spiller createSpiller()
+    {
+        return spillerFactory.create(
+                hashAggregationBuilder.buildTypes(),
+                operatorContext.getSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext(),
+                operatorContext.isSnapshotEnabled(),
+                operatorContext.getDriverContext().getTaskId().getQueryId().toString(), isSpillToHdfsEnabled(operatorContext.getSession()));
+    }
+
+    /**
+     * Every spilled run being merged holds at least one page in memory, so the number of runs merged at once
+     * is limited by the memory limit for merge.
+     */
+    private int getMergeFanIn()
+    {
+        return (int) min(Integer.MAX_VALUE, max(2, memoryLimitForMerge / DEFAULT_MAX_PAGE_SIZE_IN_BYTES));
+    }
+
+    /**
+     * Merges the spilled runs in passes into longer hash sorted runs, until at most {@code maxRuns} runs are left.
+     * The returned processor is blocked while merged runs are being spilled and produces the number of runs left.
+     */
+    private WorkProcessor<Integer> mergeSpilledRuns(int maxRuns)
+    {
+        checkState(spiller.isPresent());
+        spilledRunsMerge = Optional.of(new SpilledRunsMerge(maxRuns));
+        return WorkProcessor.create(spilledRunsMerge.get());
+    }
+
+    // Spilled runs are only merged when producing output, after all input was consumed
+    @RestorableConfig(unsupported = true)
+    private class SpilledRunsMerge
+            implements WorkProcessor.Process<Integer>, Closeable
+    {
+        private final int maxRuns;
+        private final int fanIn;
+        private int passes;
+        private boolean finished;
+
+        // state of the current pass
+        private int passRuns;
+        private Iterator<List<Iterator<Page>>> runGroups;
+        private Spiller mergedSpiller;
+        private MergeHashSort runsMergeHashSort;
+        private ListenableFuture<?> mergedSpillInProgress;
+
+        private SpilledRunsMerge(int maxRuns)
+        {
+            this.maxRuns = maxRuns;
+            this.fanIn = max(maxRuns, 2);
+        }
+
+        @Override
+        public ProcessState<Integer> process()
+        {
+            if (finished) {
+                return ProcessState.finished();
+            }
+
+            while (true) {
+                if (mergedSpiller == null) {
+                    if (spilledRuns <= maxRuns) {
+                        finished = true;
+                        spillMergePasses += passes;
+                        if (passes > 0) {
+                            LOG.debug("spilled runs of Hash Aggregation merged in %s passes into %s runs", passes, spilledRuns);
+                        }
+                        return ProcessState.ofResult(spilledRuns);
+                    }
+                    List<Iterator<Page>> runs = spiller.get().getSpills();
+                    passRuns = runs.size();
+                    runGroups = Lists.partition(runs, fanIn).iterator();
+                    mergedSpiller = createSpiller();
+                }
+                else if (!mergedSpillInProgress.isDone()) {
+                    return ProcessState.blocked(mergedSpillInProgress);
+                }
+                else {
+                    // check for exception from the merged spill
+                    getFutureValue(mergedSpillInProgress);
+                    runsMergeHashSort.close();
+                    runsMergeHashSort = null;
+                }
+
+                if (!runGroups.hasNext()) {
+                    spiller.get().close();
+                    spiller = Optional.of(mergedSpiller);
+                    mergedSpiller = null;
+                    spilledRuns = divide(passRuns, fanIn, CEILING);
+                    passes++;
+                    continue;
+                }
+
+                runsMergeHashSort = new MergeHashSort(operatorContext.newAggregateSystemMemoryContext());
+                // pages are pulled by the spilling thread, which must not be asked to yield
+                WorkProcessor<Page> mergedPages = runsMergeHashSort.merge(
+                        groupByTypes,
+                        hashAggregationBuilder.buildIntermediateTypes(),
+                        runGroups.next().stream()
+                                .map(WorkProcessor::fromIterator)
+                                .collect(toImmutableList()),
+                        new DriverYieldSignal());
+                mergedSpillInProgress = mergedSpiller.spill(mergedPages.iterator());
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            try (Closer closer = Closer.create()) {
+                if (runsMergeHashSort != null) {
+                    closer.register(runsMergeHashSort);
+                }
+                if (mergedSpiller != null) {
+                    closer.register(mergedSpiller);
+                }
+            }
+            catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     private WorkProcessor<Page> mergeFromDiskAndMemory()
     {
         checkState(spiller.isPresent());
@@ -371,6 +522,9 @@ public class SpillableHashAggregationBuilder
         myState.hashCollisions = hashCollisions;
         myState.expectedHashCollisions = expectedHashCollisions;
         myState.producingOutput = producingOutput;
+        myState.spilledRuns = spilledRuns;
+        myState.totalSpilledRuns = totalSpilledRuns;
+        myState.spillMergePasses = spillMergePasses;
 
         if (spiller.isPresent()) {
             myState.spiller = spiller.get().capture(serdeProvider);
@@ -388,17 +542,15 @@ public class SpillableHashAggregationBuilder
         hashCollisions = myState.hashCollisions;
         expectedHashCollisions = myState.expectedHashCollisions;
         producingOutput = myState.producingOutput;
+        spilledRuns = myState.spilledRuns;
+        totalSpilledRuns = myState.totalSpilledRuns;
+        spillMergePasses = myState.spillMergePasses;
         localRevocableMemoryContext.setBytes(myState.localRevocableMemoryContext);
         localUserMemoryContext.setBytes(myState.localUserMemoryContext);
 
         if (myState.spiller != null) {
             if (!spiller.isPresent()) {
-                spiller = Optional.of(spillerFactory.create(
-                        hashAggregationBuilder.buildTypes(),
-                        operatorContext.getSpillContext(),
-                        operatorContext.newAggregateSystemMemoryContext(),
-                        operatorContext.isSnapshotEnabled(),
-                        operatorContext.getDriverContext().getTaskId().getQueryId().toString(), isSpillToHdfsEnabled(operatorContext.getSession())));
+                spiller = Optional.of(createSpiller());
             }
             this.spiller.get().restore(myState.spiller, serdeProvider);
         }
@@ -415,6 +567,9 @@ public class SpillableHashAggregationBuilder
         private long hashCollisions;
         private double expectedHashCollisions;
         private boolean producingOutput;
+        private int spilledRuns;
+        private long totalSpilledRuns;
+        private long spillMergePasses;
         private Object spiller;
     }
 }
@@ -21,6 +21,8 @@ import io.prestosql.spi.block.Block;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.type.Type;
 
+import static io.prestosql.operator.PageUtils.copyPositions;
+import static io.prestosql.operator.PageUtils.getRegion;
 import static java.util.Objects.requireNonNull;
 
 public class InputPageProjection
@@ -68,4 +70,24 @@ public class InputPageProjection
         }
         return new CompletedWork<>(result);
     }
+
+    /**
+     * Same as {@link #project}, but a not loaded lazy block is passed on unloaded, so it is only read
+     * if some later operator needs it. The caller must make sure the result is not loaded after the
+     * source of the lazy block has moved on to the next page.
+     */
+    public Work<Block> projectWithoutLoading(Page page, SelectedPositions selectedPositions)
+    {
+        Block block = requireNonNull(page, "page is null").getBlock(0);
+        requireNonNull(selectedPositions, "selectedPositions is null");
+
+        Block result;
+        if (selectedPositions.isList()) {
+            result = copyPositions(block, selectedPositions.getPositions(), selectedPositions.getOffset(), selectedPositions.size());
+        }
+        else {
+            result = getRegion(block, selectedPositions.getOffset(), selectedPositions.size());
+        }
+        return new CompletedWork<>(result);
+    }
 }
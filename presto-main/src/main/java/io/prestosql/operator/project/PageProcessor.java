@@ -25,7 +25,6 @@ import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.DictionaryBlock;
 import io.prestosql.spi.block.DictionaryId;
-import io.prestosql.spi.block.LazyBlock;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.snapshot.RestorableConfig;
 import io.prestosql.sql.gen.ExpressionProfiler;
@@ -43,6 +42,9 @@ import java.util.function.Function;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.operator.PageUtils.getLoadedSizeInBytes;
+import static io.prestosql.operator.PageUtils.getRegion;
+import static io.prestosql.operator.PageUtils.isNotLoadedLazyBlock;
 import static io.prestosql.operator.WorkProcessor.ProcessState.finished;
 import static io.prestosql.operator.WorkProcessor.ProcessState.ofResult;
 import static io.prestosql.operator.WorkProcessor.ProcessState.yield;
@@ -104,6 +106,15 @@ public class PageProcessor
     }
 
     public WorkProcessor<Page> createWorkProcessor(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page)
+    {
+        return createWorkProcessor(session, yieldSignal, memoryContext, page, false);
+    }
+
+    /**
+     * @param deferLazyLoading when set, not loaded lazy input blocks that are projected as is stay unloaded.
+     * Only valid if the output pages are consumed before the source of the input page moves on to the next page.
+     */
+    public WorkProcessor<Page> createWorkProcessor(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page, boolean deferLazyLoading)
     {
         // limit the scope of the dictionary ids to just one page
         dictionarySourceIdFunction.reset();
@@ -124,11 +135,11 @@ public class PageProcessor
             }
 
             if (selectedPositions.size() != page.getPositionCount()) {
-                return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, selectedPositions));
+                return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, selectedPositions, deferLazyLoading));
             }
         }
 
-        return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, positionsRange(0, page.getPositionCount())));
+        return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, positionsRange(0, page.getPositionCount()), deferLazyLoading));
     }
 
     // This is only used by table scan operators, so don't need to participate in snapshotting
@@ -139,6 +150,7 @@ public class PageProcessor
         private final ConnectorSession session;
         private final DriverYieldSignal yieldSignal;
         private final LocalMemoryContext memoryContext;
+        private final boolean deferLazyLoading;
 
         private Page page;
         private final Block[] previouslyComputedResults;
@@ -150,7 +162,7 @@ public class PageProcessor
         private int lastComputeBatchSize;
         private Work<Block> pageProjectWork;
 
-        private ProjectSelectedPositions(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page, SelectedPositions selectedPositions)
+        private ProjectSelectedPositions(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page, SelectedPositions selectedPositions, boolean deferLazyLoading)
         {
             checkArgument(!selectedPositions.isEmpty(), "selectedPositions is empty");
 
@@ -159,6 +171,7 @@ public class PageProcessor
             this.page = page;
             this.memoryContext = memoryContext;
             this.selectedPositions = selectedPositions;
+            this.deferLazyLoading = deferLazyLoading;
             this.previouslyComputedResults = new Block[projections.size()];
         }
 
@@ -204,7 +217,7 @@ public class PageProcessor
                 Page resultPage = result.getPage();
 
                 // if we produced a large page or if the expression is expensive, halve the batch size for the next call
-                long pageSize = resultPage.getSizeInBytes();
+                long pageSize = deferLazyLoading ? getLoadedSizeInBytes(resultPage) : resultPage.getSizeInBytes();
                 if (resultPage.getPositionCount() > 1 && (pageSize > MAX_PAGE_SIZE_IN_BYTES || expressionProfiler.isExpressionExpensive())) {
                     projectBatchSize = projectBatchSize / 2;
                 }
@@ -218,7 +231,8 @@ public class PageProcessor
                 selectedPositions = selectedPositions.subRange(batchSize, selectedPositions.size());
                 for (int i = 0; i < previouslyComputedResults.length; i++) {
                     if (previouslyComputedResults[i] != null && previouslyComputedResults[i].getPositionCount() > batchSize) {
-                        previouslyComputedResults[i] = previouslyComputedResults[i].getRegion(batchSize, previouslyComputedResults[i].getPositionCount() - batchSize);
+                        int remaining = previouslyComputedResults[i].getPositionCount() - batchSize;
+                        previouslyComputedResults[i] = deferLazyLoading ? getRegion(previouslyComputedResults[i], batchSize, remaining) : previouslyComputedResults[i].getRegion(batchSize, remaining);
                     }
                     else {
                         previouslyComputedResults[i] = null;
@@ -257,7 +271,7 @@ public class PageProcessor
                 }
             }
             for (Block<T> previouslyComputedResult : previouslyComputedResults) {
-                if (previouslyComputedResult != null) {
+                if (previouslyComputedResult != null && !(deferLazyLoading && isNotLoadedLazyBlock(previouslyComputedResult))) {
                     previouslyComputedResult.retainedBytesForEachPart((object, size) -> {
                         if (referenceCountMap.incrementAndGet(object) == 1) {
                             retainedSizeInBytes += size;
@@ -287,12 +301,18 @@ public class PageProcessor
                 // if possible, use previouslyComputedResults produced in prior optimistic failure attempt
                 PageProjection projection = projections.get(i);
                 if (previouslyComputedResults[i] != null && previouslyComputedResults[i].getPositionCount() >= batchSize) {
-                    blocks[i] = previouslyComputedResults[i].getRegion(0, batchSize);
+                    blocks[i] = deferLazyLoading ? getRegion(previouslyComputedResults[i], 0, batchSize) : previouslyComputedResults[i].getRegion(0, batchSize);
                 }
                 else {
                     if (pageProjectWork == null) {
                         expressionProfiler.start();
-                        pageProjectWork = projection.project(session, yieldSignal, projection.getInputChannels().getInputChannels(page), positionsBatch);
+                        Page inputPage = projection.getInputChannels().getInputChannels(page);
+                        if (deferLazyLoading && projection instanceof InputPageProjection) {
+                            pageProjectWork = ((InputPageProjection) projection).projectWithoutLoading(inputPage, positionsBatch);
+                        }
+                        else {
+                            pageProjectWork = projection.project(session, yieldSignal, inputPage, positionsBatch);
+                        }
                         expressionProfiler.stop(positionsBatch.size());
                     }
                     if (!pageProjectWork.process()) {
@@ -303,7 +323,9 @@ public class PageProcessor
                     blocks[i] = previouslyComputedResults[i];
                 }
 
-                pageSize += blocks[i].getSizeInBytes();
+                if (!deferLazyLoading || !isNotLoadedLazyBlock(blocks[i])) {
+                    pageSize += blocks[i].getSizeInBytes();
+                }
             }
             return ProcessBatchResult.processBatchSuccess(new Page(positionsBatch.size(), blocks));
         }
@@ -315,11 +337,6 @@ public class PageProcessor
         return projections;
     }
 
-    private static boolean isNotLoadedLazyBlock(Block block)
-    {
-        return (block instanceof LazyBlock) && !((LazyBlock) block).isLoaded();
-    }
-
     @NotThreadSafe
     private static class DictionarySourceIdFunction
             implements Function<DictionaryBlock, DictionaryId>
@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.window;
+
+import io.prestosql.operator.aggregation.Accumulator;
+import io.prestosql.operator.aggregation.AccumulatorFactory;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.function.WindowIndex;
+import io.prestosql.spi.type.Type;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Intermediate states of an aggregation over segments of a window partition, so that the aggregation over
+ * a frame is computed by combining O(log n) states instead of adding the input of every row of the frame.
+ * The states are combined in the order of the rows, so order sensitive aggregations give the same result
+ * as when the input of the frame is added row by row.
+ */
+class AggregateSegmentTree
+{
+    private final WindowIndex windowIndex;
+    private final List<Integer> argumentChannels;
+    private final AccumulatorFactory accumulatorFactory;
+    private final int segmentSize;
+    // levels.get(0) has the state of every segment of rows, levels.get(i) of every pair of states of level i - 1
+    private final List<Block> levels = new ArrayList<>();
+
+    private final IntArrayList leftNodes = new IntArrayList();
+    private final IntArrayList rightNodes = new IntArrayList();
+
+    AggregateSegmentTree(WindowIndex windowIndex, List<Integer> argumentChannels, AccumulatorFactory accumulatorFactory, int segmentSize)
+    {
+        this.windowIndex = requireNonNull(windowIndex, "windowIndex is null");
+        this.argumentChannels = requireNonNull(argumentChannels, "argumentChannels is null");
+        this.accumulatorFactory = requireNonNull(accumulatorFactory, "accumulatorFactory is null");
+        this.segmentSize = segmentSize;
+
+        Type intermediateType = accumulatorFactory.createAccumulator().getIntermediateType();
+        int segmentCount = windowIndex.size() / segmentSize;
+        BlockBuilder blockBuilder = intermediateType.createBlockBuilder(null, segmentCount);
+        for (int segment = 0; segment < segmentCount; segment++) {
+            Accumulator accumulator = accumulatorFactory.createAccumulator();
+            accumulator.addInput(windowIndex, argumentChannels, segment * segmentSize, (segment + 1) * segmentSize - 1);
+            accumulator.evaluateIntermediate(blockBuilder);
+        }
+        Block level = blockBuilder.build();
+        levels.add(level);
+
+        while (level.getPositionCount() > 1) {
+            blockBuilder = intermediateType.createBlockBuilder(null, (level.getPositionCount() + 1) / 2);
+            for (int node = 0; node < level.getPositionCount(); node += 2) {
+                Accumulator accumulator = accumulatorFactory.createAccumulator();
+                accumulator.addIntermediate(level.getRegion(node, min(2, level.getPositionCount() - node)));
+                accumulator.evaluateIntermediate(blockBuilder);
+            }
+            level = blockBuilder.build();
+            levels.add(level);
+        }
+    }
+
+    long getEstimatedSizeInBytes()
+    {
+        long sizeInBytes = 0;
+        for (Block level : levels) {
+            sizeInBytes += level.getRetainedSizeInBytes();
+        }
+        return sizeInBytes;
+    }
+
+    /**
+     * Adds the input of the rows from {@code start} to {@code end}, both inclusive, to the accumulator.
+     */
+    void addInput(Accumulator accumulator, int start, int end)
+    {
+        // segments entirely within the frame
+        int firstSegment = (start + segmentSize - 1) / segmentSize;
+        int lastSegment = (end + 1) / segmentSize - 1;
+        if (firstSegment > lastSegment) {
+            accumulator.addInput(windowIndex, argumentChannels, start, end);
+            return;
+        }
+
+        int segmentsStart = firstSegment * segmentSize;
+        if (start < segmentsStart) {
+            accumulator.addInput(windowIndex, argumentChannels, start, segmentsStart - 1);
+        }
+        addSegments(accumulator, firstSegment, lastSegment);
+        int segmentsEnd = (lastSegment + 1) * segmentSize - 1;
+        if (segmentsEnd < end) {
+            accumulator.addInput(windowIndex, argumentChannels, segmentsEnd + 1, end);
+        }
+    }
+
+    private void addSegments(Accumulator accumulator, int firstSegment, int lastSegment)
+    {
+        // the nodes covering the segments are collected from both ends towards the root, as pairs of level and node
+        leftNodes.clear();
+        rightNodes.clear();
+        int low = firstSegment;
+        int high = lastSegment;
+        for (int level = 0; low <= high; level++) {
+            if ((low & 1) == 1) {
+                leftNodes.add(level);
+                leftNodes.add(low);
+                low++;
+            }
+            if (low <= high && (high & 1) == 0) {
+                rightNodes.add(level);
+                rightNodes.add(high);
+                high--;
+            }
+            low >>= 1;
+            high >>= 1;
+        }
+
+        for (int i = 0; i < leftNodes.size(); i += 2) {
+            accumulator.addIntermediate(levels.get(leftNodes.getInt(i)).getRegion(leftNodes.getInt(i + 1), 1));
+        }
+        for (int i = rightNodes.size() - 2; i >= 0; i -= 2) {
+            accumulator.addIntermediate(levels.get(rightNodes.getInt(i)).getRegion(rightNodes.getInt(i + 1), 1));
+        }
+    }
+}
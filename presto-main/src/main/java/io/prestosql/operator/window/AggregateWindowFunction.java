@@ -23,6 +23,9 @@ import io.prestosql.spi.function.WindowFunction;
 import io.prestosql.spi.function.WindowIndex;
 import io.prestosql.spi.snapshot.BlockEncodingSerdeProvider;
 import io.prestosql.spi.snapshot.RestorableConfig;
+import io.prestosql.spi.type.FixedWidthType;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.spi.type.Type;
 
 import java.io.Serializable;
 import java.util.List;
@@ -30,12 +33,20 @@ import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
-@RestorableConfig(uncapturedFields = {"argumentChannels", "windowIndex", "accumulatorFactory"})
+// segmentTree: derived from windowIndex, and rebuilt when needed
+@RestorableConfig(uncapturedFields = {"argumentChannels", "windowIndex", "accumulatorFactory", "segmentTreeEnabled", "segmentTree"})
 public class AggregateWindowFunction
         implements WindowFunction
 {
+    // rows per segment of the segment tree
+    private static final int SEGMENT_SIZE = 16;
+    // smaller frames are aggregated row by row
+    private static final int MIN_SEGMENT_TREE_FRAME_SIZE = 4 * SEGMENT_SIZE;
+
     private final List<Integer> argumentChannels;
     private final AccumulatorFactory accumulatorFactory;
+    // the segment tree keeps a state per segment, which is only bounded for fixed size states
+    private final boolean segmentTreeEnabled;
 
     // Snapshot: all windowIndex operations revolves around pagesIndex which is passed in and captured/restored outside
     // windowIndex fields in all window functions are reset when WindowPartition is created(see WindowPartition line 71)
@@ -44,17 +55,31 @@ public class AggregateWindowFunction
     private Accumulator accumulator;
     private int currentStart;
     private int currentEnd;
+    private AggregateSegmentTree segmentTree;
 
     private AggregateWindowFunction(InternalAggregationFunction function, List<Integer> argumentChannels)
     {
         this.argumentChannels = ImmutableList.copyOf(argumentChannels);
         this.accumulatorFactory = function.bind(createArgs(function), Optional.empty());
+        this.segmentTreeEnabled = isFixedSize(function.getIntermediateType());
+    }
+
+    /**
+     * Whether every value of the type has the same size, such as the row states of avg.
+     */
+    private static boolean isFixedSize(Type type)
+    {
+        if (type instanceof FixedWidthType) {
+            return true;
+        }
+        return type instanceof RowType && type.getTypeParameters().stream().allMatch(AggregateWindowFunction::isFixedSize);
     }
 
     @Override
     public void reset(WindowIndex windowIndex)
     {
         this.windowIndex = windowIndex;
+        this.segmentTree = null;
         resetAccumulator();
     }
 
@@ -73,7 +98,16 @@ public class AggregateWindowFunction
         else {
             // different frame
             resetAccumulator();
-            accumulate(frameStart, frameEnd);
+            if (segmentTreeEnabled && frameEnd - frameStart + 1 >= MIN_SEGMENT_TREE_FRAME_SIZE) {
+                // sliding frame, where the rows leaving the frame cannot be removed from the accumulator
+                if (segmentTree == null) {
+                    segmentTree = new AggregateSegmentTree(windowIndex, argumentChannels, accumulatorFactory, SEGMENT_SIZE);
+                }
+                segmentTree.addInput(accumulator, frameStart, frameEnd);
+            }
+            else {
+                accumulate(frameStart, frameEnd);
+            }
             currentStart = frameStart;
             currentEnd = frameEnd;
         }
@@ -81,6 +115,14 @@ public class AggregateWindowFunction
         accumulator.evaluateFinal(output);
     }
 
+    /**
+     * Size of the segment tree of the current partition, if any.
+     */
+    public long getEstimatedSizeInBytes()
+    {
+        return segmentTree == null ? 0 : segmentTree.getEstimatedSizeInBytes();
+    }
+
     private void accumulate(int start, int end)
     {
         accumulator.addInput(windowIndex, argumentChannels, start, end);
@@ -144,6 +186,7 @@ public class AggregateWindowFunction
         }
         this.currentStart = myState.currentStart;
         this.currentEnd = myState.currentEnd;
+        this.segmentTree = null;
     }
 
     private static class AggregateWindowFunctionState
@@ -386,6 +386,7 @@ public class Execution
                 zeroData,
                 ImmutableList.of(),
                 ImmutableList.of(),
+                ImmutableList.of(),
                 zeroDuration,
                 zeroDuration,
                 zeroDuration,
@@ -313,6 +313,7 @@ public class QueryHistoryService
                 ZERO_BYTES,
                 ImmutableList.of(),
                 ImmutableList.of(),
+                ImmutableList.of(),
                 ZERO_MILLIS,
                 ZERO_MILLIS,
                 ZERO_MILLIS,
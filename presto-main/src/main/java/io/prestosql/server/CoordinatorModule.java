@@ -171,6 +171,7 @@ import io.prestosql.sql.tree.Use;
 import io.prestosql.statestore.EmbeddedStateStoreLauncher;
 import io.prestosql.statestore.StateStoreLauncher;
 import io.prestosql.statestore.StateStoreProvider;
+import io.prestosql.statestore.StateSyncStats;
 import io.prestosql.transaction.ForTransactionManager;
 import io.prestosql.transaction.InMemoryTransactionManager;
 import io.prestosql.transaction.TransactionManager;
@@ -303,6 +304,8 @@ public class CoordinatorModule
 
         // dispatcher
         binder.bind(DispatchManager.class).in(Scopes.SINGLETON);
+        binder.bind(StateSyncStats.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(StateSyncStats.class).withGeneratedName();
         binder.bind(FailedDispatchQueryFactory.class).in(Scopes.SINGLETON);
         binder.bind(DispatchExecutor.class).in(Scopes.SINGLETON);
 
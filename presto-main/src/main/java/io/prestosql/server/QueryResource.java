@@ -491,6 +491,7 @@ public class QueryResource
                 ZERO_BYTES,
                 ImmutableList.of(),
                 ImmutableList.of(),
+                ImmutableList.of(),
                 ZERO_MILLIS,
                 ZERO_MILLIS,
                 ZERO_MILLIS,
@@ -15,11 +15,14 @@
 package io.prestosql.server.protocol;
 
 import io.airlift.units.Duration;
+import io.hetu.core.transport.execution.buffer.SerializedPage;
 import io.prestosql.client.DataCenterQueryResults;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
 public class PageConsumer
@@ -65,11 +68,14 @@ public class PageConsumer
         return System.currentTimeMillis() - this.lastSubscriberTime <= this.pageConsumerTimeout;
     }
 
-    private DataCenterQueryResults getResult(long token, BlockingQueue<DataCenterQueryResults> queryResults)
+    private DataCenterQueryResults getResult(long token, long maxSize, BlockingQueue<DataCenterQueryResults> queryResults)
     {
         if (token == (lastToken + 1)) {
             // Current result
             lastResult = queryResults.poll();
+            if (lastResult != null && maxSize > 0) {
+                lastResult = pollMore(lastResult, maxSize, queryResults);
+            }
 
             if (lastResult == null) {
                 if (this.sentFinalStatus && (token == (lastToken + 1))) {
@@ -115,6 +121,49 @@ public class PageConsumer
         throw new WebApplicationException(Response.Status.NOT_FOUND);
     }
 
+    /**
+     * Adds the queued results to the given one until its pages reach the size the client can take in one response,
+     * so that a single round trip transfers more than one result.
+     */
+    private static DataCenterQueryResults pollMore(DataCenterQueryResults first, long maxSize, BlockingQueue<DataCenterQueryResults> queryResults)
+    {
+        DataCenterQueryResults result = first;
+        List<SerializedPage> data = new ArrayList<>();
+        long size = addData(data, first);
+        while (result.getNextUri() != null && size < maxSize) {
+            DataCenterQueryResults next = queryResults.poll();
+            if (next == null) {
+                break;
+            }
+            size += addData(data, next);
+            result = new DataCenterQueryResults(
+                    next.getId(),
+                    next.getInfoUri(),
+                    next.getPartialCancelUri(),
+                    next.getNextUri(),
+                    next.getColumns() != null ? next.getColumns() : result.getColumns(),
+                    data,
+                    next.getStats(),
+                    next.getError(),
+                    next.getWarnings(),
+                    next.getUpdateType(),
+                    next.getUseHeaderInformation());
+        }
+        return result;
+    }
+
+    private static long addData(List<SerializedPage> data, DataCenterQueryResults results)
+    {
+        long size = 0;
+        if (results.getData() != null) {
+            for (SerializedPage page : results.getData()) {
+                data.add(page);
+                size += page.getSizeInBytes();
+            }
+        }
+        return size;
+    }
+
     public void add(Query query, PageSubscriber subscriber, BlockingQueue<DataCenterQueryResults> queryResults)
     {
         if (this.query == null && query != null) {
@@ -122,7 +171,7 @@ public class PageConsumer
         }
         long clientToken = subscriber.getToken();
         this.lastSubscriberTime = System.currentTimeMillis();
-        subscriber.send(this.query, getResult(clientToken, queryResults));
+        subscriber.send(this.query, getResult(clientToken, subscriber.getMaxSize(), queryResults));
     }
 
     public void stop()
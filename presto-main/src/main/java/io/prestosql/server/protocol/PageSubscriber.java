@@ -24,5 +24,10 @@ public interface PageSubscriber
 
     long getToken();
 
+    /**
+     * Size of the pages the subscriber can take in one response, or 0 to send one result at a time
+     */
+    long getMaxSize();
+
     void send(Query query, DataCenterQueryResults results);
 }
@@ -137,6 +137,7 @@ public final class HttpRemoteTask
     private final AtomicLong nextSplitId = new AtomicLong();
 
     private final RemoteTaskStats stats;
+    private final TaskUpdateStats updateStats = new TaskUpdateStats();
     private final TaskInfoFetcher taskInfoFetcher;
     private final ContinuousTaskStatusFetcher taskStatusFetcher;
 
@@ -336,6 +337,11 @@ public final class HttpRemoteTask
         return nodeId;
     }
 
+    public TaskUpdateStats getUpdateStats()
+    {
+        return updateStats;
+    }
+
     @Override
     public TaskInfo getTaskInfo()
     {
@@ -575,7 +581,15 @@ public final class HttpRemoteTask
                 outputBuffers.get(),
                 totalPartitions,
                 parent);
+        long encodeStart = System.nanoTime();
         byte[] taskUpdateRequestJson = taskUpdateRequestCodec.toBytes(updateRequest);
+        long encodeNanos = System.nanoTime() - encodeStart;
+        // only the splits not yet acknowledged by the worker are sent
+        long splitCount = sources.stream()
+                .mapToLong(source -> source.getSplits().size())
+                .sum();
+        stats.updateEncoded(taskUpdateRequestJson.length, splitCount, encodeNanos);
+        updateStats.updateEncoded(taskUpdateRequestJson.length, splitCount, encodeNanos);
         if (fragment.isPresent()) {
             stats.updateWithPlanBytes(taskUpdateRequestJson.length);
         }
@@ -15,11 +15,15 @@ package io.prestosql.server.remotetask;
 
 import com.google.common.util.concurrent.AtomicDouble;
 import io.airlift.stats.DistributionStat;
+import io.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 public class RemoteTaskStats
 {
     private final IncrementalAverage updateRoundTripMillis = new IncrementalAverage();
@@ -27,6 +31,9 @@ public class RemoteTaskStats
     private final IncrementalAverage statusRoundTripMillis = new IncrementalAverage();
     private final IncrementalAverage responseSizeBytes = new IncrementalAverage();
     private final DistributionStat updateWithPlanBytes = new DistributionStat();
+    private final DistributionStat updateBytes = new DistributionStat();
+    private final DistributionStat updateSplits = new DistributionStat();
+    private final TimeStat updateEncodeTime = new TimeStat(MICROSECONDS);
 
     private long requestSuccess;
     private long requestFailure;
@@ -66,6 +73,13 @@ public class RemoteTaskStats
         updateWithPlanBytes.add(bytes);
     }
 
+    public void updateEncoded(long bytes, long splits, long encodeNanos)
+    {
+        updateBytes.add(bytes);
+        updateSplits.add(splits);
+        updateEncodeTime.add(encodeNanos, NANOSECONDS);
+    }
+
     @Managed
     public double getResponseSizeBytes()
     {
@@ -109,6 +123,27 @@ public class RemoteTaskStats
         return updateWithPlanBytes;
     }
 
+    @Managed
+    @Nested
+    public DistributionStat getUpdateBytes()
+    {
+        return updateBytes;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getUpdateSplits()
+    {
+        return updateSplits;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getUpdateEncodeTime()
+    {
+        return updateEncodeTime;
+    }
+
     @ThreadSafe
     private static class IncrementalAverage
     {
@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.remotetask;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Totals of the update requests sent to a single remote task, whereas {@link RemoteTaskStats} aggregates
+ * the requests of all the tasks of the coordinator.
+ */
+@ThreadSafe
+public class TaskUpdateStats
+{
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong updateBytes = new AtomicLong();
+    private final AtomicLong updateSplits = new AtomicLong();
+    private final AtomicLong updateEncodeNanos = new AtomicLong();
+
+    public void updateEncoded(long bytes, long splits, long encodeNanos)
+    {
+        updateCount.incrementAndGet();
+        updateBytes.addAndGet(bytes);
+        updateSplits.addAndGet(splits);
+        updateEncodeNanos.addAndGet(encodeNanos);
+    }
+
+    public long getUpdateCount()
+    {
+        return updateCount.get();
+    }
+
+    public long getUpdateBytes()
+    {
+        return updateBytes.get();
+    }
+
+    public long getUpdateSplits()
+    {
+        return updateSplits.get();
+    }
+
+    public long getUpdateEncodeNanos()
+    {
+        return updateEncodeNanos.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("updateCount", updateCount)
+                .add("updateBytes", updateBytes)
+                .add("updateSplits", updateSplits)
+                .add("updateEncodeNanos", updateEncodeNanos)
+                .toString();
+    }
+}
@@ -272,6 +272,7 @@ import static io.prestosql.SystemSessionProperties.getTaskWriterCount;
 import static io.prestosql.SystemSessionProperties.isCTEReuseEnabled;
 import static io.prestosql.SystemSessionProperties.isCrossRegionDynamicFilterEnabled;
 import static io.prestosql.SystemSessionProperties.isEnableDynamicFiltering;
+import static io.prestosql.SystemSessionProperties.isLateMaterialization;
 import static io.prestosql.SystemSessionProperties.isNonBlockingSpillOrderby;
 import static io.prestosql.SystemSessionProperties.isSpillEnabled;
 import static io.prestosql.SystemSessionProperties.isSpillForOuterJoinEnabled;
@@ -1271,7 +1272,10 @@ public class LocalExecutionPlanner
                     hashChannel,
                     1000,
                     joinCompiler,
-                    node.getRankingFunction());
+                    node.getRankingFunction(),
+                    isSpillEnabled(session) && isSpillWindowOperator(session),
+                    Optional.of(spillerFactory),
+                    pagesIndexFactory);
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, source);
         }
@@ -2619,6 +2623,14 @@ public class LocalExecutionPlanner
             JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactory =
                     createLookupSourceFactory(node, buildNode, buildSymbols, buildHashSymbol, probeSource, context, spillEnabled);
 
+            // The lookup join finishes a probe page before it asks for the next one, and loads the probe columns
+            // of the pages it outputs, so a scan directly feeding it can pass columns unloaded. They are then read
+            // only for probe pages producing output. Spilled probe rows outlive the page, so they require loaded pages.
+            List<OperatorFactory> probeFactories = probeSource.getOperatorFactories();
+            if (isLateMaterialization(session) && !spillEnabled && probeFactories.size() == 1 && probeFactories.get(0) instanceof ScanFilterAndProjectOperatorFactory) {
+                ((ScanFilterAndProjectOperatorFactory) probeFactories.get(0)).enableLateMaterialization();
+            }
+
             OperatorFactory operator = createLookupJoin(node, probeSource, probeSymbols, probeHashSymbol, lookupSourceFactory, context, spillEnabled);
 
             ImmutableMap.Builder<Symbol, Integer> outputMappings = ImmutableMap.builder();
@@ -17,7 +17,9 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.units.Duration;
 import io.prestosql.execution.StageInfo;
 import io.prestosql.execution.TaskInfo;
+import io.prestosql.operator.HashAggregationInfo;
 import io.prestosql.operator.HashCollisionsInfo;
+import io.prestosql.operator.OperatorInfo;
 import io.prestosql.operator.OperatorStats;
 import io.prestosql.operator.PipelineStats;
 import io.prestosql.operator.TaskStats;
@@ -121,8 +123,12 @@ public class PlanNodeStatsSummarizer
                                         operatorStats.getSumSquaredInputPositions())),
                         (map1, map2) -> mergeMaps(map1, map2, OperatorInputStats::merge));
 
-                if (operatorStats.getInfo() instanceof HashCollisionsInfo) {
-                    HashCollisionsInfo hashCollisionsInfo = (HashCollisionsInfo) operatorStats.getInfo();
+                OperatorInfo operatorInfo = operatorStats.getInfo();
+                if (operatorInfo instanceof HashAggregationInfo) {
+                    operatorInfo = ((HashAggregationInfo) operatorInfo).getHashCollisionsInfo();
+                }
+                if (operatorInfo instanceof HashCollisionsInfo) {
+                    HashCollisionsInfo hashCollisionsInfo = (HashCollisionsInfo) operatorInfo;
                     operatorHashCollisionsStats.merge(planNodeId,
                             ImmutableMap.of(
                                     operatorStats.getOperatorType(),
@@ -17,6 +17,7 @@ package io.prestosql.statestore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.json.ObjectMapperProvider;
 import io.airlift.log.Logger;
 import io.airlift.units.Duration;
@@ -26,16 +27,23 @@ import io.prestosql.spi.ErrorType;
 import io.prestosql.spi.statestore.StateCollection;
 import io.prestosql.spi.statestore.StateMap;
 import io.prestosql.spi.statestore.StateStore;
+import io.prestosql.spi.statestore.listener.EntryAddedListener;
+import io.prestosql.spi.statestore.listener.EntryEvent;
+import io.prestosql.spi.statestore.listener.EntryRemovedListener;
+import io.prestosql.spi.statestore.listener.EntryUpdatedListener;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -55,6 +63,8 @@ import static io.prestosql.utils.StateUtils.removeState;
 
 /**
  * State fetcher service used to fetch externalized query states from external state store
+ * Query states are cached, and only the states reported as changed by state store events are fetched again.
+ * All the states are fetched again every state expire time, in case events were lost.
  *
  * @since 2019-11-29
  */
@@ -66,6 +76,8 @@ public class StateFetcher
     private final Duration fetchInterval;
     private final Duration stateExpireTime;
     private final Set<String> stateCollections = new HashSet<>();
+    private final Map<String, CachedQueryStates> cachedQueryStates = new HashMap<>();
+    private final StateSyncStats stats;
     private final ScheduledExecutorService stateUpdateExecutor;
     private ScheduledFuture<?> backgroundTask;
 
@@ -73,10 +85,16 @@ public class StateFetcher
     private static final int THREAD_POOL_SIZE = 2;
 
     public StateFetcher(StateStoreProvider stateStoreProvider, Duration fetchInterval, Duration stateExpireTime)
+    {
+        this(stateStoreProvider, fetchInterval, stateExpireTime, new StateSyncStats());
+    }
+
+    public StateFetcher(StateStoreProvider stateStoreProvider, Duration fetchInterval, Duration stateExpireTime, StateSyncStats stats)
     {
         this.stateStoreProvider = stateStoreProvider;
         this.fetchInterval = fetchInterval;
         this.stateExpireTime = stateExpireTime;
+        this.stats = stats;
         this.stateUpdateExecutor = Executors.newScheduledThreadPool(THREAD_POOL_SIZE, threadsNamed("state-fetcher-%s"));
     }
 
@@ -106,6 +124,8 @@ public class StateFetcher
                 backgroundTask.cancel(true);
                 stateCollections.clear();
             }
+            cachedQueryStates.values().forEach(CachedQueryStates::close);
+            cachedQueryStates.clear();
         }
     }
 
@@ -127,7 +147,13 @@ public class StateFetcher
      */
     public void unregisterStateCollection(String stateCollectionName)
     {
-        stateCollections.remove(stateCollectionName);
+        synchronized (this) {
+            stateCollections.remove(stateCollectionName);
+            CachedQueryStates cached = cachedQueryStates.remove(stateCollectionName);
+            if (cached != null) {
+                cached.close();
+            }
+        }
     }
 
     /**
@@ -160,14 +186,16 @@ public class StateFetcher
                 }
 
                 if (stateCollection.getType() == StateCollection.Type.MAP) {
-                    Map<String, String> states = ((StateMap<String, String>) stateCollection).getAll();
-                    StateCacheStore.get().setCachedStates(stateCollectionName, deserializeFetchedStates(states));
+                    CachedQueryStates cached = cachedQueryStates.computeIfAbsent(stateCollectionName, name -> new CachedQueryStates());
+                    Map<String, SharedQueryState> states = cached.fetch((StateMap<String, String>) stateCollection, start);
+                    StateCacheStore.get().setCachedStates(stateCollectionName, checkExpiredStates(states));
                 }
                 else {
                     LOG.warn("Unsupported state collection type: %s", stateCollection.getType());
                 }
             }
             long end = System.currentTimeMillis();
+            stats.getFetchTime().add(end - start, TimeUnit.MILLISECONDS);
             LOG.debug("fetchStates ends at current time milliseconds: %s, at format HH:mm:ss:SSS:%s, total time use: %s",
                     end,
                     new SimpleDateFormat("HH:mm:ss:SSS").format(new Date(end)),
@@ -195,8 +223,9 @@ public class StateFetcher
 
             StateCacheStore.get().setCachedStates(CPU_USAGE_STATE_COLLECTION_NAME, ((StateMap) cpuUsageCollection).getAll());
 
-            Map<String, String> states = ((StateMap<String, String>) queryStateCollection).getAll();
-            StateCacheStore.get().setCachedStates(QUERY_STATE_COLLECTION_NAME, deserializeFetchedStates(states));
+            CachedQueryStates cached = cachedQueryStates.computeIfAbsent(QUERY_STATE_COLLECTION_NAME, name -> new CachedQueryStates());
+            Map<String, SharedQueryState> states = cached.fetch((StateMap<String, String>) queryStateCollection, start);
+            StateCacheStore.get().setCachedStates(QUERY_STATE_COLLECTION_NAME, checkExpiredStates(states));
 
             long end = System.currentTimeMillis();
             LOG.debug("fetchStates ends at current time milliseconds: %s, at format HH:mm:ss:SSS:%s, total time use: %s",
@@ -206,19 +235,15 @@ public class StateFetcher
         }
     }
 
-    private Map<String, SharedQueryState> deserializeFetchedStates(Map<String, String> states)
-            throws JsonProcessingException
+    private Map<String, SharedQueryState> checkExpiredStates(Map<String, SharedQueryState> states)
     {
         DateTime currentTime = new DateTime(DateTimeZone.UTC);
-        ImmutableMap.Builder<String, SharedQueryState> queryStatesBuilder = ImmutableMap.builder();
-        for (Map.Entry<String, String> entry : states.entrySet()) {
-            SharedQueryState state = MAPPER.readerFor(SharedQueryState.class).readValue(entry.getValue());
+        for (SharedQueryState state : states.values()) {
             if (isStateExpired(state, currentTime)) {
                 handleExpiredQueryState(state);
             }
-            queryStatesBuilder.put(entry.getKey(), state);
         }
-        return queryStatesBuilder.build();
+        return states;
     }
 
     /**
@@ -316,4 +341,100 @@ public class StateFetcher
 
         return newState;
     }
+
+    /**
+     * Query states of a state collection, kept between fetches together with their serialized form.
+     * Only states reported as added or updated by the state collection listener are fetched and deserialized again.
+     */
+    private class CachedQueryStates
+            implements EntryAddedListener<String, String>, EntryUpdatedListener<String, String>, EntryRemovedListener<String, String>
+    {
+        private final Set<String> changedKeys = ConcurrentHashMap.newKeySet();
+        private final Map<String, String> serializedStates = new HashMap<>();
+        private final Map<String, SharedQueryState> states = new HashMap<>();
+        private StateMap<String, String> stateMap;
+        private long lastFullFetchTime;
+
+        @Override
+        public void entryAdded(EntryEvent<String, String> event)
+        {
+            changedKeys.add(event.getKey());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, String> event)
+        {
+            changedKeys.add(event.getKey());
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<String, String> event)
+        {
+            changedKeys.add(event.getKey());
+        }
+
+        Map<String, SharedQueryState> fetch(StateMap<String, String> collection, long currentTime)
+                throws JsonProcessingException
+        {
+            boolean fullFetch = collection != stateMap || currentTime - lastFullFetchTime >= stateExpireTime.toMillis();
+            if (collection != stateMap) {
+                // listen before fetching, so that changes made during the fetch are fetched next time
+                close();
+                collection.addEntryListener(this);
+                stateMap = collection;
+            }
+
+            Map<String, String> fetched;
+            if (fullFetch) {
+                changedKeys.clear();
+                fetched = collection.getAll();
+                serializedStates.keySet().retainAll(fetched.keySet());
+                states.keySet().retainAll(fetched.keySet());
+                lastFullFetchTime = currentTime;
+            }
+            else {
+                Set<String> keys = drainChangedKeys();
+                fetched = keys.isEmpty() ? ImmutableMap.of() : collection.getAll(keys);
+                for (String key : keys) {
+                    if (!fetched.containsKey(key)) {
+                        serializedStates.remove(key);
+                        states.remove(key);
+                    }
+                }
+            }
+
+            long fetchedBytes = 0;
+            for (Map.Entry<String, String> entry : fetched.entrySet()) {
+                fetchedBytes += entry.getValue().length();
+                if (entry.getValue().equals(serializedStates.get(entry.getKey()))) {
+                    continue;
+                }
+                SharedQueryState state = MAPPER.readerFor(SharedQueryState.class).readValue(entry.getValue());
+                serializedStates.put(entry.getKey(), entry.getValue());
+                states.put(entry.getKey(), state);
+                stats.stateDeserialized();
+            }
+            stats.statesFetched(fullFetch, fetched.size(), fetchedBytes);
+            return ImmutableMap.copyOf(states);
+        }
+
+        void close()
+        {
+            if (stateMap != null) {
+                stateMap.removeEntryListener(this);
+                stateMap = null;
+            }
+        }
+
+        private Set<String> drainChangedKeys()
+        {
+            ImmutableSet.Builder<String> keys = ImmutableSet.builder();
+            Iterator<String> iterator = changedKeys.iterator();
+            while (iterator.hasNext()) {
+                keys.add(iterator.next());
+                iterator.remove();
+            }
+            return keys.build();
+        }
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2018-2021. Huawei Technologies Co., Ltd. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.statestore;
+
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Statistics of the query states synchronized between the coordinators by {@link StateUpdater} and {@link StateFetcher}
+ */
+public class StateSyncStats
+{
+    private final TimeStat updateTime = new TimeStat(MILLISECONDS);
+    private final CounterStat updatedStates = new CounterStat();
+    private final CounterStat unchangedStates = new CounterStat();
+    private final CounterStat updatedBytes = new CounterStat();
+
+    private final TimeStat fetchTime = new TimeStat(MILLISECONDS);
+    private final CounterStat fullFetches = new CounterStat();
+    private final CounterStat incrementalFetches = new CounterStat();
+    private final CounterStat fetchedStates = new CounterStat();
+    private final CounterStat fetchedBytes = new CounterStat();
+    private final CounterStat deserializedStates = new CounterStat();
+
+    public void stateUpdated(long bytes)
+    {
+        updatedStates.update(1);
+        updatedBytes.update(bytes);
+    }
+
+    public void stateUnchanged()
+    {
+        unchangedStates.update(1);
+    }
+
+    public void statesFetched(boolean fullFetch, int states, long bytes)
+    {
+        if (fullFetch) {
+            fullFetches.update(1);
+        }
+        else {
+            incrementalFetches.update(1);
+        }
+        fetchedStates.update(states);
+        fetchedBytes.update(bytes);
+    }
+
+    public void stateDeserialized()
+    {
+        deserializedStates.update(1);
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getUpdateTime()
+    {
+        return updateTime;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getUpdatedStates()
+    {
+        return updatedStates;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getUnchangedStates()
+    {
+        return unchangedStates;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getUpdatedBytes()
+    {
+        return updatedBytes;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getFetchTime()
+    {
+        return fetchTime;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getFullFetches()
+    {
+        return fullFetches;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getIncrementalFetches()
+    {
+        return incrementalFetches;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getFetchedStates()
+    {
+        return fetchedStates;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getFetchedBytes()
+    {
+        return fetchedBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getDeserializedStates()
+    {
+        return deserializedStates;
+    }
+}
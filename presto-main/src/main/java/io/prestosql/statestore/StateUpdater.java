@@ -25,15 +25,19 @@ import io.airlift.units.Duration;
 import io.prestosql.dispatcher.DispatchQuery;
 import io.prestosql.execution.ManagedQueryExecution;
 import io.prestosql.execution.QueryState;
+import io.prestosql.server.BasicQueryInfo;
 import io.prestosql.spi.statestore.StateCollection;
 import io.prestosql.spi.statestore.StateMap;
 import io.prestosql.spi.statestore.StateStore;
 
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -50,6 +54,8 @@ import static io.prestosql.utils.StateUtils.removeState;
 
 /**
  * State updater service used to update locally registered query states to external state store
+ * A query state is only written again when it has changed, or when it was last written
+ * more than the refresh interval ago, so that other coordinators do not consider it as expired
  *
  * @since 2019-11-29
  */
@@ -59,17 +65,27 @@ public class StateUpdater
 
     private final StateStoreProvider stateStoreProvider;
     private final Duration updateInterval;
+    private final Duration refreshInterval;
+    private final StateSyncStats stats;
     private final Multimap<String, DispatchQuery> registeredQueries = Multimaps.synchronizedMultimap(ArrayListMultimap.create());
     private final ScheduledExecutorService stateUpdateExecutor;
+    private final Map<ManagedQueryExecution, PublishedState> publishedStates = new ConcurrentHashMap<>();
     private ScheduledFuture<?> backgroundTask;
 
     private static final ObjectMapper MAPPER = new ObjectMapperProvider().get();
     private static final int THREAD_POOL_SIZE = 2;
 
     public StateUpdater(StateStoreProvider stateStoreProvider, Duration updateInterval)
+    {
+        this(stateStoreProvider, updateInterval, updateInterval, new StateSyncStats());
+    }
+
+    public StateUpdater(StateStoreProvider stateStoreProvider, Duration updateInterval, Duration refreshInterval, StateSyncStats stats)
     {
         this.stateStoreProvider = stateStoreProvider;
         this.updateInterval = updateInterval;
+        this.refreshInterval = refreshInterval;
+        this.stats = stats;
         this.stateUpdateExecutor = Executors.newScheduledThreadPool(THREAD_POOL_SIZE, threadsNamed("state-updater-%s"));
     }
 
@@ -98,6 +114,7 @@ public class StateUpdater
             if (backgroundTask != null) {
                 backgroundTask.cancel(true);
                 registeredQueries.clear();
+                publishedStates.clear();
             }
         }
     }
@@ -132,6 +149,7 @@ public class StateUpdater
         synchronized (registeredQueries) {
             registeredQueries.remove(stateCollectionName, query);
         }
+        publishedStates.remove(query);
     }
 
     /**
@@ -160,17 +178,29 @@ public class StateUpdater
         synchronized (registeredQueries) {
             for (DispatchQuery query : registeredQueries.get(QUERY_STATE_COLLECTION_NAME)) {
                 SharedQueryState state = SharedQueryState.create(query);
-                String stateJson = MAPPER.writeValueAsString(state);
+                String queryId = state.getBasicQueryInfo().getQueryId().getId();
 
                 if (state.getBasicQueryInfo().getState() == QueryState.FINISHED || state.getBasicQueryInfo().getState() == QueryState.FAILED) {
                     // No need to update states for finished queries
                     // also move finished queries to finished-query state collection
                     queriesToUnregister.add(query);
-                    ((StateMap) finishedQueries).put(state.getBasicQueryInfo().getQueryId().getId(), stateJson);
+                    String stateJson = MAPPER.writeValueAsString(state);
+                    ((StateMap) finishedQueries).put(queryId, stateJson);
+                    stats.stateUpdated(stateJson.length());
                     continue;
                 }
 
-                ((StateMap) queries).put(state.getBasicQueryInfo().getQueryId().getId(), stateJson);
+                List<Object> version = getStateVersion(state);
+                PublishedState published = publishedStates.get(query);
+                if (published != null && published.version.equals(version) && start - published.publishTimeMillis < refreshInterval.toMillis()) {
+                    stats.stateUnchanged();
+                    continue;
+                }
+
+                String stateJson = MAPPER.writeValueAsString(state);
+                ((StateMap) queries).put(queryId, stateJson);
+                publishedStates.put(query, new PublishedState(version, start));
+                stats.stateUpdated(stateJson.length());
             }
         }
 
@@ -179,12 +209,31 @@ public class StateUpdater
         }
 
         long end = System.currentTimeMillis();
+        stats.getUpdateTime().add(end - start, TimeUnit.MILLISECONDS);
         LOG.debug("updateStates ends at current time milliseconds: %s, at format HH:mm:ss:SSS:%s, total time use: %s",
                 end,
                 new SimpleDateFormat("HH:mm:ss:SSS").format(new Date(end)),
                 end - start);
     }
 
+    /**
+     * The parts of a query state that other coordinators act on. Changes of the other parts, like the elapsed time,
+     * are only written when the state is refreshed.
+     */
+    private static List<Object> getStateVersion(SharedQueryState state)
+    {
+        BasicQueryInfo queryInfo = state.getBasicQueryInfo();
+        return Arrays.asList(
+                queryInfo.getState(),
+                queryInfo.isScheduled(),
+                queryInfo.getQueryStats().getProgressPercentage(),
+                state.getErrorCode(),
+                state.getUserMemoryReservation(),
+                state.getTotalMemoryReservation(),
+                state.getTotalCpuTime(),
+                state.getExecutionStartTime());
+    }
+
     private void queryFinished(ManagedQueryExecution query)
     {
         StateStore stateStore = stateStoreProvider.getStateStore();
@@ -210,4 +259,16 @@ public class StateUpdater
         StateCollection stateCollection = stateStore.getStateCollection(stateCollectionName);
         removeState(stateCollection, Optional.of(query.getBasicQueryInfo().getQueryId()), LOG);
     }
+
+    private static class PublishedState
+    {
+        private final List<Object> version;
+        private final long publishTimeMillis;
+
+        PublishedState(List<Object> version, long publishTimeMillis)
+        {
+            this.version = version;
+            this.publishTimeMillis = publishTimeMillis;
+        }
+    }
 }
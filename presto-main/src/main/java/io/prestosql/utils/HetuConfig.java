@@ -53,6 +53,7 @@ public class HetuConfig
     private Duration stateFetchInterval = new Duration(100, TimeUnit.MILLISECONDS);
     private Duration querySubmitTimeout = new Duration(10, TimeUnit.SECONDS);
     private Duration stateExpireTime = new Duration(60, TimeUnit.SECONDS);
+    private Duration stateRefreshInterval = new Duration(5, TimeUnit.SECONDS);
     private int dataCenterSplits = 5;
     private Duration dataCenterConsumerTimeout = new Duration(10, TimeUnit.MINUTES);
     private boolean executionPlanCacheEnabled;
@@ -342,6 +343,21 @@ public class HetuConfig
         return this;
     }
 
+    @NotNull
+    @MinDuration("10ms")
+    public Duration getStateRefreshInterval()
+    {
+        return stateRefreshInterval;
+    }
+
+    @Config("hetu.multiple-coordinator.state-refresh-interval")
+    @ConfigDescription("Maximum time an unchanged query state is not updated to state store")
+    public HetuConfig setStateRefreshInterval(Duration stateRefreshInterval)
+    {
+        this.stateRefreshInterval = stateRefreshInterval;
+        return this;
+    }
+
     public int getDataCenterSplits()
     {
         return dataCenterSplits;
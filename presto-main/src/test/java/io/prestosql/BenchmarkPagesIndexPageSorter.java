@@ -39,6 +39,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.spi.block.SortOrder.ASC_NULLS_FIRST;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
@@ -61,6 +62,15 @@ public class BenchmarkPagesIndexPageSorter
         return addresses.length;
     }
 
+    @Benchmark
+    public int sortPagesIndex(BenchmarkData data)
+    {
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory(false, data.normalizedKeySort).newPagesIndex(data.types, 10_000);
+        data.pages.forEach(pagesIndex::addPage);
+        pagesIndex.sort(data.sortChannels, nCopies(data.sortChannels.size(), ASC_NULLS_FIRST), newSimpleAggregatedMemoryContext().newLocalMemoryContext("sort"));
+        return pagesIndex.getPositionCount();
+    }
+
     private static List<Page> createPages(int pageCount, int channelCount, Type type)
     {
         int positionCount = PageBuilderStatus.DEFAULT_MAX_PAGE_SIZE_IN_BYTES / (channelCount * 8);
@@ -99,6 +109,9 @@ public class BenchmarkPagesIndexPageSorter
         @Param({"BIGINT", "VARCHAR", "DOUBLE", "BOOLEAN"})
         private String sortChannelType;
 
+        @Param({"true", "false"})
+        private boolean normalizedKeySort;
+
         private List<Page> pages;
         private final int maxPages = 500;
 
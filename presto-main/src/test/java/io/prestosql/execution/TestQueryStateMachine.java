@@ -16,22 +16,40 @@ package io.prestosql.execution;
 import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import io.airlift.testing.TestingTicker;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.prestosql.Session;
 import io.prestosql.client.FailureInfo;
+import io.prestosql.cost.StatsAndCosts;
 import io.prestosql.execution.resourcegroups.NoOpResourceGroupManager;
 import io.prestosql.execution.warnings.WarningCollector;
 import io.prestosql.memory.VersionedMemoryPoolId;
 import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.HashBuilderOperator;
+import io.prestosql.operator.OperatorStats;
+import io.prestosql.operator.TaskStats;
 import io.prestosql.security.AccessControl;
 import io.prestosql.security.AccessControlManager;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.CatalogName;
 import io.prestosql.spi.memory.MemoryPoolId;
+import io.prestosql.spi.plan.JoinNode;
+import io.prestosql.spi.plan.JoinNode.DistributionType;
+import io.prestosql.spi.plan.JoinNode.EquiJoinClause;
+import io.prestosql.spi.plan.PlanNode;
+import io.prestosql.spi.plan.PlanNodeId;
+import io.prestosql.spi.plan.Symbol;
+import io.prestosql.spi.plan.ValuesNode;
 import io.prestosql.spi.resourcegroups.ResourceGroupId;
 import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.Partitioning;
+import io.prestosql.sql.planner.PartitioningScheme;
+import io.prestosql.sql.planner.PlanFragment;
+import io.prestosql.sql.planner.plan.PlanFragmentId;
 import io.prestosql.transaction.TransactionManager;
+import org.joda.time.DateTime;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
@@ -45,7 +63,9 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.execution.QueryState.DISPATCHING;
 import static io.prestosql.execution.QueryState.FAILED;
@@ -56,13 +76,23 @@ import static io.prestosql.execution.QueryState.QUEUED;
 import static io.prestosql.execution.QueryState.RUNNING;
 import static io.prestosql.execution.QueryState.STARTING;
 import static io.prestosql.execution.QueryState.WAITING_FOR_RESOURCES;
+import static io.prestosql.execution.TaskStatus.failWith;
+import static io.prestosql.execution.TestStageStats.createStageStats;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.operator.StageExecutionDescriptor.ungroupedExecution;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.prestosql.spi.StandardErrorCode.USER_CANCELED;
+import static io.prestosql.spi.plan.JoinNode.DistributionType.PARTITIONED;
+import static io.prestosql.spi.plan.JoinNode.DistributionType.REPLICATED;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.analyzer.FeaturesConfig.JoinDistributionType.AUTOMATIC;
+import static io.prestosql.sql.analyzer.FeaturesConfig.JoinDistributionType.BROADCAST;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
 import static io.prestosql.transaction.InMemoryTransactionManager.createTestTransactionManager;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -382,6 +412,61 @@ public class TestQueryStateMachine
         assertEquals(stateMachine.getPeakTaskRevocableMemory(), 10);
     }
 
+    @Test
+    public void testJoinDistributionStats()
+    {
+        // the replicated join builds 4000 bytes in each of the 4 finished tasks, the partitioned join builds 1000 bytes overall
+        StageInfo stageInfo = createJoinStageInfo(
+                StageState.FINISHED,
+                4,
+                1,
+                createHashBuilderStats(new PlanNodeId("replicated"), 16_000, 400),
+                createHashBuilderStats(new PlanNodeId("partitioned"), 1_000, 10));
+        Optional<DataSize> joinMaxBroadcastTableSize = Optional.of(new DataSize(2_000, BYTE));
+
+        Map<PlanNodeId, JoinDistributionStats> stats = Maps.uniqueIndex(
+                QueryStateMachine.getJoinDistributionStats(stageInfo, AUTOMATIC, joinMaxBroadcastTableSize),
+                JoinDistributionStats::getPlanNodeId);
+        assertEquals(stats.size(), 2);
+
+        JoinDistributionStats replicated = stats.get(new PlanNodeId("replicated"));
+        assertEquals(replicated.getDistributionType(), REPLICATED);
+        assertEquals(replicated.getBuildDataSize(), new DataSize(4_000, BYTE));
+        assertEquals(replicated.getBuildPositions(), 100);
+        assertEquals(replicated.getPreferredDistributionType(), PARTITIONED);
+        assertTrue(replicated.isMisestimated());
+
+        JoinDistributionStats partitioned = stats.get(new PlanNodeId("partitioned"));
+        assertEquals(partitioned.getDistributionType(), PARTITIONED);
+        assertEquals(partitioned.getBuildDataSize(), new DataSize(1_000, BYTE));
+        assertEquals(partitioned.getBuildPositions(), 10);
+        assertEquals(partitioned.getPreferredDistributionType(), REPLICATED);
+        assertTrue(partitioned.isMisestimated());
+
+        // a distribution forced by the session is never reported as misestimated
+        for (JoinDistributionStats forced : QueryStateMachine.getJoinDistributionStats(stageInfo, BROADCAST, joinMaxBroadcastTableSize)) {
+            assertEquals(forced.getPreferredDistributionType(), forced.getDistributionType());
+            assertFalse(forced.isMisestimated());
+        }
+
+        // joins whose build side has not reported are skipped
+        StageInfo partialStageInfo = createJoinStageInfo(StageState.FINISHED, 4, 0, createHashBuilderStats(new PlanNodeId("partitioned"), 1_000, 10));
+        assertEquals(
+                QueryStateMachine.getJoinDistributionStats(partialStageInfo, AUTOMATIC, joinMaxBroadcastTableSize).stream()
+                        .map(JoinDistributionStats::getPlanNodeId)
+                        .collect(toImmutableList()),
+                ImmutableList.of(new PlanNodeId("partitioned")));
+
+        // the build sides of a stage that has not finished may be incomplete
+        StageInfo runningStageInfo = createJoinStageInfo(
+                StageState.RUNNING,
+                4,
+                0,
+                createHashBuilderStats(new PlanNodeId("replicated"), 16_000, 400),
+                createHashBuilderStats(new PlanNodeId("partitioned"), 1_000, 10));
+        assertTrue(QueryStateMachine.getJoinDistributionStats(runningStageInfo, AUTOMATIC, joinMaxBroadcastTableSize).isEmpty());
+    }
+
     private static void assertFinalState(QueryStateMachine stateMachine, QueryState expectedState)
     {
         assertFinalState(stateMachine, expectedState, null);
@@ -534,4 +619,116 @@ public class TestQueryStateMachine
         assertEquals(actual.getSystemProperties(), expected.getSystemProperties());
         assertEquals(actual.getConnectorProperties(), expected.getConnectorProperties());
     }
+
+    private static StageInfo createJoinStageInfo(StageState state, int finishedTasks, int abortedTasks, OperatorStats... operatorSummaries)
+    {
+        Symbol probe = new Symbol("probe");
+        Symbol replicatedBuild = new Symbol("replicated_build");
+        Symbol partitionedBuild = new Symbol("partitioned_build");
+        JoinNode replicatedJoin = createJoin("replicated", createValues("probe_values", probe), createValues("replicated_values", replicatedBuild), REPLICATED);
+        JoinNode partitionedJoin = createJoin("partitioned", replicatedJoin, createValues("partitioned_values", partitionedBuild), PARTITIONED);
+        PlanFragment plan = new PlanFragment(
+                new PlanFragmentId("plan"),
+                partitionedJoin,
+                ImmutableMap.of(probe, BIGINT, replicatedBuild, BIGINT, partitionedBuild, BIGINT),
+                SOURCE_DISTRIBUTION,
+                ImmutableList.of(),
+                new PartitioningScheme(Partitioning.create(SINGLE_DISTRIBUTION, ImmutableList.of()), partitionedJoin.getOutputSymbols()),
+                ungroupedExecution(),
+                StatsAndCosts.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty());
+        ImmutableList.Builder<TaskInfo> tasks = ImmutableList.builder();
+        for (int task = 0; task < finishedTasks + abortedTasks; task++) {
+            TaskInfo taskInfo = TaskInfo.createInitialTask(new TaskId("query", 0, task, 0), LOCATION, "node", ImmutableList.of(), new TaskStats(new DateTime(0), null));
+            TaskState taskState = task < finishedTasks ? TaskState.FINISHED : TaskState.ABORTED;
+            tasks.add(taskInfo.withTaskStatus(failWith(taskInfo.getTaskStatus(), taskState, ImmutableList.of())));
+        }
+        int totalTasks = finishedTasks + abortedTasks;
+        return new StageInfo(
+                new StageId("query", 0),
+                state,
+                false,
+                0,
+                LOCATION,
+                plan,
+                ImmutableList.of(BIGINT),
+                createStageStats(totalTasks, totalTasks, ImmutableList.copyOf(operatorSummaries)),
+                tasks.build(),
+                ImmutableList.of(),
+                ImmutableMap.of(),
+                null);
+    }
+
+    private static ValuesNode createValues(String id, Symbol symbol)
+    {
+        return new ValuesNode(new PlanNodeId(id), ImmutableList.of(symbol), ImmutableList.of());
+    }
+
+    private static JoinNode createJoin(String id, PlanNode probe, PlanNode build, DistributionType distributionType)
+    {
+        return new JoinNode(
+                new PlanNodeId(id),
+                JoinNode.Type.INNER,
+                probe,
+                build,
+                ImmutableList.of(new EquiJoinClause(probe.getOutputSymbols().get(0), build.getOutputSymbols().get(0))),
+                ImmutableList.<Symbol>builder()
+                        .addAll(probe.getOutputSymbols())
+                        .addAll(build.getOutputSymbols())
+                        .build(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(distributionType),
+                Optional.empty(),
+                ImmutableMap.of());
+    }
+
+    private static OperatorStats createHashBuilderStats(PlanNodeId planNodeId, long inputBytes, long inputPositions)
+    {
+        DataSize zeroBytes = new DataSize(0, BYTE);
+        Duration zeroNanos = new Duration(0, NANOSECONDS);
+        return new OperatorStats(
+                0,
+                1,
+                2,
+                planNodeId,
+                HashBuilderOperator.class.getSimpleName(),
+                1,
+                1,
+                zeroNanos,
+                zeroNanos,
+                zeroBytes,
+                0,
+                zeroBytes,
+                0,
+                new DataSize(inputBytes, BYTE),
+                new DataSize(inputBytes, BYTE),
+                inputPositions,
+                0,
+                0,
+                zeroNanos,
+                zeroNanos,
+                zeroBytes,
+                0,
+                zeroBytes,
+                zeroNanos,
+                0,
+                zeroNanos,
+                zeroNanos,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                zeroNanos,
+                zeroNanos,
+                Optional.empty(),
+                null);
+    }
 }
@@ -31,9 +31,12 @@ import java.util.Optional;
 
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.succinctBytes;
+import static io.prestosql.spi.plan.JoinNode.DistributionType.PARTITIONED;
+import static io.prestosql.spi.plan.JoinNode.DistributionType.REPLICATED;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.joda.time.DateTimeZone.UTC;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestQueryStats
 {
@@ -247,6 +250,14 @@ public class TestQueryStats
                     107)),
 
             operatorSummaries,
+
+            ImmutableList.of(new JoinDistributionStats(
+                    new PlanNodeId("join"),
+                    REPLICATED,
+                    new DataSize(108, BYTE),
+                    109,
+                    PARTITIONED)),
+
             new Duration(20, NANOSECONDS),
             new Duration(20, NANOSECONDS),
             new Duration(21, NANOSECONDS),
@@ -334,6 +345,15 @@ public class TestQueryStats
         assertEquals(gcStatistics.getTotalFullGcSec(), 106);
         assertEquals(gcStatistics.getAverageFullGcSec(), 107);
 
+        assertEquals(actual.getJoinDistributionStats().size(), 1);
+        JoinDistributionStats joinDistributionStats = actual.getJoinDistributionStats().get(0);
+        assertEquals(joinDistributionStats.getPlanNodeId(), new PlanNodeId("join"));
+        assertEquals(joinDistributionStats.getDistributionType(), REPLICATED);
+        assertEquals(joinDistributionStats.getBuildDataSize(), new DataSize(108, BYTE));
+        assertEquals(joinDistributionStats.getBuildPositions(), 109);
+        assertEquals(joinDistributionStats.getPreferredDistributionType(), PARTITIONED);
+        assertTrue(joinDistributionStats.isMisestimated());
+
         assertEquals(420, actual.getWrittenPositions());
         assertEquals(58, actual.getLogicalWrittenDataSize().toBytes());
     }
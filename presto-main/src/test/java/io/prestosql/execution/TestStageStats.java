@@ -20,10 +20,13 @@ import io.airlift.stats.Distribution;
 import io.airlift.stats.Distribution.DistributionSnapshot;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.prestosql.operator.OperatorStats;
 import io.prestosql.spi.eventlistener.StageGcStatistics;
 import org.joda.time.DateTime;
 import org.testng.annotations.Test;
 
+import java.util.List;
+
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.testng.Assert.assertEquals;
@@ -179,4 +182,65 @@ public class TestStageStats
         }
         return distribution.snapshot();
     }
+
+    static StageStats createStageStats(int totalTasks, int completedTasks, List<OperatorStats> operatorSummaries)
+    {
+        DataSize zeroBytes = new DataSize(0, BYTE);
+        Duration zeroNanos = new Duration(0, NANOSECONDS);
+        return new StageStats(
+                new DateTime(0),
+                new Distribution().snapshot(),
+                totalTasks,
+                totalTasks - completedTasks,
+                completedTasks,
+                0,
+                0,
+                0,
+                0,
+                0,
+                0,
+                0.0,
+                0.0,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                zeroNanos,
+                zeroNanos,
+                zeroNanos,
+                zeroNanos,
+                zeroNanos,
+                false,
+                ImmutableSet.of(),
+                zeroBytes,
+                zeroBytes,
+                0,
+                0,
+                zeroBytes,
+                zeroBytes,
+                0,
+                0,
+                zeroBytes,
+                zeroBytes,
+                0,
+                0,
+                zeroBytes,
+                zeroBytes,
+                0,
+                0,
+                zeroBytes,
+                zeroBytes,
+                zeroBytes,
+                0,
+                0,
+                zeroBytes,
+                zeroBytes,
+                new StageGcStatistics(0, 0, 0, 0, 0, 0, 0),
+                operatorSummaries,
+                zeroNanos,
+                zeroNanos,
+                zeroNanos,
+                zeroNanos);
+    }
 }
@@ -85,7 +85,6 @@ public class BenchmarkHashBuildAndJoinOperators
     public static class BuildContext
     {
         protected static final int ROWS_PER_PAGE = 1024;
-        protected static final int BUILD_ROWS_NUMBER = 8_000_000;
 
         @Param({"varchar", "bigint", "all"})
         protected String hashColumns = "bigint";
@@ -96,6 +95,10 @@ public class BenchmarkHashBuildAndJoinOperators
         @Param({"1", "5"})
         protected int buildRowsRepetition = 1;
 
+        // a build side which fits in the CPU caches and one which does not
+        @Param({"8000000", "10000"})
+        protected int buildRowsNumber = 8_000_000;
+
         protected ExecutorService executor;
         protected ScheduledExecutorService scheduledExecutor;
         protected List<Page> buildPages;
@@ -154,10 +157,10 @@ public class BenchmarkHashBuildAndJoinOperators
         {
             RowPagesBuilder buildPagesBuilder = rowPagesBuilder(buildHashEnabled, hashChannels, ImmutableList.of(VARCHAR, BIGINT, BIGINT));
 
-            int maxValue = BUILD_ROWS_NUMBER / buildRowsRepetition + 40;
+            int maxValue = buildRowsNumber / buildRowsRepetition + 40;
             int rows = 0;
-            while (rows < BUILD_ROWS_NUMBER) {
-                int newRows = Math.min(BUILD_ROWS_NUMBER - rows, ROWS_PER_PAGE);
+            while (rows < buildRowsNumber) {
+                int newRows = Math.min(buildRowsNumber - rows, ROWS_PER_PAGE);
                 buildPagesBuilder.addSequencePage(newRows, (rows + 20) % maxValue, (rows + 30) % maxValue, (rows + 40) % maxValue);
                 buildPagesBuilder.pageBreak();
                 rows += newRows;
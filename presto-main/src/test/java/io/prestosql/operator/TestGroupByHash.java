@@ -50,6 +50,7 @@ import static io.prestosql.operator.GroupByHash.createGroupByHash;
 import static io.prestosql.spi.block.DictionaryId.randomDictionaryId;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.type.TypeUtils.getHashBlock;
 import static org.testng.Assert.assertEquals;
@@ -393,6 +394,60 @@ public class TestGroupByHash
         assertTrue(groupByHash.contains(0, new Page(testValuesBlock, testStringValuesBlock, testHashBlock), hashChannels));
     }
 
+    @Test
+    public void testMultipleFixedWidthChannels()
+    {
+        // every combination of the two columns first shows up in the first 300 rows
+        List<Long> bigints = new ArrayList<>();
+        List<Integer> integers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            bigints.add(i % 100 == 7 ? null : (long) (i % 100));
+            integers.add(i % 3 == 2 ? null : i % 3);
+        }
+        Block bigintBlock = BlockAssertions.createLongsBlock(bigints);
+        Block integerBlock = BlockAssertions.createIntsBlock(integers);
+        Block hashBlock = TypeUtils.getHashBlock(ImmutableList.of(BIGINT, INTEGER), bigintBlock, integerBlock);
+        Page page = new Page(bigintBlock, integerBlock, hashBlock);
+        int[] hashChannels = {0, 1};
+
+        // the small expected size forces rehashes
+        GroupByHash groupByHash = createGroupByHash(TEST_SESSION, ImmutableList.of(BIGINT, INTEGER), hashChannels, Optional.of(2), 10, JOIN_COMPILER);
+        assertTrue(groupByHash instanceof FlatGroupByHash);
+        Work<GroupByIdBlock> work = groupByHash.getGroupIds(page);
+        work.process();
+        GroupByIdBlock groupIds = work.getResult();
+        assertEquals(groupByHash.getGroupCount(), 300);
+        for (int i = 0; i < groupIds.getPositionCount(); i++) {
+            assertEquals(groupIds.getGroupId(i), i % 300);
+        }
+
+        PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+        for (int i = 0; i < groupByHash.getGroupCount(); i++) {
+            pageBuilder.declarePosition();
+            groupByHash.appendValuesTo(i, pageBuilder, 0);
+        }
+        Page outputPage = pageBuilder.build();
+        BlockAssertions.assertBlockEquals(BIGINT, outputPage.getBlock(0), bigintBlock.getRegion(0, 300));
+        BlockAssertions.assertBlockEquals(INTEGER, outputPage.getBlock(1), integerBlock.getRegion(0, 300));
+        BlockAssertions.assertBlockEquals(BIGINT, outputPage.getBlock(2), hashBlock.getRegion(0, 300));
+
+        assertTrue(groupByHash.contains(7, new Page(bigintBlock, integerBlock), hashChannels));
+        assertFalse(groupByHash.contains(0, new Page(BlockAssertions.createLongsBlock(100L), BlockAssertions.createIntsBlock(0)), hashChannels));
+
+        // groups added after a snapshot are gone once it is restored
+        Object snapshot = groupByHash.capture(TestingPagesSerdeFactory.testingPagesSerde());
+        Block newBigintBlock = BlockAssertions.createLongsBlock(100L);
+        Block newIntegerBlock = BlockAssertions.createIntsBlock(0);
+        groupByHash.addPage(new Page(newBigintBlock, newIntegerBlock, TypeUtils.getHashBlock(ImmutableList.of(BIGINT, INTEGER), newBigintBlock, newIntegerBlock))).process();
+        assertEquals(groupByHash.getGroupCount(), 301);
+        groupByHash.restore(snapshot, TestingPagesSerdeFactory.testingPagesSerde());
+        assertEquals(groupByHash.getGroupCount(), 300);
+        work = groupByHash.getGroupIds(page);
+        work.process();
+        assertEquals(work.getResult().getGroupId(999), 999 % 300);
+        assertEquals(groupByHash.getGroupCount(), 300);
+    }
+
     @Test
     public void testForceRehash()
     {
@@ -21,6 +21,7 @@ import io.airlift.units.DataSize;
 import io.airlift.units.DataSize.Unit;
 import io.prestosql.ExceededMemoryLimitException;
 import io.prestosql.RowPagesBuilder;
+import io.prestosql.Session;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.HashAggregationOperator.HashAggregationOperatorFactory;
@@ -70,6 +71,8 @@ import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.airlift.units.DataSize.succinctBytes;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.SystemSessionProperties.ADAPTIVE_PARTIAL_AGGREGATION_ENABLED;
+import static io.prestosql.SystemSessionProperties.ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.GroupByHashYieldAssertion.GroupByHashYieldResult;
 import static io.prestosql.operator.GroupByHashYieldAssertion.createPagesWithDistinctHashKeys;
@@ -87,6 +90,7 @@ import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.TypeSignature.parseTypeSignature;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
+import static io.prestosql.testing.TestingSession.testSessionBuilder;
 import static io.prestosql.testing.TestingTaskContext.createTaskContext;
 import static java.lang.String.format;
 import static java.util.Collections.emptyIterator;
@@ -813,6 +817,65 @@ public class TestHashAggregationOperator
         assertEquals(driverContext.getMemoryUsage(), 0);
     }
 
+    @Test(dataProvider = "hashEnabled")
+    public void testAdaptivePartialAggregation(boolean hashEnabled)
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        HashAggregationOperatorFactory operatorFactory = createPartialSumOperatorFactory(hashEnabled, hashChannels);
+        Session session = testSessionBuilder()
+                .setSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_ENABLED, "true")
+                .setSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS, "1000")
+                .build();
+
+        // every row is a group of its own, the aggregation switches to pass-through after 1000 rows
+        RowPagesBuilder uniqueRows = rowPagesBuilder(hashEnabled, hashChannels, BIGINT);
+        List<Page> input = uniqueRows
+                .addSequencePage(500, 0)
+                .addSequencePage(500, 500)
+                .addSequencePage(500, 1000)
+                .addSequencePage(500, 1500)
+                .build();
+        DriverContext driverContext = createDriverContext(session);
+        List<Page> pages = toPages(operatorFactory, driverContext, input);
+        // one page flushed from the hash table and the last two input pages passed through
+        assertEquals(pages.size(), 3);
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT)
+                .pages(rowPagesBuilder(BIGINT, BIGINT).addSequencePage(2000, 0, 0).build())
+                .build();
+        assertPagesEqualIgnoreOrder(driverContext, pages, expected, hashEnabled, Optional.of(hashChannels.size()));
+
+        // repeated keys are reduced by the partial aggregation
+        RowPagesBuilder repeatedRows = rowPagesBuilder(hashEnabled, hashChannels, BIGINT);
+        input = repeatedRows
+                .addSequencePage(500, 0)
+                .addSequencePage(500, 0)
+                .addSequencePage(500, 0)
+                .addSequencePage(500, 0)
+                .build();
+        driverContext = createDriverContext(session);
+        pages = toPages(operatorFactory, driverContext, input);
+        assertEquals(pages.size(), 1);
+        assertEquals(pages.get(0).getPositionCount(), 500);
+    }
+
+    private HashAggregationOperatorFactory createPartialSumOperatorFactory(boolean hashEnabled, List<Integer> hashChannels)
+    {
+        return new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                ImmutableList.of(),
+                Step.PARTIAL,
+                ImmutableList.of(LONG_SUM.bind(ImmutableList.of(0), Optional.empty())),
+                hashEnabled ? Optional.of(1) : Optional.empty(),
+                Optional.empty(),
+                100_000,
+                Optional.of(new DataSize(16, MEGABYTE)),
+                joinCompiler,
+                false);
+    }
+
     @Test
     public void testMergeWithMemorySpill()
     {
@@ -855,6 +918,53 @@ public class TestHashAggregationOperator
         assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, input, resultBuilder.build());
     }
 
+    @Test
+    public void testMergeSpilledRunsInPasses()
+    {
+        // every input page is spilled as a run of its own, more runs than are merged at once
+        int runs = 40;
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(BIGINT);
+        for (int i = 0; i < runs; i++) {
+            rowPagesBuilder.addSequencePage(100, 0);
+        }
+        List<Page> input = rowPagesBuilder.build();
+
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                ImmutableList.of(0),
+                ImmutableList.of(),
+                Step.SINGLE,
+                false,
+                ImmutableList.of(LONG_SUM.bind(ImmutableList.of(0), Optional.empty())),
+                rowPagesBuilder.getHashChannel(),
+                Optional.empty(),
+                100_000,
+                Optional.of(new DataSize(16, MEGABYTE)),
+                true,
+                // 32 runs of a page each are merged at once
+                new DataSize(32, MEGABYTE),
+                succinctBytes(0),
+                spillerFactory,
+                joinCompiler,
+                false);
+
+        DriverContext driverContext = createDriverContext();
+        List<Page> pages = toPages(operatorFactory, driverContext, input, true);
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT);
+        for (int i = 0; i < 100; i++) {
+            expected.row((long) i, (long) i * runs);
+        }
+        assertPagesEqualIgnoreOrder(driverContext, pages, expected.build(), false, Optional.empty());
+        // the runs are merged into two longer runs before producing the result
+        assertEquals(spillerFactory.getSpillsCount(), runs + 1 + 2);
+        HashAggregationInfo info = (HashAggregationInfo) getOnlyElement(driverContext.getOperatorContexts()).getOperatorStats().getInfo();
+        assertEquals(info.getSpilledRuns(), runs + 1);
+        assertEquals(info.getSpillMergePasses(), 1);
+    }
+
     @Test
     public void testSpillerFailure()
     {
@@ -968,6 +1078,14 @@ public class TestHashAggregationOperator
         return createDriverContext(Integer.MAX_VALUE);
     }
 
+    private DriverContext createDriverContext(Session session)
+    {
+        return TestingTaskContext.builder(executor, scheduledExecutor, session)
+                .build()
+                .addPipelineContext(0, true, true, false)
+                .addDriverContext();
+    }
+
     private DriverContext createDriverContext(long memoryLimit)
     {
         return TestingTaskContext.builder(executor, scheduledExecutor, TEST_SESSION)
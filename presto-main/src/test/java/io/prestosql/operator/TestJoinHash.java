@@ -0,0 +1,149 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.operator.JoinProbe.JoinProbeFactory;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.DictionaryBlock;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
+
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestJoinHash
+{
+    private static final int PARTITION_COUNT = 4;
+
+    @Test
+    public void testBatchedJoinPositions()
+    {
+        LookupSource lookupSource = createLookupSource(createBuildPage(0, 1_000));
+        assertBatchMatchesSingleLookups(lookupSource, createProbePage(-100, 1_300));
+        // a smaller batch after a larger one reuses the scratch arrays
+        assertBatchMatchesSingleLookups(lookupSource, createProbePage(500, 10));
+    }
+
+    @Test
+    public void testBatchedJoinPositionsOfDictionary()
+    {
+        LookupSource lookupSource = createLookupSource(createBuildPage(0, 1_000));
+        Block dictionary = createProbePage(995, 10).getBlock(0);
+        int[] ids = new int[500];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (i * 7) % dictionary.getPositionCount();
+        }
+        assertBatchMatchesSingleLookups(lookupSource, new Page(new DictionaryBlock(dictionary, ids)));
+    }
+
+    @Test
+    public void testBatchedPartitionedJoinPositions()
+    {
+        Page buildPage = createBuildPage(0, 1_000);
+        LocalPartitionGenerator partitionGenerator = new LocalPartitionGenerator(new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}), PARTITION_COUNT);
+        List<List<Integer>> partitionPositions = new ArrayList<>();
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            partitionPositions.add(new ArrayList<>());
+        }
+        for (int position = 0; position < buildPage.getPositionCount(); position++) {
+            if (!buildPage.getBlock(0).isNull(position)) {
+                partitionPositions.get(partitionGenerator.getPartition(buildPage, position)).add(position);
+            }
+        }
+
+        ImmutableList.Builder<Supplier<LookupSource>> partitions = ImmutableList.builder();
+        for (List<Integer> positions : partitionPositions) {
+            Page partitionPage = buildPage.getPositions(positions.stream().mapToInt(Integer::intValue).toArray(), 0, positions.size());
+            partitions.add(createLookupSourceSupplier(partitionPage));
+        }
+        LookupSource lookupSource = PartitionedLookupSource.createPartitionedLookupSourceSupplier(partitions.build(), ImmutableList.of(BIGINT), false, null)
+                .getLookupSource();
+
+        assertBatchMatchesSingleLookups(lookupSource, createProbePage(-100, 1_300));
+        assertBatchMatchesSingleLookups(lookupSource, createProbePage(500, 10));
+    }
+
+    private static void assertBatchMatchesSingleLookups(LookupSource lookupSource, Page probePage)
+    {
+        int matches = 0;
+        JoinProbe probe = new JoinProbeFactory(new int[] {0}, ImmutableList.of(0), OptionalInt.empty()).createJoinProbe(probePage);
+        while (probe.advanceNextPosition()) {
+            int position = probe.getPosition();
+            long expected = probePage.getBlock(0).isNull(position) ? -1 : lookupSource.getJoinPosition(position, probePage, probePage);
+            assertEquals(probe.getCurrentJoinPosition(lookupSource), expected, "position " + position);
+            if (expected >= 0) {
+                matches++;
+            }
+        }
+        assertTrue(matches > 0);
+    }
+
+    private static LookupSource createLookupSource(Page buildPage)
+    {
+        return createLookupSourceSupplier(buildPage).get();
+    }
+
+    private static Supplier<LookupSource> createLookupSourceSupplier(Page buildPage)
+    {
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory(false).newPagesIndex(ImmutableList.of(BIGINT), buildPage.getPositionCount());
+        pagesIndex.addPage(buildPage);
+        return pagesIndex.createLookupSourceSupplier(TEST_SESSION, ImmutableList.of(0));
+    }
+
+    /**
+     * Every 10th value is null, and every 3rd value is added twice so it is linked to a second position
+     */
+    private static Page createBuildPage(int start, int count)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, count * 2);
+        for (int value = start; value < start + count; value++) {
+            if (value % 10 == 0) {
+                blockBuilder.appendNull();
+                continue;
+            }
+            BIGINT.writeLong(blockBuilder, value);
+            if (value % 3 == 0) {
+                BIGINT.writeLong(blockBuilder, value);
+            }
+        }
+        return new Page(blockBuilder.build());
+    }
+
+    /**
+     * Every 7th value is null
+     */
+    private static Page createProbePage(int start, int count)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, count);
+        for (int value = start; value < start + count; value++) {
+            if (value % 7 == 0) {
+                blockBuilder.appendNull();
+            }
+            else {
+                BIGINT.writeLong(blockBuilder, value);
+            }
+        }
+        return new Page(blockBuilder.build());
+    }
+}
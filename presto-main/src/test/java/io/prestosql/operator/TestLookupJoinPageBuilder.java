@@ -21,6 +21,7 @@ import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.block.DictionaryBlock;
+import io.prestosql.spi.block.LazyBlock;
 import io.prestosql.spi.snapshot.SnapshotTestUtil;
 import io.prestosql.spi.type.Type;
 import io.prestosql.testing.TestingPagesSerdeFactory;
@@ -234,6 +235,35 @@ public class TestLookupJoinPageBuilder
         }
     }
 
+    @Test
+    public void testLazyProbeBlocksAreLoaded()
+    {
+        int entries = 100;
+        BlockBuilder blockBuilder = BIGINT.createFixedSizeBlockBuilder(entries);
+        for (int i = 0; i < entries; i++) {
+            BIGINT.writeLong(blockBuilder, i);
+        }
+        Block block = blockBuilder.build();
+        Page page = new Page(block, new LazyBlock(entries, lazyBlock -> lazyBlock.setBlock(block)));
+        JoinProbeFactory joinProbeFactory = new JoinProbeFactory(new int[] {1}, ImmutableList.of(0), OptionalInt.empty());
+        LookupSource lookupSource = new TestLookupSource(ImmutableList.of(BIGINT), new Page(block));
+        LookupJoinPageBuilder lookupJoinPageBuilder = new LookupJoinPageBuilder(ImmutableList.of(BIGINT));
+
+        // the probe covers everything, so the probe block is passed on as is
+        JoinProbe probe = joinProbeFactory.createJoinProbe(page);
+        for (int joinPosition = 0; probe.advanceNextPosition(); joinPosition++) {
+            lookupJoinPageBuilder.appendRow(probe, lookupSource, joinPosition);
+        }
+        Page output = lookupJoinPageBuilder.build(probe);
+        assertEquals(output.getPositionCount(), entries);
+        // the source of the lazy block may not be able to load it anymore once the page left the join
+        assertFalse(output.getBlock(0) instanceof LazyBlock);
+        for (int i = 0; i < entries; i++) {
+            assertEquals(output.getBlock(0).getLong(i, 0), i);
+            assertEquals(output.getBlock(1).getLong(i, 0), i);
+        }
+    }
+
     @Test
     public void testCrossJoinWithEmptyBuild()
     {
@@ -30,7 +30,7 @@ import static org.testng.Assert.assertNull;
 public class TestOperatorStats
 {
     private static final SplitOperatorInfo NON_MERGEABLE_INFO = new SplitOperatorInfo("some_info");
-    private static final PartitionedOutputInfo MERGEABLE_INFO = new PartitionedOutputInfo(1, 2, 1024);
+    private static final PartitionedOutputInfo MERGEABLE_INFO = new PartitionedOutputInfo(1, 2, 1024, new long[] {1, 0});
 
     public static final OperatorStats EXPECTED = new OperatorStats(
             0,
@@ -281,5 +281,7 @@ public class TestOperatorStats
         assertEquals(actual.getSpillWriteTime(), new Duration(3 * 28, NANOSECONDS));
         assertEquals(actual.getInfo().getClass(), PartitionedOutputInfo.class);
         assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPagesAdded(), 3 * MERGEABLE_INFO.getPagesAdded());
+        assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPartitionRowsAdded(), new long[] {3, 0});
+        assertEquals(((PartitionedOutputInfo) actual.getInfo()).getPartitionSkew(), 2.0);
     }
 }
@@ -14,8 +14,13 @@
 package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.hetu.core.transport.execution.buffer.PagesSerde;
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.memory.context.MemoryReservationHandler;
 import io.prestosql.spi.Page;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.snapshot.SnapshotTestUtil;
 import io.prestosql.spi.type.Type;
 import io.prestosql.testing.TestingPagesSerdeFactory;
@@ -26,9 +31,16 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
+import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static io.prestosql.SequencePageBuilder.createSequencePage;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newRootAggregatedMemoryContext;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.spi.block.SortOrder.ASC_NULLS_LAST;
+import static io.prestosql.spi.block.SortOrder.DESC_NULLS_FIRST;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static java.lang.String.format;
 import static org.testng.Assert.assertEquals;
@@ -108,6 +120,93 @@ public class TestPagesIndex
         assertEquals(lazyCompactPagesIndex.getEstimatedSize(), eagerCompactPagesIndex.getEstimatedSize());
     }
 
+    @Test
+    public void testNormalizedKeySort()
+    {
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        assertNormalizedKeySort(memoryContext);
+        assertEquals(memoryContext.getBytes(), 0);
+    }
+
+    @Test
+    public void testNormalizedKeySortWithoutMemory()
+    {
+        // the sort buffers cannot be reserved, so the index falls back to the compiled ordering
+        LocalMemoryContext memoryContext = newRootAggregatedMemoryContext(new RefusingMemoryReservationHandler(), 0).newLocalMemoryContext("test");
+        assertNormalizedKeySort(memoryContext);
+        assertEquals(memoryContext.getBytes(), 0);
+    }
+
+    private static void assertNormalizedKeySort(LocalMemoryContext memoryContext)
+    {
+        List<Type> types = ImmutableList.of(BIGINT, DOUBLE, BIGINT);
+        Random random = new Random(42);
+        List<Page> pages = new ArrayList<>();
+        for (int page = 0; page < 10; page++) {
+            BlockBuilder bigintKeys = BIGINT.createBlockBuilder(null, 100);
+            BlockBuilder doubleKeys = DOUBLE.createBlockBuilder(null, 100);
+            BlockBuilder values = BIGINT.createBlockBuilder(null, 100);
+            for (int position = 0; position < 100; position++) {
+                if (random.nextInt(10) == 0) {
+                    bigintKeys.appendNull();
+                }
+                else {
+                    // few distinct keys of both signs, so that there are ties to break
+                    BIGINT.writeLong(bigintKeys, random.nextInt(20) - 10);
+                }
+                int doubleKey = random.nextInt(12);
+                if (doubleKey == 0) {
+                    doubleKeys.appendNull();
+                }
+                else if (doubleKey == 1) {
+                    DOUBLE.writeDouble(doubleKeys, Double.NaN);
+                }
+                else if (doubleKey == 2) {
+                    DOUBLE.writeDouble(doubleKeys, -0.0);
+                }
+                else if (doubleKey == 3) {
+                    DOUBLE.writeDouble(doubleKeys, Double.NEGATIVE_INFINITY);
+                }
+                else {
+                    DOUBLE.writeDouble(doubleKeys, random.nextGaussian());
+                }
+                BIGINT.writeLong(values, random.nextLong());
+            }
+            pages.add(new Page(bigintKeys.build(), doubleKeys.build(), values.build()));
+        }
+
+        for (SortOrder sortOrder : SortOrder.values()) {
+            assertNormalizedKeySort(types, pages, ImmutableList.of(0, 2), ImmutableList.of(sortOrder, ASC_NULLS_LAST), memoryContext);
+            assertNormalizedKeySort(types, pages, ImmutableList.of(1), ImmutableList.of(sortOrder), memoryContext);
+            assertNormalizedKeySort(types, pages, ImmutableList.of(1, 2), ImmutableList.of(sortOrder, DESC_NULLS_FIRST), memoryContext);
+        }
+    }
+
+    private static void assertNormalizedKeySort(List<Type> types, List<Page> pages, List<Integer> sortChannels, List<SortOrder> sortOrders, LocalMemoryContext memoryContext)
+    {
+        PagesIndex expected = new PagesIndex.TestingFactory(false, false).newPagesIndex(types, 1000);
+        PagesIndex actual = new PagesIndex.TestingFactory(false, true).newPagesIndex(types, 1000);
+        pages.forEach(expected::addPage);
+        pages.forEach(actual::addPage);
+        expected.sort(sortChannels, sortOrders);
+        actual.sort(sortChannels, sortOrders, memoryContext);
+
+        for (int position = 0; position < expected.getPositionCount(); position++) {
+            for (int channel : sortChannels) {
+                assertEquals(actual.isNull(channel, position), expected.isNull(channel, position));
+                if (!expected.isNull(channel, position)) {
+                    Type type = types.get(channel);
+                    if (type.equals(DOUBLE)) {
+                        assertEquals(Double.compare(actual.getDouble(channel, position), expected.getDouble(channel, position)), 0, format("position %s", position));
+                    }
+                    else {
+                        assertEquals(actual.getLong(channel, position), expected.getLong(channel, position), format("position %s", position));
+                    }
+                }
+            }
+        }
+    }
+
     private static PagesIndex newPagesIndex(List<Type> types, int expectedPositions, boolean eagerCompact)
     {
         return new PagesIndex.TestingFactory(eagerCompact).newPagesIndex(types, expectedPositions);
@@ -119,4 +218,20 @@ public class TestPagesIndex
         Arrays.setAll(initialValues, i -> 100 * i);
         return createSequencePage(types, 7, initialValues);
     }
+
+    private static class RefusingMemoryReservationHandler
+            implements MemoryReservationHandler
+    {
+        @Override
+        public ListenableFuture<?> reserveMemory(String allocationTag, long delta)
+        {
+            return immediateFuture(null);
+        }
+
+        @Override
+        public boolean tryReserveMemory(String allocationTag, long delta)
+        {
+            return false;
+        }
+    }
 }
@@ -19,6 +19,7 @@ import io.airlift.units.DataSize;
 import io.hetu.core.transport.execution.buffer.SerializedPage;
 import io.prestosql.execution.TaskId;
 import io.prestosql.execution.buffer.PartitionedOutputBuffer;
+import io.prestosql.operator.PartitionedOutputOperator.PartitionedOutputInfo;
 import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.snapshot.RecoveryUtils;
 import io.prestosql.spi.Page;
@@ -30,6 +31,7 @@ import io.prestosql.testing.TestingTaskContext;
 import org.mockito.ArgumentCaptor;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -122,6 +124,26 @@ public class TestPartitionedOutputOperator
         assertTrue(((SerializedPage) pages.get(4).get(0)).isMarkerPage());
         assertTrue(((SerializedPage) pages.get(5).get(0)).isMarkerPage());
         assertTrue(((SerializedPage) pages.get(8).get(0)).isMarkerPage());
+
+        // rows added before the resume are discarded with the restored state
+        PartitionedOutputInfo info = operator.getInfo();
+        assertEquals(Arrays.stream(info.getPartitionRowsAdded()).sum(), 3L);
+        assertTrue(info.getPartitionSkew() >= PARTITION_COUNT / 3.0);
+    }
+
+    @Test
+    public void testMergeInfoWithDifferentPartitionCounts()
+    {
+        PartitionedOutputInfo info = new PartitionedOutputInfo(1, 1, 1024, new long[] {1, 0})
+                .mergeWith(new PartitionedOutputInfo(2, 1, 2048, new long[] {1, 1, 0}));
+        assertEquals(info.getRowsAdded(), 3L);
+        assertEquals(info.getPagesAdded(), 2L);
+        assertEquals(info.getPartitionRowsAdded(), new long[0]);
+        assertEquals(info.getPartitionSkew(), 1.0);
+
+        // the dropped histogram is not replaced by the one of a later info
+        info = info.mergeWith(new PartitionedOutputInfo(1, 1, 1024, new long[] {1, 0}));
+        assertEquals(info.getPartitionRowsAdded(), new long[0]);
     }
 
     private Map<String, Object> createExpectedMappingBeforeFinish()
@@ -134,6 +156,7 @@ public class TestPartitionedOutputOperator
         expectedMapping.put("finished", false);
         partitionFunctionMapping.put("rowsAdded", 1L); // Input page 1 has 3 rows; partitioned to 3 separate pages
         partitionFunctionMapping.put("pagesAdded", 1L);
+        partitionFunctionMapping.put("partitionRowsAdded", long[].class);
         partitionFunctionMapping.put("hasAnyRowBeenReplicated", false);
         return expectedMapping;
     }
@@ -148,6 +171,7 @@ public class TestPartitionedOutputOperator
         expectedMapping.put("finished", true);
         partitionFunctionMapping.put("rowsAdded", 3L);
         partitionFunctionMapping.put("pagesAdded", 3L);
+        partitionFunctionMapping.put("partitionRowsAdded", long[].class);
         partitionFunctionMapping.put("hasAnyRowBeenReplicated", false);
         return expectedMapping;
     }
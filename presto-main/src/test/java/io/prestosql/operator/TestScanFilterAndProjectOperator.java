@@ -65,6 +65,7 @@ import static io.prestosql.block.BlockAssertions.toValues;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.OperatorAssertion.toMaterializedResult;
 import static io.prestosql.operator.PageAssertions.assertPageEquals;
+import static io.prestosql.operator.PageUtils.isNotLoadedLazyBlock;
 import static io.prestosql.operator.project.PageProcessor.MAX_BATCH_SIZE;
 import static io.prestosql.spi.function.OperatorType.EQUAL;
 import static io.prestosql.spi.function.Signature.internalScalarFunction;
@@ -235,6 +236,56 @@ public class TestScanFilterAndProjectOperator
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void testPageSourceLateMaterialization()
+    {
+        List<Page> input = ImmutableList.of(
+                new Page(100, BlockAssertions.createLongSequenceBlock(0, 100), new LazyBlock(100, lazyBlock -> lazyBlock.setBlock(BlockAssertions.createLongSequenceBlock(1000, 1100)))),
+                // no row of this page passes the filter
+                new Page(100, BlockAssertions.createLongSequenceBlock(100, 200), new LazyBlock(100, lazyBlock -> {
+                    throw new AssertionError("Lazy block of a page without matching rows should not be loaded");
+                })));
+
+        RowExpression filter = call(EQUAL.getFunctionName().toString(),
+                new BuiltInFunctionHandle(Signature.internalOperator(EQUAL, BOOLEAN.getTypeSignature(), ImmutableList.of(BIGINT.getTypeSignature(), BIGINT.getTypeSignature()))),
+                BOOLEAN,
+                field(0, BIGINT),
+                constant(10L, BIGINT));
+        List<RowExpression> projections = ImmutableList.of(field(0, BIGINT), field(1, BIGINT));
+        Supplier<CursorProcessor> cursorProcessor = expressionCompiler.compileCursorProcessor(Optional.of(filter), projections, "key");
+        Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(Optional.of(filter), projections);
+
+        // small output pages would be merged, which loads them
+        ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory factory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                new PlanNodeId("0"),
+                (session, split, table, columns, dynamicFilter) -> new FixedPageSource(input),
+                cursorProcessor,
+                pageProcessor,
+                TEST_TABLE_HANDLE,
+                ImmutableList.of(),
+                null,
+                ImmutableList.of(BIGINT, BIGINT),
+                new DataSize(64, KILOBYTE),
+                2,
+                ReuseExchangeOperator.STRATEGY.REUSE_STRATEGY_DEFAULT, new UUID(0, 0), false, Optional.empty(), 0, 0);
+        factory.enableLateMaterialization();
+
+        SourceOperator operator = factory.createOperator(newDriverContext());
+        operator.addSplit(new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide()));
+        operator.noMoreSplits();
+
+        List<Page> actual = toPages(operator);
+        assertEquals(actual.size(), 1);
+        Page page = actual.get(0);
+        assertEquals(page.getPositionCount(), 1);
+        assertTrue(isNotLoadedLazyBlock(page.getBlock(1)));
+
+        assertEquals(toValues(BIGINT, page.getBlock(0)), ImmutableList.of(10L));
+        assertEquals(toValues(BIGINT, page.getBlock(1)), ImmutableList.of(1010L));
+    }
+
     @Test
     public void testRecordCursorSource()
     {
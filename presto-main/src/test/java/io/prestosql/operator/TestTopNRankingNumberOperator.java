@@ -14,13 +14,20 @@
 package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import io.prestosql.RowPagesBuilder;
 import io.prestosql.operator.window.RankingFunction;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.plan.PlanNodeId;
+import io.prestosql.spi.snapshot.RestorableConfig;
+import io.prestosql.spi.type.MapType;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.Spiller;
+import io.prestosql.spiller.SpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.testing.MaterializedResult;
 import org.testng.annotations.AfterMethod;
@@ -30,14 +37,17 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertGreaterThan;
+import static io.airlift.testing.Assertions.assertLessThan;
 import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
@@ -45,14 +55,19 @@ import static io.prestosql.operator.GroupByHashYieldAssertion.createPagesWithDis
 import static io.prestosql.operator.GroupByHashYieldAssertion.finishOperatorWithYieldingGroupByHash;
 import static io.prestosql.operator.OperatorAssertion.assertOperatorEquals;
 import static io.prestosql.operator.OperatorAssertion.assertOperatorEqualsWithStateComparison;
+import static io.prestosql.operator.OperatorAssertion.toMaterializedResult;
 import static io.prestosql.operator.TopNRankingNumberOperator.TopNRankingNumberOperatorFactory;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
 import static io.prestosql.testing.TestingTaskContext.createTaskContext;
+import static io.prestosql.util.StructuralTestUtil.mapType;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestTopNRankingNumberOperator
@@ -126,7 +141,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.ROW_NUMBER));
+                Optional.of(RankingFunction.ROW_NUMBER),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
         MaterializedResult rowNumberExpected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT, BIGINT)
                 .row(0.1, 1L, 1L)
                 .row(0.2, 1L, 2L)
@@ -153,7 +171,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.RANK));
+                Optional.of(RankingFunction.RANK),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
         MaterializedResult rankNumberExpected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT, BIGINT)
                 .row(0.1, 1L, 1L)
                 .row(0.2, 1L, 2L)
@@ -181,7 +202,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.DENSE_RANK));
+                Optional.of(RankingFunction.DENSE_RANK),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
         MaterializedResult denseRankNumberExpected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT, BIGINT)
                 .row(0.1, 1L, 1L)
                 .row(0.2, 1L, 2L)
@@ -197,6 +221,269 @@ public class TestTopNRankingNumberOperator
         assertOperatorEquals(operatorFactory, driverContext, input, denseRankNumberExpected);
     }
 
+    @Test
+    public void testPartitionedWithSpill()
+    {
+        List<Page> input = rowPagesBuilder(BIGINT, DOUBLE)
+                .row(1L, 0.1)
+                .row(2L, 0.1)
+                .row(3L, 0.1)
+                .row(3L, 0.1)
+                .pageBreak()
+                .row(1L, 0.2)
+                .pageBreak()
+                .row(1L, 0.2)
+                .row(1L, 0.2)
+                .row(2L, 0.3)
+                .row(2L, 0.4)
+                .pageBreak()
+                .row(2L, 0.3)
+                .build();
+        DummySpillerFactory spillerFactory = new DummySpillerFactory();
+        // rank() over(partition by 0 order by 1) top 3, with the heaps spilled after every page
+        TopNRankingNumberOperatorFactory operatorFactory = new TopNRankingNumberOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT, DOUBLE),
+                Ints.asList(1, 0),
+                Ints.asList(0),
+                ImmutableList.of(BIGINT),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.ASC_NULLS_LAST),
+                3,
+                false,
+                Optional.empty(),
+                10,
+                joinCompiler,
+                Optional.of(RankingFunction.RANK),
+                true,
+                Optional.of(spillerFactory),
+                new PagesIndex.TestingFactory(false));
+        MaterializedResult rankNumberExpected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT, BIGINT)
+                .row(0.1, 1L, 1L)
+                .row(0.2, 1L, 2L)
+                .row(0.2, 1L, 2L)
+                .row(0.2, 1L, 2L)
+                .row(0.1, 2L, 1L)
+                .row(0.3, 2L, 2L)
+                .row(0.3, 2L, 2L)
+                .row(0.1, 3L, 1L)
+                .row(0.1, 3L, 1L)
+                .build();
+        assertOperatorEquals(operatorFactory, driverContext, input, rankNumberExpected);
+        assertGreaterThan(spillerFactory.getSpillsCount(), 1L);
+
+        // dense_rank() over(partition by 0 order by 1) top 3
+        operatorFactory = new TopNRankingNumberOperatorFactory(
+                1,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT, DOUBLE),
+                Ints.asList(1, 0),
+                Ints.asList(0),
+                ImmutableList.of(BIGINT),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.ASC_NULLS_LAST),
+                3,
+                false,
+                Optional.empty(),
+                10,
+                joinCompiler,
+                Optional.of(RankingFunction.DENSE_RANK),
+                true,
+                Optional.of(spillerFactory),
+                new PagesIndex.TestingFactory(false));
+        MaterializedResult denseRankNumberExpected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT, BIGINT)
+                .row(0.1, 1L, 1L)
+                .row(0.2, 1L, 2L)
+                .row(0.2, 1L, 2L)
+                .row(0.2, 1L, 2L)
+                .row(0.1, 2L, 1L)
+                .row(0.3, 2L, 2L)
+                .row(0.3, 2L, 2L)
+                .row(0.4, 2L, 3L)
+                .row(0.1, 3L, 1L)
+                .row(0.1, 3L, 1L)
+                .build();
+        assertOperatorEquals(operatorFactory, driverContext, input, denseRankNumberExpected);
+    }
+
+    @Test
+    public void testSpilledRowsAccountedUntilRevokeFinished()
+    {
+        List<Page> input = rowPagesBuilder(BIGINT, DOUBLE)
+                .addSequencePage(1000, 0, 0)
+                .build();
+        TopNRankingNumberOperatorFactory operatorFactory = new TopNRankingNumberOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT, DOUBLE),
+                Ints.asList(1, 0),
+                Ints.asList(0),
+                ImmutableList.of(BIGINT),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.ASC_NULLS_LAST),
+                3,
+                false,
+                Optional.empty(),
+                10,
+                joinCompiler,
+                Optional.of(RankingFunction.ROW_NUMBER),
+                true,
+                Optional.of(new DummySpillerFactory()),
+                new PagesIndex.TestingFactory(false));
+        Operator operator = operatorFactory.createOperator(driverContext);
+        operator.addInput(input.get(0));
+        long heapBytes = operator.getOperatorContext().getReservedRevocableBytes();
+        assertGreaterThan(heapBytes, 0L);
+
+        // the sorted rows are held until the spill is finished
+        getFutureValue(operator.startMemoryRevoke());
+        long spillingBytes = operator.getOperatorContext().getReservedRevocableBytes();
+        assertGreaterThan(spillingBytes, 0L);
+
+        operator.finishMemoryRevoke();
+        assertLessThan(operator.getOperatorContext().getReservedRevocableBytes(), spillingBytes);
+        operator.close();
+    }
+
+    @Test
+    public void testFinalSpillDoesNotBlockDriver()
+    {
+        List<Page> input = rowPagesBuilder(BIGINT, DOUBLE)
+                .row(1L, 0.2)
+                .row(2L, 0.3)
+                .pageBreak()
+                .row(1L, 0.1)
+                .row(2L, 0.4)
+                .build();
+        DummySpillerFactory dummySpillerFactory = new DummySpillerFactory();
+        List<SettableFuture<?>> spillsWritten = new ArrayList<>();
+        SpillerFactory spillerFactory = (types, spillContext, memoryContext, isSnapshotEnabled, queryId, isSpillToHdfs) -> {
+            Spiller spiller = dummySpillerFactory.create(types, spillContext, memoryContext, isSnapshotEnabled, queryId, isSpillToHdfs);
+            return new Spiller()
+            {
+                @RestorableConfig(unsupported = true)
+                private final RestorableConfig restorableConfig = null;
+
+                @Override
+                public ListenableFuture<?> spill(Iterator<Page> pageIterator)
+                {
+                    spiller.spill(pageIterator);
+                    SettableFuture<?> spillWritten = SettableFuture.create();
+                    spillsWritten.add(spillWritten);
+                    return spillWritten;
+                }
+
+                @Override
+                public List<Iterator<Page>> getSpills()
+                {
+                    return spiller.getSpills();
+                }
+
+                @Override
+                public void close()
+                {
+                    spiller.close();
+                }
+            };
+        };
+        // row_number() over(partition by 0 order by 1) top 1
+        TopNRankingNumberOperatorFactory operatorFactory = new TopNRankingNumberOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT, DOUBLE),
+                Ints.asList(1, 0),
+                Ints.asList(0),
+                ImmutableList.of(BIGINT),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.ASC_NULLS_LAST),
+                1,
+                false,
+                Optional.empty(),
+                10,
+                joinCompiler,
+                Optional.of(RankingFunction.ROW_NUMBER),
+                true,
+                Optional.of(spillerFactory),
+                new PagesIndex.TestingFactory(false));
+        Operator operator = operatorFactory.createOperator(driverContext);
+
+        operator.addInput(input.get(0));
+        ListenableFuture<?> revoke = operator.startMemoryRevoke();
+        assertFalse(revoke.isDone());
+        spillsWritten.get(0).set(null);
+        operator.finishMemoryRevoke();
+        operator.addInput(input.get(1));
+        operator.finish();
+
+        // the rows left in memory are spilled as the last run, and the driver is blocked until it is written
+        assertNull(operator.getOutput());
+        assertEquals(spillsWritten.size(), 2);
+        assertFalse(operator.isBlocked().isDone());
+        assertNull(operator.getOutput());
+
+        spillsWritten.get(1).set(null);
+        assertTrue(operator.isBlocked().isDone());
+        List<Page> output = new ArrayList<>();
+        for (int i = 0; i < 10 && !operator.isFinished(); i++) {
+            Page page = operator.getOutput();
+            if (page != null) {
+                output.add(page);
+            }
+        }
+        assertTrue(operator.isFinished());
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT)
+                .row(0.1, 1L)
+                .row(0.3, 2L)
+                .build();
+        assertEquals(toMaterializedResult(driverContext.getSession(), ImmutableList.of(DOUBLE, BIGINT), output), expected);
+        operator.close();
+    }
+
+    @Test
+    public void testNotOrderablePartitionTypeWithSpill()
+    {
+        MapType mapType = mapType(BIGINT, BIGINT);
+        List<Page> input = rowPagesBuilder(mapType, DOUBLE)
+                .row(ImmutableMap.of(1L, 1L), 0.3)
+                .row(ImmutableMap.of(2L, 2L), 0.1)
+                .row(ImmutableMap.of(1L, 1L), 0.2)
+                .pageBreak()
+                .row(ImmutableMap.of(1L, 1L), 0.1)
+                .row(ImmutableMap.of(2L, 2L), 0.2)
+                .row(ImmutableMap.of(2L, 2L), 0.4)
+                .build();
+        DummySpillerFactory spillerFactory = new DummySpillerFactory();
+        // row_number() over(partition by 0 order by 1) top 2, where the spilled runs could not be merged by partition
+        TopNRankingNumberOperatorFactory operatorFactory = new TopNRankingNumberOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(mapType, DOUBLE),
+                Ints.asList(1, 0),
+                Ints.asList(0),
+                ImmutableList.of(mapType),
+                Ints.asList(1),
+                ImmutableList.of(SortOrder.ASC_NULLS_LAST),
+                2,
+                false,
+                Optional.empty(),
+                10,
+                joinCompiler,
+                Optional.of(RankingFunction.ROW_NUMBER),
+                true,
+                Optional.of(spillerFactory),
+                new PagesIndex.TestingFactory(false));
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), DOUBLE, mapType, BIGINT)
+                .row(0.1, ImmutableMap.of(1L, 1L), 1L)
+                .row(0.2, ImmutableMap.of(1L, 1L), 2L)
+                .row(0.1, ImmutableMap.of(2L, 2L), 1L)
+                .row(0.2, ImmutableMap.of(2L, 2L), 2L)
+                .build();
+        assertOperatorEquals(operatorFactory, driverContext, input, expected);
+        assertEquals(spillerFactory.getSpillsCount(), 0L);
+        assertEquals(driverContext.getRevocableMemoryUsage(), 0L);
+    }
+
     @Test
     public void testPartitionedSnapshot()
     {
@@ -231,7 +518,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.ROW_NUMBER));
+                Optional.of(RankingFunction.ROW_NUMBER),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
         MaterializedResult rowNumberExpected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT, BIGINT)
                 .row(0.1, 1L, 1L)
                 .row(0.2, 1L, 2L)
@@ -258,7 +548,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.RANK));
+                Optional.of(RankingFunction.RANK),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
         MaterializedResult rankNumberExpected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT, BIGINT)
                 .row(0.1, 1L, 1L)
                 .row(0.2, 1L, 2L)
@@ -286,7 +579,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.DENSE_RANK));
+                Optional.of(RankingFunction.DENSE_RANK),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
         MaterializedResult denseRankNumberExpected = resultBuilder(driverContext.getSession(), DOUBLE, BIGINT, BIGINT)
                 .row(0.1, 1L, 1L)
                 .row(0.2, 1L, 2L)
@@ -309,6 +605,7 @@ public class TestTopNRankingNumberOperator
 
         operatorSnapshotMapping.put("operatorContext", 0);
         operatorSnapshotMapping.put("localUserMemoryContext", 51816L);
+        operatorSnapshotMapping.put("localRevocableMemoryContext", 0L);
 
         //TopNRankingNumberOperator.groupByHash
         Map<String, Object> groupByHashMapping = new HashMap<>();
@@ -358,6 +655,7 @@ public class TestTopNRankingNumberOperator
         pageReferencesMapping.put("segments", 1);
 
         operatorSnapshotMapping.put("finishing", false);
+        operatorSnapshotMapping.put("spiller", null);
 
         return operatorSnapshotMapping;
     }
@@ -369,6 +667,7 @@ public class TestTopNRankingNumberOperator
 
         operatorSnapshotMapping.put("operatorContext", 0);
         operatorSnapshotMapping.put("localUserMemoryContext", 51812L);
+        operatorSnapshotMapping.put("localRevocableMemoryContext", 0L);
 
         //TopNRankingNumberOperator.groupByHash
         Map<String, Object> groupByHashMapping = new HashMap<>();
@@ -418,6 +717,7 @@ public class TestTopNRankingNumberOperator
         pageReferencesMapping.put("segments", 1);
 
         operatorSnapshotMapping.put("finishing", false);
+        operatorSnapshotMapping.put("spiller", null);
 
         return operatorSnapshotMapping;
     }
@@ -473,7 +773,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.ROW_NUMBER));
+                Optional.of(RankingFunction.ROW_NUMBER),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
         //rank() over(order by 1) Top4
@@ -511,7 +814,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.RANK));
+                Optional.of(RankingFunction.RANK),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
         //dense_rank() over(order by 1) Top4
@@ -557,7 +863,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.DENSE_RANK));
+                Optional.of(RankingFunction.DENSE_RANK),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
 
         assertOperatorEquals(operatorFactory, driverContext, input, expected);
     }
@@ -582,7 +891,10 @@ public class TestTopNRankingNumberOperator
                 Optional.empty(),
                 10,
                 joinCompiler,
-                Optional.of(RankingFunction.ROW_NUMBER));
+                Optional.of(RankingFunction.ROW_NUMBER),
+                false,
+                Optional.empty(),
+                new PagesIndex.TestingFactory(false));
 
         // get result with yield; pick a relatively small buffer for heaps
         GroupByHashYieldAssertion.GroupByHashYieldResult result = finishOperatorWithYieldingGroupByHash(
@@ -23,6 +23,7 @@ import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.CompletedWork;
 import io.prestosql.operator.DriverYieldSignal;
 import io.prestosql.operator.Work;
+import io.prestosql.operator.WorkProcessor;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.LazyBlock;
@@ -44,10 +45,12 @@ import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
 import static io.prestosql.block.BlockAssertions.createSlicesBlock;
 import static io.prestosql.block.BlockAssertions.createStringsBlock;
 import static io.prestosql.execution.executor.PrioritizedSplitRunner.SPLIT_RUN_QUANTA;
@@ -57,6 +60,7 @@ import static io.prestosql.operator.PageAssertions.assertPageEquals;
 import static io.prestosql.operator.project.PageProcessor.MAX_BATCH_SIZE;
 import static io.prestosql.operator.project.PageProcessor.MAX_PAGE_SIZE_IN_BYTES;
 import static io.prestosql.operator.project.PageProcessor.MIN_PAGE_SIZE_IN_BYTES;
+import static io.prestosql.operator.project.SelectedPositions.positionsList;
 import static io.prestosql.operator.project.SelectedPositions.positionsRange;
 import static io.prestosql.spi.function.OperatorType.ADD;
 import static io.prestosql.spi.function.Signature.internalOperator;
@@ -201,6 +205,55 @@ public class TestPageProcessor
         assertEquals(outputPages.size(), 0);
     }
 
+    @Test
+    public void testPartialFilterLazyLoad()
+    {
+        PageProcessor pageProcessor = new PageProcessor(
+                Optional.of(new TestingPageFilter(positionsList(new int[] {1, 3, 5, 7}, 1, 2))),
+                ImmutableList.of(new InputPageProjection(0, BIGINT), new InputPageProjection(1, BIGINT)),
+                OptionalInt.of(MAX_BATCH_SIZE));
+
+        AtomicBoolean loaded = new AtomicBoolean();
+        Page inputPage = new Page(createLongSequenceBlock(0, 100), new LazyBlock(100, lazyBlock -> {
+            loaded.set(true);
+            lazyBlock.setBlock(createLongSequenceBlock(100, 200));
+        }));
+
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName());
+        WorkProcessor<Page> output = pageProcessor.createWorkProcessor(SESSION, new DriverYieldSignal(), memoryContext, inputPage, true);
+
+        List<Page> outputPages = ImmutableList.copyOf(output.iterator());
+        assertEquals(outputPages.size(), 1);
+        // selected positions of channel 1 are copied only when the output block is loaded
+        assertFalse(loaded.get());
+        assertPageEquals(ImmutableList.of(BIGINT, BIGINT), outputPages.get(0), new Page(createLongsBlock(3, 5), createLongsBlock(103, 105)));
+        assertTrue(loaded.get());
+    }
+
+    @Test
+    public void testPartialFilterLoadsLazyBlockByDefault()
+    {
+        PageProcessor pageProcessor = new PageProcessor(
+                Optional.of(new TestingPageFilter(positionsList(new int[] {1, 3, 5, 7}, 1, 2))),
+                ImmutableList.of(new InputPageProjection(0, BIGINT), new InputPageProjection(1, BIGINT)),
+                OptionalInt.of(MAX_BATCH_SIZE));
+
+        AtomicBoolean loaded = new AtomicBoolean();
+        Page inputPage = new Page(createLongSequenceBlock(0, 100), new LazyBlock(100, lazyBlock -> {
+            loaded.set(true);
+            lazyBlock.setBlock(createLongSequenceBlock(100, 200));
+        }));
+
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName());
+        Iterator<Optional<Page>> output = pageProcessor.process(SESSION, new DriverYieldSignal(), memoryContext, inputPage);
+
+        List<Optional<Page>> outputPages = ImmutableList.copyOf(output);
+        assertEquals(outputPages.size(), 1);
+        // the input page may not be readable anymore once the output is consumed, so the lazy block is loaded right away
+        assertTrue(loaded.get());
+        assertPageEquals(ImmutableList.of(BIGINT, BIGINT), outputPages.get(0).orElse(null), new Page(createLongsBlock(3, 5), createLongsBlock(103, 105)));
+    }
+
     @Test
     public void testProjectLazyLoad()
     {
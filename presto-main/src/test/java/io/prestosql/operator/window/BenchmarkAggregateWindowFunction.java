@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.window;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.PagesIndex;
+import io.prestosql.operator.aggregation.InternalAggregationFunction;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.QualifiedObjectName;
+import io.prestosql.spi.function.Signature;
+import io.prestosql.spi.function.WindowFunction;
+import io.prestosql.spi.function.WindowIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import static io.prestosql.SequencePageBuilder.createSequencePage;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.function.FunctionKind.AGGREGATE;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Scope.Thread;
+
+/**
+ * Aggregates sliding frames of increasing size over a partition. The time per partition should not grow with the frame size.
+ */
+@State(Thread)
+@OutputTimeUnit(MILLISECONDS)
+@BenchmarkMode(AverageTime)
+@Fork(3)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BenchmarkAggregateWindowFunction
+{
+    private static final int PARTITION_ROWS = 100_000;
+    private static final int ROWS_PER_PAGE = 10_000;
+
+    @Param({"sum", "max"})
+    private String function = "sum";
+
+    @Param({"10", "100", "1000", "10000"})
+    private int frameSize = 1000;
+
+    private WindowIndex windowIndex;
+    private WindowFunction windowFunction;
+
+    @Setup
+    public void setup()
+    {
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory(false).newPagesIndex(ImmutableList.of(BIGINT), PARTITION_ROWS);
+        for (int start = 0; start < PARTITION_ROWS; start += ROWS_PER_PAGE) {
+            pagesIndex.addPage(createSequencePage(ImmutableList.of(BIGINT), ROWS_PER_PAGE, start));
+        }
+        windowIndex = new PagesWindowIndex(pagesIndex, 0, PARTITION_ROWS);
+
+        Metadata metadata = createTestMetadataManager();
+        Signature signature = new Signature(QualifiedObjectName.valueOfDefaultFunction(function), AGGREGATE, BIGINT.getTypeSignature(), BIGINT.getTypeSignature());
+        InternalAggregationFunction aggregation = metadata.getFunctionAndTypeManager().getAggregateFunctionImplementation(signature);
+        windowFunction = AggregateWindowFunction.supplier(signature, aggregation).createWindowFunction(ImmutableList.of(0));
+    }
+
+    @Benchmark
+    public Block slidingFrame()
+    {
+        BlockBuilder output = BIGINT.createBlockBuilder(null, PARTITION_ROWS);
+        windowFunction.reset(windowIndex);
+        for (int row = 0; row < PARTITION_ROWS; row++) {
+            windowFunction.processRow(output, row, row, max(row - frameSize + 1, 0), row);
+        }
+        return output.build();
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        BenchmarkAggregateWindowFunction benchmark = new BenchmarkAggregateWindowFunction();
+        benchmark.setup();
+        benchmark.slidingFrame();
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkAggregateWindowFunction.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
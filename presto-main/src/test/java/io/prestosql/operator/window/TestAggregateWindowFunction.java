@@ -13,15 +13,36 @@
  */
 package io.prestosql.operator.window;
 
+import com.google.common.collect.ImmutableList;
+import io.prestosql.operator.PagesIndex;
+import io.prestosql.operator.aggregation.InternalAggregationFunction;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.QualifiedObjectName;
+import io.prestosql.spi.function.Signature;
+import io.prestosql.spi.function.WindowFunction;
+import io.prestosql.spi.function.WindowIndex;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.TypeSignature;
 import io.prestosql.testing.MaterializedResult;
 import org.intellij.lang.annotations.Language;
 import org.testng.annotations.Test;
 
+import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
+import static io.airlift.testing.Assertions.assertGreaterThan;
+import static io.prestosql.SequencePageBuilder.createSequencePage;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.function.FunctionKind.AGGREGATE;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.TypeSignature.parseTypeSignature;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
+import static org.testng.Assert.assertEquals;
 
 public class TestAggregateWindowFunction
         extends AbstractTestWindowFunction
@@ -482,6 +503,67 @@ public class TestAggregateWindowFunction
                 "ROWS BETWEEN 4 FOLLOWING AND 3 FOLLOWING)", expected);
     }
 
+    @Test
+    public void testSlidingFrameOverLongPartition()
+    {
+        // frames large enough to be aggregated from the segment tree
+        MaterializedResult actual = queryRunner.execute("SELECT x, " +
+                "sum(x) OVER (ORDER BY x ROWS BETWEEN 99 PRECEDING AND CURRENT ROW), " +
+                "max(x) OVER (ORDER BY x ROWS BETWEEN 99 PRECEDING AND 50 FOLLOWING), " +
+                "array_agg(x) OVER (ORDER BY x ROWS BETWEEN 99 PRECEDING AND CURRENT ROW) = sequence(greatest(x - 99, 1), x) " +
+                "FROM UNNEST(sequence(1, 1000)) t(x)");
+
+        MaterializedResult.Builder expected = resultBuilder(TEST_SESSION, BIGINT, BIGINT, BIGINT, BOOLEAN);
+        for (long x = 1; x <= 1000; x++) {
+            long frameStart = Math.max(x - 99, 1);
+            expected.row(x, (frameStart + x) * (x - frameStart + 1) / 2, Math.min(x + 50, 1000), true);
+        }
+        assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.build().getMaterializedRows());
+    }
+
+    @Test
+    public void testSegmentTreeOnlyForFixedSizeStates()
+    {
+        int rows = 1000;
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory(false).newPagesIndex(ImmutableList.of(BIGINT), rows);
+        pagesIndex.addPage(createSequencePage(ImmutableList.of(BIGINT), rows, 0));
+        WindowIndex windowIndex = new PagesWindowIndex(pagesIndex, 0, rows);
+
+        AggregateWindowFunction sum = createAggregateWindowFunction("sum", BIGINT.getTypeSignature());
+        slideFrame(sum, windowIndex, rows, BIGINT);
+        assertGreaterThan(sum.getEstimatedSizeInBytes(), 0L);
+
+        // the row states of avg have fixed size fields
+        AggregateWindowFunction avg = createAggregateWindowFunction("avg", DOUBLE.getTypeSignature());
+        Block averages = slideFrame(avg, windowIndex, rows, DOUBLE);
+        assertGreaterThan(avg.getEstimatedSizeInBytes(), 0L);
+        for (int row = 0; row < rows; row++) {
+            assertEquals(DOUBLE.getDouble(averages, row), (Math.max(row - 99, 0) + row) / 2.0);
+        }
+
+        // the states of array_agg grow with the rows, so they are not kept per segment
+        AggregateWindowFunction arrayAgg = createAggregateWindowFunction("array_agg", parseTypeSignature("array(bigint)"));
+        slideFrame(arrayAgg, windowIndex, rows, new ArrayType(BIGINT));
+        assertEquals(arrayAgg.getEstimatedSizeInBytes(), 0L);
+    }
+
+    private static AggregateWindowFunction createAggregateWindowFunction(String name, TypeSignature returnType)
+    {
+        Signature signature = new Signature(QualifiedObjectName.valueOfDefaultFunction(name), AGGREGATE, returnType, BIGINT.getTypeSignature());
+        InternalAggregationFunction aggregation = createTestMetadataManager().getFunctionAndTypeManager().getAggregateFunctionImplementation(signature);
+        return (AggregateWindowFunction) AggregateWindowFunction.supplier(signature, aggregation).createWindowFunction(ImmutableList.of(0));
+    }
+
+    private static Block slideFrame(WindowFunction windowFunction, WindowIndex windowIndex, int rows, Type outputType)
+    {
+        BlockBuilder output = outputType.createBlockBuilder(null, rows);
+        windowFunction.reset(windowIndex);
+        for (int row = 0; row < rows; row++) {
+            windowFunction.processRow(output, row, row, Math.max(row - 99, 0), row);
+        }
+        return output.build();
+    }
+
     @Test
     public void testSumUnordered()
     {
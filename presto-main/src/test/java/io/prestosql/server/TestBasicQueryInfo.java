@@ -127,6 +127,7 @@ public class TestBasicQueryInfo
                                         106,
                                         107)),
                                 ImmutableList.of(),
+                                ImmutableList.of(),
                                 Duration.valueOf("23m"),
                                 Duration.valueOf("23m"),
                                 Duration.valueOf("24m"),
@@ -171,6 +171,7 @@ public class TestQueryStateInfo
                         DataSize.valueOf("33GB"),
                         ImmutableList.of(),
                         ImmutableList.of(),
+                        ImmutableList.of(),
                         Duration.valueOf("24m"),
                         Duration.valueOf("24m"),
                         Duration.valueOf("26m"),
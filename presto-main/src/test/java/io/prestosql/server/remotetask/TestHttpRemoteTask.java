@@ -186,6 +186,42 @@ public class TestHttpRemoteTask
         httpRemoteTaskFactory.stop();
     }
 
+    @Test(timeOut = 30000)
+    public void testUpdateStats()
+            throws Exception
+    {
+        AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
+        TestingTaskResource testingTaskResource = new TestingTaskResource(lastActivityNanos, FailureScenario.NO_FAILURE);
+
+        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource);
+
+        HttpRemoteTask remoteTask = (HttpRemoteTask) createRemoteTask(httpRemoteTaskFactory);
+
+        testingTaskResource.setInitialTaskInfo(remoteTask.getTaskInfo());
+        remoteTask.start();
+
+        remoteTask.addSplits(ImmutableMultimap.of(
+                TABLE_SCAN_NODE_ID, new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide()),
+                TABLE_SCAN_NODE_ID, new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide())));
+        poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID) != null);
+        poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID).getSplits().size() == 2);
+
+        // the stats of the task count the requests the worker received
+        TaskUpdateStats updateStats = remoteTask.getUpdateStats();
+        poll(() -> updateStats.getUpdateCount() == testingTaskResource.getRequests().size() &&
+                updateStats.getUpdateSplits() == testingTaskResource.getRequests().stream()
+                        .flatMap(request -> request.getSources().stream())
+                        .mapToLong(source -> source.getSplits().size())
+                        .sum());
+        assertTrue(updateStats.getUpdateSplits() >= 2);
+        assertTrue(updateStats.getUpdateBytes() > 0);
+
+        remoteTask.cancel();
+        poll(() -> remoteTask.getTaskStatus().getState().isDone());
+
+        httpRemoteTaskFactory.stop();
+    }
+
     private void runTest(FailureScenario failureScenario)
             throws Exception
     {
@@ -21,6 +21,7 @@ import io.prestosql.spi.statestore.listener.EntryAddedListener;
 import io.prestosql.spi.statestore.listener.EntryEvent;
 import io.prestosql.spi.statestore.listener.MapListener;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -48,7 +49,13 @@ public class MockStateMap<K, V>
     @Override
     public Map<K, V> getAll(Set<K> keys)
     {
-        return null;
+        Map<K, V> values = new HashMap<>();
+        for (K key : keys) {
+            if (map.containsKey(key)) {
+                values.put(key, map.get(key));
+            }
+        }
+        return values;
     }
 
     @Override
@@ -36,6 +36,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -63,6 +64,7 @@ public class TestStateFetcher
     private static final String STATES_KEY = "20191120_160018_00000_qtvps";
     private static final String STATE_STORE_HAZELCAST = "hazelcast";
     private static final String STATE_COLLECTION_QUERY = "query";
+    private static final String STATE_COLLECTION_FINISHED_QUERY = "finished-query";
     private static final int MINIMUM_FETCH_INTERVAL = 1;
     private static final int MINIMUM_STATE_EXPIRE_TIME = 500;
     private static final String EMPTY_JSON_STRING = "{}";
@@ -272,4 +274,35 @@ public class TestStateFetcher
         Thread.sleep(300);
         verify(stateCollection, atLeastOnce()).getAll();
     }
+
+    @Test
+    public void testFetchChangedStates()
+            throws Exception
+    {
+        String mockDataPath = this.getClass().getClassLoader().getResource(MOCK_TEST_DATA_RESOURCE_NAME).getPath();
+        String stateJson = loadMockTestData(new File(mockDataPath), true);
+        MockStateMap<String, String> stateMap = new MockStateMap<>(STATE_COLLECTION_FINISHED_QUERY, new HashMap<>());
+        stateMap.put(STATES_KEY, stateJson);
+        stateStoreMockData();
+        when(stateStore.getStateCollection(any())).then(new Returns(stateMap));
+
+        StateSyncStats stats = new StateSyncStats();
+        stateFetcher = new StateFetcher(stateStoreProvider, fetchInterval, stateExpireTime, stats);
+        stateFetcher.registerStateCollection(STATE_COLLECTION_FINISHED_QUERY);
+        stateFetcher.fetchAllStates();
+        stateFetcher.fetchAllStates();
+        assertEquals(stats.getFullFetches().getTotalCount(), 1);
+        assertEquals(stats.getIncrementalFetches().getTotalCount(), 1);
+        assertEquals(stats.getFetchedStates().getTotalCount(), 1);
+        assertEquals(stats.getDeserializedStates().getTotalCount(), 1);
+
+        // only the added state is fetched and deserialized
+        String addedKey = "20191120_160018_00001_qtvps";
+        stateMap.put(addedKey, stateJson.replace(STATES_KEY, addedKey));
+        stateFetcher.fetchAllStates();
+        assertEquals(StateCacheStore.get().getCachedStates(STATE_COLLECTION_FINISHED_QUERY).size(), 2);
+        assertEquals(stats.getFetchedStates().getTotalCount(), 2);
+        assertEquals(stats.getDeserializedStates().getTotalCount(), 2);
+        stateFetcher.stop();
+    }
 }
@@ -50,10 +50,15 @@ import java.util.Set;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.spi.ErrorType.USER_ERROR;
 import static io.prestosql.spi.StandardErrorCode.CLUSTER_OUT_OF_MEMORY;
+import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
@@ -131,7 +136,7 @@ public class TestStateUpdater
         stateUpdater.unregisterQuery(STATE_COLLECTION_QUERY, managedQueryExecution);
     }
 
-    private BasicQueryInfo createBasicQueryInfo()
+    private BasicQueryInfo createBasicQueryInfo(QueryState queryState)
     {
         QueryInfo queryInfo = Mockito.mock(QueryInfo.class);
         when(queryInfo.getQueryStats()).then(new Returns(Mockito.mock(QueryStats.class)));
@@ -148,7 +153,7 @@ public class TestStateUpdater
         ResourceGroupId resourceGroupId = new ResourceGroupId(GLOBAL_RESOURCE_ID);
         Optional<ResourceGroupId> optionalResourceGroupId = Optional.of(resourceGroupId);
         when(queryInfo.getResourceGroupId()).then(new Returns(optionalResourceGroupId));
-        when(queryInfo.getState()).then(new Returns(QueryState.FINISHED));
+        when(queryInfo.getState()).then(new Returns(queryState));
         URI mockURI = URI.create(URI_LOCALHOST);
         when(queryInfo.getSelf()).then(new Returns(mockURI));
         String mockQuery = QUERY_STRING;
@@ -166,9 +171,14 @@ public class TestStateUpdater
     }
 
     private DispatchQuery mockDispatchQueryData(boolean userError)
+    {
+        return mockDispatchQueryData(userError, QueryState.FINISHED);
+    }
+
+    private DispatchQuery mockDispatchQueryData(boolean userError, QueryState queryState)
     {
         DispatchQuery dispatchQuery = Mockito.mock(LocalDispatchQuery.class);
-        BasicQueryInfo basicQueryInfo = createBasicQueryInfo();
+        BasicQueryInfo basicQueryInfo = createBasicQueryInfo(queryState);
         when(dispatchQuery.getBasicQueryInfo()).then(new Returns(basicQueryInfo));
         when(dispatchQuery.getSession()).then(new Returns(TEST_SESSION));
         ErrorCode errorCode;
@@ -230,4 +240,29 @@ public class TestStateUpdater
         int numberOfCalls = mockingDetails(stateStoreProvider.getStateStore().getStateCollection(any())).getInvocations().size();
         assertNotEquals(numberOfCalls, ERROR_CODE_VALUE_INDEX_TIME_NO_INVOCATION);
     }
+
+    @Test
+    public void testUnchangedStatesNotUpdated()
+            throws JsonProcessingException
+    {
+        DispatchQuery dispatchQuery = mockDispatchQueryData(false, QueryState.RUNNING);
+        StateStoreProvider stateStoreProvider = Mockito.mock(LocalStateStoreProvider.class);
+        StateSyncStats stats = new StateSyncStats();
+        StateUpdater stateUpdater = new StateUpdater(stateStoreProvider, updateInterval, new Duration(1, HOURS), stats);
+        stateUpdater.registerQuery(STATE_COLLECTION_QUERY, dispatchQuery);
+        StateMap stateMap = Mockito.mock(StateMap.class);
+        when(stateStoreProvider.getStateStore()).then(new Returns(stateStore));
+        when(stateStore.getStateCollection(any())).then(new Returns(stateMap));
+
+        stateUpdater.updateStates();
+        stateUpdater.updateStates();
+        verify(stateMap, times(1)).put(eq(MOCK_QUERY_ID), any());
+        assertEquals(stats.getUpdatedStates().getTotalCount(), 1);
+        assertEquals(stats.getUnchangedStates().getTotalCount(), 1);
+
+        // a changed state is updated again
+        when(dispatchQuery.getTotalCpuTime()).then(new Returns(new Duration(1, SECONDS)));
+        stateUpdater.updateStates();
+        verify(stateMap, times(2)).put(eq(MOCK_QUERY_ID), any());
+    }
 }
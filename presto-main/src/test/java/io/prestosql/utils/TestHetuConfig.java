@@ -49,6 +49,7 @@ public class TestHetuConfig
                 .setStateUpdateInterval(new Duration(100, TimeUnit.MILLISECONDS))
                 .setQuerySubmitTimeout(new Duration(10, TimeUnit.SECONDS))
                 .setStateExpireTime(new Duration(60, TimeUnit.SECONDS))
+                .setStateRefreshInterval(new Duration(5, TimeUnit.SECONDS))
                 .setDataCenterSplits(5)
                 .setDataCenterConsumerTimeout(new Duration(10, TimeUnit.MINUTES))
                 .setSplitCacheMapEnabled(false)
@@ -82,6 +83,7 @@ public class TestHetuConfig
                 .put("hetu.multiple-coordinator.state-expire-time", "20s")
                 .put("hetu.multiple-coordinator.state-fetch-interval", "5s")
                 .put("hetu.multiple-coordinator.state-update-interval", "5s")
+                .put("hetu.multiple-coordinator.state-refresh-interval", "10s")
                 .put("hetu.data.center.split.count", "10")
                 .put("hetu.data.center.consumer.timeout", "5m")
                 .put("hetu.split-cache-map.enabled", "true")
@@ -112,6 +114,7 @@ public class TestHetuConfig
                 .setStateExpireTime(new Duration(20, TimeUnit.SECONDS))
                 .setStateFetchInterval(new Duration(5, TimeUnit.SECONDS))
                 .setStateUpdateInterval(new Duration(5, TimeUnit.SECONDS))
+                .setStateRefreshInterval(new Duration(10, TimeUnit.SECONDS))
                 .setDataCenterSplits(10)
                 .setDataCenterConsumerTimeout(new Duration(5, TimeUnit.MINUTES))
                 .setSplitCacheMapEnabled(true)
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.prestosql.orc.stream.OrcDataOutput;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes each stripe to the delegate sink in the background. The stripe data is not copied,
+ * so the writer must not reuse its buffers until {@link #isBlocked} completes.
+ */
+public class AsyncOrcDataSink
+        implements OrcDataSink
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(AsyncOrcDataSink.class).instanceSize();
+
+    private final OrcDataSink delegate;
+    private final Executor executor;
+
+    private ListenableFuture<?> pendingWrite = immediateFuture(null);
+    private long size;
+
+    public AsyncOrcDataSink(OrcDataSink delegate, Executor executor)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.size = delegate.size();
+    }
+
+    /**
+     * Number of bytes written to this sink so far, including the bytes not yet written to the delegate.
+     */
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + delegate.getRetainedSizeInBytes();
+    }
+
+    @Override
+    public void write(List<OrcDataOutput> outputData)
+            throws IOException
+    {
+        // the delegate only takes one write at a time, and earlier failures are reported here
+        waitFor(pendingWrite);
+
+        size += outputData.stream()
+                .mapToLong(OrcDataOutput::size)
+                .sum();
+
+        SettableFuture<Void> write = SettableFuture.create();
+        pendingWrite = write;
+        executor.execute(() -> {
+            try {
+                delegate.write(outputData);
+                write.set(null);
+            }
+            catch (Throwable t) {
+                write.setException(t);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        return pendingWrite;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try {
+            waitFor(pendingWrite);
+        }
+        finally {
+            delegate.close();
+        }
+    }
+
+    private static void waitFor(ListenableFuture<?> future)
+            throws IOException
+    {
+        try {
+            future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing ORC data");
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throwIfInstanceOf(cause, IOException.class);
+            throwIfInstanceOf(cause, RuntimeException.class);
+            throw new IOException(cause);
+        }
+    }
+}
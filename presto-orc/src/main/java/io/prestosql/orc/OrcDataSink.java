@@ -13,11 +13,14 @@
  */
 package io.prestosql.orc;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.orc.stream.OrcDataOutput;
 
 import java.io.IOException;
 import java.util.List;
 
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+
 public interface OrcDataSink
 {
     /**
@@ -36,6 +39,15 @@ public interface OrcDataSink
     void write(List<OrcDataOutput> outputData)
             throws IOException;
 
+    /**
+     * Returns a future that completes once the data of the last {@link #write} has been written.
+     * Until then, the caller must not modify that data.
+     */
+    default ListenableFuture<?> isBlocked()
+    {
+        return immediateFuture(null);
+    }
+
     /**
      * ORC file is complete
      */
@@ -16,6 +16,9 @@ package io.prestosql.orc;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
@@ -48,6 +51,7 @@ import javax.annotation.Nullable;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -56,14 +60,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Futures.allAsList;
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.orc.OrcReader.validateFile;
 import static io.prestosql.orc.OrcWriterStats.FlushReason.CLOSED;
@@ -118,8 +129,10 @@ public final class OrcWriter
     private long closedStripesRetainedBytes;
     private long previouslyRecordedSizeInBytes;
     private boolean closed;
+    private boolean stripeWritePending;
     private final Optional<Callable<Void>> preStripeFlushCallback;
     private final Optional<Callable<Void>> preCloseCallback;
+    private final Optional<Executor> columnEncodingExecutor;
 
     @Nullable
     private final OrcWriteValidationBuilder validationBuilder;
@@ -137,6 +150,27 @@ public final class OrcWriter
             OrcWriterStats stats,
             Optional<Callable<Void>> preStripeFlushCallback,
             Optional<Callable<Void>> preCloseCallback)
+    {
+        this(orcDataSink, columnNames, types, compression, options, writeLegacyVersion, userMetadata, validate, validationMode, stats, preStripeFlushCallback, preCloseCallback, Optional.empty());
+    }
+
+    /**
+     * @param columnEncodingExecutor when present, the column writers of each stripe are closed in parallel on this executor
+     */
+    public OrcWriter(
+            OrcDataSink orcDataSink,
+            List<String> columnNames,
+            List<Type> types,
+            CompressionKind compression,
+            OrcWriterOptions options,
+            boolean writeLegacyVersion,
+            Map<String, String> userMetadata,
+            boolean validate,
+            OrcWriteValidationMode validationMode,
+            OrcWriterStats stats,
+            Optional<Callable<Void>> preStripeFlushCallback,
+            Optional<Callable<Void>> preCloseCallback,
+            Optional<Executor> columnEncodingExecutor)
     {
         this.validationBuilder = validate ? new OrcWriteValidationBuilder(validationMode, types)
                 .setStringStatisticsLimitInBytes(toIntExact(options.getMaxStringStatisticsLimit().toBytes())) : null;
@@ -203,6 +237,7 @@ public final class OrcWriter
         stats.updateSizeInBytes(previouslyRecordedSizeInBytes);
         this.preStripeFlushCallback = preStripeFlushCallback;
         this.preCloseCallback = preCloseCallback;
+        this.columnEncodingExecutor = requireNonNull(columnEncodingExecutor, "columnEncodingExecutor is null");
     }
 
     private Map<String, String> buildUserMetadata(Map<String, String> userMetadata)
@@ -238,6 +273,15 @@ public final class OrcWriter
                 (validationBuilder == null ? 0 : validationBuilder.getRetainedSize());
     }
 
+    /**
+     * Returns a future that completes once the last stripe has been written.
+     * Writing before then waits for the stripe.
+     */
+    public ListenableFuture<?> isBlocked()
+    {
+        return orcDataSink.isBlocked();
+    }
+
     public void write(Page inputPage)
             throws IOException
     {
@@ -282,17 +326,19 @@ public final class OrcWriter
     private void writeChunk(Page chunk)
             throws IOException
     {
+        if (stripeWritePending) {
+            openNextStripe();
+        }
+
         if (rowGroupRowCount == 0) {
             columnWriters.forEach(ColumnWriter::beginRowGroup);
         }
 
         // write chunks
-        bufferedBytes = 0;
         for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
-            ColumnWriter writer = columnWriters.get(channel);
-            writer.writeBlock(chunk.getBlock(channel));
-            bufferedBytes += writer.getBufferedBytes();
+            columnWriters.get(channel).writeBlock(chunk.getBlock(channel));
         }
+        bufferedBytes = toIntExact(columnWriters.stream().mapToLong(ColumnWriter::getBufferedBytes).sum());
 
         // update stats
         rowGroupRowCount += chunk.getPositionCount();
@@ -322,6 +368,60 @@ public final class OrcWriter
         columnWritersRetainedBytes = columnWriters.stream().mapToLong(ColumnWriter::getRetainedBytes).sum();
     }
 
+    /**
+     * Runs the tasks on the writer thread and on the column encoding executor. The writer thread takes
+     * every task the executor has not started, so it only waits for tasks that are already running.
+     * Each task must only touch a single column writer.
+     */
+    private void runColumnTasks(List<Runnable> tasks)
+            throws IOException
+    {
+        Queue<Runnable> queuedTasks = new ConcurrentLinkedQueue<>();
+        List<SettableFuture<Void>> futures = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            SettableFuture<Void> future = SettableFuture.create();
+            queuedTasks.add(() -> {
+                try {
+                    task.run();
+                    future.set(null);
+                }
+                catch (Throwable t) {
+                    future.setException(t);
+                }
+            });
+            futures.add(future);
+        }
+        Runnable runQueuedTasks = () -> {
+            Runnable task = queuedTasks.poll();
+            while (task != null) {
+                task.run();
+                task = queuedTasks.poll();
+            }
+        };
+
+        List<ListenableFutureTask<Void>> helpers = new ArrayList<>(tasks.size() - 1);
+        for (int i = 1; i < tasks.size(); i++) {
+            ListenableFutureTask<Void> helper = ListenableFutureTask.create(runQueuedTasks, null);
+            columnEncodingExecutor.get().execute(helper);
+            helpers.add(helper);
+        }
+        runQueuedTasks.run();
+        // helpers the executor has not started yet have nothing left to do
+        helpers.forEach(helper -> helper.cancel(false));
+
+        try {
+            allAsList(futures).get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding ORC columns");
+        }
+        catch (ExecutionException e) {
+            throwIfUnchecked(e.getCause());
+            throw new IOException(e.getCause());
+        }
+    }
+
     private void finishRowGroup()
     {
         Map<OrcColumnId, ColumnStatistics> columnStatistics = new HashMap<>();
@@ -358,12 +458,36 @@ public final class OrcWriter
         // write all data
         orcDataSink.write(outputData);
 
-        // open next stripe
-        columnWriters.forEach(ColumnWriter::reset);
-        dictionaryCompressionOptimizer.reset();
+        // the sink may still be writing from the buffers of the column writers, so they are reset once it is done
+        stripeWritePending = true;
         rowGroupRowCount = 0;
         stripeRowCount = 0;
+        bufferedBytes = 0;
+        if (orcDataSink.isBlocked().isDone()) {
+            openNextStripe();
+        }
+    }
+
+    private void openNextStripe()
+            throws IOException
+    {
+        try {
+            orcDataSink.isBlocked().get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing ORC data");
+        }
+        catch (ExecutionException e) {
+            throwIfInstanceOf(e.getCause(), IOException.class);
+            throwIfUnchecked(e.getCause());
+            throw new IOException(e.getCause());
+        }
+
+        columnWriters.forEach(ColumnWriter::reset);
+        dictionaryCompressionOptimizer.reset();
         bufferedBytes = toIntExact(columnWriters.stream().mapToLong(ColumnWriter::getBufferedBytes).sum());
+        stripeWritePending = false;
     }
 
     /**
@@ -387,7 +511,14 @@ public final class OrcWriter
         // convert any dictionary encoded column with a low compression ratio to direct
         dictionaryCompressionOptimizer.finalOptimize(bufferedBytes);
 
-        columnWriters.forEach(ColumnWriter::close);
+        if (columnEncodingExecutor.isPresent() && columnWriters.size() > 1) {
+            runColumnTasks(columnWriters.stream()
+                    .map(columnWriter -> (Runnable) columnWriter::close)
+                    .collect(toList()));
+        }
+        else {
+            columnWriters.forEach(ColumnWriter::close);
+        }
 
         List<OrcDataOutput> outputData = new ArrayList<>();
         List<Stream> allStreams = new ArrayList<>(columnWriters.size() * 3);
@@ -461,6 +592,9 @@ public final class OrcWriter
         stats.updateSizeInBytes(-previouslyRecordedSizeInBytes);
         previouslyRecordedSizeInBytes = 0;
 
+        if (stripeWritePending) {
+            openNextStripe();
+        }
         flushStripe(CLOSED);
 
         orcDataSink.close();
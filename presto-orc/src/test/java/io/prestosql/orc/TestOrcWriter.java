@@ -35,7 +35,12 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static io.airlift.testing.Assertions.assertGreaterThanOrEqual;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
@@ -46,7 +51,10 @@ import static io.prestosql.orc.TestingOrcPredicate.ORC_STRIPE_SIZE;
 import static io.prestosql.orc.metadata.CompressionKind.NONE;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.toIntExact;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestOrcWriter
 {
@@ -120,4 +128,76 @@ public class TestOrcWriter
             }
         }
     }
+
+    @Test
+    public void testParallelEncodingAndAsyncFlush()
+            throws IOException
+    {
+        ExecutorService encodingExecutor = newCachedThreadPool();
+        List<Runnable> deferredFlushes = new ArrayList<>();
+        AtomicBoolean deferFlushes = new AtomicBoolean(true);
+        Executor flushExecutor = task -> {
+            if (deferFlushes.get()) {
+                deferredFlushes.add(task);
+            }
+            else {
+                task.run();
+            }
+        };
+        try {
+            TempFile tempFile = new TempFile();
+            OrcWriter writer = new OrcWriter(
+                    new AsyncOrcDataSink(new OutputStreamOrcDataSink(new FileOutputStream(tempFile.getFile())), flushExecutor),
+                    ImmutableList.of("test1", "test2", "test3"),
+                    ImmutableList.of(VARCHAR, VARCHAR, VARCHAR),
+                    NONE,
+                    new OrcWriterOptions()
+                            .withStripeMinSize(new DataSize(0, MEGABYTE))
+                            .withStripeMaxSize(new DataSize(32, MEGABYTE))
+                            .withStripeMaxRowCount(ORC_STRIPE_SIZE)
+                            .withRowGroupMaxRowCount(ORC_ROW_GROUP_SIZE)
+                            .withDictionaryMaxMemory(new DataSize(32, MEGABYTE)),
+                    false,
+                    ImmutableMap.of(),
+                    true,
+                    OrcWriteValidationMode.BOTH,
+                    new OrcWriterStats(),
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.of(encodingExecutor));
+
+            // a full stripe is handed to the sink, and the writer is blocked until the sink has written it
+            writer.write(createPage(0, ORC_STRIPE_SIZE));
+            assertEquals(deferredFlushes.size(), 1);
+            assertFalse(writer.isBlocked().isDone());
+            deferredFlushes.remove(0).run();
+            assertTrue(writer.isBlocked().isDone());
+
+            deferFlushes.set(false);
+            writer.write(createPage(ORC_STRIPE_SIZE, ORC_STRIPE_SIZE + 1));
+            writer.close();
+
+            DataSize dataSize = new DataSize(1, MEGABYTE);
+            OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), dataSize, dataSize, dataSize, true, tempFile.getFile().lastModified());
+            assertEquals(orcDataSource.getSize(), tempFile.getFile().length());
+            assertEquals(new OrcReader(orcDataSource, dataSize, dataSize, dataSize).getFooter().getStripes().size(), 3);
+            writer.validate(orcDataSource);
+        }
+        finally {
+            encodingExecutor.shutdownNow();
+        }
+    }
+
+    private static Page createPage(int start, int entries)
+    {
+        Block[] blocks = new Block[3];
+        for (int i = 0; i < blocks.length; i++) {
+            BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, entries);
+            for (int j = start; j < start + entries; j++) {
+                VARCHAR.writeString(blockBuilder, i + "-" + j);
+            }
+            blocks[i] = blockBuilder.build();
+        }
+        return new Page(blocks);
+    }
 }